@@ -3,6 +3,7 @@ plugins {
     id("application")
     id("checkstyle")
     id("jacoco")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "br.com.dio"
@@ -10,8 +11,10 @@ version = "1.0.0"
 description = "Sistema de Gerenciamento de Boards Kanban"
 
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
-    targetCompatibility = JavaVersion.VERSION_17
+    toolchain {
+        // Virtual threads do modo servidor (br.com.dio.server)
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
 }
 
 repositories {
@@ -21,7 +24,10 @@ repositories {
 dependencies {
     // Core dependencies
     implementation("org.liquibase:liquibase-core:4.29.1")
-    implementation("mysql:mysql-connector-java:8.0.33")
+    // 9.x: locks no lugar de synchronized, sem prender as virtual threads do modo servidor
+    implementation("com.mysql:mysql-connector-j:9.1.0")
+    implementation("com.zaxxer:HikariCP:5.1.0")
+    implementation("org.hdrhistogram:HdrHistogram:2.2.2")
     implementation("org.projectlombok:lombok:1.18.34")
     
     // Logging
@@ -43,12 +49,45 @@ dependencies {
     testImplementation("com.h2database:h2:2.2.224")
     
     annotationProcessor("org.projectlombok:lombok:1.18.34")
+
+    // Benchmarks (src/jmh)
+    jmh("com.h2database:h2:2.2.224")
+    jmhAnnotationProcessor("org.projectlombok:lombok:1.18.34")
 }
 
 application {
     mainClass.set("br.com.dio.Main")
 }
 
+tasks.named<JavaExec>("run") {
+    // ./gradlew run -Plogging=production usa src/main/resources/logback-production.xml
+    project.findProperty("logging")?.let { profile ->
+        systemProperty("logback.configurationFile", "logback-$profile.xml")
+    }
+}
+
+// ./gradlew loadTest -Pload.board=1 -Pload.clients=200 -Pload.seconds=30 (servidor já em execução)
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Mede req/s e latência p99 contra o modo servidor"
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("br.com.dio.server.LoadGenerator")
+    args = listOf("host", "port", "board", "clients", "seconds", "warmup").mapNotNull { name ->
+        project.findProperty("load.$name")?.let { "--$name=$it" }
+    }
+}
+
+// ./gradlew groupCommitBenchmark -Pbench.board=1 -Pbench.clients=64 -Pbench.windows=off,0,250,1000,5000
+tasks.register<JavaExec>("groupCommitBenchmark") {
+    group = "verification"
+    description = "Mede escritas/s do CardService para cada janela do group commit"
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("br.com.dio.server.GroupCommitBenchmark")
+    args = listOf("board", "clients", "seconds", "windows", "batch").mapNotNull { name ->
+        project.findProperty("bench.$name")?.let { "--$name=$it" }
+    }
+}
+
 tasks.test {
     useJUnitPlatform()
     finalizedBy(tasks.jacocoTestReport)
@@ -65,6 +104,37 @@ tasks.check {
     dependsOn(tasks.jacocoTestReport)
 }
 
+sourceSets {
+    named("jmh") {
+        resources.srcDir("src/test/resources/db")
+    }
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    val jmhIncludes = project.findProperty("jmh.includes")?.toString()
+    includes.set(listOfNotNull(jmhIncludes))
+    // StatementCacheBenchmark precisa de um MySQL no ar; só roda quando pedido com -Pjmh.includes
+    if (jmhIncludes == null) {
+        excludes.set(listOf("StatementCacheBenchmark"))
+    }
+    // Tamanho do dataset: ./gradlew jmh -Pjmh.cardsPerColumn=1000,100000 -Pjmh.blocksPerCard=5
+    // Custo de parse/plano sem e com cache de comandos do H2: -Pjmh.queryCacheSize=0,8
+    // Round trips de prepare no MySQL: -Pjmh.includes=StatementCacheBenchmark -Pjmh.statementCache=off,cached
+    listOf(
+        "boards", "columnsPerBoard", "cardsPerColumn", "blocksPerCard", "queryCacheSize",
+        "mysqlUrl", "statementCache", "cards"
+    ).forEach { name ->
+        project.findProperty("jmh.$name")?.let { value ->
+            benchmarkParameters.put(name, project.objects.listProperty<String>().value(value.toString().split(",")))
+        }
+    }
+}
+
 tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
     options.compilerArgs.addAll(listOf("-Xlint:unchecked", "-Xlint:deprecation"))
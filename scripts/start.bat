@@ -38,7 +38,7 @@ REM Função para verificar se o Java está instalado
 java -version >nul 2>&1
 if errorlevel 1 (
     call :print_error "Java não está instalado ou não está no PATH"
-    call :print_message "Por favor, instale o Java 17 ou superior"
+    call :print_message "Por favor, instale o Java 21 ou superior"
     exit /b 1
 )
 
@@ -48,8 +48,8 @@ for /f "tokens=3" %%g in ('java -version 2^>^&1 ^| findstr /i "version"') do (
     for /f "tokens=1 delims=." %%v in ("!JAVA_VERSION!") do set JAVA_MAJOR=%%v
 )
 
-if !JAVA_MAJOR! LSS 17 (
-    call :print_error "Java 17 ou superior é necessário. Versão atual: !JAVA_MAJOR!"
+if !JAVA_MAJOR! LSS 21 (
+    call :print_error "Java 21 ou superior é necessário. Versão atual: !JAVA_MAJOR!"
     exit /b 1
 )
 
@@ -38,13 +38,13 @@ print_header() {
 check_java() {
     if ! command -v java &> /dev/null; then
         print_error "Java não está instalado ou não está no PATH"
-        print_message "Por favor, instale o Java 17 ou superior"
+        print_message "Por favor, instale o Java 21 ou superior"
         exit 1
     fi
     
     JAVA_VERSION=$(java -version 2>&1 | head -n 1 | cut -d'"' -f2 | cut -d'.' -f1)
-    if [ "$JAVA_VERSION" -lt 17 ]; then
-        print_error "Java 17 ou superior é necessário. Versão atual: $JAVA_VERSION"
+    if [ "$JAVA_VERSION" -lt 21 ]; then
+        print_error "Java 21 ou superior é necessário. Versão atual: $JAVA_VERSION"
         exit 1
     fi
     
@@ -0,0 +1,29 @@
+package br.com.dio.benchmark;
+
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.service.BoardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoardBenchmark {
+
+    @Benchmark
+    public void findByBoardIdWithDetails(final BoardDataset dataset, final Blackhole blackhole) throws SQLException {
+        blackhole.consume(new BoardColumnDAO(dataset.connection()).findByBoardIdWithDetails(dataset.nextBoardId()));
+        dataset.connection().commit();
+    }
+
+    @Benchmark
+    public void insert(final BoardDataset dataset, final Blackhole blackhole) throws SQLException {
+        blackhole.consume(new BoardService(dataset.connection()).insert(dataset.newBoard("Board de benchmark")));
+    }
+
+}
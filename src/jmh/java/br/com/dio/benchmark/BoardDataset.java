@@ -0,0 +1,232 @@
+package br.com.dio.benchmark;
+
+import br.com.dio.dto.BoardColumnInfoDTO;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.service.BoardService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
+
+/**
+ * Banco H2 em memória (modo MySQL) populado com boards × colunas × cards × bloqueios.
+ * Os tamanhos podem ser trocados com -Pjmh.boards, -Pjmh.columnsPerBoard, -Pjmh.cardsPerColumn e -Pjmh.blocksPerCard.
+ * {@code queryCacheSize} é o cache de comandos já analisados do H2 por sessão (0 desliga). Ele mede só o parse
+ * dentro do processo; os round trips de prepare do Connector/J são medidos pelo {@link StatementCacheBenchmark}.
+ */
+@State(Scope.Benchmark)
+public class BoardDataset {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param("2")
+    public int boards;
+
+    @Param("5")
+    public int columnsPerBoard;
+
+    @Param({"100", "10000"})
+    public int cardsPerColumn;
+
+    @Param("2")
+    public int blocksPerCard;
+
+    @Param("8")
+    public int queryCacheSize;
+
+    private Connection connection;
+    private final List<Long> boardIds = new ArrayList<>();
+    private final List<List<BoardColumnInfoDTO>> boardColumns = new ArrayList<>();
+    private long[] cardIds;
+    private long[] initialCardIds;
+    private int[] initialCardBoards;
+    private int[] initialCardMoves;
+    private int nextCard;
+    private int nextInitialCard;
+    private int nextBoard;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        if (columnsPerBoard < 3) {
+            throw new IllegalArgumentException("columnsPerBoard deve ser no mínimo 3 (inicial, final e cancelamento)");
+        }
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:board-bench-%s;MODE=MySQL;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=%s"
+                        .formatted(UUID.randomUUID(), queryCacheSize));
+        connection.setAutoCommit(false);
+        try (var statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:h2-schema.sql'");
+        }
+        connection.commit();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        connection.close();
+    }
+
+    public Connection connection() {
+        return connection;
+    }
+
+    public BoardEntity newBoard(final String name) {
+        var board = new BoardEntity();
+        board.setName(name);
+        for (var order = 0; order < columnsPerBoard; order++) {
+            var column = new BoardColumnEntity();
+            column.setName("Coluna %s".formatted(order));
+            column.setOrder(order);
+            column.setKind(kindOf(order));
+            board.addColumn(column);
+        }
+        return board;
+    }
+
+    public Long nextBoardId() {
+        var id = boardIds.get(nextBoard);
+        nextBoard = (nextBoard + 1) % boardIds.size();
+        return id;
+    }
+
+    public long nextCardId() {
+        var id = cardIds[nextCard];
+        nextCard = (nextCard + 1) % cardIds.length;
+        return id;
+    }
+
+    /**
+     * Próximo card que ainda pode avançar de coluna. Cards que chegaram à coluna final voltam para a inicial
+     * antes de serem devolvidos, então o custo do reset é diluído a cada {@code columnsPerBoard - 2} movimentos.
+     */
+    public long nextMovableCardId() throws SQLException {
+        var index = nextInitialCard;
+        nextInitialCard = (nextInitialCard + 1) % initialCardIds.length;
+        if (initialCardMoves[index] == columnsPerBoard - 2) {
+            var initialColumnId = boardColumns.get(initialCardBoards[index]).get(0).id();
+            new CardDAO(connection).moveToColumn(initialColumnId, initialCardIds[index]);
+            connection.commit();
+            initialCardMoves[index] = 0;
+        }
+        initialCardMoves[index]++;
+        return initialCardIds[index];
+    }
+
+    public List<BoardColumnInfoDTO> columnsOfMovableCard(final long cardId) {
+        var index = nextInitialCard == 0 ? initialCardIds.length - 1 : nextInitialCard - 1;
+        if (initialCardIds[index] != cardId) {
+            throw new IllegalStateException("Card %s não é o último card devolvido".formatted(cardId));
+        }
+        return boardColumns.get(initialCardBoards[index]);
+    }
+
+    private void seed() throws SQLException {
+        var boardService = new BoardService(connection);
+        var cardDAO = new CardDAO(connection);
+        List<Long> allCards = new ArrayList<>();
+        List<Long> initialCards = new ArrayList<>();
+        List<Integer> initialBoards = new ArrayList<>();
+        for (var b = 0; b < boards; b++) {
+            var board = boardService.insert(newBoard("Board %s".formatted(b)));
+            boardIds.add(board.getId());
+            boardColumns.add(board.getBoardColumns().stream()
+                    .map(c -> new BoardColumnInfoDTO(c.getId(), c.getOrder(), c.getKind()))
+                    .toList());
+            for (var column : board.getBoardColumns()) {
+                for (var start = 0; start < cardsPerColumn; start += BATCH_SIZE) {
+                    List<CardEntity> cards = new ArrayList<>();
+                    for (var c = start; c < Math.min(start + BATCH_SIZE, cardsPerColumn); c++) {
+                        var card = new CardEntity();
+                        card.setTitle("Card %s-%s".formatted(column.getId(), c));
+                        card.setDescription("Descrição do card %s".formatted(c));
+                        card.setBoardColumn(column);
+                        cards.add(card);
+                    }
+                    cardDAO.insert(cards);
+                    insertClosedBlocks(cards);
+                    connection.commit();
+                    for (var card : cards) {
+                        allCards.add(card.getId());
+                        if (column.getKind() == INITIAL) {
+                            initialCards.add(card.getId());
+                            initialBoards.add(b);
+                        }
+                    }
+                }
+            }
+            new BoardColumnDAO(connection).recountCards(board.getId());
+            connection.commit();
+        }
+        cardIds = allCards.stream().mapToLong(Long::longValue).toArray();
+        initialCardIds = initialCards.stream().mapToLong(Long::longValue).toArray();
+        initialCardBoards = initialBoards.stream().mapToInt(Integer::intValue).toArray();
+        initialCardMoves = new int[initialCardIds.length];
+    }
+
+    private void insertClosedBlocks(final List<CardEntity> cards) throws SQLException {
+        if (blocksPerCard == 0) {
+            return;
+        }
+        var sql = "INSERT INTO BLOCKS (blocked_at, block_reason, unblocked_at, unblock_reason, card_id) "
+                + "VALUES (?, ?, ?, ?, ?)";
+        var now = Instant.now();
+        try (var statement = connection.prepareStatement(sql)) {
+            for (var card : cards) {
+                for (var i = 0; i < blocksPerCard; i++) {
+                    statement.setTimestamp(1, Timestamp.from(now.minusSeconds(3_600L * (i + 1))));
+                    statement.setString(2, "Bloqueio %s".formatted(i));
+                    statement.setTimestamp(3, Timestamp.from(now.minusSeconds(3_600L * i + 60)));
+                    statement.setString(4, "Desbloqueio %s".formatted(i));
+                    statement.setLong(5, card.getId());
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+        var statsSql = "UPDATE CARDS SET blocks_amount = ?, blocked_seconds = ? WHERE id = ?";
+        try (var statement = connection.prepareStatement(statsSql)) {
+            for (var card : cards) {
+                statement.setInt(1, blocksPerCard);
+                statement.setLong(2, blocksPerCard * 3_540L);
+                statement.setLong(3, card.getId());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private BoardColumnKindEnum kindOf(final int order) {
+        if (order == 0) {
+            return INITIAL;
+        }
+        if (order == columnsPerBoard - 1) {
+            return CANCEL;
+        }
+        return order == columnsPerBoard - 2 ? FINAL : PENDING;
+    }
+
+}
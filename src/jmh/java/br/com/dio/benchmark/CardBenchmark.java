@@ -0,0 +1,29 @@
+package br.com.dio.benchmark;
+
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.service.CardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardBenchmark {
+
+    @Benchmark
+    public void findById(final BoardDataset dataset, final Blackhole blackhole) throws SQLException {
+        blackhole.consume(new CardDAO(dataset.connection()).findById(dataset.nextCardId()));
+    }
+
+    @Benchmark
+    public void moveToNextColumn(final BoardDataset dataset) throws SQLException {
+        var cardId = dataset.nextMovableCardId();
+        new CardService(dataset.connection()).moveToNextColumn(cardId, dataset.columnsOfMovableCard(cardId));
+    }
+
+}
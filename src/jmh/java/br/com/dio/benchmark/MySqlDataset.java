@@ -0,0 +1,146 @@
+package br.com.dio.benchmark;
+
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.migration.MigrationStrategy;
+import br.com.dio.service.BoardService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Board populado em um MySQL de verdade (o do docker-compose por padrão, trocado com -Pjmh.mysqlUrl).
+ * {@code statementCache} liga as propriedades do Connector/J que o pool usa em produção:
+ * <ul>
+ *     <li>{@code off}: prepare no cliente, sem cache (padrão do driver);</li>
+ *     <li>{@code server}: {@code useServerPrepStmts} sem cache, um COM_STMT_PREPARE a cada chamada do DAO;</li>
+ *     <li>{@code cached}: {@code useServerPrepStmts} + {@code cachePrepStmts}, como em application.properties.</li>
+ * </ul>
+ * As migrações são aplicadas no setup e o board criado é removido no teardown. Ao final de cada trial é
+ * impresso o número de COM_STMT_PREPARE da sessão por operação.
+ */
+@State(Scope.Benchmark)
+public class MySqlDataset {
+
+    @Param("jdbc:mysql://localhost:3306/board")
+    public String mysqlUrl;
+
+    @Param({"off", "server", "cached"})
+    public String statementCache;
+
+    @Param("1000")
+    public int cards;
+
+    private Connection connection;
+    private Long boardId;
+    private long[] cardIds;
+    private Long firstColumnId;
+    private Long secondColumnId;
+    private boolean[] inSecondColumn;
+    private int nextCard;
+    private long operations;
+    private long preparesAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        var properties = new Properties();
+        properties.setProperty("user", "board");
+        properties.setProperty("password", "board");
+        properties.setProperty("useServerPrepStmts", String.valueOf(!statementCache.equals("off")));
+        properties.setProperty("cachePrepStmts", String.valueOf(statementCache.equals("cached")));
+        properties.setProperty("prepStmtCacheSize", "250");
+        properties.setProperty("prepStmtCacheSqlLimit", "2048");
+        connection = DriverManager.getConnection(mysqlUrl, properties);
+        connection.setAutoCommit(false);
+        new MigrationStrategy(connection).executeMigration();
+        seed();
+        preparesAtStart = sessionPrepares();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        var prepares = sessionPrepares() - preparesAtStart;
+        System.out.printf("%nstatementCache=%s: %s COM_STMT_PREPARE em %s operações (%.3f por operação)%n",
+                statementCache, prepares, operations, operations == 0 ? 0.0 : (double) prepares / operations);
+        new BoardDAO(connection).delete(boardId);
+        connection.commit();
+        connection.close();
+    }
+
+    public Connection connection() {
+        return connection;
+    }
+
+    public long nextCardId() {
+        operations++;
+        var id = cardIds[nextCard];
+        nextCard = (nextCard + 1) % cardIds.length;
+        return id;
+    }
+
+    /**
+     * Move o próximo card entre as duas primeiras colunas, alternando o sentido a cada passagem.
+     */
+    public void moveNextCard() throws SQLException {
+        var index = nextCard;
+        var cardId = nextCardId();
+        new CardDAO(connection).moveToColumn(inSecondColumn[index] ? firstColumnId : secondColumnId, cardId);
+        connection.commit();
+        inSecondColumn[index] = !inSecondColumn[index];
+    }
+
+    private void seed() throws SQLException {
+        var board = new BoardEntity();
+        board.setName("Board de benchmark (MySQL)");
+        var kinds = List.of(BoardColumnKindEnum.INITIAL, BoardColumnKindEnum.PENDING,
+                BoardColumnKindEnum.FINAL, BoardColumnKindEnum.CANCEL);
+        for (var order = 0; order < kinds.size(); order++) {
+            var column = new BoardColumnEntity();
+            column.setName("Coluna %s".formatted(order));
+            column.setOrder(order);
+            column.setKind(kinds.get(order));
+            board.addColumn(column);
+        }
+        board = new BoardService(connection).insert(board);
+        boardId = board.getId();
+        var firstColumn = board.getBoardColumns().get(0);
+        firstColumnId = firstColumn.getId();
+        secondColumnId = board.getBoardColumns().get(1).getId();
+        List<CardEntity> entities = new ArrayList<>();
+        for (var c = 0; c < cards; c++) {
+            var card = new CardEntity();
+            card.setTitle("Card %s".formatted(c));
+            card.setDescription("Descrição do card %s".formatted(c));
+            card.setBoardColumn(firstColumn);
+            entities.add(card);
+        }
+        new CardDAO(connection).insert(entities);
+        connection.commit();
+        cardIds = entities.stream().mapToLong(CardEntity::getId).toArray();
+        inSecondColumn = new boolean[cardIds.length];
+    }
+
+    private long sessionPrepares() throws SQLException {
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery("SHOW SESSION STATUS LIKE 'Com_stmt_prepare'")) {
+            var prepares = resultSet.next() ? resultSet.getLong(2) : 0;
+            connection.commit();
+            return prepares;
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package br.com.dio.benchmark;
+
+import br.com.dio.persistence.dao.CardDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por chamada do DAO contra o MySQL com e sem o cache de statements do Connector/J. Precisa de um MySQL
+ * acessível (docker compose up -d mysql); veja "Cache de statements no MySQL" no DEVELOPMENT.md.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatementCacheBenchmark {
+
+    @Benchmark
+    public void findById(final MySqlDataset dataset, final Blackhole blackhole) throws SQLException {
+        blackhole.consume(new CardDAO(dataset.connection()).findById(dataset.nextCardId()));
+        dataset.connection().commit();
+    }
+
+    @Benchmark
+    public void moveToColumn(final MySqlDataset dataset) throws SQLException {
+        dataset.moveNextCard();
+    }
+
+}
@@ -1,28 +1,73 @@
 package br.com.dio;
 
 import br.com.dio.persistence.migration.MigrationStrategy;
+import br.com.dio.persistence.repository.InMemoryBoardStore;
+import br.com.dio.server.BoardServer;
+import br.com.dio.server.HttpApiServer;
+import br.com.dio.service.BoardSnapshotService;
+import br.com.dio.service.FlowAggregator;
+import br.com.dio.service.GroupCommitExecutor;
+import br.com.dio.service.LocalBoardSnapshot;
 import br.com.dio.ui.MainMenu;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
+import static br.com.dio.persistence.config.ConnectionConfig.closePool;
 import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-import static br.com.dio.persistence.config.ConnectionConfig.closeConnection;
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
 
 public class Main {
 
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
 
+    /**
+     * Servidores iniciados nesta execução, encerrados antes de tudo no {@link #shutdown()}.
+     */
+    private static final List<AutoCloseable> servers = new CopyOnWriteArrayList<>();
+
     public static void main(String[] args) {
         logger.info("Iniciando Sistema de Gerenciamento de Boards");
+        Runtime.getRuntime().addShutdownHook(new Thread(Main::shutdown, "board-shutdown"));
         
         try {
             // Executar migrações do banco
             executeDatabaseMigrations();
+            if (InMemoryBoardStore.isEnabled()) {
+                InMemoryBoardStore.start();
+            }
+            if (GroupCommitExecutor.isEnabled()) {
+                GroupCommitExecutor.start();
+            }
+            FlowAggregator.start();
             
-            // Iniciar interface do usuário
-            startUserInterface();
+            // tempo desde a partida da JVM, para comparar execuções curtas de linha de comando
+            logger.info("Partida concluída em {} ms", ManagementFactory.getRuntimeMXBean().getUptime());
+            var options = Arrays.asList(args);
+            if (options.contains("--export") || options.contains("--import")) {
+                runSnapshot(options);
+                return;
+            }
+            if (options.contains("--http")) {
+                startHttpApi();
+            }
+            if (options.contains("--server")) {
+                startServer();
+            } else if (!options.contains("--http")) {
+                if (LocalBoardSnapshot.isEnabled()) {
+                    LocalBoardSnapshot.start();
+                }
+                // Iniciar interface do usuário
+                startUserInterface();
+            }
             
         } catch (Exception e) {
             logger.error("Erro fatal na aplicação: {}", e.getMessage(), e);
@@ -31,18 +76,76 @@ public class Main {
         }
     }
     
+    /**
+     * Um único hook, para a ordem não depender da JVM (hooks separados rodam em paralelo): primeiro os
+     * servidores param de aceitar operações, depois group commit e write-behind gravam o que está na fila, o
+     * snapshot local reflete o que foi gravado, a agregação de fluxo termina a rodada e só então o pool fecha.
+     */
+    private static void shutdown() {
+        for (var server : servers) {
+            try {
+                server.close();
+            } catch (Exception e) {
+                logger.warn("Erro ao encerrar o servidor: {}", e.getMessage());
+            }
+        }
+        GroupCommitExecutor.shutdown();
+        InMemoryBoardStore.shutdown();
+        LocalBoardSnapshot.shutdown();
+        FlowAggregator.shutdown();
+        closePool();
+    }
+
     private static void executeDatabaseMigrations() throws SQLException {
         logger.info("Executando migrações do banco de dados...");
-        
+        var start = System.nanoTime();
         try (var connection = getConnection()) {
             new MigrationStrategy(connection).executeMigration();
-            logger.info("Migrações executadas com sucesso");
+            logger.info("Migrações executadas com sucesso em {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         } catch (SQLException e) {
             logger.error("Erro ao executar migrações: {}", e.getMessage(), e);
             throw e;
         }
     }
     
+    /**
+     * {@code --export <id do board> <arquivo>} ou {@code --import <arquivo>}: exporta ou importa um board e
+     * encerra, sem abrir o menu.
+     */
+    private static void runSnapshot(final List<String> options) throws SQLException, IOException {
+        var export = options.indexOf("--export");
+        var importIndex = options.indexOf("--import");
+        if ((export >= 0 && options.size() < export + 3) || (importIndex >= 0 && options.size() < importIndex + 2)) {
+            throw new IllegalArgumentException("Uso: --export <id do board> <arquivo> | --import <arquivo>");
+        }
+        try (var connection = getConnection()) {
+            var service = new BoardSnapshotService(connection);
+            var stats = export >= 0
+                    ? service.export(Long.parseLong(options.get(export + 1)), Path.of(options.get(export + 2)))
+                    : service.importBoard(Path.of(options.get(importIndex + 1)));
+            System.out.printf("Board %s: %s colunas, %s cards e %s bloqueios (%s bytes) em %s ms, %.0f linhas/s%n",
+                    stats.boardId(), stats.columns(), stats.cards(), stats.blocks(), stats.bytes(), stats.millis(),
+                    stats.rowsPerSecond());
+        }
+    }
+
+    private static void startServer() throws IOException {
+        var server = new BoardServer(getProperty("server.host", "127.0.0.1"),
+                Integer.parseInt(getProperty("server.port", "7070").trim()),
+                Integer.parseInt(getProperty("server.backlog", "1024").trim()));
+        servers.add(server);
+        server.serve();
+    }
+
+    private static void startHttpApi() throws IOException {
+        var api = new HttpApiServer(getProperty("http.host", "127.0.0.1"),
+                Integer.parseInt(getProperty("http.port", "8080").trim()),
+                Integer.parseInt(getProperty("http.backlog", "1024").trim()));
+        servers.add(api);
+        api.start();
+    }
+
     private static void startUserInterface() {
         logger.info("Iniciando interface do usuário...");
         
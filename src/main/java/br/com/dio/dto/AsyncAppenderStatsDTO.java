@@ -0,0 +1,8 @@
+package br.com.dio.dto;
+
+public record AsyncAppenderStatsDTO(String name,
+                                    int queueSize,
+                                    int queueDepth,
+                                    long discarded,
+                                    long dropped) {
+}
@@ -0,0 +1,15 @@
+package br.com.dio.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Alteração confirmada em um board. {@code type} é o tipo do evento do card ou uma das alterações
+ * do board em {@link br.com.dio.service.BoardChangeFeed}; {@code cardId} e {@code columnId} são nulos nestas.
+ */
+public record BoardChangeDTO(long sequence,
+                             Long boardId,
+                             String type,
+                             Long cardId,
+                             Long columnId,
+                             OffsetDateTime occurredAt) {
+}
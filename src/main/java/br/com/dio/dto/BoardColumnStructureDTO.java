@@ -0,0 +1,11 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+public record BoardColumnStructureDTO(Long id, String name, int order, BoardColumnKindEnum kind) {
+
+    public BoardColumnInfoDTO toInfo() {
+        return new BoardColumnInfoDTO(id, order, kind);
+    }
+
+}
@@ -0,0 +1,9 @@
+package br.com.dio.dto;
+
+import java.time.OffsetDateTime;
+
+public record BoardSnapshotBlockDTO(OffsetDateTime blockedAt,
+                                    String blockReason,
+                                    OffsetDateTime unblockedAt,
+                                    String unblockReason) {
+}
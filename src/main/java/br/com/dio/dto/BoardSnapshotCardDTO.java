@@ -0,0 +1,12 @@
+package br.com.dio.dto;
+
+import java.util.List;
+
+public record BoardSnapshotCardDTO(long id,
+                                   long columnId,
+                                   String title,
+                                   String description,
+                                   int blocksAmount,
+                                   long blockedSeconds,
+                                   List<BoardSnapshotBlockDTO> blocks) {
+}
@@ -0,0 +1,18 @@
+package br.com.dio.dto;
+
+public record BoardSnapshotStatsDTO(Long boardId,
+                                    int columns,
+                                    long cards,
+                                    long blocks,
+                                    long bytes,
+                                    long millis) {
+
+    public long rows() {
+        return 1 + columns + cards + blocks;
+    }
+
+    public double rowsPerSecond() {
+        return millis == 0 ? rows() : rows() * 1000d / millis;
+    }
+
+}
@@ -0,0 +1,37 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.util.List;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+
+public record BoardStructureDTO(Long id,
+                                String name,
+                                List<BoardColumnStructureDTO> columns) {
+
+    public BoardStructureDTO {
+        columns = List.copyOf(columns);
+    }
+
+    public List<BoardColumnInfoDTO> columnsInfo() {
+        return columns.stream().map(BoardColumnStructureDTO::toInfo).toList();
+    }
+
+    public BoardColumnStructureDTO initialColumn() {
+        return findByKind(INITIAL);
+    }
+
+    public BoardColumnStructureDTO cancelColumn() {
+        return findByKind(CANCEL);
+    }
+
+    private BoardColumnStructureDTO findByKind(final BoardColumnKindEnum kind) {
+        return columns.stream()
+                .filter(c -> c.kind().equals(kind))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Coluna não encontrada"));
+    }
+
+}
@@ -0,0 +1,8 @@
+package br.com.dio.dto;
+
+public record CacheStatsDTO(long hits,
+                            long misses,
+                            long evictions,
+                            int size,
+                            int maxSize) {
+}
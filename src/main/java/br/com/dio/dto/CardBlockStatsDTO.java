@@ -0,0 +1,9 @@
+package br.com.dio.dto;
+
+public record CardBlockStatsDTO(Long id,
+                                String title,
+                                Long columnId,
+                                int blocksAmount,
+                                long blockedSeconds,
+                                boolean blocked) {
+}
@@ -0,0 +1,4 @@
+package br.com.dio.dto;
+
+public record CardColumnStateDTO(Long id, Long columnId, boolean blocked) {
+}
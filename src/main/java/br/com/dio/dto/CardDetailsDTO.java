@@ -9,6 +9,7 @@ public record CardDetailsDTO(Long id,
                              OffsetDateTime blockedAt,
                              String blockReason,
                              int blocksAmount,
+                             long blockedSeconds,
                              Long columnId,
                              String columnName
 ) {
@@ -0,0 +1,17 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Última posição do card registrada pelas métricas de fluxo (CARD_FLOW).
+ */
+public record CardFlowDTO(Long cardId,
+                          Long boardId,
+                          Long columnId,
+                          BoardColumnKindEnum kind,
+                          OffsetDateTime createdAt,
+                          OffsetDateTime startedAt,
+                          OffsetDateTime enteredAt) {
+}
@@ -0,0 +1,4 @@
+package br.com.dio.dto;
+
+public record CardLocationDTO(Long id, Long boardId, Long columnId) {
+}
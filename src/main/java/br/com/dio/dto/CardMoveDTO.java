@@ -0,0 +1,4 @@
+package br.com.dio.dto;
+
+public record CardMoveDTO(Long cardId, Long fromColumnId, Long toColumnId) {
+}
@@ -0,0 +1,6 @@
+package br.com.dio.dto;
+
+public record CardSearchHitDTO(Long id,
+                               String title,
+                               double score) {
+}
@@ -0,0 +1,9 @@
+package br.com.dio.dto;
+
+import java.util.List;
+
+public record CardSearchPageDTO(String query,
+                                int total,
+                                int offset,
+                                List<CardSearchHitDTO> hits) {
+}
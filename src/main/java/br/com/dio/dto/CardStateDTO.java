@@ -0,0 +1,14 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.CardEventTypeEnum;
+
+import java.time.OffsetDateTime;
+
+public record CardStateDTO(Long cardId,
+                           OffsetDateTime at,
+                           Long columnId,
+                           CardEventTypeEnum lastEvent,
+                           OffsetDateTime lastEventAt,
+                           boolean blocked,
+                           String blockReason) {
+}
@@ -0,0 +1,4 @@
+package br.com.dio.dto;
+
+public record ChangeFeedStatsDTO(int subscribers, long published, long delivered, long dropped) {
+}
@@ -0,0 +1,8 @@
+package br.com.dio.dto;
+
+public record ColumnFlowDeltaDTO(Long columnId,
+                                 long arrivals,
+                                 long departures,
+                                 long dwellSeconds,
+                                 long maxDwellSeconds) {
+}
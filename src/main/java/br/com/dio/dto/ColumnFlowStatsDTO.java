@@ -0,0 +1,22 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+public record ColumnFlowStatsDTO(Long columnId,
+                                 String name,
+                                 BoardColumnKindEnum kind,
+                                 int order,
+                                 long arrivals,
+                                 long departures,
+                                 long totalDwellSeconds,
+                                 long maxDwellSeconds) {
+
+    public long averageDwellSeconds() {
+        return departures == 0 ? 0 : totalDwellSeconds / departures;
+    }
+
+    public long wip() {
+        return arrivals - departures;
+    }
+
+}
@@ -0,0 +1,9 @@
+package br.com.dio.dto;
+
+import java.time.LocalDate;
+
+public record CumulativeFlowDTO(LocalDate date,
+                                Long columnId,
+                                long cumulativeArrivals,
+                                long wip) {
+}
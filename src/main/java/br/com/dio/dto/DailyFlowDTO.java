@@ -0,0 +1,10 @@
+package br.com.dio.dto;
+
+import java.time.LocalDate;
+
+public record DailyFlowDTO(Long boardId,
+                           Long columnId,
+                           LocalDate date,
+                           int arrivals,
+                           int departures) {
+}
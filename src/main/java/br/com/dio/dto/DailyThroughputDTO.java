@@ -0,0 +1,6 @@
+package br.com.dio.dto;
+
+import java.time.LocalDate;
+
+public record DailyThroughputDTO(LocalDate date, long finished) {
+}
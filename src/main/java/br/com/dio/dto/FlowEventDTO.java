@@ -0,0 +1,19 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.CardEventTypeEnum;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Evento de CARD_EVENTS que muda a coluna do card (CREATE, MOVE ou CANCEL), com o board e o tipo da coluna
+ * de destino, para as métricas de fluxo.
+ */
+public record FlowEventDTO(Long id,
+                           Long cardId,
+                           CardEventTypeEnum type,
+                           Long boardId,
+                           Long columnId,
+                           BoardColumnKindEnum kind,
+                           OffsetDateTime occurredAt) {
+}
@@ -0,0 +1,9 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.FlowTimeMetricEnum;
+
+public record FlowTimeBucketDTO(Long boardId,
+                                FlowTimeMetricEnum metric,
+                                int bucket,
+                                long cards) {
+}
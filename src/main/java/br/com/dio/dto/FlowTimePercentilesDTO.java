@@ -0,0 +1,10 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.FlowTimeMetricEnum;
+
+public record FlowTimePercentilesDTO(FlowTimeMetricEnum metric,
+                                     long cards,
+                                     long p50Seconds,
+                                     long p85Seconds,
+                                     long p95Seconds) {
+}
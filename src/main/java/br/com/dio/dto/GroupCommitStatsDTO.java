@@ -0,0 +1,9 @@
+package br.com.dio.dto;
+
+public record GroupCommitStatsDTO(long operations,
+                                  long failedOperations,
+                                  long batches,
+                                  long fallbackBatches,
+                                  double averageBatchSize,
+                                  int queued) {
+}
@@ -0,0 +1,12 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+public record LocalSnapshotColumnDTO(Long boardId,
+                                     String boardName,
+                                     Long id,
+                                     String name,
+                                     int order,
+                                     BoardColumnKindEnum kind,
+                                     int cardsAmount) {
+}
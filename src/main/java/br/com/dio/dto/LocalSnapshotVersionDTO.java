@@ -0,0 +1,7 @@
+package br.com.dio.dto;
+
+public record LocalSnapshotVersionDTO(long lastEventId,
+                                      long lastBoardId,
+                                      long columns,
+                                      long cards) {
+}
@@ -0,0 +1,11 @@
+package br.com.dio.dto;
+
+public record PoolStatsDTO(int activeConnections,
+                           int idleConnections,
+                           int totalConnections,
+                           int threadsAwaiting,
+                           long acquisitions,
+                           double averageWaitMillis,
+                           double maxWaitMillis,
+                           long timeouts) {
+}
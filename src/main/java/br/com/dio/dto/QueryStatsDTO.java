@@ -0,0 +1,13 @@
+package br.com.dio.dto;
+
+public record QueryStatsDTO(String sql,
+                            long executions,
+                            long errors,
+                            long rows,
+                            double totalMillis,
+                            double meanMillis,
+                            double p50Millis,
+                            double p95Millis,
+                            double p99Millis,
+                            double maxMillis) {
+}
@@ -0,0 +1,10 @@
+package br.com.dio.dto;
+
+public record SearchIndexStatsDTO(boolean built,
+                                  int documents,
+                                  int deletedDocuments,
+                                  int terms,
+                                  long postings,
+                                  long estimatedBytes,
+                                  long lastBuildMillis) {
+}
@@ -0,0 +1,9 @@
+package br.com.dio.dto;
+
+public record WriteBehindStatsDTO(int cards,
+                                  int columns,
+                                  long pendingUnits,
+                                  long flushedUnits,
+                                  long failedBatches,
+                                  long quarantinedUnits) {
+}
@@ -0,0 +1,12 @@
+package br.com.dio.exception;
+
+/**
+ * A operação não vale para o estado atual do card: outro board, card cancelado, coluna que não aceita
+ * bloqueio ou card alterado por outra operação no meio do caminho.
+ */
+public class CardConflictException extends RuntimeException{
+
+    public CardConflictException(final String message) {
+        super(message);
+    }
+}
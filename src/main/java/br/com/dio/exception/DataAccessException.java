@@ -0,0 +1,11 @@
+package br.com.dio.exception;
+
+import java.sql.SQLException;
+
+public class DataAccessException extends RuntimeException {
+
+    public DataAccessException(final String message, final SQLException cause) {
+        super(message, cause);
+    }
+
+}
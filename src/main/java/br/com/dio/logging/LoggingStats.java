@@ -0,0 +1,42 @@
+package br.com.dio.logging;
+
+import br.com.dio.dto.AsyncAppenderStatsDTO;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import lombok.NoArgsConstructor;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static lombok.AccessLevel.PRIVATE;
+import static org.slf4j.Logger.ROOT_LOGGER_NAME;
+
+@NoArgsConstructor(access = PRIVATE)
+public final class LoggingStats {
+
+    /**
+     * Profundidade da fila e descartes de cada {@link MeteredAsyncAppender} ligado ao logger raiz.
+     */
+    public static List<AsyncAppenderStatsDTO> getAsyncAppenderStats() {
+        var stats = new ArrayList<AsyncAppenderStatsDTO>();
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return stats;
+        }
+        Logger root = context.getLogger(ROOT_LOGGER_NAME);
+        var appenders = root.iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof MeteredAsyncAppender appender) {
+                stats.add(new AsyncAppenderStatsDTO(
+                        appender.getName(),
+                        appender.getQueueSize(),
+                        appender.getNumberOfElementsInQueue(),
+                        appender.getDiscardedCount(),
+                        appender.getDroppedCount()
+                ));
+            }
+        }
+        return stats;
+    }
+
+}
@@ -0,0 +1,43 @@
+package br.com.dio.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender} que contabiliza os eventos descartados, seja pelo limite de descarte
+ * (TRACE/DEBUG/INFO com a fila quase cheia), seja por fila cheia com {@code neverBlock}.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    protected void append(final ILoggingEvent eventObject) {
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            dropped.increment();
+            return;
+        }
+        super.append(eventObject);
+    }
+
+    @Override
+    protected boolean isDiscardable(final ILoggingEvent event) {
+        var discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+}
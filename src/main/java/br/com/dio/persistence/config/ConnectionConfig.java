@@ -1,5 +1,9 @@
 package br.com.dio.persistence.config;
 
+import br.com.dio.dto.PoolStatsDTO;
+import br.com.dio.persistence.metrics.QueryMetrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.NoArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,10 +11,14 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+import static java.util.Objects.isNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static lombok.AccessLevel.PRIVATE;
 
 @NoArgsConstructor(access = PRIVATE)
@@ -18,6 +26,15 @@ public final class ConnectionConfig {
     
     private static final Logger logger = LoggerFactory.getLogger(ConnectionConfig.class);
     private static final Properties properties = new Properties();
+    private static final String POOL_PREFIX = "db.pool.";
+    private static final String DATASOURCE_PREFIX = "db.datasource.";
+
+    private static final LongAdder acquisitions = new LongAdder();
+    private static final LongAdder acquireNanos = new LongAdder();
+    private static final AtomicLong maxAcquireNanos = new AtomicLong();
+    private static final LongAdder timeouts = new LongAdder();
+
+    private static volatile HikariDataSource dataSource;
     
     static {
         try (InputStream input = ConnectionConfig.class.getClassLoader()
@@ -31,17 +48,15 @@ public final class ConnectionConfig {
     }
 
     public static Connection getConnection() throws SQLException {
-        var url = properties.getProperty("db.url", "jdbc:mysql://localhost/board");
-        var user = properties.getProperty("db.username", "board");
-        var password = properties.getProperty("db.password", "board");
-        
-        logger.debug("Conectando ao banco de dados: {}", url);
-        
+        var start = System.nanoTime();
         try {
-            var connection = DriverManager.getConnection(url, user, password);
-            connection.setAutoCommit(false);
-            logger.debug("Conexão estabelecida com sucesso");
-            return connection;
+            var connection = getDataSource().getConnection();
+            recordAcquire(System.nanoTime() - start);
+            return QueryMetrics.getInstance().instrument(connection);
+        } catch (SQLTransientConnectionException e) {
+            timeouts.increment();
+            logger.error("Tempo esgotado aguardando uma conexão do pool: {}", e.getMessage());
+            throw e;
         } catch (SQLException e) {
             logger.error("Erro ao conectar ao banco de dados: {}", e.getMessage());
             throw e;
@@ -52,10 +67,99 @@ public final class ConnectionConfig {
         if (connection != null) {
             try {
                 connection.close();
-                logger.debug("Conexão fechada com sucesso");
+                logger.debug("Conexão devolvida ao pool com sucesso");
             } catch (SQLException e) {
                 logger.warn("Erro ao fechar conexão: {}", e.getMessage());
             }
         }
     }
+
+    public static String getProperty(final String key, final String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    public static PoolStatsDTO getPoolStats() {
+        var count = acquisitions.sum();
+        var averageWait = count == 0 ? 0 : toMillis(acquireNanos.sum()) / count;
+        var current = dataSource;
+        if (isNull(current) || current.isClosed()) {
+            return new PoolStatsDTO(0, 0, 0, 0, count, averageWait, toMillis(maxAcquireNanos.get()), timeouts.sum());
+        }
+        var pool = current.getHikariPoolMXBean();
+        return new PoolStatsDTO(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                count,
+                averageWait,
+                toMillis(maxAcquireNanos.get()),
+                timeouts.sum()
+        );
+    }
+
+    public static synchronized void closePool() {
+        if (dataSource != null && !dataSource.isClosed()) {
+            logger.info("Encerrando pool de conexões");
+            dataSource.close();
+        }
+    }
+
+    private static HikariDataSource getDataSource() {
+        var current = dataSource;
+        if (isNull(current)) {
+            synchronized (ConnectionConfig.class) {
+                current = dataSource;
+                if (isNull(current)) {
+                    current = new HikariDataSource(buildPoolConfig());
+                    dataSource = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static HikariConfig buildPoolConfig() {
+        var url = properties.getProperty("db.url", "jdbc:mysql://localhost/board");
+        logger.debug("Criando pool de conexões para: {}", url);
+        var config = new HikariConfig();
+        config.setPoolName("board-pool");
+        config.setJdbcUrl(url);
+        config.setUsername(properties.getProperty("db.username", "board"));
+        config.setPassword(properties.getProperty("db.password", "board"));
+        config.setDriverClassName(properties.getProperty("db.driver", "com.mysql.cj.jdbc.Driver"));
+        config.setAutoCommit(false);
+        config.setMaximumPoolSize(getPoolInt("maximumPoolSize", 10));
+        config.setMinimumIdle(getPoolInt("minimumIdle", 2));
+        config.setConnectionTimeout(getPoolLong("connectionTimeout", 30_000));
+        config.setValidationTimeout(getPoolLong("validationTimeout", 5_000));
+        config.setIdleTimeout(getPoolLong("idleTimeout", 600_000));
+        config.setMaxLifetime(getPoolLong("maxLifetime", 1_800_000));
+        config.setKeepaliveTime(getPoolLong("keepaliveTime", 300_000));
+        config.setLeakDetectionThreshold(getPoolLong("leakDetectionThreshold", 60_000));
+        properties.stringPropertyNames().stream()
+                .filter(key -> key.startsWith(DATASOURCE_PREFIX))
+                .forEach(key -> config.addDataSourceProperty(
+                        key.substring(DATASOURCE_PREFIX.length()), properties.getProperty(key).trim()));
+        return config;
+    }
+
+    private static int getPoolInt(final String key, final int defaultValue) {
+        return Integer.parseInt(properties.getProperty(POOL_PREFIX + key, String.valueOf(defaultValue)).trim());
+    }
+
+    private static long getPoolLong(final String key, final long defaultValue) {
+        return Long.parseLong(properties.getProperty(POOL_PREFIX + key, String.valueOf(defaultValue)).trim());
+    }
+
+    private static void recordAcquire(final long elapsedNanos) {
+        acquisitions.increment();
+        acquireNanos.add(elapsedNanos);
+        maxAcquireNanos.accumulateAndGet(elapsedNanos, Math::max);
+        QueryMetrics.getInstance().recordAcquire(elapsedNanos);
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / (double) MILLISECONDS.toNanos(1);
+    }
 }
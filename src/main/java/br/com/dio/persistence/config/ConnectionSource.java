@@ -0,0 +1,14 @@
+package br.com.dio.persistence.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * De onde as threads de segundo plano tiram conexões; em produção, {@link ConnectionConfig#getConnection()}.
+ */
+@FunctionalInterface
+public interface ConnectionSource {
+
+    Connection getConnection() throws SQLException;
+
+}
@@ -4,35 +4,118 @@ import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 
 import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+import static java.sql.Statement.RETURN_GENERATED_KEYS;
+import static java.util.Collections.nCopies;
 
+/**
+ * Além de gravar em BLOCKS, mantém em CARDS a quantidade de bloqueios, o tempo total bloqueado (bloqueios já
+ * encerrados) e o bloqueio aberto, para que a leitura de um card não precise agregar BLOCKS.
+ */
 @AllArgsConstructor
 public class BlockDAO {
 
     private final Connection connection;
 
     public void block(final String reason, final Long cardId) throws SQLException {
+        block(reason, cardId, OffsetDateTime.now());
+    }
+
+    public void block(final String reason, final Long cardId, final OffsetDateTime blockedAt) throws SQLException {
         var sql = "INSERT INTO BLOCKS (blocked_at, block_reason, card_id) VALUES (?, ?, ?);";
-        try(var statement = connection.prepareStatement(sql)){
+        try(var statement = connection.prepareStatement(sql, RETURN_GENERATED_KEYS)){
             var i = 1;
-            statement.setTimestamp(i ++, toTimestamp(OffsetDateTime.now()));
+            statement.setTimestamp(i ++, toTimestamp(blockedAt));
             statement.setString(i ++, reason);
             statement.setLong(i, cardId);
             statement.executeUpdate();
+            recordBlock(cardId, statement);
         }
     }
 
-    public void unblock(final String reason, final Long cardId) throws SQLException{
-        var sql = "UPDATE BLOCKS SET unblocked_at = ?, unblock_reason = ? WHERE card_id = ? AND unblock_reason IS NULL;";
-        try(var statement = connection.prepareStatement(sql)){
+    public boolean blockIfUnblocked(final String reason, final Long cardId,
+                                    final Collection<Long> blockableColumnIds) throws SQLException {
+        if (blockableColumnIds.isEmpty()){
+            return false;
+        }
+        var sql =
+                """
+                INSERT INTO BLOCKS (blocked_at, block_reason, card_id)
+                SELECT ?, ?, c.id
+                  FROM CARDS c
+                  LEFT JOIN BLOCKS b
+                    ON b.card_id = c.id
+                   AND b.unblocked_at IS NULL
+                 WHERE c.id = ?
+                   AND c.board_column_id IN (%s)
+                   AND b.id IS NULL;
+                """.formatted(String.join(", ", nCopies(blockableColumnIds.size(), "?")));
+        try(var statement = connection.prepareStatement(sql, RETURN_GENERATED_KEYS)){
             var i = 1;
             statement.setTimestamp(i ++, toTimestamp(OffsetDateTime.now()));
             statement.setString(i ++, reason);
+            statement.setLong(i ++, cardId);
+            for (var columnId : blockableColumnIds){
+                statement.setLong(i ++, columnId);
+            }
+            if (statement.executeUpdate() == 0){
+                return false;
+            }
+            recordBlock(cardId, statement);
+            return true;
+        }
+    }
+
+    public boolean unblock(final String reason, final Long cardId) throws SQLException{
+        return unblock(reason, cardId, OffsetDateTime.now());
+    }
+
+    public boolean unblock(final String reason, final Long cardId,
+                           final OffsetDateTime unblockedAt) throws SQLException{
+        var sql = "UPDATE BLOCKS SET unblocked_at = ?, unblock_reason = ? WHERE card_id = ? AND unblocked_at IS NULL;";
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            statement.setTimestamp(i ++, toTimestamp(unblockedAt));
+            statement.setString(i ++, reason);
+            statement.setLong(i, cardId);
+            if (statement.executeUpdate() == 0){
+                return false;
+            }
+        }
+        recordUnblock(cardId);
+        return true;
+    }
+
+    private void recordBlock(final Long cardId, final Statement insert) throws SQLException {
+        var sql = "UPDATE CARDS SET blocks_amount = blocks_amount + 1, open_block_id = ? WHERE id = ?;";
+        var blockId = GeneratedKeys.read(insert, 1).get(0);
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            statement.setLong(i ++, blockId);
             statement.setLong(i, cardId);
             statement.executeUpdate();
         }
     }
 
+    private void recordUnblock(final Long cardId) throws SQLException {
+        var sql =
+                """
+                UPDATE CARDS c
+                   SET c.blocked_seconds = c.blocked_seconds
+                                         + COALESCE((SELECT TIMESTAMPDIFF(SECOND, b.blocked_at, b.unblocked_at)
+                                                       FROM BLOCKS b
+                                                      WHERE b.id = c.open_block_id), 0),
+                       c.open_block_id = NULL
+                 WHERE c.id = ?;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, cardId);
+            statement.executeUpdate();
+        }
+    }
+
 }
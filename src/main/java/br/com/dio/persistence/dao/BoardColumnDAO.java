@@ -3,7 +3,6 @@ package br.com.dio.persistence.dao;
 import br.com.dio.dto.BoardColumnDTO;
 import br.com.dio.persistence.entity.BoardColumnEntity;
 import br.com.dio.persistence.entity.CardEntity;
-import com.mysql.cj.jdbc.StatementImpl;
 import lombok.RequiredArgsConstructor;
 
 import java.sql.Connection;
@@ -11,8 +10,10 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
+import static java.sql.Statement.RETURN_GENERATED_KEYS;
 import static java.util.Objects.isNull;
 
 @RequiredArgsConstructor
@@ -21,18 +22,27 @@ public class BoardColumnDAO {
     private final Connection connection;
 
     public BoardColumnEntity insert(final BoardColumnEntity entity) throws SQLException {
+        insert(List.of(entity));
+        return entity;
+    }
+
+    public List<BoardColumnEntity> insert(final List<BoardColumnEntity> entities) throws SQLException {
+        if (entities.isEmpty()){
+            return entities;
+        }
         var sql = "INSERT INTO BOARDS_COLUMNS (name, `order`, kind, board_id) VALUES (?, ?, ?, ?);";
-        try(var statement = connection.prepareStatement(sql)){
-            var i = 1;
-            statement.setString(i ++, entity.getName());
-            statement.setInt(i ++, entity.getOrder());
-            statement.setString(i ++, entity.getKind().name());
-            statement.setLong(i, entity.getBoard().getId());
-            statement.executeUpdate();
-            if (statement instanceof StatementImpl impl){
-                entity.setId(impl.getLastInsertID());
+        try(var statement = connection.prepareStatement(sql, RETURN_GENERATED_KEYS)){
+            for (var entity : entities){
+                var i = 1;
+                statement.setString(i ++, entity.getName());
+                statement.setInt(i ++, entity.getOrder());
+                statement.setString(i ++, entity.getKind().name());
+                statement.setLong(i, entity.getBoard().getId());
+                statement.addBatch();
             }
-            return entity;
+            statement.executeBatch();
+            GeneratedKeys.assign(statement, entities, BoardColumnEntity::setId);
+            return entities;
         }
     }
 
@@ -55,6 +65,44 @@ public class BoardColumnDAO {
         }
     }
 
+    public Stream<BoardColumnEntity> streamByBoardId(final Long boardId) throws SQLException {
+        var sql = "SELECT id, name, `order`, kind FROM BOARDS_COLUMNS WHERE board_id = ? ORDER BY `order`";
+        var statement = ResultSetStreams.prepare(connection, sql);
+        try {
+            statement.setLong(1, boardId);
+        } catch (SQLException ex) {
+            statement.close();
+            throw ex;
+        }
+        return ResultSetStreams.stream(statement, resultSet -> {
+            var entity = new BoardColumnEntity();
+            entity.setId(resultSet.getLong("id"));
+            entity.setName(resultSet.getString("name"));
+            entity.setOrder(resultSet.getInt("order"));
+            entity.setKind(findByName(resultSet.getString("kind")));
+            return entity;
+        });
+    }
+
+    public List<BoardColumnEntity> findAll() throws SQLException{
+        List<BoardColumnEntity> entities = new ArrayList<>();
+        var sql = "SELECT id, board_id, name, `order`, kind FROM BOARDS_COLUMNS ORDER BY board_id, `order`";
+        try(var statement = connection.prepareStatement(sql)){
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            while (resultSet.next()){
+                var entity = new BoardColumnEntity();
+                entity.setId(resultSet.getLong("id"));
+                entity.getBoard().setId(resultSet.getLong("board_id"));
+                entity.setName(resultSet.getString("name"));
+                entity.setOrder(resultSet.getInt("order"));
+                entity.setKind(findByName(resultSet.getString("kind")));
+                entities.add(entity);
+            }
+            return entities;
+        }
+    }
+
     public List<BoardColumnDTO> findByBoardIdWithDetails(final Long boardId) throws SQLException {
         List<BoardColumnDTO> dtos = new ArrayList<>();
         var sql =
@@ -62,9 +110,7 @@ public class BoardColumnDAO {
                 SELECT bc.id,
                        bc.name,
                        bc.kind,
-                       (SELECT COUNT(c.id)
-                               FROM CARDS c
-                              WHERE c.board_column_id = bc.id) cards_amount
+                       bc.cards_amount
                   FROM BOARDS_COLUMNS bc
                  WHERE board_id = ?
                  ORDER BY `order`;
@@ -75,9 +121,9 @@ public class BoardColumnDAO {
             var resultSet = statement.getResultSet();
             while (resultSet.next()){
                 var dto = new BoardColumnDTO(
-                        resultSet.getLong("bc.id"),
-                        resultSet.getString("bc.name"),
-                        findByName(resultSet.getString("bc.kind")),
+                        resultSet.getLong("id"),
+                        resultSet.getString("name"),
+                        findByName(resultSet.getString("kind")),
                         resultSet.getInt("cards_amount")
                 );
                 dtos.add(dto);
@@ -86,6 +132,98 @@ public class BoardColumnDAO {
         }
     }
 
+    public int recountCards(final Long boardId) throws SQLException {
+        var sql =
+                """
+                UPDATE BOARDS_COLUMNS bc
+                   SET bc.cards_amount = (SELECT COUNT(c.id)
+                                            FROM CARDS c
+                                           WHERE c.board_column_id = bc.id)
+                 WHERE bc.board_id = ?;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, boardId);
+            return statement.executeUpdate();
+        }
+    }
+
+    public Optional<BoardColumnDTO> findHeaderById(final Long id) throws SQLException {
+        var sql = "SELECT bc.id, bc.name, bc.kind, bc.cards_amount FROM BOARDS_COLUMNS bc WHERE bc.id = ?;";
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, id);
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            if (resultSet.next()){
+                var dto = new BoardColumnDTO(
+                        resultSet.getLong("id"),
+                        resultSet.getString("name"),
+                        findByName(resultSet.getString("kind")),
+                        resultSet.getInt("cards_amount")
+                );
+                return Optional.of(dto);
+            }
+            return Optional.empty();
+        }
+    }
+
+    public List<CardEntity> findCardsPage(final Long columnId, final Long afterCardId,
+                                          final int limit) throws SQLException {
+        List<CardEntity> cards = new ArrayList<>(limit);
+        var sql =
+                """
+                SELECT c.id,
+                       c.title,
+                       c.description
+                  FROM CARDS c
+                 WHERE c.board_column_id = ?
+                   AND c.id > ?
+                 ORDER BY c.id
+                 LIMIT ?;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            statement.setLong(i ++, columnId);
+            statement.setLong(i ++, afterCardId);
+            statement.setInt(i, limit);
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            while (resultSet.next()){
+                var card = new CardEntity();
+                card.setId(resultSet.getLong("id"));
+                card.setTitle(resultSet.getString("title"));
+                card.setDescription(resultSet.getString("description"));
+                cards.add(card);
+            }
+            return cards;
+        }
+    }
+
+    public Stream<CardEntity> streamCardsByColumnId(final Long columnId) throws SQLException {
+        var sql =
+                """
+                SELECT c.id,
+                       c.title,
+                       c.description
+                  FROM CARDS c
+                 WHERE c.board_column_id = ?
+                 ORDER BY c.id;
+                """;
+        var statement = ResultSetStreams.prepare(connection, sql);
+        try {
+            statement.setLong(1, columnId);
+        } catch (SQLException ex) {
+            statement.close();
+            throw ex;
+        }
+        return ResultSetStreams.stream(statement, resultSet -> {
+            var card = new CardEntity();
+            card.setId(resultSet.getLong("id"));
+            card.setTitle(resultSet.getString("title"));
+            card.setDescription(resultSet.getString("description"));
+            return card;
+        });
+    }
+
     public Optional<BoardColumnEntity> findById(final Long boardId) throws SQLException{
         var sql =
         """
@@ -105,16 +243,16 @@ public class BoardColumnDAO {
             var resultSet = statement.getResultSet();
             if (resultSet.next()){
                 var entity = new BoardColumnEntity();
-                entity.setName(resultSet.getString("bc.name"));
-                entity.setKind(findByName(resultSet.getString("bc.kind")));
+                entity.setName(resultSet.getString("name"));
+                entity.setKind(findByName(resultSet.getString("kind")));
                 do {
                     var card = new CardEntity();
-                    if (isNull(resultSet.getString("c.title"))){
+                    if (isNull(resultSet.getString("title"))){
                         break;
                     }
-                    card.setId(resultSet.getLong("c.id"));
-                    card.setTitle(resultSet.getString("c.title"));
-                    card.setDescription(resultSet.getString("c.description"));
+                    card.setId(resultSet.getLong("id"));
+                    card.setTitle(resultSet.getString("title"));
+                    card.setDescription(resultSet.getString("description"));
                     entity.getCards().add(card);
                 }while (resultSet.next());
                 return Optional.of(entity);
@@ -1,13 +1,16 @@
 package br.com.dio.persistence.dao;
 
 import br.com.dio.persistence.entity.BoardEntity;
-import com.mysql.cj.jdbc.StatementImpl;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import static java.sql.Statement.RETURN_GENERATED_KEYS;
+
 @AllArgsConstructor
 public class BoardDAO {
 
@@ -15,12 +18,10 @@ public class BoardDAO {
 
     public BoardEntity insert(final BoardEntity entity) throws SQLException {
         var sql = "INSERT INTO BOARDS (name) values (?);";
-        try(var statement = connection.prepareStatement(sql)){
+        try(var statement = connection.prepareStatement(sql, RETURN_GENERATED_KEYS)){
             statement.setString(1, entity.getName());
             statement.executeUpdate();
-            if (statement instanceof StatementImpl impl){
-                entity.setId(impl.getLastInsertID());
-            }
+            GeneratedKeys.assign(statement, List.of(entity), BoardEntity::setId);
         }
         return entity;
     }
@@ -49,6 +50,19 @@ public class BoardDAO {
         }
     }
 
+    public List<Long> findAllIds() throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        var sql = "SELECT id FROM BOARDS ORDER BY id;";
+        try(var statement = connection.prepareStatement(sql)){
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            while (resultSet.next()){
+                ids.add(resultSet.getLong("id"));
+            }
+        }
+        return ids;
+    }
+
     public boolean exists(final Long id) throws SQLException {
         var sql = "SELECT 1 FROM BOARDS WHERE id = ?;";
         try(var statement = connection.prepareStatement(sql)){
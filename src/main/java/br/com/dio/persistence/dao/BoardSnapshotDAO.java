@@ -0,0 +1,291 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.BoardSnapshotBlockDTO;
+import br.com.dio.dto.BoardSnapshotCardDTO;
+import br.com.dio.dto.LocalSnapshotColumnDTO;
+import br.com.dio.dto.LocalSnapshotVersionDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
+import static java.sql.Statement.RETURN_GENERATED_KEYS;
+import static java.util.Collections.nCopies;
+import static java.util.Objects.isNull;
+
+/**
+ * Leitura e gravação em massa para exportar e importar boards inteiros ({@code BoardSnapshotService}) e para
+ * montar o snapshot local da partida ({@code LocalBoardSnapshot}).
+ */
+@AllArgsConstructor
+public class BoardSnapshotDAO {
+
+    private final Connection connection;
+
+    /**
+     * Cards do board com seus bloqueios em uma única consulta em streaming, ordenada por card e bloqueio:
+     * cada linha traz um card com no máximo um bloqueio, e as linhas do mesmo card vêm em sequência.
+     */
+    public Stream<BoardSnapshotCardDTO> streamCardRows(final Long boardId) throws SQLException {
+        var sql =
+                """
+                SELECT c.id,
+                       c.board_column_id,
+                       c.title,
+                       c.description,
+                       c.blocks_amount,
+                       c.blocked_seconds,
+                       b.id block_id,
+                       b.blocked_at,
+                       b.block_reason,
+                       b.unblocked_at,
+                       b.unblock_reason
+                  FROM BOARDS_COLUMNS bc
+                 INNER JOIN CARDS c
+                    ON c.board_column_id = bc.id
+                  LEFT JOIN BLOCKS b
+                    ON b.card_id = c.id
+                 WHERE bc.board_id = ?
+                 ORDER BY c.id, b.id;
+                """;
+        var statement = ResultSetStreams.prepare(connection, sql);
+        try {
+            statement.setLong(1, boardId);
+        } catch (SQLException ex) {
+            statement.close();
+            throw ex;
+        }
+        return ResultSetStreams.stream(statement, resultSet -> {
+            List<BoardSnapshotBlockDTO> blocks = List.of();
+            resultSet.getLong("block_id");
+            if (!resultSet.wasNull()){
+                blocks = List.of(new BoardSnapshotBlockDTO(
+                        toOffsetDateTime(resultSet.getTimestamp("blocked_at")),
+                        resultSet.getString("block_reason"),
+                        toOffsetDateTime(resultSet.getTimestamp("unblocked_at")),
+                        resultSet.getString("unblock_reason")
+                ));
+            }
+            return new BoardSnapshotCardDTO(
+                    resultSet.getLong("id"),
+                    resultSet.getLong("board_column_id"),
+                    resultSet.getString("title"),
+                    resultSet.getString("description"),
+                    resultSet.getInt("blocks_amount"),
+                    resultSet.getLong("blocked_seconds"),
+                    blocks
+            );
+        });
+    }
+
+    /**
+     * Insere os cards em lote, já com os contadores de bloqueio, trocando a coluna de origem pela coluna
+     * importada de {@code columnIds}. Devolve os cards com os ids gerados, na ordem recebida.
+     */
+    public List<CardEntity> insertCards(final List<BoardSnapshotCardDTO> cards,
+                                        final Map<Long, Long> columnIds) throws SQLException {
+        List<CardEntity> entities = new ArrayList<>(cards.size());
+        if (cards.isEmpty()){
+            return entities;
+        }
+        var sql =
+                """
+                INSERT INTO CARDS (title, description, board_column_id, blocks_amount, blocked_seconds)
+                VALUES (?, ?, ?, ?, ?);
+                """;
+        try(var statement = connection.prepareStatement(sql, RETURN_GENERATED_KEYS)){
+            for (var card : cards){
+                var columnId = columnIds.get(card.columnId());
+                var i = 1;
+                statement.setString(i ++, card.title());
+                statement.setString(i ++, card.description());
+                statement.setLong(i ++, columnId);
+                statement.setInt(i ++, card.blocksAmount());
+                statement.setLong(i, card.blockedSeconds());
+                statement.addBatch();
+                var entity = new CardEntity();
+                entity.setTitle(card.title());
+                entity.setDescription(card.description());
+                var column = new BoardColumnEntity();
+                column.setId(columnId);
+                entity.setBoardColumn(column);
+                entities.add(entity);
+            }
+            statement.executeBatch();
+            GeneratedKeys.assign(statement, entities, CardEntity::setId);
+        }
+        return entities;
+    }
+
+    /**
+     * Insere os bloqueios dos cards já importados ({@code cards} na mesma ordem de {@code sources}) e aponta
+     * {@code open_block_id} para o bloqueio em aberto de cada card. Devolve quantos bloqueios foram gravados.
+     */
+    public int insertBlocks(final List<CardEntity> cards,
+                            final List<BoardSnapshotCardDTO> sources) throws SQLException {
+        List<Long> blockCardIds = new ArrayList<>();
+        List<Boolean> open = new ArrayList<>();
+        var sql =
+                """
+                INSERT INTO BLOCKS (blocked_at, block_reason, unblocked_at, unblock_reason, card_id)
+                VALUES (?, ?, ?, ?, ?);
+                """;
+        try(var statement = connection.prepareStatement(sql, RETURN_GENERATED_KEYS)){
+            for (var c = 0; c < cards.size(); c++){
+                var cardId = cards.get(c).getId();
+                for (var block : sources.get(c).blocks()){
+                    var i = 1;
+                    statement.setTimestamp(i ++, toTimestamp(block.blockedAt()));
+                    statement.setString(i ++, block.blockReason());
+                    statement.setTimestamp(i ++, toTimestamp(block.unblockedAt()));
+                    statement.setString(i ++, block.unblockReason());
+                    statement.setLong(i, cardId);
+                    statement.addBatch();
+                    blockCardIds.add(cardId);
+                    open.add(isNull(block.unblockedAt()));
+                }
+            }
+            if (blockCardIds.isEmpty()){
+                return 0;
+            }
+            statement.executeBatch();
+            linkOpenBlocks(statement, blockCardIds, open);
+        }
+        return blockCardIds.size();
+    }
+
+    private void linkOpenBlocks(final Statement insert, final List<Long> blockCardIds,
+                                final List<Boolean> open) throws SQLException {
+        var sql = "UPDATE CARDS SET open_block_id = ? WHERE id = ?;";
+        var keys = GeneratedKeys.read(insert, blockCardIds.size());
+        try(var statement = connection.prepareStatement(sql)){
+            var pending = false;
+            for (var b = 0; b < blockCardIds.size(); b++){
+                if (!open.get(b)){
+                    continue;
+                }
+                var i = 1;
+                statement.setLong(i ++, keys.get(b));
+                statement.setLong(i, blockCardIds.get(b));
+                statement.addBatch();
+                pending = true;
+            }
+            if (pending){
+                statement.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Carimbo de versão do banco para validar o snapshot local com uma única consulta: toda alteração de card
+     * grava em CARD_EVENTS, e criar ou excluir boards muda o último board ou a quantidade de colunas e cards.
+     */
+    public LocalSnapshotVersionDTO findVersion() throws SQLException {
+        var sql =
+                """
+                SELECT (SELECT COALESCE(MAX(e.id), 0) FROM CARD_EVENTS e) last_event_id,
+                       (SELECT COALESCE(MAX(b.id), 0) FROM BOARDS b) last_board_id,
+                       (SELECT COUNT(bc.id) FROM BOARDS_COLUMNS bc) columns_amount,
+                       (SELECT COALESCE(SUM(bc.cards_amount), 0) FROM BOARDS_COLUMNS bc) cards_amount;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            var resultSet = statement.executeQuery();
+            resultSet.next();
+            return new LocalSnapshotVersionDTO(
+                    resultSet.getLong("last_event_id"),
+                    resultSet.getLong("last_board_id"),
+                    resultSet.getLong("columns_amount"),
+                    resultSet.getLong("cards_amount")
+            );
+        }
+    }
+
+    public List<LocalSnapshotColumnDTO> findColumnsWithCounts() throws SQLException {
+        var sql =
+                """
+                SELECT b.id board_id,
+                       b.name board_name,
+                       bc.id,
+                       bc.name,
+                       bc.`order`,
+                       bc.kind,
+                       bc.cards_amount
+                  FROM BOARDS b
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.board_id = b.id
+                 ORDER BY b.id, bc.`order`;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            List<LocalSnapshotColumnDTO> columns = new ArrayList<>();
+            while (resultSet.next()){
+                columns.add(new LocalSnapshotColumnDTO(
+                        resultSet.getLong("board_id"),
+                        resultSet.getString("board_name"),
+                        resultSet.getLong("id"),
+                        resultSet.getString("name"),
+                        resultSet.getInt("order"),
+                        findByName(resultSet.getString("kind")),
+                        resultSet.getInt("cards_amount")
+                ));
+            }
+            return columns;
+        }
+    }
+
+    /**
+     * Os {@code limit} primeiros cards (em ordem de id) de cada coluna, a mesma primeira página que o menu
+     * mostra, ordenados por coluna.
+     */
+    public List<CardEntity> findCardHeaders(final List<Long> columnIds, final int limit) throws SQLException {
+        if (columnIds.isEmpty() || limit <= 0){
+            return List.of();
+        }
+        var perColumn =
+                """
+                (SELECT c.id,
+                        c.board_column_id,
+                        c.title,
+                        c.description,
+                        c.open_block_id IS NOT NULL blocked
+                   FROM CARDS c
+                  WHERE c.board_column_id = ?
+                  ORDER BY c.id
+                  LIMIT ?)
+                """;
+        var sql = String.join(" UNION ALL ", nCopies(columnIds.size(), perColumn.strip()))
+                + " ORDER BY board_column_id, id;";
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            for (var columnId : columnIds){
+                statement.setLong(i ++, columnId);
+                statement.setInt(i ++, limit);
+            }
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            List<CardEntity> cards = new ArrayList<>();
+            while (resultSet.next()){
+                var card = new CardEntity();
+                card.setId(resultSet.getLong("id"));
+                card.getBoardColumn().setId(resultSet.getLong("board_column_id"));
+                card.setTitle(resultSet.getString("title"));
+                card.setDescription(resultSet.getString("description"));
+                card.setBlocked(resultSet.getBoolean("blocked"));
+                cards.add(card);
+            }
+            return cards;
+        }
+    }
+
+}
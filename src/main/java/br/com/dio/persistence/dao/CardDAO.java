@@ -1,35 +1,87 @@
 package br.com.dio.persistence.dao;
 
+import br.com.dio.dto.CardBlockStatsDTO;
+import br.com.dio.dto.CardColumnStateDTO;
 import br.com.dio.dto.CardDetailsDTO;
+import br.com.dio.dto.CardLocationDTO;
+import br.com.dio.dto.CardMoveDTO;
 import br.com.dio.persistence.entity.CardEntity;
-import com.mysql.cj.jdbc.StatementImpl;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static java.sql.Statement.RETURN_GENERATED_KEYS;
+import static java.util.Collections.nCopies;
 import static java.util.Objects.nonNull;
 
 @AllArgsConstructor
 public class CardDAO {
 
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
+
     private Connection connection;
 
     public CardEntity insert(final CardEntity entity) throws SQLException {
+        insert(List.of(entity));
+        return entity;
+    }
+
+    public List<CardEntity> insert(final List<CardEntity> entities) throws SQLException {
+        if (entities.isEmpty()){
+            return entities;
+        }
         var sql = "INSERT INTO CARDS (title, description, board_column_id) values (?, ?, ?);";
+        try(var statement = connection.prepareStatement(sql, RETURN_GENERATED_KEYS)){
+            for (var entity : entities){
+                var i = 1;
+                statement.setString(i ++, entity.getTitle());
+                statement.setString(i ++, entity.getDescription());
+                statement.setLong(i, entity.getBoardColumn().getId());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            GeneratedKeys.assign(statement, entities, CardEntity::setId);
+        }
+        return entities;
+    }
+
+    /**
+     * Insere cards cujo id já foi atribuído pela aplicação (repositório em memória com write-behind).
+     */
+    public void insertWithIds(final List<CardEntity> entities) throws SQLException {
+        if (entities.isEmpty()){
+            return;
+        }
+        var sql = "INSERT INTO CARDS (id, title, description, board_column_id) values (?, ?, ?, ?);";
         try(var statement = connection.prepareStatement(sql)){
-            var i = 1;
-            statement.setString(i ++, entity.getTitle());
-            statement.setString(i ++, entity.getDescription());
-            statement.setLong(i, entity.getBoardColumn().getId());
-            statement.executeUpdate();
-            if (statement instanceof StatementImpl impl){
-                entity.setId(impl.getLastInsertID());
+            for (var entity : entities){
+                var i = 1;
+                statement.setLong(i ++, entity.getId());
+                statement.setString(i ++, entity.getTitle());
+                statement.setString(i ++, entity.getDescription());
+                statement.setLong(i, entity.getBoardColumn().getId());
+                statement.addBatch();
             }
+            statement.executeBatch();
+        }
+    }
+
+    public long findMaxId() throws SQLException {
+        try(var statement = connection.prepareStatement("SELECT COALESCE(MAX(id), 0) FROM CARDS;")){
+            var resultSet = statement.executeQuery();
+            resultSet.next();
+            return resultSet.getLong(1);
         }
-        return entity;
     }
 
     public void moveToColumn(final Long columnId, final Long cardId) throws SQLException{
@@ -42,6 +94,161 @@ public class CardDAO {
         }
     }
 
+    public boolean moveToColumnIfUnblocked(final Long cardId, final Map<Long, Long> transitions) throws SQLException{
+        if (transitions.isEmpty()){
+            return false;
+        }
+        var sql =
+                """
+                UPDATE CARDS c
+                   SET c.board_column_id = CASE c.board_column_id %s END
+                 WHERE c.id = ?
+                   AND c.board_column_id IN (%s)
+                   AND NOT EXISTS (SELECT 1
+                                     FROM BLOCKS b
+                                    WHERE b.card_id = c.id
+                                      AND b.unblocked_at IS NULL);
+                """.formatted(String.join(" ", nCopies(transitions.size(), "WHEN ? THEN ?")),
+                        String.join(", ", nCopies(transitions.size(), "?")));
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            for (var transition : transitions.entrySet()){
+                statement.setLong(i ++, transition.getKey());
+                statement.setLong(i ++, transition.getValue());
+            }
+            statement.setLong(i ++, cardId);
+            for (var fromColumnId : transitions.keySet()){
+                statement.setLong(i ++, fromColumnId);
+            }
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Move os cards em lote, cada um só se ainda estiver na coluna de origem e desbloqueado.
+     *
+     * @return para cada movimentação, se foi aplicada
+     */
+    public boolean[] moveToColumns(final List<CardMoveDTO> moves) throws SQLException{
+        if (moves.isEmpty()){
+            return new boolean[0];
+        }
+        var sql =
+                """
+                UPDATE CARDS c
+                   SET c.board_column_id = ?
+                 WHERE c.id = ?
+                   AND c.board_column_id = ?
+                   AND NOT EXISTS (SELECT 1
+                                     FROM BLOCKS b
+                                    WHERE b.card_id = c.id
+                                      AND b.unblocked_at IS NULL);
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            for (var move : moves){
+                var i = 1;
+                statement.setLong(i ++, move.toColumnId());
+                statement.setLong(i ++, move.cardId());
+                statement.setLong(i, move.fromColumnId());
+                statement.addBatch();
+            }
+            return wasApplied(moves, statement.executeBatch());
+        }
+    }
+
+    /**
+     * Com {@code rewriteBatchedStatements} o driver pode devolver {@link Statement#SUCCESS_NO_INFO}, que não
+     * diz se o UPDATE encontrou a linha; nesse caso a coluna atual do card é relida na mesma transação.
+     */
+    private boolean[] wasApplied(final List<CardMoveDTO> moves, final int[] counts) throws SQLException{
+        var applied = new boolean[counts.length];
+        Map<Long, Long> lastTargets = new HashMap<>();
+        for (var i = 0; i < counts.length; i++){
+            applied[i] = counts[i] > 0;
+            if (counts[i] == Statement.SUCCESS_NO_INFO){
+                lastTargets.put(moves.get(i).cardId(), moves.get(i).toColumnId());
+            }
+        }
+        if (lastTargets.isEmpty()){
+            return applied;
+        }
+        var states = findColumnStates(List.copyOf(lastTargets.keySet()));
+        for (var i = 0; i < counts.length; i++){
+            if (counts[i] == Statement.SUCCESS_NO_INFO){
+                var state = states.get(moves.get(i).cardId());
+                // um card movido duas vezes no lote termina na coluna da última movimentação
+                applied[i] = state != null && state.columnId().equals(lastTargets.get(moves.get(i).cardId()));
+            }
+        }
+        return applied;
+    }
+
+    public Map<Long, CardColumnStateDTO> findColumnStates(final List<Long> ids) throws SQLException{
+        Map<Long, CardColumnStateDTO> states = new HashMap<>();
+        for (var start = 0; start < ids.size(); start += MAX_IN_CLAUSE_SIZE){
+            var chunk = ids.subList(start, Math.min(start + MAX_IN_CLAUSE_SIZE, ids.size()));
+            var sql =
+                    """
+                    SELECT c.id,
+                           c.board_column_id,
+                           c.open_block_id IS NOT NULL blocked
+                      FROM CARDS c
+                     WHERE c.id IN (%s);
+                    """.formatted(String.join(", ", nCopies(chunk.size(), "?")));
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                for (var id : chunk){
+                    statement.setLong(i ++, id);
+                }
+                statement.executeQuery();
+                var resultSet = statement.getResultSet();
+                while (resultSet.next()){
+                    var state = new CardColumnStateDTO(
+                            resultSet.getLong("id"),
+                            resultSet.getLong("board_column_id"),
+                            resultSet.getBoolean("blocked")
+                    );
+                    states.put(state.id(), state);
+                }
+            }
+        }
+        return states;
+    }
+
+    public Map<Long, CardLocationDTO> findLocations(final List<Long> ids) throws SQLException{
+        Map<Long, CardLocationDTO> locations = new HashMap<>();
+        for (var start = 0; start < ids.size(); start += MAX_IN_CLAUSE_SIZE){
+            var chunk = ids.subList(start, Math.min(start + MAX_IN_CLAUSE_SIZE, ids.size()));
+            var sql =
+                    """
+                    SELECT c.id,
+                           bc.board_id,
+                           c.board_column_id
+                      FROM CARDS c
+                     INNER JOIN BOARDS_COLUMNS bc
+                        ON bc.id = c.board_column_id
+                     WHERE c.id IN (%s);
+                    """.formatted(String.join(", ", nCopies(chunk.size(), "?")));
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                for (var id : chunk){
+                    statement.setLong(i ++, id);
+                }
+                statement.executeQuery();
+                var resultSet = statement.getResultSet();
+                while (resultSet.next()){
+                    var location = new CardLocationDTO(
+                            resultSet.getLong("id"),
+                            resultSet.getLong("board_id"),
+                            resultSet.getLong("board_column_id")
+                    );
+                    locations.put(location.id(), location);
+                }
+            }
+        }
+        return locations;
+    }
+
     public Optional<CardDetailsDTO> findById(final Long id) throws SQLException {
         var sql =
                 """
@@ -52,13 +259,11 @@ public class CardDAO {
                        b.block_reason,
                        c.board_column_id,
                        bc.name,
-                       (SELECT COUNT(sub_b.id)
-                               FROM BLOCKS sub_b
-                              WHERE sub_b.card_id = c.id) blocks_amount
+                       c.blocks_amount,
+                       c.blocked_seconds
                   FROM CARDS c
                   LEFT JOIN BLOCKS b
-                    ON c.id = b.card_id
-                   AND b.unblocked_at IS NULL
+                    ON b.id = c.open_block_id
                  INNER JOIN BOARDS_COLUMNS bc
                     ON bc.id = c.board_column_id
                   WHERE c.id = ?;
@@ -69,15 +274,16 @@ public class CardDAO {
             var resultSet = statement.getResultSet();
             if (resultSet.next()){
                 var dto = new CardDetailsDTO(
-                        resultSet.getLong("c.id"),
-                        resultSet.getString("c.title"),
-                        resultSet.getString("c.description"),
-                        nonNull(resultSet.getString("b.block_reason")),
-                        toOffsetDateTime(resultSet.getTimestamp("b.blocked_at")),
-                        resultSet.getString("b.block_reason"),
+                        resultSet.getLong("id"),
+                        resultSet.getString("title"),
+                        resultSet.getString("description"),
+                        nonNull(resultSet.getString("block_reason")),
+                        toOffsetDateTime(resultSet.getTimestamp("blocked_at")),
+                        resultSet.getString("block_reason"),
                         resultSet.getInt("blocks_amount"),
-                        resultSet.getLong("c.board_column_id"),
-                        resultSet.getString("bc.name")
+                        resultSet.getLong("blocked_seconds"),
+                        resultSet.getLong("board_column_id"),
+                        resultSet.getString("name")
                 );
                 return Optional.of(dto);
             }
@@ -85,4 +291,126 @@ public class CardDAO {
         return Optional.empty();
     }
 
+    /**
+     * Lê os detalhes de todos os cards em streaming, para carregar o repositório em memória.
+     */
+    public Stream<CardDetailsDTO> streamAllDetails() throws SQLException {
+        var sql =
+                """
+                SELECT c.id,
+                       c.title,
+                       c.description,
+                       b.blocked_at,
+                       b.block_reason,
+                       c.board_column_id,
+                       bc.name,
+                       c.blocks_amount,
+                       c.blocked_seconds
+                  FROM CARDS c
+                  LEFT JOIN BLOCKS b
+                    ON b.id = c.open_block_id
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = c.board_column_id
+                 ORDER BY c.id;
+                """;
+        return ResultSetStreams.stream(ResultSetStreams.prepare(connection, sql), resultSet -> new CardDetailsDTO(
+                resultSet.getLong("id"),
+                resultSet.getString("title"),
+                resultSet.getString("description"),
+                nonNull(resultSet.getString("block_reason")),
+                toOffsetDateTime(resultSet.getTimestamp("blocked_at")),
+                resultSet.getString("block_reason"),
+                resultSet.getInt("blocks_amount"),
+                resultSet.getLong("blocked_seconds"),
+                resultSet.getLong("board_column_id"),
+                resultSet.getString("name")
+        ));
+    }
+
+    /**
+     * Título e descrição de todos os cards em ordem de id, para montar o índice de busca.
+     */
+    public Stream<CardEntity> streamAllTexts() throws SQLException {
+        var sql = "SELECT c.id, c.title, c.description FROM CARDS c ORDER BY c.id;";
+        return ResultSetStreams.stream(ResultSetStreams.prepare(connection, sql), resultSet -> {
+            var card = new CardEntity();
+            card.setId(resultSet.getLong("id"));
+            card.setTitle(resultSet.getString("title"));
+            card.setDescription(resultSet.getString("description"));
+            return card;
+        });
+    }
+
+    public List<Long> findIdsByBoardId(final Long boardId) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        var sql =
+                """
+                SELECT c.id
+                  FROM CARDS c
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = c.board_column_id
+                 WHERE bc.board_id = ?;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, boardId);
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            while (resultSet.next()){
+                ids.add(resultSet.getLong("id"));
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Cards com mais bloqueios entre as colunas informadas. Cada coluna contribui com os {@code limit} primeiros
+     * lidos do índice (board_column_id, blocks_amount, blocked_seconds), então nada é ordenado além disso.
+     */
+    public List<CardBlockStatsDTO> findMostBlocked(final List<Long> columnIds, final int limit) throws SQLException{
+        if (columnIds.isEmpty() || limit <= 0){
+            return List.of();
+        }
+        var perColumn =
+                """
+                (SELECT c.id,
+                        c.title,
+                        c.board_column_id,
+                        c.blocks_amount,
+                        c.blocked_seconds,
+                        c.open_block_id
+                   FROM CARDS c
+                  WHERE c.board_column_id = ?
+                    AND c.blocks_amount > 0
+                  ORDER BY c.blocks_amount DESC, c.blocked_seconds DESC
+                  LIMIT ?)
+                """;
+        var sql = String.join(" UNION ALL ", nCopies(columnIds.size(), perColumn.strip())) + ";";
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            for (var columnId : columnIds){
+                statement.setLong(i ++, columnId);
+                statement.setInt(i ++, limit);
+            }
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            List<CardBlockStatsDTO> cards = new ArrayList<>();
+            while (resultSet.next()){
+                cards.add(new CardBlockStatsDTO(
+                        resultSet.getLong("id"),
+                        resultSet.getString("title"),
+                        resultSet.getLong("board_column_id"),
+                        resultSet.getInt("blocks_amount"),
+                        resultSet.getLong("blocked_seconds"),
+                        nonNull(resultSet.getObject("open_block_id"))
+                ));
+            }
+            return cards.stream()
+                    .sorted(Comparator.comparingInt(CardBlockStatsDTO::blocksAmount)
+                            .thenComparingLong(CardBlockStatsDTO::blockedSeconds)
+                            .reversed())
+                    .limit(limit)
+                    .toList();
+        }
+    }
+
 }
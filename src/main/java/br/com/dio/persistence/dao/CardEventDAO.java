@@ -0,0 +1,140 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.CardStateDTO;
+import br.com.dio.persistence.entity.CardEventEntity;
+import br.com.dio.persistence.entity.CardEventTypeEnum;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.BLOCK;
+
+/**
+ * Log somente de inserção com o histórico dos cards; não há update nem delete de eventos. Os eventos de cada
+ * operação são acumulados e gravados em um único lote no commit, com o instante da aplicação.
+ */
+@AllArgsConstructor
+public class CardEventDAO {
+
+    private final Connection connection;
+
+    /**
+     * Grava os eventos em lote, lendo a coluna atual de cada card na mesma instrução.
+     */
+    public void insert(final List<CardEventEntity> events) throws SQLException {
+        if (events.isEmpty()){
+            return;
+        }
+        var sql =
+                """
+                INSERT INTO CARD_EVENTS (card_id, type, board_column_id, reason, occurred_at)
+                SELECT c.id, ?, c.board_column_id, ?, ?
+                  FROM CARDS c
+                 WHERE c.id = ?;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            for (var event : events){
+                var i = 1;
+                statement.setString(i ++, event.getType().name());
+                statement.setString(i ++, event.getReason());
+                statement.setTimestamp(i ++, toTimestamp(event.getOccurredAt()));
+                statement.setLong(i, event.getCardId());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public List<CardEventEntity> findByCardId(final Long cardId) throws SQLException {
+        var sql =
+                """
+                SELECT e.id,
+                       e.card_id,
+                       e.type,
+                       e.board_column_id,
+                       e.reason,
+                       e.occurred_at
+                  FROM CARD_EVENTS e
+                 WHERE e.card_id = ?
+                 ORDER BY e.occurred_at, e.id;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, cardId);
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            List<CardEventEntity> events = new ArrayList<>();
+            while (resultSet.next()){
+                events.add(new CardEventEntity(
+                        resultSet.getLong("id"),
+                        resultSet.getLong("card_id"),
+                        CardEventTypeEnum.findByName(resultSet.getString("type")),
+                        resultSet.getLong("board_column_id"),
+                        resultSet.getString("reason"),
+                        toOffsetDateTime(resultSet.getTimestamp("occurred_at"))
+                ));
+            }
+            return events;
+        }
+    }
+
+    /**
+     * Reconstrói o estado do card no instante informado com duas buscas no índice (card_id, occurred_at):
+     * o último evento até {@code at} dá a coluna e o último BLOCK/UNBLOCK diz se estava bloqueado.
+     */
+    public Optional<CardStateDTO> findStateAt(final Long cardId, final OffsetDateTime at) throws SQLException {
+        var sql =
+                """
+                (SELECT 'STATE' source, e.type, e.board_column_id, e.reason, e.occurred_at
+                   FROM CARD_EVENTS e
+                  WHERE e.card_id = ?
+                    AND e.occurred_at <= ?
+                  ORDER BY e.occurred_at DESC, e.id DESC
+                  LIMIT 1)
+                UNION ALL
+                (SELECT 'BLOCK' source, e.type, e.board_column_id, e.reason, e.occurred_at
+                   FROM CARD_EVENTS e
+                  WHERE e.card_id = ?
+                    AND e.occurred_at <= ?
+                    AND e.type IN ('BLOCK', 'UNBLOCK')
+                  ORDER BY e.occurred_at DESC, e.id DESC
+                  LIMIT 1);
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            statement.setLong(i ++, cardId);
+            statement.setTimestamp(i ++, toTimestamp(at));
+            statement.setLong(i ++, cardId);
+            statement.setTimestamp(i, toTimestamp(at));
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            CardEventTypeEnum lastEvent = null;
+            Long columnId = null;
+            OffsetDateTime lastEventAt = null;
+            var blocked = false;
+            String blockReason = null;
+            while (resultSet.next()){
+                var type = CardEventTypeEnum.findByName(resultSet.getString("type"));
+                if (resultSet.getString("source").equals("STATE")){
+                    lastEvent = type;
+                    columnId = resultSet.getLong("board_column_id");
+                    lastEventAt = toOffsetDateTime(resultSet.getTimestamp("occurred_at"));
+                } else if (type == BLOCK){
+                    blocked = true;
+                    blockReason = resultSet.getString("reason");
+                }
+            }
+            if (lastEvent == null){
+                return Optional.empty();
+            }
+            return Optional.of(new CardStateDTO(cardId, at, columnId, lastEvent, lastEventAt, blocked, blockReason));
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package br.com.dio.persistence.dao;
+
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+
+/**
+ * Último evento de CARD_EVENTS já somado às métricas de fluxo e os ids abaixo dele que ainda não estavam
+ * visíveis (FLOW_AGGREGATION_GAPS). O checkpoint é lido com bloqueio da linha e atualizado, junto com as
+ * lacunas, na mesma transação dos agregados, então dois processos nunca somam o mesmo evento.
+ */
+@AllArgsConstructor
+public class FlowAggregationCheckpointDAO {
+
+    private final Connection connection;
+
+    public long lockLastEventId() throws SQLException {
+        var sql = "SELECT last_event_id FROM FLOW_AGGREGATION_CHECKPOINT WHERE id = 1 FOR UPDATE;";
+        try(var statement = connection.prepareStatement(sql)){
+            var resultSet = statement.executeQuery();
+            if (!resultSet.next()){
+                throw new SQLException("Checkpoint das métricas de fluxo não encontrado");
+            }
+            return resultSet.getLong("last_event_id");
+        }
+    }
+
+    public void update(final long lastEventId) throws SQLException {
+        var sql = "UPDATE FLOW_AGGREGATION_CHECKPOINT SET last_event_id = ? WHERE id = 1;";
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, lastEventId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Lacunas pendentes, em ordem de id, com o momento em que cada uma foi vista pela primeira vez.
+     */
+    public Map<Long, OffsetDateTime> findGaps() throws SQLException {
+        var sql = "SELECT event_id, missing_since FROM FLOW_AGGREGATION_GAPS ORDER BY event_id;";
+        try(var statement = connection.prepareStatement(sql)){
+            var resultSet = statement.executeQuery();
+            Map<Long, OffsetDateTime> gaps = new TreeMap<>();
+            while (resultSet.next()){
+                gaps.put(resultSet.getLong("event_id"), toOffsetDateTime(resultSet.getTimestamp("missing_since")));
+            }
+            return gaps;
+        }
+    }
+
+    public void insertGaps(final List<Long> eventIds, final OffsetDateTime missingSince) throws SQLException {
+        if (eventIds.isEmpty()){
+            return;
+        }
+        var sql = "INSERT INTO FLOW_AGGREGATION_GAPS (event_id, missing_since) VALUES (?, ?);";
+        try(var statement = connection.prepareStatement(sql)){
+            for (var eventId : eventIds){
+                var i = 1;
+                statement.setLong(i ++, eventId);
+                statement.setTimestamp(i, toTimestamp(missingSince));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public void deleteGaps(final List<Long> eventIds) throws SQLException {
+        if (eventIds.isEmpty()){
+            return;
+        }
+        var sql = "DELETE FROM FLOW_AGGREGATION_GAPS WHERE event_id = ?;";
+        try(var statement = connection.prepareStatement(sql)){
+            for (var eventId : eventIds){
+                statement.setLong(1, eventId);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+}
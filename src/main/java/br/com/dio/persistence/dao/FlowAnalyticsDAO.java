@@ -0,0 +1,377 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.CardFlowDTO;
+import br.com.dio.dto.ColumnFlowDeltaDTO;
+import br.com.dio.dto.ColumnFlowStatsDTO;
+import br.com.dio.dto.DailyFlowDTO;
+import br.com.dio.dto.FlowEventDTO;
+import br.com.dio.dto.FlowTimeBucketDTO;
+import br.com.dio.persistence.entity.CardEventTypeEnum;
+import br.com.dio.persistence.entity.FlowTimeMetricEnum;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
+import static java.util.Collections.nCopies;
+
+/**
+ * Agregados de fluxo calculados a partir de CARD_EVENTS: posição de cada card, totais por coluna, chegadas e
+ * saídas por dia e histograma de lead/cycle time. As consultas das telas não percorrem o histórico de eventos.
+ */
+@AllArgsConstructor
+public class FlowAnalyticsDAO {
+
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
+
+    private final Connection connection;
+
+    /**
+     * Eventos visíveis com id em {@code (afterId, upToId]}, em ordem de id. Vêm todos os tipos para que o
+     * agregador saiba quais ids ainda não foram confirmados; só CREATE, MOVE e CANCEL mudam a coluna do card.
+     */
+    public List<FlowEventDTO> findFlowEvents(final long afterId, final long upToId, final int limit)
+            throws SQLException {
+        var sql =
+                """
+                SELECT e.id,
+                       e.card_id,
+                       e.type,
+                       bc.board_id,
+                       e.board_column_id,
+                       bc.kind,
+                       e.occurred_at
+                  FROM CARD_EVENTS e
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = e.board_column_id
+                 WHERE e.id > ?
+                   AND e.id <= ?
+                 ORDER BY e.id
+                 LIMIT ?;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            statement.setLong(i ++, afterId);
+            statement.setLong(i ++, upToId);
+            statement.setInt(i, limit);
+            statement.executeQuery();
+            return readFlowEvents(statement.getResultSet());
+        }
+    }
+
+    /**
+     * Os eventos já visíveis entre os ids informados (lacunas do agregador), em ordem de id.
+     */
+    public List<FlowEventDTO> findFlowEventsByIds(final List<Long> ids) throws SQLException {
+        List<FlowEventDTO> events = new ArrayList<>();
+        for (var start = 0; start < ids.size(); start += MAX_IN_CLAUSE_SIZE){
+            var chunk = ids.subList(start, Math.min(start + MAX_IN_CLAUSE_SIZE, ids.size()));
+            var sql =
+                    """
+                    SELECT e.id,
+                           e.card_id,
+                           e.type,
+                           bc.board_id,
+                           e.board_column_id,
+                           bc.kind,
+                           e.occurred_at
+                      FROM CARD_EVENTS e
+                     INNER JOIN BOARDS_COLUMNS bc
+                        ON bc.id = e.board_column_id
+                     WHERE e.id IN (%s)
+                     ORDER BY e.id;
+                    """.formatted(String.join(", ", nCopies(chunk.size(), "?")));
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                for (var id : chunk){
+                    statement.setLong(i ++, id);
+                }
+                statement.executeQuery();
+                events.addAll(readFlowEvents(statement.getResultSet()));
+            }
+        }
+        return events;
+    }
+
+    private List<FlowEventDTO> readFlowEvents(final ResultSet resultSet) throws SQLException {
+        List<FlowEventDTO> events = new ArrayList<>();
+        while (resultSet.next()){
+            events.add(new FlowEventDTO(
+                    resultSet.getLong("id"),
+                    resultSet.getLong("card_id"),
+                    CardEventTypeEnum.findByName(resultSet.getString("type")),
+                    resultSet.getLong("board_id"),
+                    resultSet.getLong("board_column_id"),
+                    findByName(resultSet.getString("kind")),
+                    toOffsetDateTime(resultSet.getTimestamp("occurred_at"))
+            ));
+        }
+        return events;
+    }
+
+    public long findLastEventId() throws SQLException {
+        try(var statement = connection.prepareStatement("SELECT MAX(id) FROM CARD_EVENTS;")){
+            var resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    public Map<Long, CardFlowDTO> findCardFlows(final List<Long> cardIds) throws SQLException {
+        Map<Long, CardFlowDTO> flows = new HashMap<>();
+        for (var start = 0; start < cardIds.size(); start += MAX_IN_CLAUSE_SIZE){
+            var chunk = cardIds.subList(start, Math.min(start + MAX_IN_CLAUSE_SIZE, cardIds.size()));
+            var sql =
+                    """
+                    SELECT f.card_id,
+                           bc.board_id,
+                           f.board_column_id,
+                           bc.kind,
+                           f.created_at,
+                           f.started_at,
+                           f.entered_at
+                      FROM CARD_FLOW f
+                     INNER JOIN BOARDS_COLUMNS bc
+                        ON bc.id = f.board_column_id
+                     WHERE f.card_id IN (%s);
+                    """.formatted(String.join(", ", nCopies(chunk.size(), "?")));
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                for (var id : chunk){
+                    statement.setLong(i ++, id);
+                }
+                statement.executeQuery();
+                var resultSet = statement.getResultSet();
+                while (resultSet.next()){
+                    var flow = new CardFlowDTO(
+                            resultSet.getLong("card_id"),
+                            resultSet.getLong("board_id"),
+                            resultSet.getLong("board_column_id"),
+                            findByName(resultSet.getString("kind")),
+                            toOffsetDateTime(resultSet.getTimestamp("created_at")),
+                            toOffsetDateTime(resultSet.getTimestamp("started_at")),
+                            toOffsetDateTime(resultSet.getTimestamp("entered_at"))
+                    );
+                    flows.put(flow.cardId(), flow);
+                }
+            }
+        }
+        return flows;
+    }
+
+    /**
+     * Grava a nova posição dos cards; usa {@code columnId}, {@code createdAt}, {@code startedAt} e {@code enteredAt}.
+     */
+    public void saveCardFlows(final List<CardFlowDTO> flows) throws SQLException {
+        if (flows.isEmpty()){
+            return;
+        }
+        var sql =
+                """
+                INSERT INTO CARD_FLOW (card_id, board_column_id, created_at, started_at, entered_at)
+                VALUES (?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE board_column_id = VALUES(board_column_id),
+                                        started_at = VALUES(started_at),
+                                        entered_at = VALUES(entered_at);
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            for (var flow : flows){
+                var i = 1;
+                statement.setLong(i ++, flow.cardId());
+                statement.setLong(i ++, flow.columnId());
+                statement.setTimestamp(i ++, toTimestamp(flow.createdAt()));
+                statement.setTimestamp(i ++, toTimestamp(flow.startedAt()));
+                statement.setTimestamp(i, toTimestamp(flow.enteredAt()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public void addColumnStats(final List<ColumnFlowDeltaDTO> deltas) throws SQLException {
+        if (deltas.isEmpty()){
+            return;
+        }
+        var sql =
+                """
+                INSERT INTO COLUMN_FLOW_STATS (board_column_id, arrivals, departures, total_dwell_seconds, max_dwell_seconds)
+                VALUES (?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE arrivals = arrivals + VALUES(arrivals),
+                                        departures = departures + VALUES(departures),
+                                        total_dwell_seconds = total_dwell_seconds + VALUES(total_dwell_seconds),
+                                        max_dwell_seconds = GREATEST(max_dwell_seconds, VALUES(max_dwell_seconds));
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            for (var delta : deltas){
+                var i = 1;
+                statement.setLong(i ++, delta.columnId());
+                statement.setLong(i ++, delta.arrivals());
+                statement.setLong(i ++, delta.departures());
+                statement.setLong(i ++, delta.dwellSeconds());
+                statement.setLong(i, delta.maxDwellSeconds());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public void addDailyFlow(final List<DailyFlowDTO> days) throws SQLException {
+        if (days.isEmpty()){
+            return;
+        }
+        var sql =
+                """
+                INSERT INTO COLUMN_DAILY_FLOW (board_column_id, flow_date, board_id, arrivals, departures)
+                VALUES (?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE arrivals = arrivals + VALUES(arrivals),
+                                        departures = departures + VALUES(departures);
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            for (var day : days){
+                var i = 1;
+                statement.setLong(i ++, day.columnId());
+                statement.setDate(i ++, Date.valueOf(day.date()));
+                statement.setLong(i ++, day.boardId());
+                statement.setInt(i ++, day.arrivals());
+                statement.setInt(i, day.departures());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public void addFlowTimes(final List<FlowTimeBucketDTO> buckets) throws SQLException {
+        if (buckets.isEmpty()){
+            return;
+        }
+        var sql =
+                """
+                INSERT INTO FLOW_TIME_BUCKETS (board_id, metric, bucket, cards)
+                VALUES (?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE cards = cards + VALUES(cards);
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            for (var bucket : buckets){
+                var i = 1;
+                statement.setLong(i ++, bucket.boardId());
+                statement.setString(i ++, bucket.metric().name());
+                statement.setInt(i ++, bucket.bucket());
+                statement.setLong(i, bucket.cards());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public List<ColumnFlowStatsDTO> findColumnStats(final Long boardId) throws SQLException {
+        var sql =
+                """
+                SELECT bc.id,
+                       bc.name,
+                       bc.kind,
+                       bc.`order`,
+                       COALESCE(s.arrivals, 0) arrivals,
+                       COALESCE(s.departures, 0) departures,
+                       COALESCE(s.total_dwell_seconds, 0) total_dwell_seconds,
+                       COALESCE(s.max_dwell_seconds, 0) max_dwell_seconds
+                  FROM BOARDS_COLUMNS bc
+                  LEFT JOIN COLUMN_FLOW_STATS s
+                    ON s.board_column_id = bc.id
+                 WHERE bc.board_id = ?
+                 ORDER BY bc.`order`;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, boardId);
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            List<ColumnFlowStatsDTO> stats = new ArrayList<>();
+            while (resultSet.next()){
+                stats.add(new ColumnFlowStatsDTO(
+                        resultSet.getLong("id"),
+                        resultSet.getString("name"),
+                        findByName(resultSet.getString("kind")),
+                        resultSet.getInt("order"),
+                        resultSet.getLong("arrivals"),
+                        resultSet.getLong("departures"),
+                        resultSet.getLong("total_dwell_seconds"),
+                        resultSet.getLong("max_dwell_seconds")
+                ));
+            }
+            return stats;
+        }
+    }
+
+    public List<DailyFlowDTO> findDailyFlow(final Long boardId, final LocalDate from, final LocalDate to) throws SQLException {
+        var sql =
+                """
+                SELECT d.board_id,
+                       d.board_column_id,
+                       d.flow_date,
+                       d.arrivals,
+                       d.departures
+                  FROM COLUMN_DAILY_FLOW d
+                 WHERE d.board_id = ?
+                   AND d.flow_date >= ?
+                   AND d.flow_date <= ?;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            statement.setLong(i ++, boardId);
+            statement.setDate(i ++, Date.valueOf(from));
+            statement.setDate(i, Date.valueOf(to));
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            List<DailyFlowDTO> days = new ArrayList<>();
+            while (resultSet.next()){
+                days.add(new DailyFlowDTO(
+                        resultSet.getLong("board_id"),
+                        resultSet.getLong("board_column_id"),
+                        resultSet.getDate("flow_date").toLocalDate(),
+                        resultSet.getInt("arrivals"),
+                        resultSet.getInt("departures")
+                ));
+            }
+            return days;
+        }
+    }
+
+    public List<FlowTimeBucketDTO> findFlowTimes(final Long boardId, final FlowTimeMetricEnum metric) throws SQLException {
+        var sql =
+                """
+                SELECT t.board_id,
+                       t.bucket,
+                       t.cards
+                  FROM FLOW_TIME_BUCKETS t
+                 WHERE t.board_id = ?
+                   AND t.metric = ?
+                 ORDER BY t.bucket;
+                """;
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            statement.setLong(i ++, boardId);
+            statement.setString(i, metric.name());
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            List<FlowTimeBucketDTO> buckets = new ArrayList<>();
+            while (resultSet.next()){
+                buckets.add(new FlowTimeBucketDTO(
+                        resultSet.getLong("board_id"),
+                        metric,
+                        resultSet.getInt("bucket"),
+                        resultSet.getLong("cards")
+                ));
+            }
+            return buckets;
+        }
+    }
+
+}
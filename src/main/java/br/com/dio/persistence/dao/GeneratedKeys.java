@@ -0,0 +1,42 @@
+package br.com.dio.persistence.dao;
+
+import lombok.NoArgsConstructor;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static lombok.AccessLevel.PRIVATE;
+
+@NoArgsConstructor(access = PRIVATE)
+final class GeneratedKeys {
+
+    static <T> void assign(final Statement statement, final List<T> entities,
+                           final BiConsumer<T, Long> idSetter) throws SQLException {
+        var keys = read(statement, entities.size());
+        for (var i = 0; i < entities.size(); i++){
+            idSetter.accept(entities.get(i), keys.get(i));
+        }
+    }
+
+    /**
+     * Lê as chaves geradas pelo último comando (ou lote), falhando se o driver não devolver exatamente uma
+     * chave por linha inserida: atribuir as que vieram deixaria ids nulos ou trocados sem aviso.
+     */
+    static List<Long> read(final Statement statement, final int expected) throws SQLException {
+        List<Long> keys = new ArrayList<>(expected);
+        try(var resultSet = statement.getGeneratedKeys()){
+            while (resultSet.next()){
+                keys.add(resultSet.getLong(1));
+            }
+        }
+        if (keys.size() != expected){
+            throw new SQLException("O banco devolveu %s chaves geradas para %s linhas inseridas"
+                    .formatted(keys.size(), expected));
+        }
+        return keys;
+    }
+
+}
@@ -0,0 +1,94 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.exception.DataAccessException;
+import lombok.NoArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Leitura em streaming para consultas grandes: cursor forward-only/read-only com o fetch size de
+ * {@code db.streaming.fetchSize}, aplicado só quando o banco é MySQL ({@link Integer#MIN_VALUE} faz o
+ * Connector/J entregar linha a linha; um valor positivo combinado com {@code db.datasource.useCursorFetch=true}
+ * usa cursor no servidor). O padrão 0 mantém o comportamento do driver, e outros bancos (o H2 dos testes
+ * recusa fetch size negativo) nunca recebem o valor. Enquanto o stream estiver aberto nenhuma outra consulta
+ * pode ser feita na mesma conexão.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class ResultSetStreams {
+
+    private static final int FETCH_SIZE =
+            Integer.parseInt(getProperty("db.streaming.fetchSize", "0").trim());
+    private static final String MYSQL = "MySQL";
+
+    @FunctionalInterface
+    interface RowMapper<T> {
+
+        T map(ResultSet resultSet) throws SQLException;
+
+    }
+
+    static PreparedStatement prepare(final Connection connection, final String sql) throws SQLException {
+        var statement = connection.prepareStatement(sql, TYPE_FORWARD_ONLY, CONCUR_READ_ONLY);
+        try {
+            if (FETCH_SIZE != 0 && isMySql(connection)) {
+                statement.setFetchSize(FETCH_SIZE);
+            }
+            return statement;
+        } catch (SQLException ex) {
+            statement.close();
+            throw ex;
+        }
+    }
+
+    private static boolean isMySql(final Connection connection) throws SQLException {
+        return MYSQL.equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+
+    static <T> Stream<T> stream(final PreparedStatement statement, final RowMapper<T> mapper) throws SQLException {
+        ResultSet resultSet;
+        try {
+            resultSet = statement.executeQuery();
+        } catch (SQLException ex) {
+            statement.close();
+            throw ex;
+        }
+        var spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super T> action) {
+                try {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(resultSet));
+                    return true;
+                } catch (SQLException ex) {
+                    throw new DataAccessException("Erro ao ler o resultado em streaming", ex);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> close(resultSet, statement));
+    }
+
+    private static void close(final ResultSet resultSet, final PreparedStatement statement) {
+        try (statement; resultSet) {
+            // fecha o result set e depois o statement
+        } catch (SQLException ex) {
+            throw new DataAccessException("Erro ao encerrar a leitura em streaming", ex);
+        }
+    }
+
+}
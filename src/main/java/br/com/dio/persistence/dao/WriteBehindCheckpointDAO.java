@@ -0,0 +1,34 @@
+package br.com.dio.persistence.dao;
+
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Última sequência do journal de write-behind já aplicada no banco. É atualizada na mesma transação
+ * do lote, então a reaplicação do journal após uma queda nunca repete uma unidade.
+ */
+@AllArgsConstructor
+public class WriteBehindCheckpointDAO {
+
+    private final Connection connection;
+
+    public long findLastSequence() throws SQLException {
+        try(var statement = connection.prepareStatement("SELECT last_sequence FROM WRITE_BEHIND_CHECKPOINT WHERE id = 1;")){
+            var resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getLong("last_sequence") : 0;
+        }
+    }
+
+    public void update(final long lastSequence) throws SQLException {
+        var sql = "UPDATE WRITE_BEHIND_CHECKPOINT SET last_sequence = ? WHERE id = 1 AND last_sequence < ?;";
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            statement.setLong(i ++, lastSequence);
+            statement.setLong(i, lastSequence);
+            statement.executeUpdate();
+        }
+    }
+
+}
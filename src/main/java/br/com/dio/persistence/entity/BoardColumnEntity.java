@@ -38,13 +38,17 @@ public class BoardColumnEntity {
         if (card != null) {
             cards.add(card);
             card.setBoardColumn(this);
-            logger.debug("Card {} adicionado à coluna {}", card.getId(), id);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Card {} adicionado à coluna {}", card.getId(), id);
+            }
         }
     }
     
     public void removeCard(CardEntity card) {
         if (card != null && cards.remove(card)) {
-            logger.debug("Card {} removido da coluna {}", card.getId(), id);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Card {} removido da coluna {}", card.getId(), id);
+            }
         }
     }
     
@@ -31,12 +31,16 @@ public class BoardEntity {
     private List<BoardColumnEntity> boardColumns = new ArrayList<>();
 
     public BoardColumnEntity getInitialColumn(){
-        logger.debug("Buscando coluna inicial do board {}", id);
+        if (logger.isTraceEnabled()) {
+            logger.trace("Buscando coluna inicial do board {}", id);
+        }
         return getFilteredColumn(bc -> bc.getKind().equals(INITIAL));
     }
 
     public BoardColumnEntity getCancelColumn(){
-        logger.debug("Buscando coluna de cancelamento do board {}", id);
+        if (logger.isTraceEnabled()) {
+            logger.trace("Buscando coluna de cancelamento do board {}", id);
+        }
         return getFilteredColumn(bc -> bc.getKind().equals(CANCEL));
     }
 
@@ -53,7 +57,9 @@ public class BoardEntity {
     public void addColumn(BoardColumnEntity column) {
         if (column != null) {
             boardColumns.add(column);
-            logger.debug("Coluna {} adicionada ao board {}", column.getName(), id);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Coluna {} adicionada ao board {}", column.getName(), id);
+            }
         }
     }
     
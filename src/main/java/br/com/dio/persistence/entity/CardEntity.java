@@ -33,14 +33,18 @@ public class CardEntity {
     public void setTitle(String title) {
         if (title != null && !title.trim().isEmpty()) {
             this.title = title.trim();
-            logger.debug("Título do card {} definido como: {}", id, this.title);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Título do card {} definido como: {}", id, this.title);
+            }
         }
     }
     
     public void setDescription(String description) {
         if (description != null) {
             this.description = description.trim();
-            logger.debug("Descrição do card {} atualizada", id);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Descrição do card {} atualizada", id);
+            }
         }
     }
     
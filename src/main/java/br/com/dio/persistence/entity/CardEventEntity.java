@@ -0,0 +1,29 @@
+package br.com.dio.persistence.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Evento do histórico do card. {@code boardColumnId} é a coluna em que o card estava quando o evento foi gravado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardEventEntity {
+
+    private Long id;
+    private Long cardId;
+    private CardEventTypeEnum type;
+    private Long boardColumnId;
+    private String reason;
+    private OffsetDateTime occurredAt;
+
+    public CardEventEntity(final Long cardId, final CardEventTypeEnum type,
+                           final String reason, final OffsetDateTime occurredAt) {
+        this(null, cardId, type, null, reason, occurredAt);
+    }
+
+}
@@ -0,0 +1,15 @@
+package br.com.dio.persistence.entity;
+
+import java.util.stream.Stream;
+
+public enum CardEventTypeEnum {
+
+    CREATE, MOVE, BLOCK, UNBLOCK, CANCEL;
+
+    public static CardEventTypeEnum findByName(final String name){
+        return Stream.of(CardEventTypeEnum.values())
+                .filter(e -> e.name().equals(name))
+                .findFirst().orElseThrow();
+    }
+
+}
@@ -0,0 +1,18 @@
+package br.com.dio.persistence.entity;
+
+import java.util.stream.Stream;
+
+/**
+ * LEAD: da criação do card até a coluna final. CYCLE: da saída da coluna inicial até a coluna final.
+ */
+public enum FlowTimeMetricEnum {
+
+    LEAD, CYCLE;
+
+    public static FlowTimeMetricEnum findByName(final String name){
+        return Stream.of(FlowTimeMetricEnum.values())
+                .filter(m -> m.name().equals(name))
+                .findFirst().orElseThrow();
+    }
+
+}
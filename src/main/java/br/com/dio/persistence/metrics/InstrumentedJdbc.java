@@ -0,0 +1,133 @@
+package br.com.dio.persistence.metrics;
+
+import lombok.NoArgsConstructor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Proxies JDBC que medem cada execução de statement e contam as linhas lidas ou afetadas,
+ * repassando todo o resto para a conexão do pool.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class InstrumentedJdbc {
+
+    static Connection wrap(final Connection connection, final QueryMetrics metrics) {
+        return proxy(Connection.class, new ConnectionHandler(connection, metrics));
+    }
+
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedJdbc.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invokeTarget(final Method method, final Object target, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private record ConnectionHandler(Connection target, QueryMetrics metrics) implements InvocationHandler {
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            var result = invokeTarget(method, target, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                var sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return proxy(method.getReturnType(), new StatementHandler(statement, sql, metrics));
+            }
+            return result;
+        }
+
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final QueryMetrics metrics;
+        private String sql;
+        private StatementStats stats;
+
+        private StatementHandler(final Statement target, final String sql, final QueryMetrics metrics) {
+            this.target = target;
+            this.sql = sql;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            var name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            var result = invokeTarget(method, target, args);
+            if (result instanceof ResultSet resultSet && "getResultSet".equals(name) && stats != null) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, stats));
+            }
+            return result;
+        }
+
+        private Object execute(final Method method, final Object[] args) throws Throwable {
+            if (args != null && args.length > 0 && args[0] instanceof String statementSql) {
+                sql = statementSql;
+            }
+            stats = metrics.statsFor(sql);
+            var start = System.nanoTime();
+            Object result;
+            try {
+                result = invokeTarget(method, target, args);
+            } catch (Throwable ex) {
+                metrics.recordExecution(stats, sql, System.nanoTime() - start, 0, true);
+                throw ex;
+            }
+            metrics.recordExecution(stats, sql, System.nanoTime() - start, affectedRows(result), false);
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, stats));
+            }
+            return result;
+        }
+
+        private long affectedRows(final Object result) {
+            if (result instanceof Integer count) {
+                return Math.max(count, 0);
+            }
+            if (result instanceof Long count) {
+                return Math.max(count, 0);
+            }
+            var rows = 0L;
+            if (result instanceof int[] counts) {
+                for (var count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[] counts) {
+                for (var count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+
+    }
+
+    private record ResultSetHandler(ResultSet target, StatementStats stats) implements InvocationHandler {
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            var result = invokeTarget(method, target, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                stats.recordRow();
+            }
+            return result;
+        }
+
+    }
+
+}
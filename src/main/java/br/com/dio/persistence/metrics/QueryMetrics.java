@@ -0,0 +1,128 @@
+package br.com.dio.persistence.metrics;
+
+import br.com.dio.dto.QueryStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Latência (histograma com percentis) e linhas lidas/afetadas por SQL, além do tempo de aquisição de conexão.
+ * As conexões entregues pelo {@code ConnectionConfig} passam por {@link #instrument(Connection)}.
+ */
+public final class QueryMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetrics.class);
+    private static final QueryMetrics INSTANCE = new QueryMetrics(
+            Boolean.parseBoolean(getProperty("db.metrics.enabled", "true").trim()),
+            Long.parseLong(getProperty("db.metrics.slowQueryThresholdMs", "200").trim())
+    );
+    private static final String ACQUIRE_LABEL = "[aquisição de conexão]";
+    private static final String UNKNOWN_SQL = "[sql desconhecido]";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern CASE_BRANCHES = Pattern.compile("(WHEN \\? THEN \\? )+");
+
+    private final boolean enabled;
+    private final long slowQueryThresholdNanos;
+    private final ConcurrentMap<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private volatile StatementStats acquire = new StatementStats(ACQUIRE_LABEL);
+
+    public QueryMetrics(final boolean enabled, final long slowQueryThresholdMillis) {
+        this.enabled = enabled;
+        this.slowQueryThresholdNanos = MILLISECONDS.toNanos(slowQueryThresholdMillis);
+    }
+
+    public static QueryMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public Connection instrument(final Connection connection) {
+        return enabled ? InstrumentedJdbc.wrap(connection, this) : connection;
+    }
+
+    public void recordAcquire(final long elapsedNanos) {
+        if (enabled) {
+            acquire.recordExecution(elapsedNanos, 0, false);
+        }
+    }
+
+    public QueryStatsDTO getAcquireStats() {
+        return acquire.toDTO();
+    }
+
+    /**
+     * Estatísticas de cada SQL, da que mais consumiu tempo no total para a que menos consumiu.
+     */
+    public List<QueryStatsDTO> getQueryStats() {
+        return statements.values().stream()
+                .sorted(Comparator.comparingDouble(StatementStats::totalMillis).reversed())
+                .map(StatementStats::toDTO)
+                .toList();
+    }
+
+    public void reset() {
+        statements.clear();
+        acquire = new StatementStats(ACQUIRE_LABEL);
+    }
+
+    public void dump(final Path file) throws IOException {
+        var lines = new ArrayList<String>();
+        lines.add("# Métricas de SQL geradas em " + OffsetDateTime.now());
+        lines.add(format(getAcquireStats()));
+        getQueryStats().forEach(stats -> lines.add(format(stats)));
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        Files.write(file, lines, UTF_8);
+        logger.info("Métricas de SQL exportadas para {}", file.toAbsolutePath());
+    }
+
+    public static String format(final QueryStatsDTO stats) {
+        return String.format(Locale.ROOT,
+                "execuções=%d erros=%d linhas=%d total=%.1fms média=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms máx=%.2fms | %s",
+                stats.executions(), stats.errors(), stats.rows(), stats.totalMillis(), stats.meanMillis(),
+                stats.p50Millis(), stats.p95Millis(), stats.p99Millis(), stats.maxMillis(), stats.sql());
+    }
+
+    /**
+     * Agrupa SQLs que só diferem na quantidade de parâmetros de listas IN e ramos CASE, como os montados em lote.
+     */
+    static String normalize(final String sql) {
+        if (sql == null) {
+            return UNKNOWN_SQL;
+        }
+        var normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = PARAMETER_LIST.matcher(normalized).replaceAll("?, ...");
+        return CASE_BRANCHES.matcher(normalized).replaceAll("WHEN ? THEN ? ... ");
+    }
+
+    StatementStats statsFor(final String sql) {
+        return statements.computeIfAbsent(normalize(sql), StatementStats::new);
+    }
+
+    void recordExecution(final StatementStats stats, final String sql, final long elapsedNanos,
+                         final long rows, final boolean failed) {
+        stats.recordExecution(elapsedNanos, rows, failed);
+        if (elapsedNanos >= slowQueryThresholdNanos) {
+            logger.warn("Consulta lenta ({} ms): {}", NANOSECONDS.toMillis(elapsedNanos), normalize(sql));
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package br.com.dio.persistence.metrics;
+
+import br.com.dio.dto.QueryStatsDTO;
+import org.HdrHistogram.ConcurrentHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+final class StatementStats {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final String sql;
+    private final ConcurrentHistogram latencyMicros = new ConcurrentHistogram(3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    StatementStats(final String sql) {
+        this.sql = sql;
+    }
+
+    void recordExecution(final long elapsedNanos, final long affectedRows, final boolean failed) {
+        latencyMicros.recordValue(NANOSECONDS.toMicros(elapsedNanos));
+        totalNanos.add(elapsedNanos);
+        rows.add(affectedRows);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    void recordRow() {
+        rows.increment();
+    }
+
+    double totalMillis() {
+        return totalNanos.sum() / 1_000_000.0;
+    }
+
+    QueryStatsDTO toDTO() {
+        var histogram = latencyMicros.copy();
+        return new QueryStatsDTO(
+                sql,
+                histogram.getTotalCount(),
+                errors.sum(),
+                rows.sum(),
+                totalMillis(),
+                histogram.getMean() / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(95) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI
+        );
+    }
+
+}
@@ -0,0 +1,97 @@
+package br.com.dio.persistence.migration;
+
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Checksum SHA-256 do changelog mestre e de todos os arquivos de migração (nome e conteúdo, em ordem de nome),
+ * lidos do classpath tanto de diretórios quanto do jar. Qualquer migração nova ou alterada muda o valor.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class ChangelogChecksum {
+
+    static final String MASTER = "db/changelog/db.changelog-master.yml";
+    static final String MIGRATIONS = "db/changelog/migrations";
+
+    static String compute() throws IOException {
+        var digest = sha256();
+        update(digest, MASTER, readResource(MASTER));
+        var url = ChangelogChecksum.class.getClassLoader().getResource(MIGRATIONS);
+        if (url == null) {
+            throw new IOException("Diretório de migrações %s não encontrado no classpath".formatted(MIGRATIONS));
+        }
+        try {
+            var uri = url.toURI();
+            if (uri.getScheme().equals("jar")) {
+                try (var fileSystem = newFileSystem(uri)) {
+                    updateAll(digest, fileSystem.getPath("/" + MIGRATIONS));
+                } catch (FileSystemAlreadyExistsException ex) {
+                    updateAll(digest, FileSystems.getFileSystem(uri).getPath("/" + MIGRATIONS));
+                }
+            } else {
+                updateAll(digest, Path.of(uri));
+            }
+        } catch (URISyntaxException ex) {
+            throw new IOException("Caminho inválido para as migrações: %s".formatted(url), ex);
+        }
+        return "changelog-" + HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void updateAll(final MessageDigest digest, final Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(Files::isRegularFile)
+                    .sorted((a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString()))
+                    .toList();
+        }
+        for (var file : files) {
+            update(digest, file.getFileName().toString(), Files.readAllBytes(file));
+        }
+    }
+
+    private static void update(final MessageDigest digest, final String name, final byte[] content) {
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(content);
+        digest.update((byte) 0);
+    }
+
+    private static byte[] readResource(final String name) throws IOException {
+        try (var input = ChangelogChecksum.class.getClassLoader().getResourceAsStream(name)) {
+            if (input == null) {
+                throw new IOException("Changelog %s não encontrado no classpath".formatted(name));
+            }
+            return input.readAllBytes();
+        }
+    }
+
+    private static FileSystem newFileSystem(final URI uri) throws IOException {
+        return FileSystems.newFileSystem(uri, Map.of());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
@@ -5,6 +5,8 @@ import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.LiquibaseException;
 import liquibase.resource.ClassLoaderResourceAccessor;
 import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -12,32 +14,44 @@ import java.io.PrintStream;
 import java.sql.Connection;
 import java.sql.SQLException;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
 
+/**
+ * Aplica as migrações do Liquibase na conexão recebida. Depois de uma atualização completa, a última linha
+ * de DATABASECHANGELOG recebe como tag o checksum do changelog ({@link ChangelogChecksum}); nas partidas
+ * seguintes, se a tag do changelog atual já estiver no banco, o Liquibase nem é inicializado.
+ */
 @AllArgsConstructor
 public class MigrationStrategy {
 
+    private static final Logger logger = LoggerFactory.getLogger(MigrationStrategy.class);
+
     private final Connection connection;
 
     public void executeMigration(){
+        var checksum = computeChecksum();
+        if (checksum != null && isCurrent(checksum)){
+            logger.info("Schema já está na versão do changelog ({}), Liquibase não executado", checksum);
+            return;
+        }
         var originalOut = System.out;
         var originalErr = System.err;
         try(var fos = new FileOutputStream("liquibase.log")){
             System.setOut(new PrintStream(fos));
             System.setErr(new PrintStream(fos));
-            try(
-                    var connection = getConnection();
-                    var jdbcConnection = new JdbcConnection(connection);
-            ){
-                var liquibase = new Liquibase(
-                        "/db/changelog/db.changelog-master.yml",
-                        new ClassLoaderResourceAccessor(),
-                        jdbcConnection);
-                liquibase.update();
-            } catch (SQLException | LiquibaseException e) {
-                e.printStackTrace();
-                System.setErr(originalErr);
+            // a conexão é de quem chamou: o JdbcConnection não é fechado aqui para não devolvê-la ao pool
+            var jdbcConnection = new JdbcConnection(connection);
+            var liquibase = new Liquibase(
+                    "/" + ChangelogChecksum.MASTER,
+                    new ClassLoaderResourceAccessor(),
+                    jdbcConnection);
+            liquibase.update();
+            if (checksum != null){
+                liquibase.tag(checksum);
             }
+        } catch (LiquibaseException e) {
+            e.printStackTrace();
+            System.setErr(originalErr);
         } catch (IOException ex){
             ex.printStackTrace();
         } finally {
@@ -46,4 +60,41 @@ public class MigrationStrategy {
         }
     }
 
+    private String computeChecksum(){
+        if (!Boolean.parseBoolean(getProperty("db.migration.skipIfCurrent", "true").trim())){
+            return null;
+        }
+        try {
+            return ChangelogChecksum.compute();
+        } catch (IOException ex){
+            logger.warn("Não foi possível calcular o checksum do changelog: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Uma única consulta; se DATABASECHANGELOG ainda não existir (banco novo), o Liquibase é executado.
+     */
+    private boolean isCurrent(final String checksum){
+        var sql = "SELECT COUNT(1) FROM DATABASECHANGELOG WHERE TAG = ?;";
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setString(1, checksum);
+            var resultSet = statement.executeQuery();
+            return resultSet.next() && resultSet.getInt(1) > 0;
+        } catch (SQLException ex){
+            logger.debug("Tabela de controle do Liquibase indisponível: {}", ex.getMessage());
+            return false;
+        } finally {
+            rollbackQuietly();
+        }
+    }
+
+    private void rollbackQuietly(){
+        try {
+            connection.rollback();
+        } catch (SQLException ex){
+            logger.warn("Erro ao encerrar a transação da verificação de migrações: {}", ex.getMessage());
+        }
+    }
+
 }
@@ -0,0 +1,21 @@
+package br.com.dio.persistence.repository;
+
+import lombok.NoArgsConstructor;
+
+import java.sql.Connection;
+
+import static lombok.AccessLevel.PRIVATE;
+
+@NoArgsConstructor(access = PRIVATE)
+public final class BoardRepositories {
+
+    /**
+     * Repositório em memória se o {@link InMemoryBoardStore} foi iniciado; senão, direto na conexão.
+     */
+    public static BoardRepository forConnection(final Connection connection) {
+        return InMemoryBoardStore.getInstance()
+                .<BoardRepository>map(InMemoryBoardRepository::new)
+                .orElseGet(() -> new JdbcBoardRepository(connection));
+    }
+
+}
@@ -0,0 +1,60 @@
+package br.com.dio.persistence.repository;
+
+import br.com.dio.dto.BoardColumnDTO;
+import br.com.dio.dto.CardColumnStateDTO;
+import br.com.dio.dto.CardDetailsDTO;
+import br.com.dio.dto.CardLocationDTO;
+import br.com.dio.dto.CardMoveDTO;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.CardEventEntity;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Armazenamento dos cards usado pelo {@link br.com.dio.service.CardService}. As operações condicionais
+ * retornam {@code false} quando o card não está no estado esperado, e o serviço explica o motivo a partir
+ * de {@link #findCardById(Long)}. As alterações só valem depois de {@link #commit(List)}.
+ */
+public interface BoardRepository {
+
+    /**
+     * Insere os cards na coluna informada em cada um e atribui os ids.
+     */
+    void insertCards(List<CardEntity> cards) throws SQLException;
+
+    Optional<CardDetailsDTO> findCardById(Long id) throws SQLException;
+
+    Map<Long, CardColumnStateDTO> findColumnStates(List<Long> ids) throws SQLException;
+
+    Map<Long, CardLocationDTO> findLocations(List<Long> ids) throws SQLException;
+
+    List<BoardColumnDTO> findColumnsWithDetails(Long boardId) throws SQLException;
+
+    List<CardEntity> findCardsPage(Long columnId, Long afterCardId, int limit) throws SQLException;
+
+    /**
+     * Move o card conforme {@code transitions} (coluna atual → destino) se ele não estiver bloqueado.
+     */
+    boolean moveIfUnblocked(Long cardId, Map<Long, Long> transitions) throws SQLException;
+
+    /**
+     * Aplica cada movimentação se o card ainda estiver na coluna de origem e desbloqueado.
+     */
+    boolean[] moveAll(List<CardMoveDTO> moves) throws SQLException;
+
+    boolean blockIfUnblocked(Long cardId, String reason, Collection<Long> blockableColumnIds) throws SQLException;
+
+    boolean unblock(Long cardId, String reason) throws SQLException;
+
+    /**
+     * Confirma as alterações feitas desde o último commit junto com os eventos do histórico.
+     */
+    void commit(List<CardEventEntity> events) throws SQLException;
+
+    void rollback() throws SQLException;
+
+}
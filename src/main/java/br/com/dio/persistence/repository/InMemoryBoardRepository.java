@@ -0,0 +1,304 @@
+package br.com.dio.persistence.repository;
+
+import br.com.dio.dto.BoardColumnDTO;
+import br.com.dio.dto.CardColumnStateDTO;
+import br.com.dio.dto.CardDetailsDTO;
+import br.com.dio.dto.CardLocationDTO;
+import br.com.dio.dto.CardMoveDTO;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.CardEventEntity;
+import br.com.dio.persistence.repository.InMemoryBoardStore.CardRow;
+
+import java.io.IOException;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repositório sobre o {@link InMemoryBoardStore}. A primeira alteração toma o lock de escrita do store, que
+ * fica com a operação até o commit ou rollback; assim as validações do serviço e as alterações são atômicas
+ * como na transação do banco. O rollback desfaz as alterações em memória na ordem inversa.
+ */
+final class InMemoryBoardRepository implements BoardRepository {
+
+    private static final int VARCHAR_LENGTH = 255;
+
+    private final InMemoryBoardStore store;
+    private final List<WriteBehindOp> ops = new ArrayList<>();
+    private final Deque<Runnable> undo = new ArrayDeque<>();
+
+    InMemoryBoardRepository(final InMemoryBoardStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void insertCards(final List<CardEntity> cards) throws SQLException {
+        for (var card : cards) {
+            checkText("title", card.getTitle(), false);
+            checkText("description", card.getDescription(), false);
+        }
+        begin();
+        var now = OffsetDateTime.now();
+        for (var card : cards) {
+            var columnId = card.getBoardColumn().getId();
+            if (columnId == null || store.column(columnId) == null) {
+                throw new SQLException("A coluna de id %s não foi encontrada".formatted(columnId));
+            }
+            var row = new CardRow(store.nextCardId(), card.getTitle(), card.getDescription(), columnId);
+            store.addCard(row);
+            card.setId(row.id);
+            ops.add(WriteBehindOp.create(row.id, columnId, row.title, row.description, now));
+            undo.push(() -> store.removeCard(row));
+        }
+    }
+
+    @Override
+    public Optional<CardDetailsDTO> findCardById(final Long id) {
+        var lock = store.lock.readLock();
+        lock.lock();
+        try {
+            var card = store.card(id);
+            return card == null ? Optional.empty() : Optional.of(card.toDetails(store.column(card.columnId).name));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Map<Long, CardColumnStateDTO> findColumnStates(final List<Long> ids) {
+        Map<Long, CardColumnStateDTO> states = new HashMap<>();
+        var lock = store.lock.readLock();
+        lock.lock();
+        try {
+            for (var id : ids) {
+                var card = store.card(id);
+                if (card != null) {
+                    states.put(id, new CardColumnStateDTO(id, card.columnId, card.blocked));
+                }
+            }
+            return states;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Map<Long, CardLocationDTO> findLocations(final List<Long> ids) {
+        Map<Long, CardLocationDTO> locations = new HashMap<>();
+        var lock = store.lock.readLock();
+        lock.lock();
+        try {
+            for (var id : ids) {
+                var card = store.card(id);
+                if (card != null) {
+                    locations.put(id, new CardLocationDTO(id, store.column(card.columnId).boardId, card.columnId));
+                }
+            }
+            return locations;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<BoardColumnDTO> findColumnsWithDetails(final Long boardId) {
+        var lock = store.lock.readLock();
+        lock.lock();
+        try {
+            return store.columnsOf(boardId).stream()
+                    .map(c -> new BoardColumnDTO(c.id, c.name, c.kind, c.cards.size()))
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<CardEntity> findCardsPage(final Long columnId, final Long afterCardId, final int limit) {
+        var lock = store.lock.readLock();
+        lock.lock();
+        try {
+            var column = store.column(columnId);
+            if (column == null) {
+                return List.of();
+            }
+            List<CardEntity> cards = new ArrayList<>(Math.min(limit, column.cards.size()));
+            for (var row : column.cards.tailMap(afterCardId, false).values()) {
+                if (cards.size() == limit) {
+                    break;
+                }
+                var card = new CardEntity();
+                card.setId(row.id);
+                card.setTitle(row.title);
+                card.setDescription(row.description);
+                cards.add(card);
+            }
+            return cards;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean moveIfUnblocked(final Long cardId, final Map<Long, Long> transitions) {
+        begin();
+        var card = store.card(cardId);
+        if (card == null || card.blocked || !transitions.containsKey(card.columnId)) {
+            return false;
+        }
+        move(card, transitions.get(card.columnId), OffsetDateTime.now());
+        return true;
+    }
+
+    @Override
+    public boolean[] moveAll(final List<CardMoveDTO> moves) {
+        begin();
+        var now = OffsetDateTime.now();
+        var applied = new boolean[moves.size()];
+        for (var i = 0; i < moves.size(); i++) {
+            var move = moves.get(i);
+            var card = store.card(move.cardId());
+            if (card != null && !card.blocked && card.columnId == move.fromColumnId()) {
+                move(card, move.toColumnId(), now);
+                applied[i] = true;
+            }
+        }
+        return applied;
+    }
+
+    @Override
+    public boolean blockIfUnblocked(final Long cardId, final String reason,
+                                    final Collection<Long> blockableColumnIds) throws SQLException {
+        checkText("block_reason", reason, false);
+        begin();
+        var card = store.card(cardId);
+        if (card == null || card.blocked || !blockableColumnIds.contains(card.columnId)) {
+            return false;
+        }
+        var now = OffsetDateTime.now();
+        card.blocked = true;
+        card.blockReason = reason;
+        card.blockedAt = now;
+        card.blocksAmount++;
+        ops.add(WriteBehindOp.block(cardId, reason, now));
+        undo.push(() -> {
+            card.blocked = false;
+            card.blockReason = null;
+            card.blockedAt = null;
+            card.blocksAmount--;
+        });
+        return true;
+    }
+
+    @Override
+    public boolean unblock(final Long cardId, final String reason) throws SQLException {
+        checkText("unblock_reason", reason, true);
+        begin();
+        var card = store.card(cardId);
+        if (card == null || !card.blocked) {
+            return false;
+        }
+        var now = OffsetDateTime.now();
+        var blockReason = card.blockReason;
+        var blockedAt = card.blockedAt;
+        var blockedSeconds = card.blockedSeconds;
+        card.blockedSeconds += Duration.between(blockedAt, now).toSeconds();
+        card.blocked = false;
+        card.blockReason = null;
+        card.blockedAt = null;
+        ops.add(WriteBehindOp.unblock(cardId, reason, now));
+        undo.push(() -> {
+            card.blocked = true;
+            card.blockReason = blockReason;
+            card.blockedAt = blockedAt;
+            card.blockedSeconds = blockedSeconds;
+        });
+        return true;
+    }
+
+    /**
+     * Anota a unidade no journal com o lock ainda tomado, para que a ordem do journal seja a das alterações,
+     * e só então libera o lock e espera o fsync, que é compartilhado com os commits concorrentes.
+     */
+    @Override
+    public void commit(final List<CardEventEntity> events) throws SQLException {
+        if (!store.lock.isWriteLockedByCurrentThread()) {
+            return;
+        }
+        if (ops.isEmpty() && events.isEmpty()) {
+            release();
+            return;
+        }
+        long sequence;
+        try {
+            sequence = store.append(ops, events);
+        } catch (IOException ex) {
+            rollback();
+            throw new SQLException("Erro ao gravar o journal do write-behind", ex);
+        }
+        release();
+        try {
+            store.sync(sequence);
+        } catch (IOException ex) {
+            throw new SQLException("Erro ao sincronizar o journal do write-behind", ex);
+        }
+    }
+
+    @Override
+    public void rollback() {
+        if (!store.lock.isWriteLockedByCurrentThread()) {
+            return;
+        }
+        while (!undo.isEmpty()) {
+            undo.pop().run();
+        }
+        release();
+    }
+
+    /**
+     * As mesmas restrições das colunas no banco (NOT NULL e VARCHAR(255)), checadas antes de alterar a memória:
+     * um valor aceito aqui e recusado pelo banco só seria percebido no flush, já depois do commit.
+     */
+    private static void checkText(final String column, final String value, final boolean nullable)
+            throws SQLException {
+        if (value == null) {
+            if (nullable) {
+                return;
+            }
+            throw new SQLIntegrityConstraintViolationException("A coluna %s não pode ser nula".formatted(column));
+        }
+        if (value.codePointCount(0, value.length()) > VARCHAR_LENGTH) {
+            throw new SQLDataException("O valor da coluna %s passa de %s caracteres".formatted(column, VARCHAR_LENGTH));
+        }
+    }
+
+    private void begin() {
+        if (!store.lock.isWriteLockedByCurrentThread()) {
+            store.lock.writeLock().lock();
+        }
+    }
+
+    private void release() {
+        ops.clear();
+        undo.clear();
+        store.lock.writeLock().unlock();
+    }
+
+    private void move(final CardRow card, final long toColumnId, final OffsetDateTime at) {
+        var fromColumnId = card.columnId;
+        store.moveCard(card, toColumnId);
+        ops.add(WriteBehindOp.move(card.id, fromColumnId, toColumnId, at));
+        undo.push(() -> store.moveCard(card, fromColumnId));
+    }
+
+}
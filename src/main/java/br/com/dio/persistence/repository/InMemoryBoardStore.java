@@ -0,0 +1,359 @@
+package br.com.dio.persistence.repository;
+
+import br.com.dio.dto.CardDetailsDTO;
+import br.com.dio.dto.WriteBehindStatsDTO;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.config.ConnectionSource;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.dao.WriteBehindCheckpointDAO;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEventEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+
+/**
+ * Estado dos cards em memória ({@code repository.type=memory}), indexado por id do card e por coluna,
+ * com as alterações gravadas no banco por write-behind. Antes de confirmar, cada unidade vai para o journal
+ * local; na partida, o que está no journal e ainda não chegou ao banco é reaplicado antes de carregar o estado.
+ * <p>
+ * Supõe que este processo é o único a escrever cards no banco (os ids de novos cards são atribuídos aqui).
+ * Histórico, métricas de fluxo e leituras em streaming continuam no banco e refletem as alterações após o flush.
+ */
+public final class InMemoryBoardStore implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryBoardStore.class);
+
+    private static volatile InMemoryBoardStore instance;
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongMap<CardRow> cards = new LongMap<>(1 << 16);
+    private final LongMap<ColumnRow> columns = new LongMap<>();
+    private final LongMap<List<ColumnRow>> boardColumns = new LongMap<>();
+    private final WriteBehindJournal journal;
+    private final WriteBehindJournal deadLetter;
+    private final WriteBehindWriter writer;
+    private long lastCardId;
+    private long lastSequence;
+
+    private InMemoryBoardStore(final WriteBehindJournal journal, final WriteBehindJournal deadLetter,
+                               final WriteBehindWriter writer, final long lastSequence) {
+        this.journal = journal;
+        this.deadLetter = deadLetter;
+        this.writer = writer;
+        this.lastSequence = lastSequence;
+    }
+
+    public static Optional<InMemoryBoardStore> getInstance() {
+        return Optional.ofNullable(instance);
+    }
+
+    public static boolean isEnabled() {
+        return getProperty("repository.type", "jdbc").trim().equalsIgnoreCase("memory");
+    }
+
+    /**
+     * Reaplica o journal pendente, carrega boards e cards do banco e inicia o write-behind.
+     */
+    public static InMemoryBoardStore start() throws SQLException, IOException {
+        return start(ConnectionConfig::getConnection);
+    }
+
+    static synchronized InMemoryBoardStore start(final ConnectionSource connections)
+            throws SQLException, IOException {
+        if (instance != null) {
+            return instance;
+        }
+        var fsync = Boolean.parseBoolean(getProperty("repository.journal.fsync", "true").trim());
+        var journal = WriteBehindJournal.open(Path.of(getProperty("repository.journal.path", "data/write-behind.journal")),
+                fsync, Long.parseLong(getProperty("repository.journal.segmentBytes",
+                        String.valueOf(WriteBehindJournal.DEFAULT_SEGMENT_BYTES)).trim()));
+        WriteBehindJournal deadLetter = null;
+        try (var connection = connections.getConnection()) {
+            deadLetter = WriteBehindJournal.open(Path.of(getProperty("repository.writeBehind.deadLetterPath",
+                    "data/write-behind.deadletter")), fsync);
+            var lastSequence = replay(connection, journal, deadLetter);
+            var writer = new WriteBehindWriter(connections, journal, deadLetter, lastSequence,
+                    Integer.parseInt(getProperty("repository.writeBehind.queueSize", "100000").trim()),
+                    Integer.parseInt(getProperty("repository.writeBehind.batchSize", "500").trim()),
+                    Long.parseLong(getProperty("repository.writeBehind.flushIntervalMs", "50").trim()));
+            var store = new InMemoryBoardStore(journal, deadLetter, writer, lastSequence);
+            store.load(connection);
+            writer.start();
+            instance = store;
+            logger.info("Repositório em memória carregado: {} cards em {} colunas", store.cards.size(),
+                    store.columns.size());
+            return store;
+        } catch (SQLException | IOException | RuntimeException ex) {
+            journal.close();
+            if (deadLetter != null) {
+                deadLetter.close();
+            }
+            throw ex;
+        }
+    }
+
+    public static synchronized void shutdown() {
+        if (instance == null) {
+            return;
+        }
+        try {
+            instance.close();
+        } catch (IOException | InterruptedException ex) {
+            logger.error("Erro ao encerrar o repositório em memória: {}", ex.getMessage(), ex);
+        } finally {
+            instance = null;
+        }
+    }
+
+    /**
+     * Registra as colunas de um board recém-criado no banco.
+     */
+    public void addBoard(final BoardEntity board) {
+        lock.writeLock().lock();
+        try {
+            for (var column : board.getBoardColumns()) {
+                addColumn(new ColumnRow(column.getId(), board.getId(), column.getName(), column.getKind(),
+                        column.getOrder()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tira o board da memória antes de excluí-lo no banco. O lock de escrita espera as operações em andamento;
+     * depois disso, as operações nos cards do board são recusadas como card ou coluna inexistente, e um
+     * {@link #flush()} leva ao banco tudo o que foi confirmado antes. Devolve o que recoloca o board na
+     * memória, caso a exclusão no banco falhe.
+     */
+    public Runnable removeBoard(final Long boardId) {
+        lock.writeLock().lock();
+        try {
+            var removed = boardColumns.remove(boardId);
+            if (removed == null) {
+                return () -> { };
+            }
+            for (var column : removed) {
+                columns.remove(column.id);
+                column.cards.keySet().forEach(cards::remove);
+            }
+            return () -> restoreBoard(boardId, removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void restoreBoard(final long boardId, final List<ColumnRow> removed) {
+        lock.writeLock().lock();
+        try {
+            boardColumns.put(boardId, removed);
+            for (var column : removed) {
+                columns.put(column.id, column);
+                column.cards.values().forEach(card -> cards.put(card.id, card));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aguarda até que todas as alterações confirmadas até agora estejam no banco.
+     */
+    public void flush() {
+        try {
+            writer.awaitFlushed();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public WriteBehindStatsDTO getStats() {
+        lock.readLock().lock();
+        try {
+            return new WriteBehindStatsDTO(cards.size(), columns.size(), writer.pendingUnits(),
+                    writer.flushedUnits(), writer.failedBatches(), writer.quarantinedUnits());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        writer.close();
+        journal.close();
+        deadLetter.close();
+        logger.info("Repositório em memória encerrado: {} unidades gravadas no banco", writer.flushedUnits());
+    }
+
+    CardRow card(final long id) {
+        return cards.get(id);
+    }
+
+    ColumnRow column(final long id) {
+        return columns.get(id);
+    }
+
+    List<ColumnRow> columnsOf(final long boardId) {
+        var found = boardColumns.get(boardId);
+        return found == null ? List.of() : found;
+    }
+
+    long nextCardId() {
+        return ++lastCardId;
+    }
+
+    void addCard(final CardRow card) {
+        cards.put(card.id, card);
+        columns.get(card.columnId).cards.put(card.id, card);
+    }
+
+    void removeCard(final CardRow card) {
+        cards.remove(card.id);
+        columns.get(card.columnId).cards.remove(card.id);
+    }
+
+    void moveCard(final CardRow card, final long toColumnId) {
+        columns.get(card.columnId).cards.remove(card.id);
+        card.columnId = toColumnId;
+        columns.get(toColumnId).cards.put(card.id, card);
+    }
+
+    /**
+     * Anota a unidade no journal e a entrega ao write-behind. Deve ser chamado com o lock de escrita,
+     * para que a ordem do journal seja a ordem das alterações. Com a fila cheia, falha antes de anotar.
+     */
+    long append(final List<WriteBehindOp> ops, final List<CardEventEntity> events) throws IOException {
+        writer.checkCapacity();
+        var unit = new WriteBehindUnit(++lastSequence, ops, events);
+        journal.append(unit);
+        writer.enqueue(unit);
+        return unit.sequence();
+    }
+
+    void sync(final long sequence) throws IOException {
+        journal.sync(sequence);
+    }
+
+    private static long replay(final Connection connection, final WriteBehindJournal journal,
+                               final WriteBehindJournal deadLetter) throws SQLException, IOException {
+        var checkpoint = new WriteBehindCheckpointDAO(connection).findLastSequence();
+        var pending = journal.recovered().stream().filter(u -> u.sequence() > checkpoint).toList();
+        if (pending.isEmpty()) {
+            journal.releaseFlushed(checkpoint);
+            return Math.max(checkpoint, lastSequenceOf(journal.recovered()));
+        }
+        logger.warn("Reaplicando {} unidades do journal que não chegaram ao banco", pending.size());
+        var quarantined = WriteBehindWriter.applyIsolating(connection, pending, deadLetter);
+        if (quarantined > 0) {
+            logger.error("{} unidades do journal recusadas pelo banco foram movidas para o dead-letter", quarantined);
+        }
+        var lastSequence = lastSequenceOf(pending);
+        journal.releaseFlushed(lastSequence);
+        return lastSequence;
+    }
+
+    private static long lastSequenceOf(final List<WriteBehindUnit> units) {
+        return units.isEmpty() ? 0 : units.get(units.size() - 1).sequence();
+    }
+
+    private void load(final Connection connection) throws SQLException {
+        for (var column : new BoardColumnDAO(connection).findAll()) {
+            addColumn(new ColumnRow(column.getId(), column.getBoard().getId(), column.getName(), column.getKind(),
+                    column.getOrder()));
+        }
+        var cardDAO = new CardDAO(connection);
+        try (var details = cardDAO.streamAllDetails()) {
+            details.forEach(d -> addCard(CardRow.of(d)));
+        }
+        lastCardId = cardDAO.findMaxId();
+    }
+
+    private void addColumn(final ColumnRow column) {
+        columns.put(column.id, column);
+        var ofBoard = boardColumns.get(column.boardId);
+        if (ofBoard == null) {
+            ofBoard = new ArrayList<>();
+            boardColumns.put(column.boardId, ofBoard);
+        }
+        ofBoard.add(column);
+        ofBoard.sort(Comparator.comparingInt(c -> c.order));
+    }
+
+    static final class ColumnRow {
+
+        final long id;
+        final long boardId;
+        final String name;
+        final BoardColumnKindEnum kind;
+        final int order;
+        /**
+         * Cards da coluna em ordem de id, para paginar a partir do último id da página anterior.
+         */
+        final NavigableMap<Long, CardRow> cards = new TreeMap<>();
+
+        ColumnRow(final long id, final long boardId, final String name, final BoardColumnKindEnum kind,
+                  final int order) {
+            this.id = id;
+            this.boardId = boardId;
+            this.name = name;
+            this.kind = kind;
+            this.order = order;
+        }
+
+    }
+
+    static final class CardRow {
+
+        final long id;
+        final String title;
+        final String description;
+        long columnId;
+        boolean blocked;
+        String blockReason;
+        OffsetDateTime blockedAt;
+        int blocksAmount;
+        long blockedSeconds;
+
+        CardRow(final long id, final String title, final String description, final long columnId) {
+            this.id = id;
+            this.title = title;
+            this.description = description;
+            this.columnId = columnId;
+        }
+
+        static CardRow of(final CardDetailsDTO details) {
+            var row = new CardRow(details.id(), details.title(), details.description(), details.columnId());
+            row.blocked = details.blocked();
+            row.blockReason = details.blockReason();
+            row.blockedAt = details.blockedAt();
+            row.blocksAmount = details.blocksAmount();
+            row.blockedSeconds = details.blockedSeconds();
+            return row;
+        }
+
+        CardDetailsDTO toDetails(final String columnName) {
+            return new CardDetailsDTO(id, title, description, blocked, blockedAt, blockReason, blocksAmount,
+                    blockedSeconds, columnId, columnName);
+        }
+
+    }
+
+}
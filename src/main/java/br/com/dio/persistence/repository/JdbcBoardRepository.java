@@ -0,0 +1,103 @@
+package br.com.dio.persistence.repository;
+
+import br.com.dio.dto.BoardColumnDTO;
+import br.com.dio.dto.CardColumnStateDTO;
+import br.com.dio.dto.CardDetailsDTO;
+import br.com.dio.dto.CardLocationDTO;
+import br.com.dio.dto.CardMoveDTO;
+import br.com.dio.persistence.dao.BlockDAO;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.dao.CardEventDAO;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.CardEventEntity;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repositório direto no banco: cada operação é um comando na transação da conexão. Os eventos da operação vão
+ * para CARD_EVENTS em um único lote no commit, e as métricas de fluxo são calculadas depois a partir deles pelo
+ * {@link br.com.dio.service.FlowAggregator}.
+ */
+@AllArgsConstructor
+public class JdbcBoardRepository implements BoardRepository {
+
+    private final Connection connection;
+
+    @Override
+    public void insertCards(final List<CardEntity> cards) throws SQLException {
+        new CardDAO(connection).insert(cards);
+    }
+
+    @Override
+    public Optional<CardDetailsDTO> findCardById(final Long id) throws SQLException {
+        return new CardDAO(connection).findById(id);
+    }
+
+    @Override
+    public Map<Long, CardColumnStateDTO> findColumnStates(final List<Long> ids) throws SQLException {
+        return new CardDAO(connection).findColumnStates(ids);
+    }
+
+    @Override
+    public Map<Long, CardLocationDTO> findLocations(final List<Long> ids) throws SQLException {
+        return new CardDAO(connection).findLocations(ids);
+    }
+
+    @Override
+    public List<BoardColumnDTO> findColumnsWithDetails(final Long boardId) throws SQLException {
+        return new BoardColumnDAO(connection).findByBoardIdWithDetails(boardId);
+    }
+
+    @Override
+    public List<CardEntity> findCardsPage(final Long columnId, final Long afterCardId,
+                                          final int limit) throws SQLException {
+        return new BoardColumnDAO(connection).findCardsPage(columnId, afterCardId, limit);
+    }
+
+    @Override
+    public boolean moveIfUnblocked(final Long cardId, final Map<Long, Long> transitions) throws SQLException {
+        return new CardDAO(connection).moveToColumnIfUnblocked(cardId, transitions);
+    }
+
+    @Override
+    public boolean[] moveAll(final List<CardMoveDTO> moves) throws SQLException {
+        return new CardDAO(connection).moveToColumns(moves);
+    }
+
+    @Override
+    public boolean blockIfUnblocked(final Long cardId, final String reason,
+                                    final Collection<Long> blockableColumnIds) throws SQLException {
+        return new BlockDAO(connection).blockIfUnblocked(reason, cardId, blockableColumnIds);
+    }
+
+    @Override
+    public boolean unblock(final Long cardId, final String reason) throws SQLException {
+        return new BlockDAO(connection).unblock(reason, cardId);
+    }
+
+    @Override
+    public void commit(final List<CardEventEntity> events) throws SQLException {
+        insertEvents(events);
+        connection.commit();
+    }
+
+    /**
+     * Grava os eventos em um único lote, na transação atual, sem confirmar.
+     */
+    void insertEvents(final List<CardEventEntity> events) throws SQLException {
+        new CardEventDAO(connection).insert(events);
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+}
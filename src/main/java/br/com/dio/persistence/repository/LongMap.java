@@ -0,0 +1,147 @@
+package br.com.dio.persistence.repository;
+
+import java.util.function.Consumer;
+
+/**
+ * Mapa de chaves {@code long} positivas com endereçamento aberto (sondagem linear), sem boxing das chaves
+ * nem um objeto de entrada por elemento. Não é thread-safe.
+ */
+final class LongMap<V> {
+
+    private static final long FREE = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    LongMap() {
+        this(16);
+    }
+
+    LongMap(final int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean containsKey(final long key) {
+        return get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(final long key) {
+        for (var slot = slot(key); ; slot = (slot + 1) & mask) {
+            var current = keys[slot];
+            if (current == key) {
+                return (V) values[slot];
+            }
+            if (current == FREE) {
+                return null;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(final long key, final V value) {
+        if (key <= FREE) {
+            throw new IllegalArgumentException("A chave deve ser positiva: " + key);
+        }
+        var slot = slot(key);
+        for (; keys[slot] != FREE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                var previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(final long key) {
+        for (var slot = slot(key); keys[slot] != FREE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                var previous = (V) values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(final Consumer<V> action) {
+        for (var slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                action.accept((V) values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Remove a chave do slot e puxa para trás os elementos seguintes da sequência, mantendo as sondagens válidas
+     * sem marcadores de remoção.
+     */
+    private void shiftBack(int free) {
+        for (var slot = (free + 1) & mask; keys[slot] != FREE; slot = (slot + 1) & mask) {
+            var home = slot(keys[slot]);
+            // o elemento pode ocupar o slot livre se sua posição ideal não estiver entre o livre e ele
+            if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                keys[free] = keys[slot];
+                values[free] = values[slot];
+                free = slot;
+            }
+        }
+        keys[free] = FREE;
+        values[free] = null;
+    }
+
+    private void rehash(final int capacity) {
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(capacity);
+        for (var i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                var slot = slot(oldKeys[i]);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slot(final long key) {
+        var hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        var capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(16, capacity);
+    }
+
+}
@@ -0,0 +1,46 @@
+package br.com.dio.persistence.repository;
+
+import br.com.dio.persistence.entity.CardEventEntity;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+
+/**
+ * Repositório para várias operações em uma mesma transação (group commit). Cada operação começa em
+ * {@link #begin()}, que marca um savepoint; o {@link #commit(List)} da operação só grava os eventos, e o
+ * {@link #rollback()} volta até o savepoint, desfazendo apenas a operação atual. Quem abriu a transação faz o
+ * commit de verdade na conexão.
+ */
+public class SavepointBoardRepository extends JdbcBoardRepository {
+
+    private final Connection connection;
+    private Savepoint savepoint;
+
+    public SavepointBoardRepository(final Connection connection) {
+        super(connection);
+        this.connection = connection;
+    }
+
+    public void begin() throws SQLException {
+        if (savepoint != null) {
+            connection.releaseSavepoint(savepoint);
+        }
+        savepoint = connection.setSavepoint();
+    }
+
+    @Override
+    public void commit(final List<CardEventEntity> events) throws SQLException {
+        insertEvents(events);
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        if (savepoint == null) {
+            throw new SQLException("Operação do group commit sem savepoint");
+        }
+        connection.rollback(savepoint);
+    }
+
+}
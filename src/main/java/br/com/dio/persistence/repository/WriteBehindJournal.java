@@ -0,0 +1,349 @@
+package br.com.dio.persistence.repository;
+
+import br.com.dio.persistence.entity.CardEventEntity;
+import br.com.dio.persistence.entity.CardEventTypeEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Journal append-only das unidades confirmadas em memória, dividido em segmentos {@code <arquivo>.<n>} de até
+ * {@code segmentBytes}. Cada registro é {@code [tamanho][crc32c][unidade]}; na abertura, um registro incompleto
+ * ou corrompido no fim de um segmento (queda durante a escrita) é descartado. Os segmentos fechados são apagados
+ * quando todas as suas unidades já estão no banco, e o segmento atual é esvaziado quando tudo o que foi anotado
+ * já está no banco, então o journal não cresce com o tráfego contínuo.
+ */
+final class WriteBehindJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindJournal.class);
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private final Path path;
+    private final boolean fsync;
+    private final long segmentBytes;
+    private final List<WriteBehindUnit> recovered;
+    private final Deque<Segment> closedSegments;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private volatile long lastAppended;
+    private long lastSynced;
+    private long activeIndex;
+    private FileChannel channel;
+
+    private WriteBehindJournal(final Path path, final boolean fsync, final long segmentBytes,
+                               final List<WriteBehindUnit> recovered, final Deque<Segment> closedSegments,
+                               final long activeIndex, final FileChannel channel) {
+        this.path = path;
+        this.fsync = fsync;
+        this.segmentBytes = segmentBytes;
+        this.recovered = recovered;
+        this.closedSegments = closedSegments;
+        this.activeIndex = activeIndex;
+        this.channel = channel;
+        this.lastAppended = recovered.isEmpty() ? 0 : recovered.get(recovered.size() - 1).sequence();
+    }
+
+    static WriteBehindJournal open(final Path path, final boolean fsync) throws IOException {
+        return open(path, fsync, DEFAULT_SEGMENT_BYTES);
+    }
+
+    static WriteBehindJournal open(final Path path, final boolean fsync, final long segmentBytes) throws IOException {
+        if (segmentBytes < 1) {
+            throw new IllegalArgumentException("O tamanho do segmento do journal deve ser positivo");
+        }
+        var directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        var indexes = segmentIndexes(path);
+        var recovered = new ArrayList<WriteBehindUnit>();
+        var closedSegments = new ArrayDeque<Segment>();
+        for (var i = 0; i < indexes.size() - 1; i++) {
+            var segmentPath = segmentPath(path, indexes.get(i));
+            try (var segment = FileChannel.open(segmentPath, READ, WRITE)) {
+                var units = new ArrayList<WriteBehindUnit>();
+                recoverSegment(segmentPath, segment, units);
+                if (units.isEmpty()) {
+                    Files.delete(segmentPath);
+                    continue;
+                }
+                recovered.addAll(units);
+                closedSegments.add(new Segment(segmentPath, units.get(units.size() - 1).sequence()));
+            }
+        }
+        var activeIndex = indexes.isEmpty() ? 0 : indexes.get(indexes.size() - 1);
+        var activePath = segmentPath(path, activeIndex);
+        var channel = FileChannel.open(activePath, CREATE, READ, WRITE);
+        try {
+            channel.position(recoverSegment(activePath, channel, recovered));
+            return new WriteBehindJournal(path, fsync, segmentBytes, List.copyOf(recovered), closedSegments,
+                    activeIndex, channel);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Unidades encontradas nos segmentos na abertura, em ordem de sequência.
+     */
+    List<WriteBehindUnit> recovered() {
+        return recovered;
+    }
+
+    void append(final WriteBehindUnit unit) throws IOException {
+        var payload = serialize(unit);
+        var crc = new CRC32C();
+        crc.update(payload);
+        var record = ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        appendLock.lock();
+        try {
+            if (channel.size() >= segmentBytes) {
+                rotate();
+            }
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            lastAppended = unit.sequence();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Garante que a unidade está em disco. Um único fsync cobre todas as unidades anotadas até ali,
+     * então commits concorrentes compartilham a mesma sincronização.
+     */
+    void sync(final long sequence) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (lastSynced >= sequence) {
+                return;
+            }
+            var target = lastAppended;
+            channel.force(false);
+            lastSynced = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Apaga os segmentos fechados cujas unidades já estão todas no banco e esvazia o segmento atual se tudo o
+     * que foi anotado já está no banco.
+     */
+    void releaseFlushed(final long flushedSequence) throws IOException {
+        appendLock.lock();
+        try {
+            while (!closedSegments.isEmpty() && closedSegments.peekFirst().lastSequence() <= flushedSequence) {
+                Files.deleteIfExists(closedSegments.peekFirst().path());
+                closedSegments.removeFirst();
+            }
+            if (lastAppended <= flushedSequence && channel.size() > 0) {
+                channel.truncate(0);
+                channel.position(0);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            channel.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Fecha o segmento atual (já em disco, se houver fsync) e passa a anotar em um novo. Chamado com o lock de
+     * anotação; o lock de sincronização impede um fsync no segmento que está sendo fechado.
+     */
+    private void rotate() throws IOException {
+        var nextPath = segmentPath(path, activeIndex + 1);
+        var next = FileChannel.open(nextPath, CREATE, READ, WRITE);
+        syncLock.lock();
+        try {
+            if (fsync) {
+                channel.force(false);
+                lastSynced = lastAppended;
+            }
+            channel.close();
+            closedSegments.addLast(new Segment(segmentPath(path, activeIndex), lastAppended));
+            channel = next;
+            activeIndex++;
+        } catch (IOException ex) {
+            next.close();
+            throw ex;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private static long recoverSegment(final Path segmentPath, final FileChannel segment,
+                                       final List<WriteBehindUnit> units) throws IOException {
+        var validEnd = readAll(segment, units);
+        if (validEnd < segment.size()) {
+            logger.warn("Descartando {} bytes incompletos no fim do journal {}", segment.size() - validEnd,
+                    segmentPath);
+            segment.truncate(validEnd);
+        }
+        return validEnd;
+    }
+
+    private static List<Long> segmentIndexes(final Path path) throws IOException {
+        var prefix = path.getFileName().toString() + ".";
+        try (var files = Files.list(path.toAbsolutePath().getParent())) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.length() > prefix.length()
+                            && name.substring(prefix.length()).chars().allMatch(Character::isDigit))
+                    .map(name -> Long.parseLong(name.substring(prefix.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static Path segmentPath(final Path path, final long index) {
+        return path.resolveSibling(path.getFileName().toString() + "." + index);
+    }
+
+    private record Segment(Path path, long lastSequence) {
+    }
+
+    private static long readAll(final FileChannel channel, final List<WriteBehindUnit> units) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE);
+        var position = 0L;
+        var size = channel.size();
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            var length = header.getInt();
+            var expectedCrc = header.getInt();
+            if (length <= 0 || position + HEADER_SIZE + length > size) {
+                break;
+            }
+            var payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_SIZE);
+            var crc = new CRC32C();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != expectedCrc) {
+                break;
+            }
+            units.add(deserialize(payload.array()));
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer,
+                                  final long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    static byte[] serialize(final WriteBehindUnit unit) throws IOException {
+        var bytes = new ByteArrayOutputStream(128);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeLong(unit.sequence());
+            out.writeInt(unit.ops().size());
+            for (var op : unit.ops()) {
+                out.writeUTF(op.type().name());
+                out.writeLong(op.cardId());
+                out.writeLong(op.fromColumnId());
+                out.writeLong(op.columnId());
+                writeNullable(out, op.title());
+                writeNullable(out, op.description());
+                writeNullable(out, op.reason());
+                writeDateTime(out, op.at());
+            }
+            out.writeInt(unit.events().size());
+            for (var event : unit.events()) {
+                out.writeLong(event.getCardId());
+                out.writeUTF(event.getType().name());
+                writeNullable(out, event.getReason());
+                writeDateTime(out, event.getOccurredAt());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static WriteBehindUnit deserialize(final byte[] payload) throws IOException {
+        try (var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            var sequence = in.readLong();
+            var opCount = in.readInt();
+            List<WriteBehindOp> ops = new ArrayList<>(opCount);
+            for (var i = 0; i < opCount; i++) {
+                ops.add(new WriteBehindOp(WriteBehindOp.Type.valueOf(in.readUTF()), in.readLong(), in.readLong(),
+                        in.readLong(), readNullable(in), readNullable(in), readNullable(in), readDateTime(in)));
+            }
+            var eventCount = in.readInt();
+            List<CardEventEntity> events = new ArrayList<>(eventCount);
+            for (var i = 0; i < eventCount; i++) {
+                events.add(new CardEventEntity(in.readLong(), CardEventTypeEnum.valueOf(in.readUTF()),
+                        readNullable(in), readDateTime(in)));
+            }
+            return new WriteBehindUnit(sequence, ops, events);
+        } catch (EOFException | IllegalArgumentException ex) {
+            throw new IOException("Registro inválido no journal do write-behind", ex);
+        }
+    }
+
+    private static void writeNullable(final DataOutputStream out, final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDateTime(final DataOutputStream out, final OffsetDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond());
+        out.writeInt(value.getNano());
+        out.writeInt(value.getOffset().getTotalSeconds());
+    }
+
+    private static OffsetDateTime readDateTime(final DataInputStream in) throws IOException {
+        var instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds(in.readInt()));
+    }
+
+}
@@ -0,0 +1,40 @@
+package br.com.dio.persistence.repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Alteração de um card feita em memória e ainda não aplicada no banco. {@code columnId} é a coluna do card
+ * criado ou o destino da movimentação; {@code fromColumnId} só é usado na movimentação.
+ */
+record WriteBehindOp(Type type,
+                     long cardId,
+                     long fromColumnId,
+                     long columnId,
+                     String title,
+                     String description,
+                     String reason,
+                     OffsetDateTime at) {
+
+    enum Type {
+        CREATE, MOVE, BLOCK, UNBLOCK
+    }
+
+    static WriteBehindOp create(final long cardId, final long columnId, final String title,
+                                final String description, final OffsetDateTime at) {
+        return new WriteBehindOp(Type.CREATE, cardId, 0, columnId, title, description, null, at);
+    }
+
+    static WriteBehindOp move(final long cardId, final long fromColumnId, final long toColumnId,
+                              final OffsetDateTime at) {
+        return new WriteBehindOp(Type.MOVE, cardId, fromColumnId, toColumnId, null, null, null, at);
+    }
+
+    static WriteBehindOp block(final long cardId, final String reason, final OffsetDateTime at) {
+        return new WriteBehindOp(Type.BLOCK, cardId, 0, 0, null, null, reason, at);
+    }
+
+    static WriteBehindOp unblock(final long cardId, final String reason, final OffsetDateTime at) {
+        return new WriteBehindOp(Type.UNBLOCK, cardId, 0, 0, null, null, reason, at);
+    }
+
+}
@@ -0,0 +1,18 @@
+package br.com.dio.persistence.repository;
+
+import br.com.dio.persistence.entity.CardEventEntity;
+
+import java.util.List;
+
+/**
+ * Uma transação do {@link br.com.dio.service.CardService} confirmada em memória: as alterações e os eventos
+ * do histórico, aplicados juntos e na ordem de {@code sequence}.
+ */
+record WriteBehindUnit(long sequence, List<WriteBehindOp> ops, List<CardEventEntity> events) {
+
+    WriteBehindUnit {
+        ops = List.copyOf(ops);
+        events = List.copyOf(events);
+    }
+
+}
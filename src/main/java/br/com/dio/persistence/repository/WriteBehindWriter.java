@@ -0,0 +1,363 @@
+package br.com.dio.persistence.repository;
+
+import br.com.dio.dto.CardMoveDTO;
+import br.com.dio.persistence.config.ConnectionSource;
+import br.com.dio.persistence.dao.BlockDAO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.dao.CardEventDAO;
+import br.com.dio.persistence.dao.WriteBehindCheckpointDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Aplica no banco, em segundo plano e em lotes, as unidades confirmadas em memória. Cada lote é uma transação
+ * que também avança o checkpoint; se falhar, o lote é repetido até o banco voltar. Um lote que o banco continua
+ * recusando (erro que não é de conexão) é aplicado unidade a unidade, e as unidades recusadas vão para o
+ * arquivo de dead-letter, para não travar a fila nem a reaplicação do journal na partida.
+ */
+final class WriteBehindWriter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindWriter.class);
+    private static final long MAX_RETRY_DELAY_MILLIS = 5_000;
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+    private static final int BATCH_ATTEMPTS = 3;
+
+    private final ConnectionSource connections;
+    private final WriteBehindJournal journal;
+    private final WriteBehindJournal deadLetter;
+    private final BlockingQueue<WriteBehindUnit> queue;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final Thread thread;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final LongAdder flushedUnits = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder quarantinedUnits = new LongAdder();
+    private volatile boolean running = true;
+    private long lastEnqueued;
+    private long lastFlushed;
+
+    WriteBehindWriter(final ConnectionSource connections, final WriteBehindJournal journal,
+                      final WriteBehindJournal deadLetter, final long lastSequence, final int queueSize,
+                      final int batchSize, final long intervalMillis) {
+        this.connections = connections;
+        this.journal = journal;
+        this.deadLetter = deadLetter;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+        this.lastEnqueued = lastSequence;
+        this.lastFlushed = lastSequence;
+        this.thread = Thread.ofPlatform().name("board-write-behind").daemon().unstarted(this::run);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Recusa a próxima unidade se a fila estiver cheia (o banco não acompanha), antes que ela vá para o journal;
+     * assim quem tem o lock do store não fica bloqueado esperando o banco.
+     */
+    void checkCapacity() throws IOException {
+        if (queue.remainingCapacity() == 0) {
+            throw new IOException("A fila do write-behind está cheia: o banco não está acompanhando as alterações");
+        }
+    }
+
+    /**
+     * Enfileira a unidade já anotada no journal. Só é chamado com o lock de escrita do store e depois de
+     * {@link #checkCapacity()}, então há espaço na fila. Não desiste com interrupção, já que a unidade está no
+     * journal e o estado em memória já a inclui.
+     */
+    void enqueue(final WriteBehindUnit unit) {
+        var interrupted = false;
+        while (true) {
+            try {
+                queue.put(unit);
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            lastEnqueued = unit.sequence();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aguarda até que tudo o que foi enfileirado até agora esteja no banco.
+     */
+    void awaitFlushed() throws InterruptedException {
+        lock.lock();
+        try {
+            var target = lastEnqueued;
+            while (lastFlushed < target) {
+                flushed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long pendingUnits() {
+        lock.lock();
+        try {
+            return lastEnqueued - lastFlushed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long flushedUnits() {
+        return flushedUnits.sum();
+    }
+
+    long failedBatches() {
+        return failedBatches.sum();
+    }
+
+    long quarantinedUnits() {
+        return quarantinedUnits.sum();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        thread.join();
+        var pending = pendingUnits();
+        if (pending > 0) {
+            logger.warn("{} unidades não foram gravadas no banco e serão reaplicadas do journal na próxima partida",
+                    pending);
+        }
+    }
+
+    private void run() {
+        List<WriteBehindUnit> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(intervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!flushWithRetry(batch)) {
+                    return;
+                }
+                batch.clear();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean flushWithRetry(final List<WriteBehindUnit> batch) throws InterruptedException {
+        var delay = intervalMillis;
+        for (var attempt = 1; ; attempt++) {
+            var applied = false;
+            try (var connection = connections.getConnection()) {
+                if (attempt > BATCH_ATTEMPTS) {
+                    quarantinedUnits.add(applyIsolating(connection, batch, deadLetter));
+                } else {
+                    apply(connection, batch);
+                }
+                applied = true;
+            } catch (SQLException | IOException ex) {
+                if (applied) {
+                    // o lote já foi confirmado; repetir aplicaria de novo operações que não são idempotentes
+                    logger.warn("Erro ao devolver a conexão depois de gravar o lote do write-behind: {}",
+                            ex.getMessage());
+                } else {
+                    failedBatches.increment();
+                    logger.error("Erro ao gravar lote de {} unidades do write-behind (tentativa {}): {}",
+                            batch.size(), attempt, ex.getMessage(), ex);
+                    if (!running && attempt >= SHUTDOWN_ATTEMPTS) {
+                        return false;
+                    }
+                    Thread.sleep(delay);
+                    delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+                    continue;
+                }
+            }
+            markFlushed(batch.get(batch.size() - 1).sequence(), batch.size());
+            return true;
+        }
+    }
+
+    private void markFlushed(final long sequence, final int units) {
+        lock.lock();
+        try {
+            lastFlushed = sequence;
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flushedUnits.add(units);
+        releaseJournal(sequence);
+    }
+
+    /**
+     * O lote já está no banco, então uma falha ao liberar o journal só é registrada: o que ficar no arquivo
+     * está abaixo do checkpoint, é liberado na próxima vez e ignorado na reaplicação da partida.
+     */
+    private void releaseJournal(final long sequence) {
+        try {
+            journal.releaseFlushed(sequence);
+        } catch (IOException ex) {
+            logger.warn("Erro ao liberar o journal do write-behind até a unidade {}: {}", sequence, ex.getMessage(),
+                    ex);
+        }
+    }
+
+    /**
+     * Aplica as unidades em ordem e avança o checkpoint em uma única transação. Usado também para reaplicar
+     * o journal na partida. Os eventos são gravados com o instante da operação em memória.
+     */
+    static void apply(final Connection connection, final List<WriteBehindUnit> units) throws SQLException {
+        var eventDAO = new CardEventDAO(connection);
+        try {
+            for (var unit : units) {
+                applyOps(connection, unit.ops());
+                eventDAO.insert(unit.events());
+            }
+            new WriteBehindCheckpointDAO(connection).update(units.get(units.size() - 1).sequence());
+            connection.commit();
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        }
+    }
+
+    /**
+     * Aplica o lote inteiro e, se o banco o recusar, unidade a unidade: as unidades recusadas vão para o
+     * dead-letter e o checkpoint avança além delas. Erros de conexão não são culpa da unidade e sobem para
+     * quem chamou repetir depois. Devolve quantas unidades foram para o dead-letter.
+     */
+    static int applyIsolating(final Connection connection, final List<WriteBehindUnit> units,
+                              final WriteBehindJournal deadLetter) throws SQLException, IOException {
+        try {
+            apply(connection, units);
+            return 0;
+        } catch (SQLException ex) {
+            if (isTransient(ex)) {
+                throw ex;
+            }
+            logger.warn("Lote de {} unidades recusado pelo banco, aplicando unidade a unidade: {}",
+                    units.size(), ex.getMessage());
+        }
+        var quarantined = 0;
+        for (var unit : units) {
+            try {
+                apply(connection, List.of(unit));
+            } catch (SQLException ex) {
+                if (isTransient(ex)) {
+                    throw ex;
+                }
+                quarantine(connection, unit, deadLetter, ex);
+                quarantined++;
+            }
+        }
+        return quarantined;
+    }
+
+    private static void quarantine(final Connection connection, final WriteBehindUnit unit,
+                                   final WriteBehindJournal deadLetter, final SQLException cause)
+            throws SQLException, IOException {
+        deadLetter.append(unit);
+        deadLetter.sync(unit.sequence());
+        try {
+            new WriteBehindCheckpointDAO(connection).update(unit.sequence());
+            connection.commit();
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        }
+        logger.error("Unidade {} do write-behind recusada pelo banco e movida para o dead-letter ({} operações, "
+                        + "{} eventos); o estado em memória a inclui até a próxima partida: {}",
+                unit.sequence(), unit.ops().size(), unit.events().size(), cause.getMessage(), cause);
+    }
+
+    /**
+     * Falhas de conexão, timeout e deadlock (classes SQLSTATE 08 e 40) se resolvem repetindo o lote.
+     */
+    private static boolean isTransient(final SQLException ex) {
+        var state = ex.getSQLState();
+        return ex instanceof SQLTransientException || ex instanceof SQLRecoverableException
+                || state != null && (state.startsWith("08") || state.startsWith("40"));
+    }
+
+    private static void applyOps(final Connection connection, final List<WriteBehindOp> ops) throws SQLException {
+        var cardDAO = new CardDAO(connection);
+        var blockDAO = new BlockDAO(connection);
+        List<CardEntity> creates = new ArrayList<>();
+        List<CardMoveDTO> moves = new ArrayList<>();
+        for (var op : ops) {
+            if (op.type() != WriteBehindOp.Type.CREATE) {
+                cardDAO.insertWithIds(creates);
+                creates.clear();
+            }
+            if (op.type() != WriteBehindOp.Type.MOVE) {
+                checkMoves(cardDAO.moveToColumns(moves), moves);
+                moves.clear();
+            }
+            switch (op.type()) {
+                case CREATE -> creates.add(toEntity(op));
+                case MOVE -> moves.add(new CardMoveDTO(op.cardId(), op.fromColumnId(), op.columnId()));
+                case BLOCK -> blockDAO.block(op.reason(), op.cardId(), op.at());
+                case UNBLOCK -> {
+                    if (!blockDAO.unblock(op.reason(), op.cardId(), op.at())) {
+                        logger.warn("Desbloqueio do card {} não encontrou bloqueio aberto no banco", op.cardId());
+                    }
+                }
+            }
+        }
+        cardDAO.insertWithIds(creates);
+        checkMoves(cardDAO.moveToColumns(moves), moves);
+    }
+
+    private static void checkMoves(final boolean[] applied, final List<CardMoveDTO> moves) {
+        for (var i = 0; i < applied.length; i++) {
+            if (!applied[i]) {
+                logger.warn("Movimentação do card {} de {} para {} não corresponde ao estado do banco",
+                        moves.get(i).cardId(), moves.get(i).fromColumnId(), moves.get(i).toColumnId());
+            }
+        }
+    }
+
+    private static CardEntity toEntity(final WriteBehindOp op) {
+        var card = new CardEntity();
+        card.setId(op.cardId());
+        card.setTitle(op.title());
+        card.setDescription(op.description());
+        var column = new BoardColumnEntity();
+        column.setId(op.columnId());
+        card.setBoardColumn(column);
+        return card;
+    }
+
+}
@@ -0,0 +1,105 @@
+package br.com.dio.persistence.snapshot;
+
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+import static java.time.ZoneOffset.UTC;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Formato do arquivo de exportação de board: {@code [magic][versão]} seguido de registros
+ * {@code [tipo][tamanho][conteúdo]}, na ordem board, colunas, cards (cada um com seus bloqueios) e fim.
+ * O registro de fim traz as contagens, então um arquivo truncado é detectado na importação. Números são
+ * varints (ids e contadores pequenos ocupam 1 ou 2 bytes) e textos são UTF-8 com o tamanho na frente.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class BoardSnapshotFormat {
+
+    static final int MAGIC = 0x42445350;
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = Integer.BYTES + 1;
+
+    static final byte BOARD = 1;
+    static final byte COLUMN = 2;
+    static final byte CARD = 3;
+    static final byte END = 4;
+
+    static final int MAX_VARINT_SIZE = 10;
+
+    static void putVarLong(final ByteBuffer buffer, final long value) {
+        var remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    static long getVarLong(final ByteBuffer buffer) throws IOException {
+        var value = 0L;
+        for (var shift = 0; shift < 64; shift += 7) {
+            var b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint inválido no arquivo de exportação");
+    }
+
+    static int getVarInt(final ByteBuffer buffer) throws IOException {
+        var value = getVarLong(buffer);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Valor fora do intervalo no arquivo de exportação: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * O tamanho é gravado somado de 1 para que 0 represente {@code null}.
+     */
+    static void putString(final ByteBuffer buffer, final String value) {
+        if (value == null) {
+            putVarLong(buffer, 0);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarLong(buffer, bytes.length + 1L);
+        buffer.put(bytes);
+    }
+
+    static String getString(final ByteBuffer buffer) throws IOException {
+        var length = getVarInt(buffer);
+        if (length == 0) {
+            return null;
+        }
+        var bytes = new byte[length - 1];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void putDateTime(final ByteBuffer buffer, final OffsetDateTime value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        buffer.put((byte) 1);
+        var millis = value.toInstant().toEpochMilli();
+        putVarLong(buffer, (millis << 1) ^ (millis >> 63));
+    }
+
+    static OffsetDateTime getDateTime(final ByteBuffer buffer) throws IOException {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        var zigzag = getVarLong(buffer);
+        var millis = (zigzag >>> 1) ^ -(zigzag & 1);
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), UTC);
+    }
+
+}
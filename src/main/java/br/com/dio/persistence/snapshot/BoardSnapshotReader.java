@@ -0,0 +1,239 @@
+package br.com.dio.persistence.snapshot;
+
+import br.com.dio.dto.BoardSnapshotBlockDTO;
+import br.com.dio.dto.BoardSnapshotCardDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.BOARD;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.CARD;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.COLUMN;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.END;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.HEADER_SIZE;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.MAGIC;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.VERSION;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.getDateTime;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.getString;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.getVarInt;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.getVarLong;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Lê o arquivo gravado pelo {@link BoardSnapshotWriter}. O board e as colunas são lidos na abertura; os
+ * cards são entregues um a um por {@link #nextCard()}, que confere as contagens do registro de fim e falha
+ * se o arquivo terminar antes dele.
+ */
+public final class BoardSnapshotReader implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private String boardName;
+    private final List<BoardColumnEntity> columns = new ArrayList<>();
+    private final Set<Long> columnIds = new HashSet<>();
+    private byte pendingType = -1;
+    private ByteBuffer pendingPayload;
+    private boolean pending;
+    private long cards;
+    private long blocks;
+    private long bytesRead;
+    private boolean ended;
+
+    private BoardSnapshotReader(final FileChannel channel) {
+        this.channel = channel;
+        in.flip();
+    }
+
+    public static BoardSnapshotReader open(final Path path) throws IOException {
+        var reader = new BoardSnapshotReader(FileChannel.open(path, READ));
+        try {
+            reader.readHead();
+            return reader;
+        } catch (IOException | RuntimeException ex) {
+            reader.close();
+            throw ex;
+        }
+    }
+
+    public String boardName() {
+        return boardName;
+    }
+
+    /**
+     * Colunas na ordem do arquivo, com os ids do board de origem.
+     */
+    public List<BoardColumnEntity> columns() {
+        return columns;
+    }
+
+    public Optional<BoardSnapshotCardDTO> nextCard() throws IOException {
+        while (!ended) {
+            if (!pending && !nextRecord()) {
+                throw new EOFException("Arquivo de exportação incompleto: terminou antes do registro de fim");
+            }
+            pending = false;
+            switch (pendingType) {
+                case CARD -> {
+                    return Optional.of(readCard(pendingPayload));
+                }
+                case END -> readEnd(pendingPayload);
+                default -> {
+                    // tipo de registro de uma versão mais nova: o tamanho na frente permite ignorá-lo
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public long getCards() {
+        return cards;
+    }
+
+    public long getBlocks() {
+        return blocks;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readHead() throws IOException {
+        if (!fill(HEADER_SIZE) || in.getInt() != MAGIC) {
+            throw new IOException("O arquivo não é uma exportação de board");
+        }
+        var version = in.get();
+        if (version != VERSION) {
+            throw new IOException("Versão %s do arquivo de exportação não suportada".formatted(version));
+        }
+        if (!nextRecord() || pendingType != BOARD) {
+            throw new IOException("Arquivo de exportação sem o registro do board");
+        }
+        boardName = getString(pendingPayload);
+        while (nextRecord()) {
+            if (pendingType != COLUMN) {
+                // o primeiro card (ou o fim) fica para a primeira chamada de nextCard
+                pending = true;
+                return;
+            }
+            var column = new BoardColumnEntity();
+            column.setId(getVarLong(pendingPayload));
+            column.setName(getString(pendingPayload));
+            column.setOrder(getVarInt(pendingPayload));
+            column.setKind(BoardColumnKindEnum.findByName(getString(pendingPayload)));
+            columns.add(column);
+            columnIds.add(column.getId());
+        }
+        throw new EOFException("Arquivo de exportação incompleto: terminou antes do registro de fim");
+    }
+
+    private BoardSnapshotCardDTO readCard(final ByteBuffer payload) throws IOException {
+        var id = getVarLong(payload);
+        var columnId = getVarLong(payload);
+        if (!columnIds.contains(columnId)) {
+            throw new IOException(
+                    "O card %s referencia a coluna %s, que não está no arquivo".formatted(id, columnId));
+        }
+        var title = getString(payload);
+        var description = getString(payload);
+        var blocksAmount = getVarInt(payload);
+        var blockedSeconds = getVarLong(payload);
+        var count = getVarInt(payload);
+        List<BoardSnapshotBlockDTO> cardBlocks = new ArrayList<>(count);
+        for (var i = 0; i < count; i++) {
+            cardBlocks.add(new BoardSnapshotBlockDTO(getDateTime(payload), getString(payload), getDateTime(payload),
+                    getString(payload)));
+        }
+        cards++;
+        blocks += count;
+        return new BoardSnapshotCardDTO(id, columnId, title, description, blocksAmount, blockedSeconds,
+                List.copyOf(cardBlocks));
+    }
+
+    private void readEnd(final ByteBuffer payload) throws IOException {
+        var expectedColumns = getVarLong(payload);
+        var expectedCards = getVarLong(payload);
+        var expectedBlocks = getVarLong(payload);
+        if (expectedColumns != columns.size() || expectedCards != cards || expectedBlocks != blocks) {
+            throw new IOException("Arquivo de exportação inconsistente: esperados %s colunas, %s cards e %s bloqueios"
+                    .formatted(expectedColumns, expectedCards, expectedBlocks));
+        }
+        ended = true;
+    }
+
+    /**
+     * Lê o próximo registro para {@code pendingType}/{@code pendingPayload}; o payload é uma fatia do buffer
+     * de leitura, válida até a próxima leitura.
+     */
+    private boolean nextRecord() throws IOException {
+        if (!fill(1)) {
+            return false;
+        }
+        pendingType = in.get();
+        var length = 0L;
+        for (var shift = 0; ; shift += 7) {
+            if (shift >= 35 || !fill(1)) {
+                throw new IOException("Tamanho de registro inválido no arquivo de exportação");
+            }
+            var b = in.get();
+            length |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Registro grande demais no arquivo de exportação");
+        }
+        if (!fill((int) length)) {
+            throw new EOFException("Arquivo de exportação incompleto: registro cortado no fim do arquivo");
+        }
+        pendingPayload = in.slice(in.position(), (int) length);
+        in.position(in.position() + (int) length);
+        return true;
+    }
+
+    /**
+     * Garante ao menos {@code size} bytes não lidos no buffer, aumentando-o se o registro for maior que ele.
+     *
+     * @return {@code false} se o arquivo terminar antes
+     */
+    private boolean fill(final int size) throws IOException {
+        if (in.remaining() >= size) {
+            return true;
+        }
+        if (size > in.capacity()) {
+            var larger = ByteBuffer.allocateDirect(Math.max(size, in.capacity() * 2));
+            larger.put(in);
+            in = larger;
+        } else {
+            in.compact();
+        }
+        while (in.position() < size) {
+            var read = channel.read(in);
+            if (read < 0) {
+                in.flip();
+                return false;
+            }
+            bytesRead += read;
+        }
+        in.flip();
+        return true;
+    }
+
+}
@@ -0,0 +1,184 @@
+package br.com.dio.persistence.snapshot;
+
+import br.com.dio.dto.BoardSnapshotCardDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.BOARD;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.CARD;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.COLUMN;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.END;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.MAGIC;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.MAX_VARINT_SIZE;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.VERSION;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.putDateTime;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.putString;
+import static br.com.dio.persistence.snapshot.BoardSnapshotFormat.putVarLong;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Grava o arquivo de exportação de um board card a card, por um buffer direto de tamanho fixo, então a
+ * memória usada não depende do tamanho do board. O arquivo é escrito ao lado do destino e só é movido para
+ * o nome final em {@link #finish()}; se a exportação falhar, {@link #close()} apaga o arquivo parcial.
+ */
+public final class BoardSnapshotWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @FunctionalInterface
+    private interface Payload {
+
+        void write(ByteBuffer buffer);
+
+    }
+
+    private final Path path;
+    private final Path temporary;
+    private final FileChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final int columns;
+    private ByteBuffer record = ByteBuffer.allocate(4 * 1024);
+    private long cards;
+    private long blocks;
+    private long bytes;
+    private boolean finished;
+
+    private BoardSnapshotWriter(final Path path, final Path temporary, final FileChannel channel, final int columns) {
+        this.path = path;
+        this.temporary = temporary;
+        this.channel = channel;
+        this.columns = columns;
+    }
+
+    public static BoardSnapshotWriter create(final Path path, final String boardName,
+                                             final List<BoardColumnEntity> columns) throws IOException {
+        var target = path.toAbsolutePath();
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        var temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        var writer = new BoardSnapshotWriter(target, temporary,
+                FileChannel.open(temporary, CREATE, TRUNCATE_EXISTING, WRITE), columns.size());
+        try {
+            writer.out.putInt(MAGIC).put(VERSION);
+            writer.write(BOARD, b -> putString(b, boardName));
+            for (var column : columns) {
+                writer.write(COLUMN, b -> {
+                    putVarLong(b, column.getId());
+                    putString(b, column.getName());
+                    putVarLong(b, column.getOrder());
+                    putString(b, column.getKind().name());
+                });
+            }
+            return writer;
+        } catch (IOException | RuntimeException ex) {
+            writer.close();
+            throw ex;
+        }
+    }
+
+    public void writeCard(final BoardSnapshotCardDTO card) throws IOException {
+        write(CARD, b -> {
+            putVarLong(b, card.id());
+            putVarLong(b, card.columnId());
+            putString(b, card.title());
+            putString(b, card.description());
+            putVarLong(b, card.blocksAmount());
+            putVarLong(b, card.blockedSeconds());
+            putVarLong(b, card.blocks().size());
+            for (var block : card.blocks()) {
+                putDateTime(b, block.blockedAt());
+                putString(b, block.blockReason());
+                putDateTime(b, block.unblockedAt());
+                putString(b, block.unblockReason());
+            }
+        });
+        cards++;
+        blocks += card.blocks().size();
+    }
+
+    /**
+     * Grava o registro de fim, sincroniza o arquivo em disco e o move para o nome final.
+     *
+     * @return tamanho do arquivo em bytes
+     */
+    public long finish() throws IOException {
+        write(END, b -> {
+            putVarLong(b, columns);
+            putVarLong(b, cards);
+            putVarLong(b, blocks);
+        });
+        flush();
+        channel.force(true);
+        channel.close();
+        Files.move(temporary, path, REPLACE_EXISTING, ATOMIC_MOVE);
+        finished = true;
+        return bytes;
+    }
+
+    public long getCards() {
+        return cards;
+    }
+
+    public long getBlocks() {
+        return blocks;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            return;
+        }
+        channel.close();
+        Files.deleteIfExists(temporary);
+    }
+
+    private void write(final byte type, final Payload payload) throws IOException {
+        while (true) {
+            record.clear();
+            try {
+                payload.write(record);
+                break;
+            } catch (BufferOverflowException ex) {
+                record = ByteBuffer.allocate(record.capacity() * 2);
+            }
+        }
+        record.flip();
+        if (out.remaining() < 1 + MAX_VARINT_SIZE + record.remaining()) {
+            flush();
+        }
+        out.put(type);
+        putVarLong(out, record.remaining());
+        if (out.remaining() < record.remaining()) {
+            // registro maior que o buffer (card com muitos bloqueios): vai direto para o arquivo
+            flush();
+            drain(record);
+            return;
+        }
+        out.put(record);
+    }
+
+    private void flush() throws IOException {
+        out.flip();
+        drain(out);
+        out.clear();
+    }
+
+    private void drain(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            bytes += channel.write(buffer);
+        }
+    }
+
+}
@@ -0,0 +1,355 @@
+package br.com.dio.persistence.snapshot;
+
+import br.com.dio.dto.BoardColumnDTO;
+import br.com.dio.dto.BoardColumnStructureDTO;
+import br.com.dio.dto.BoardDetailsDTO;
+import br.com.dio.dto.BoardStructureDTO;
+import br.com.dio.dto.LocalSnapshotColumnDTO;
+import br.com.dio.dto.LocalSnapshotVersionDTO;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.CardEntity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Arquivo local com a estrutura dos boards, a quantidade de cards por coluna e a primeira página de cards de
+ * cada coluna, lido por memory-map: abrir o arquivo só lê o cabeçalho, e as páginas de um board são trazidas
+ * do disco quando o board é consultado.
+ * <p>
+ * Layout: cabeçalho de tamanho fixo (com o carimbo de versão do banco), os cards de todas as colunas, uma
+ * seção por board (colunas com a posição e a quantidade dos seus cards) e, no fim, a tabela
+ * {@code [id do board][posição da seção]} ordenada por id, consultada por busca binária.
+ */
+public final class LocalBoardSnapshotFile {
+
+    private static final int MAGIC = 0x424C534E;
+    private static final short FORMAT = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int TABLE_ENTRY_SIZE = Long.BYTES * 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final BoardColumnKindEnum[] KINDS = BoardColumnKindEnum.values();
+
+    private final MappedByteBuffer map;
+    private final LocalSnapshotVersionDTO version;
+    private final OffsetDateTime writtenAt;
+    private final int boards;
+    private final int tableOffset;
+
+    private LocalBoardSnapshotFile(final MappedByteBuffer map, final LocalSnapshotVersionDTO version,
+                                   final OffsetDateTime writtenAt, final int boards, final int tableOffset) {
+        this.map = map;
+        this.version = version;
+        this.writtenAt = writtenAt;
+        this.boards = boards;
+        this.tableOffset = tableOffset;
+    }
+
+    public static LocalBoardSnapshotFile open(final Path path) throws IOException {
+        try (var channel = FileChannel.open(path, READ)) {
+            var size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Tamanho inválido para o snapshot local: %s bytes".formatted(size));
+            }
+            // o mapeamento continua válido depois que o canal é fechado
+            var map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (map.getInt(0) != MAGIC || map.getShort(4) != FORMAT) {
+                throw new IOException("O arquivo %s não é um snapshot local desta versão".formatted(path));
+            }
+            var version = new LocalSnapshotVersionDTO(map.getLong(8), map.getLong(16), map.getLong(24),
+                    map.getLong(32));
+            var writtenAt = OffsetDateTime.ofInstant(Instant.ofEpochMilli(map.getLong(40)), UTC);
+            var boards = map.getInt(48);
+            var tableOffset = map.getLong(56);
+            if (boards < 0 || tableOffset < HEADER_SIZE || tableOffset + (long) boards * TABLE_ENTRY_SIZE != size) {
+                throw new IOException("Snapshot local %s corrompido".formatted(path));
+            }
+            return new LocalBoardSnapshotFile(map, version, writtenAt, boards, (int) tableOffset);
+        }
+    }
+
+    public LocalSnapshotVersionDTO getVersion() {
+        return version;
+    }
+
+    public OffsetDateTime getWrittenAt() {
+        return writtenAt;
+    }
+
+    public int getBoards() {
+        return boards;
+    }
+
+    public long getBytes() {
+        return map.capacity();
+    }
+
+    public List<Long> boardIds() {
+        List<Long> ids = new ArrayList<>(boards);
+        for (var i = 0; i < boards; i++) {
+            ids.add(map.getLong(tableOffset + i * TABLE_ENTRY_SIZE));
+        }
+        return ids;
+    }
+
+    public Optional<BoardStructureDTO> findStructure(final Long boardId) {
+        return findSection(boardId).map(BoardSection::structure);
+    }
+
+    public Optional<BoardDetailsDTO> findDetails(final Long boardId) {
+        return findSection(boardId).map(s -> new BoardDetailsDTO(s.structure().id(), s.structure().name(),
+                s.columns().values().stream().map(ColumnEntry::details).toList()));
+    }
+
+    public Optional<BoardColumnDTO> findColumn(final Long boardId, final Long columnId) {
+        return findSection(boardId).map(s -> s.columns().get(columnId)).map(ColumnEntry::details);
+    }
+
+    /**
+     * Primeira página de cards da coluna, em ordem de id, com id, título, descrição e se está bloqueado.
+     */
+    public Optional<List<CardEntity>> findFirstCards(final Long boardId, final Long columnId) {
+        var column = findSection(boardId).map(s -> s.columns().get(columnId));
+        if (column.isEmpty()) {
+            return Optional.empty();
+        }
+        var buffer = map.duplicate().position((int) column.get().cardsOffset());
+        List<CardEntity> cards = new ArrayList<>(column.get().cardCount());
+        for (var i = 0; i < column.get().cardCount(); i++) {
+            var card = new CardEntity();
+            card.setId(buffer.getLong());
+            card.setBlocked(buffer.get() != 0);
+            card.setTitle(getString(buffer));
+            card.setDescription(getString(buffer));
+            card.getBoardColumn().setId(columnId);
+            cards.add(card);
+        }
+        return Optional.of(cards);
+    }
+
+    private Optional<BoardSection> findSection(final Long boardId) {
+        var low = 0;
+        var high = boards - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var entry = tableOffset + middle * TABLE_ENTRY_SIZE;
+            var id = map.getLong(entry);
+            if (id < boardId) {
+                low = middle + 1;
+            } else if (id > boardId) {
+                high = middle - 1;
+            } else {
+                return Optional.of(readSection(map.getLong(entry + Long.BYTES)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private BoardSection readSection(final long offset) {
+        var buffer = map.duplicate().position((int) offset);
+        var boardId = buffer.getLong();
+        var name = getString(buffer);
+        var count = buffer.getInt();
+        List<BoardColumnStructureDTO> structure = new ArrayList<>(count);
+        Map<Long, ColumnEntry> columns = new LinkedHashMap<>();
+        for (var i = 0; i < count; i++) {
+            var id = buffer.getLong();
+            var order = buffer.getInt();
+            var kind = KINDS[buffer.get()];
+            var cardsAmount = buffer.getInt();
+            var columnName = getString(buffer);
+            var cardsOffset = buffer.getLong();
+            var cardCount = buffer.getInt();
+            structure.add(new BoardColumnStructureDTO(id, columnName, order, kind));
+            columns.put(id, new ColumnEntry(new BoardColumnDTO(id, columnName, kind, cardsAmount), cardsOffset,
+                    cardCount));
+        }
+        return new BoardSection(new BoardStructureDTO(boardId, name, structure), columns);
+    }
+
+    private static String getString(final ByteBuffer buffer) {
+        var bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record BoardSection(BoardStructureDTO structure, Map<Long, ColumnEntry> columns) {
+    }
+
+    private record ColumnEntry(BoardColumnDTO details, long cardsOffset, int cardCount) {
+    }
+
+    /**
+     * Grava um novo snapshot ao lado do arquivo e o move para o nome final em {@link #finish}. Os cards devem
+     * ser escritos antes, coluna a coluna, em qualquer ordem de coluna.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final Path path;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final Map<Long, long[]> cardRanges = new HashMap<>();
+        private long position = HEADER_SIZE;
+        private boolean finished;
+
+        private Writer(final Path path, final Path temporary, final FileChannel channel) {
+            this.path = path;
+            this.temporary = temporary;
+            this.channel = channel;
+        }
+
+        public static Writer create(final Path path) throws IOException {
+            var target = path.toAbsolutePath();
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            var temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            var channel = FileChannel.open(temporary, CREATE, TRUNCATE_EXISTING, WRITE);
+            channel.position(HEADER_SIZE);
+            return new Writer(target, temporary, channel);
+        }
+
+        /**
+         * Cards de uma coluna, em ordem de id.
+         */
+        public void writeCards(final Long columnId, final List<CardEntity> cards) throws IOException {
+            var start = position;
+            for (var card : cards) {
+                var title = bytes(card.getTitle());
+                var description = bytes(card.getDescription());
+                ensure(Long.BYTES + 1 + Short.BYTES * 2 + title.length + description.length);
+                out.putLong(card.getId());
+                out.put((byte) (card.isBlocked() ? 1 : 0));
+                putBytes(title);
+                putBytes(description);
+            }
+            cardRanges.put(columnId, new long[]{start, cards.size()});
+        }
+
+        /**
+         * Grava as seções dos boards (colunas em ordem de board e de coluna), a tabela e o cabeçalho.
+         */
+        public long finish(final LocalSnapshotVersionDTO version,
+                           final List<LocalSnapshotColumnDTO> columns) throws IOException {
+            // em ordem de id, a ordem da tabela consultada por busca binária
+            Map<Long, List<LocalSnapshotColumnDTO>> boards = new TreeMap<>();
+            columns.forEach(c -> boards.computeIfAbsent(c.boardId(), id -> new ArrayList<>()).add(c));
+            var sections = new long[boards.size()];
+            var ids = new long[boards.size()];
+            var b = 0;
+            for (var board : boards.entrySet()) {
+                ids[b] = board.getKey();
+                sections[b++] = position;
+                var boardColumns = board.getValue();
+                var name = bytes(boardColumns.get(0).boardName());
+                ensure(Long.BYTES + Short.BYTES + name.length + Integer.BYTES);
+                out.putLong(board.getKey());
+                putBytes(name);
+                out.putInt(boardColumns.size());
+                for (var column : boardColumns) {
+                    var columnName = bytes(column.name());
+                    var range = cardRanges.getOrDefault(column.id(), new long[]{position, 0});
+                    ensure(Long.BYTES + Integer.BYTES + 1 + Integer.BYTES + Short.BYTES + columnName.length
+                            + Long.BYTES + Integer.BYTES);
+                    out.putLong(column.id());
+                    out.putInt(column.order());
+                    out.put((byte) column.kind().ordinal());
+                    out.putInt(column.cardsAmount());
+                    putBytes(columnName);
+                    out.putLong(range[0]);
+                    out.putInt((int) range[1]);
+                }
+            }
+            var tableOffset = position;
+            for (var i = 0; i < ids.length; i++) {
+                ensure(TABLE_ENTRY_SIZE);
+                out.putLong(ids[i]);
+                out.putLong(sections[i]);
+            }
+            flush();
+            var header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putShort(FORMAT)
+                    .putShort((short) 0)
+                    .putLong(version.lastEventId())
+                    .putLong(version.lastBoardId())
+                    .putLong(version.columns())
+                    .putLong(version.cards())
+                    .putLong(System.currentTimeMillis())
+                    .putInt(ids.length)
+                    .putInt(0)
+                    .putLong(tableOffset)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(temporary, path, REPLACE_EXISTING, ATOMIC_MOVE);
+            finished = true;
+            return position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (finished) {
+                return;
+            }
+            channel.close();
+            Files.deleteIfExists(temporary);
+        }
+
+        private static byte[] bytes(final String value) {
+            var bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("Texto grande demais para o snapshot local");
+            }
+            return bytes;
+        }
+
+        private void putBytes(final byte[] bytes) {
+            out.putShort((short) bytes.length);
+            out.put(bytes);
+        }
+
+        private void ensure(final int size) throws IOException {
+            if (out.remaining() < size) {
+                flush();
+            }
+            position += size;
+        }
+
+        private void flush() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,184 @@
+package br.com.dio.server;
+
+import br.com.dio.dto.BoardChangeDTO;
+import br.com.dio.dto.BoardDetailsDTO;
+import br.com.dio.dto.BulkMoveResultDTO;
+import br.com.dio.dto.CardBlockStatsDTO;
+import br.com.dio.dto.CardDetailsDTO;
+import br.com.dio.dto.CardSearchPageDTO;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.CardEventEntity;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Serialização da API HTTP: as respostas são escritas campo a campo por um {@link JsonGenerator}
+ * direto no stream de saída, sem montar árvores nem strings intermediárias.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class ApiJson {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory FACTORY = MAPPER.getFactory();
+
+    static JsonGenerator generator(final OutputStream out) throws IOException {
+        return FACTORY.createGenerator(out);
+    }
+
+    /**
+     * Gerador para Server-Sent Events: vários objetos na raiz, sem separador entre eles.
+     */
+    static JsonGenerator eventStream(final OutputStream out) throws IOException {
+        var gen = FACTORY.createGenerator(out);
+        gen.setRootValueSeparator(null);
+        return gen;
+    }
+
+    static JsonNode read(final InputStream body) throws IOException {
+        var node = MAPPER.readTree(body);
+        return node == null ? MAPPER.nullNode() : node;
+    }
+
+    static void writeBoard(final JsonGenerator gen, final BoardDetailsDTO board) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("id", board.id());
+        gen.writeStringField("name", board.name());
+        gen.writeArrayFieldStart("columns");
+        for (var column : board.columns()) {
+            gen.writeStartObject();
+            gen.writeNumberField("id", column.id());
+            gen.writeStringField("name", column.name());
+            gen.writeStringField("kind", column.kind().name());
+            gen.writeNumberField("cardsAmount", column.cardsAmount());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    static void writeCard(final JsonGenerator gen, final CardDetailsDTO card) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("id", card.id());
+        gen.writeStringField("title", card.title());
+        gen.writeStringField("description", card.description());
+        gen.writeBooleanField("blocked", card.blocked());
+        writeDateTime(gen, "blockedAt", card.blockedAt());
+        gen.writeStringField("blockReason", card.blockReason());
+        gen.writeNumberField("blocksAmount", card.blocksAmount());
+        gen.writeNumberField("blockedSeconds", card.blockedSeconds());
+        gen.writeNumberField("columnId", card.columnId());
+        gen.writeStringField("columnName", card.columnName());
+        gen.writeEndObject();
+    }
+
+    static void writeCardHeader(final JsonGenerator gen, final CardEntity card) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("id", card.getId());
+        gen.writeStringField("title", card.getTitle());
+        gen.writeStringField("description", card.getDescription());
+        gen.writeEndObject();
+    }
+
+    static void writeEvent(final JsonGenerator gen, final CardEventEntity event) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("id", event.getId());
+        gen.writeStringField("type", event.getType().name());
+        if (event.getBoardColumnId() != null) {
+            gen.writeNumberField("columnId", event.getBoardColumnId());
+        }
+        gen.writeStringField("reason", event.getReason());
+        writeDateTime(gen, "occurredAt", event.getOccurredAt());
+        gen.writeEndObject();
+    }
+
+    static void writeBlockStats(final JsonGenerator gen, final CardBlockStatsDTO stats) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("id", stats.id());
+        gen.writeStringField("title", stats.title());
+        gen.writeNumberField("columnId", stats.columnId());
+        gen.writeNumberField("blocksAmount", stats.blocksAmount());
+        gen.writeNumberField("blockedSeconds", stats.blockedSeconds());
+        gen.writeBooleanField("blocked", stats.blocked());
+        gen.writeEndObject();
+    }
+
+    static void writeSearchPage(final JsonGenerator gen, final CardSearchPageDTO page) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("query", page.query());
+        gen.writeNumberField("total", page.total());
+        gen.writeNumberField("offset", page.offset());
+        gen.writeArrayFieldStart("hits");
+        for (var hit : page.hits()) {
+            gen.writeStartObject();
+            gen.writeNumberField("id", hit.id());
+            gen.writeStringField("title", hit.title());
+            gen.writeNumberField("score", hit.score());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    static void writeBulkMove(final JsonGenerator gen, final BulkMoveResultDTO result) throws IOException {
+        gen.writeStartObject();
+        gen.writeArrayFieldStart("moved");
+        for (var cardId : result.movedCardIds()) {
+            gen.writeNumber(cardId);
+        }
+        gen.writeEndArray();
+        gen.writeObjectFieldStart("failures");
+        for (var failure : result.failures().entrySet()) {
+            gen.writeStringField(failure.getKey().toString(), failure.getValue());
+        }
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    static void writeChangeEvent(final JsonGenerator gen, final BoardChangeDTO change) throws IOException {
+        gen.writeRaw("id: " + change.sequence() + "\nevent: " + change.type() + "\ndata: ");
+        gen.writeStartObject();
+        gen.writeNumberField("boardId", change.boardId());
+        gen.writeStringField("type", change.type());
+        if (change.cardId() != null) {
+            gen.writeNumberField("cardId", change.cardId());
+        }
+        if (change.columnId() != null) {
+            gen.writeNumberField("columnId", change.columnId());
+        }
+        writeDateTime(gen, "occurredAt", change.occurredAt());
+        gen.writeEndObject();
+        gen.writeRaw("\n\n");
+    }
+
+    static void writeId(final JsonGenerator gen, final Long id) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("id", id);
+        gen.writeEndObject();
+    }
+
+    static void writeError(final JsonGenerator gen, final String message) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("error", message);
+        gen.writeEndObject();
+    }
+
+    private static void writeDateTime(final JsonGenerator gen, final String field,
+                                      final OffsetDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeStringField(field, value.toString());
+        }
+    }
+
+}
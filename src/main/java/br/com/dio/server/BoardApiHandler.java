@@ -0,0 +1,433 @@
+package br.com.dio.server;
+
+import br.com.dio.dto.BoardStructureDTO;
+import br.com.dio.exception.CardBlockedException;
+import br.com.dio.exception.CardConflictException;
+import br.com.dio.exception.CardFinishedException;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.service.BoardChangeFeed;
+import br.com.dio.service.BoardColumnQueryService;
+import br.com.dio.service.BoardQueryService;
+import br.com.dio.service.BoardService;
+import br.com.dio.service.CardQueryService;
+import br.com.dio.service.CardSearchService;
+import br.com.dio.service.GroupCommitExecutor;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+import static br.com.dio.service.BoardChangeFeed.BOARD_DELETED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Rotas da API HTTP. Cada requisição usa uma conexão do pool só durante sua execução.
+ * <pre>
+ * POST   /boards                      {"name", "columns": [{"name", "kind"}]}
+ * GET    /boards/{id}
+ * DELETE /boards/{id}
+ * GET    /boards/{id}/blocked?limit=
+ * POST   /boards/{id}/moves           {"cardIds": [...]}
+ * GET    /boards/{id}/changes         (Server-Sent Events com as alterações confirmadas)
+ * POST   /cards                       {"boardId", "title", "description"}
+ * GET    /cards/{id}
+ * GET    /cards/{id}/history
+ * POST   /cards/{id}/move             {"boardId"}
+ * POST   /cards/{id}/block            {"boardId", "reason"}
+ * POST   /cards/{id}/unblock          {"reason"}
+ * POST   /cards/{id}/cancel           {"boardId"}
+ * GET    /columns/{id}/cards?after=&limit=   (sem limit: coluna inteira em chunked transfer)
+ * GET    /search?q=&offset=&limit=   (termos no título e na descrição; "termo*" busca por prefixo)
+ * </pre>
+ */
+class BoardApiHandler implements HttpHandler {
+
+    static final int MAX_PAGE_SIZE = 1_000;
+    static final int DEFAULT_BLOCKED_LIMIT = 10;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final long KEEPALIVE_SECONDS = Long.parseLong(getProperty("feed.keepaliveSeconds", "15").trim());
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardApiHandler.class);
+    private static final String JSON = "application/json; charset=utf-8";
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonGenerator gen) throws IOException;
+    }
+
+    @Override
+    public void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (EntityNotFoundException ex) {
+                sendError(exchange, 404, ex.getMessage());
+            } catch (CardBlockedException | CardFinishedException | CardConflictException ex) {
+                sendError(exchange, 409, ex.getMessage());
+            } catch (IllegalArgumentException | NoSuchElementException | JacksonException ex) {
+                sendError(exchange, 400, ex.getMessage());
+            } catch (SQLException ex) {
+                logger.error("Erro ao atender {} {}: {}", exchange.getRequestMethod(),
+                        exchange.getRequestURI(), ex.getMessage(), ex);
+                sendError(exchange, 500, "Erro ao acessar o banco de dados");
+            } catch (RuntimeException ex) {
+                logger.error("Erro ao atender {} {}: {}", exchange.getRequestMethod(),
+                        exchange.getRequestURI(), ex.getMessage(), ex);
+                sendError(exchange, 500, "Erro interno");
+            }
+        }
+    }
+
+    private void route(final HttpExchange exchange) throws IOException, SQLException {
+        var path = Arrays.stream(exchange.getRequestURI().getPath().split("/"))
+                .filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
+        var method = exchange.getRequestMethod();
+        var route = method + " " + String.join("/", shape(path));
+        switch (route) {
+            case "POST boards" -> createBoard(exchange);
+            case "GET boards/{id}" -> showBoard(exchange, id(path[1]));
+            case "DELETE boards/{id}" -> deleteBoard(exchange, id(path[1]));
+            case "GET boards/{id}/blocked" -> showMostBlocked(exchange, id(path[1]));
+            case "POST boards/{id}/moves" -> moveAll(exchange, id(path[1]));
+            case "GET boards/{id}/changes" -> streamChanges(exchange, id(path[1]));
+            case "POST cards" -> createCard(exchange);
+            case "GET cards/{id}" -> showCard(exchange, id(path[1]));
+            case "GET cards/{id}/history" -> showHistory(exchange, id(path[1]));
+            case "POST cards/{id}/move" -> moveCard(exchange, id(path[1]));
+            case "POST cards/{id}/block" -> blockCard(exchange, id(path[1]));
+            case "POST cards/{id}/unblock" -> unblockCard(exchange, id(path[1]));
+            case "POST cards/{id}/cancel" -> cancelCard(exchange, id(path[1]));
+            case "GET columns/{id}/cards" -> listCards(exchange, id(path[1]));
+            case "GET search" -> searchCards(exchange);
+            default -> sendError(exchange, 404, "Rota não encontrada: %s %s"
+                    .formatted(method, exchange.getRequestURI().getPath()));
+        }
+    }
+
+    private void createBoard(final HttpExchange exchange) throws IOException, SQLException {
+        var body = ApiJson.read(exchange.getRequestBody());
+        var entity = new BoardEntity();
+        entity.setName(text(body, "name"));
+        var columns = body.path("columns");
+        for (var i = 0; i < columns.size(); i++) {
+            var column = new BoardColumnEntity();
+            column.setName(text(columns.get(i), "name"));
+            column.setKind(BoardColumnKindEnum.findByName(text(columns.get(i), "kind")));
+            column.setOrder(i);
+            entity.addColumn(column);
+        }
+        if (!entity.isValid()) {
+            throw new IllegalArgumentException("O board deve ter colunas inicial e de cancelamento");
+        }
+        try (var connection = getConnection()) {
+            new BoardService(connection).insert(entity);
+        }
+        send(exchange, 201, gen -> ApiJson.writeId(gen, entity.getId()));
+    }
+
+    private void showBoard(final HttpExchange exchange, final Long id) throws IOException, SQLException {
+        try (var connection = getConnection()) {
+            var board = new BoardQueryService(connection).showBoardDetails(id)
+                    .orElseThrow(() -> boardNotFound(id));
+            send(exchange, 200, gen -> ApiJson.writeBoard(gen, board));
+        }
+    }
+
+    private void deleteBoard(final HttpExchange exchange, final Long id) throws IOException, SQLException {
+        try (var connection = getConnection()) {
+            if (!new BoardService(connection).delete(id)) {
+                throw boardNotFound(id);
+            }
+        }
+        sendEmpty(exchange);
+    }
+
+    private void showMostBlocked(final HttpExchange exchange, final Long id) throws IOException, SQLException {
+        var limit = (int) Math.min(queryLong(exchange, "limit", DEFAULT_BLOCKED_LIMIT), MAX_PAGE_SIZE);
+        try (var connection = getConnection()) {
+            var cards = new BoardQueryService(connection).findMostBlockedCards(id, limit);
+            send(exchange, 200, gen -> {
+                gen.writeStartArray();
+                for (var card : cards) {
+                    ApiJson.writeBlockStats(gen, card);
+                }
+                gen.writeEndArray();
+            });
+        }
+    }
+
+    private void moveAll(final HttpExchange exchange, final Long boardId) throws IOException, SQLException {
+        var cardIds = new ArrayList<Long>();
+        for (var cardId : ApiJson.read(exchange.getRequestBody()).path("cardIds")) {
+            cardIds.add(cardId.asLong());
+        }
+        var result = GroupCommitExecutor.execute(service -> service.moveAll(boardId, cardIds));
+        send(exchange, 200, gen -> ApiJson.writeBulkMove(gen, result));
+    }
+
+    /**
+     * Mantém a resposta aberta enviando cada alteração do board como um evento SSE. Quando o buffer da assinatura
+     * transborda, envia {@code resync} para o cliente recarregar o board em vez de aplicar eventos incompletos.
+     */
+    private void streamChanges(final HttpExchange exchange, final Long boardId) throws IOException, SQLException {
+        findStructure(boardId);
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        try (var subscription = BoardChangeFeed.getInstance().subscribe(boardId);
+             var gen = ApiJson.eventStream(exchange.getResponseBody())) {
+            var reportedDrops = 0L;
+            while (true) {
+                var change = subscription.poll(KEEPALIVE_SECONDS, SECONDS);
+                if (subscription.dropped() > reportedDrops) {
+                    reportedDrops = subscription.dropped();
+                    gen.writeRaw("event: resync\ndata: {}\n\n");
+                }
+                if (change == null) {
+                    gen.writeRaw(": keepalive\n\n");
+                } else {
+                    ApiJson.writeChangeEvent(gen, change);
+                }
+                gen.flush();
+                if (change != null && change.type().equals(BOARD_DELETED)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void createCard(final HttpExchange exchange) throws IOException, SQLException {
+        var body = ApiJson.read(exchange.getRequestBody());
+        var card = new CardEntity();
+        card.setTitle(text(body, "title"));
+        card.setDescription(text(body, "description"));
+        var initialColumn = new BoardColumnEntity();
+        initialColumn.setId(findStructure(number(body, "boardId")).initialColumn().id());
+        card.setBoardColumn(initialColumn);
+        GroupCommitExecutor.execute(service -> service.create(card));
+        send(exchange, 201, gen -> ApiJson.writeId(gen, card.getId()));
+    }
+
+    private void showCard(final HttpExchange exchange, final Long id) throws IOException, SQLException {
+        try (var connection = getConnection()) {
+            var card = new CardQueryService(connection).findById(id)
+                    .orElseThrow(() -> cardNotFound(id));
+            send(exchange, 200, gen -> ApiJson.writeCard(gen, card));
+        }
+    }
+
+    private void showHistory(final HttpExchange exchange, final Long id) throws IOException, SQLException {
+        try (var connection = getConnection()) {
+            var events = new CardQueryService(connection).findHistory(id);
+            send(exchange, 200, gen -> {
+                gen.writeStartArray();
+                for (var event : events) {
+                    ApiJson.writeEvent(gen, event);
+                }
+                gen.writeEndArray();
+            });
+        }
+    }
+
+    private void moveCard(final HttpExchange exchange, final Long id) throws IOException, SQLException {
+        var body = ApiJson.read(exchange.getRequestBody());
+        var columnsInfo = findStructure(number(body, "boardId")).columnsInfo();
+        GroupCommitExecutor.run(service -> service.moveToNextColumn(id, columnsInfo));
+        sendEmpty(exchange);
+    }
+
+    private void blockCard(final HttpExchange exchange, final Long id) throws IOException, SQLException {
+        var body = ApiJson.read(exchange.getRequestBody());
+        var reason = text(body, "reason");
+        var columnsInfo = findStructure(number(body, "boardId")).columnsInfo();
+        GroupCommitExecutor.run(service -> service.block(id, reason, columnsInfo));
+        sendEmpty(exchange);
+    }
+
+    private void unblockCard(final HttpExchange exchange, final Long id) throws IOException, SQLException {
+        var body = ApiJson.read(exchange.getRequestBody());
+        var reason = text(body, "reason");
+        GroupCommitExecutor.run(service -> service.unblock(id, reason));
+        sendEmpty(exchange);
+    }
+
+    private void cancelCard(final HttpExchange exchange, final Long id) throws IOException, SQLException {
+        var body = ApiJson.read(exchange.getRequestBody());
+        var structure = findStructure(number(body, "boardId"));
+        GroupCommitExecutor.run(service -> service.cancel(id, structure.cancelColumn().id(), structure.columnsInfo()));
+        sendEmpty(exchange);
+    }
+
+    private void listCards(final HttpExchange exchange, final Long columnId) throws IOException, SQLException {
+        var query = query(exchange);
+        try (var connection = getConnection()) {
+            var service = new BoardColumnQueryService(connection);
+            service.findHeaderById(columnId).orElseThrow(() -> new EntityNotFoundException(
+                    "A coluna de id %s não foi encontrada".formatted(columnId)));
+            if (query.containsKey("limit")) {
+                var limit = (int) Math.min(queryLong(query, "limit", MAX_PAGE_SIZE), MAX_PAGE_SIZE);
+                var page = service.findCardsPage(columnId, queryLong(query, "after", 0), limit);
+                send(exchange, 200, gen -> {
+                    gen.writeStartArray();
+                    for (var card : page) {
+                        ApiJson.writeCardHeader(gen, card);
+                    }
+                    gen.writeEndArray();
+                });
+                return;
+            }
+            // Coluna inteira: cada linha lida do banco vai direto para o corpo em chunked transfer
+            exchange.getResponseHeaders().set("Content-Type", JSON);
+            exchange.sendResponseHeaders(200, 0);
+            try (var gen = ApiJson.generator(exchange.getResponseBody());
+                 var cards = service.streamAllCards(columnId)) {
+                gen.writeStartArray();
+                for (var iterator = cards.iterator(); iterator.hasNext(); ) {
+                    ApiJson.writeCardHeader(gen, iterator.next());
+                }
+                gen.writeEndArray();
+            }
+        }
+    }
+
+    private void searchCards(final HttpExchange exchange) throws IOException, SQLException {
+        var query = query(exchange);
+        var offset = (int) queryLong(query, "offset", 0);
+        var limit = (int) queryLong(query, "limit", DEFAULT_SEARCH_LIMIT);
+        try (var connection = getConnection()) {
+            var page = new CardSearchService(connection).search(query.get("q"), offset, limit);
+            send(exchange, 200, gen -> ApiJson.writeSearchPage(gen, page));
+        }
+    }
+
+    /**
+     * Estrutura do board com uma conexão só para a consulta, fechada antes de a operação entrar no group commit.
+     */
+    private BoardStructureDTO findStructure(final Long boardId) throws SQLException {
+        try (var connection = getConnection()) {
+            return new BoardQueryService(connection).findStructure(boardId)
+                    .orElseThrow(() -> boardNotFound(boardId));
+        }
+    }
+
+    /**
+     * Serializa respostas pequenas em bytes para enviar com Content-Length; listas grandes usam chunked.
+     */
+    private void send(final HttpExchange exchange, final int status, final JsonBody body) throws IOException {
+        var buffer = new ByteArrayOutputStream(512);
+        try (var gen = ApiJson.generator(buffer)) {
+            body.write(gen);
+        }
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, buffer.size());
+        buffer.writeTo(exchange.getResponseBody());
+    }
+
+    private void sendEmpty(final HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void sendError(final HttpExchange exchange, final int status, final String message) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            // Cabeçalhos já enviados (resposta em streaming): só resta encerrar a conexão
+            return;
+        }
+        send(exchange, status, gen -> ApiJson.writeError(gen, message));
+    }
+
+    private String[] shape(final String[] path) {
+        var shape = path.clone();
+        for (var i = 1; i < shape.length; i += 2) {
+            shape[i] = "{id}";
+        }
+        return shape;
+    }
+
+    private Long id(final String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Id inválido: " + value);
+        }
+    }
+
+    private String text(final JsonNode node, final String field) {
+        var value = node.path(field);
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException("O campo '%s' é obrigatório".formatted(field));
+        }
+        return value.asText();
+    }
+
+    private Long number(final JsonNode node, final String field) {
+        var value = node.path(field);
+        if (!value.canConvertToLong()) {
+            throw new IllegalArgumentException("O campo '%s' deve ser numérico".formatted(field));
+        }
+        return value.asLong();
+    }
+
+    private long queryLong(final HttpExchange exchange, final String name, final long defaultValue) {
+        return queryLong(query(exchange), name, defaultValue);
+    }
+
+    private long queryLong(final Map<String, String> query, final String name, final long defaultValue) {
+        var value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("O parâmetro '%s' deve ser numérico".formatted(name));
+        }
+    }
+
+    private Map<String, String> query(final HttpExchange exchange) {
+        var query = new HashMap<String, String>();
+        var raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (var pair : raw.split("&")) {
+            var separator = pair.indexOf('=');
+            if (separator > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, separator), UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private EntityNotFoundException boardNotFound(final Long id) {
+        return new EntityNotFoundException("O board de id %s não foi encontrado".formatted(id));
+    }
+
+    private EntityNotFoundException cardNotFound(final Long id) {
+        return new EntityNotFoundException("O card de id %s não foi encontrado".formatted(id));
+    }
+
+}
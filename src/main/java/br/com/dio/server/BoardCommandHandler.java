@@ -0,0 +1,189 @@
+package br.com.dio.server;
+
+import br.com.dio.dto.BoardStructureDTO;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.service.BoardColumnQueryService;
+import br.com.dio.service.BoardQueryService;
+import br.com.dio.service.CardQueryService;
+import br.com.dio.service.GroupCommitExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+
+/**
+ * Protocolo de linha do modo servidor: campos separados por TAB, uma resposta por linha,
+ * começando com {@code OK} ou {@code ERR}. Cada comando usa uma conexão do pool só durante sua execução.
+ * <pre>
+ * PING
+ * BOARD    boardId
+ * CARD     cardId
+ * CARDS    columnId  afterCardId  limit
+ * CREATE   boardId   title        description
+ * MOVE     boardId   cardId
+ * BLOCK    boardId   cardId       reason
+ * UNBLOCK  cardId    reason
+ * CANCEL   boardId   cardId
+ * </pre>
+ */
+class BoardCommandHandler {
+
+    static final String SEPARATOR = "\t";
+    static final int MAX_PAGE_SIZE = 1_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardCommandHandler.class);
+
+    String handle(final String line) {
+        var fields = line.split(SEPARATOR, -1);
+        try {
+            return switch (fields[0].trim().toUpperCase(Locale.ROOT)) {
+                case "PING" -> ok("PONG");
+                case "BOARD" -> board(fields);
+                case "CARD" -> card(fields);
+                case "CARDS" -> cards(fields);
+                case "CREATE" -> create(fields);
+                case "MOVE" -> move(fields);
+                case "BLOCK" -> block(fields);
+                case "UNBLOCK" -> unblock(fields);
+                case "CANCEL" -> cancel(fields);
+                default -> error("Comando desconhecido: " + fields[0]);
+            };
+        } catch (SQLException ex) {
+            logger.error("Erro ao executar o comando {}: {}", fields[0], ex.getMessage(), ex);
+            return error("Erro ao acessar o banco de dados");
+        } catch (RuntimeException ex) {
+            return error(ex.getMessage());
+        }
+    }
+
+    private String board(final String[] fields) throws SQLException {
+        var boardId = longField(fields, 1);
+        try (var connection = getConnection()) {
+            var details = new BoardQueryService(connection).showBoardDetails(boardId)
+                    .orElseThrow(() -> boardNotFound(boardId));
+            var columns = details.columns().stream()
+                    .map(c -> "%s:%s:%s:%s".formatted(c.id(), clean(c.name()), c.kind(), c.cardsAmount()))
+                    .collect(Collectors.joining(";"));
+            return ok(details.id(), clean(details.name()), columns);
+        }
+    }
+
+    private String card(final String[] fields) throws SQLException {
+        var cardId = longField(fields, 1);
+        try (var connection = getConnection()) {
+            var card = new CardQueryService(connection).findById(cardId)
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "O card de id %s não foi encontrado".formatted(cardId)));
+            return ok(card.id(), clean(card.title()), clean(card.description()), card.blocked(),
+                    clean(card.blockReason()), card.blocksAmount(), card.columnId(), clean(card.columnName()));
+        }
+    }
+
+    private String cards(final String[] fields) throws SQLException {
+        var columnId = longField(fields, 1);
+        var afterCardId = longField(fields, 2);
+        var limit = (int) Math.min(longField(fields, 3), MAX_PAGE_SIZE);
+        try (var connection = getConnection()) {
+            var page = new BoardColumnQueryService(connection).findCardsPage(columnId, afterCardId, limit);
+            return ok(page.stream().map(c -> c.getId().toString()).collect(Collectors.joining(",")));
+        }
+    }
+
+    private String create(final String[] fields) throws SQLException {
+        var boardId = longField(fields, 1);
+        var card = new CardEntity();
+        card.setTitle(textField(fields, 2));
+        card.setDescription(textField(fields, 3));
+        var initialColumn = new BoardColumnEntity();
+        initialColumn.setId(findStructure(boardId).initialColumn().id());
+        card.setBoardColumn(initialColumn);
+        GroupCommitExecutor.execute(service -> service.create(card));
+        return ok(card.getId());
+    }
+
+    private String move(final String[] fields) throws SQLException {
+        var boardId = longField(fields, 1);
+        var cardId = longField(fields, 2);
+        var columnsInfo = findStructure(boardId).columnsInfo();
+        GroupCommitExecutor.run(service -> service.moveToNextColumn(cardId, columnsInfo));
+        return ok();
+    }
+
+    private String block(final String[] fields) throws SQLException {
+        var boardId = longField(fields, 1);
+        var cardId = longField(fields, 2);
+        var reason = textField(fields, 3);
+        var columnsInfo = findStructure(boardId).columnsInfo();
+        GroupCommitExecutor.run(service -> service.block(cardId, reason, columnsInfo));
+        return ok();
+    }
+
+    private String unblock(final String[] fields) throws SQLException {
+        var cardId = longField(fields, 1);
+        var reason = textField(fields, 2);
+        GroupCommitExecutor.run(service -> service.unblock(cardId, reason));
+        return ok();
+    }
+
+    private String cancel(final String[] fields) throws SQLException {
+        var boardId = longField(fields, 1);
+        var cardId = longField(fields, 2);
+        var structure = findStructure(boardId);
+        GroupCommitExecutor.run(service -> service.cancel(cardId, structure.cancelColumn().id(),
+                structure.columnsInfo()));
+        return ok();
+    }
+
+    /**
+     * Estrutura do board com uma conexão só para a consulta, fechada antes de a operação entrar no group commit.
+     */
+    private BoardStructureDTO findStructure(final Long boardId) throws SQLException {
+        try (var connection = getConnection()) {
+            return new BoardQueryService(connection).findStructure(boardId)
+                    .orElseThrow(() -> boardNotFound(boardId));
+        }
+    }
+
+    private EntityNotFoundException boardNotFound(final Long boardId) {
+        return new EntityNotFoundException("O board de id %s não foi encontrado".formatted(boardId));
+    }
+
+    private long longField(final String[] fields, final int index) {
+        var value = textField(fields, index);
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("O campo %s deve ser numérico: %s".formatted(index, value));
+        }
+    }
+
+    private String textField(final String[] fields, final int index) {
+        if (index >= fields.length) {
+            throw new IllegalArgumentException("O comando %s espera ao menos %s campos".formatted(fields[0], index));
+        }
+        return fields[index];
+    }
+
+    private String clean(final String value) {
+        return value == null ? "" : value.replaceAll("[\\t\\r\\n]", " ");
+    }
+
+    private String ok(final Object... values) {
+        var response = new StringBuilder("OK");
+        for (var value : values) {
+            response.append(SEPARATOR).append(value);
+        }
+        return response.toString();
+    }
+
+    private String error(final String message) {
+        return "ERR" + SEPARATOR + clean(message);
+    }
+
+}
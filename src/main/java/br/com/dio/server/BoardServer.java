@@ -0,0 +1,131 @@
+package br.com.dio.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Modo servidor: aceita sessões TCP concorrentes e atende cada uma em uma virtual thread.
+ * As threads só ocupam uma conexão do pool enquanto um comando está sendo executado.
+ * <p>
+ * O Connector/J 9 troca os blocos {@code synchronized} por locks, então uma virtual thread esperando o
+ * MySQL não prende a thread carregadora; com o driver 8.0 cada comando em execução ocuparia uma.
+ */
+public class BoardServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardServer.class);
+
+    private final String host;
+    private final int port;
+    private final int backlog;
+    private final BoardCommandHandler handler = new BoardCommandHandler();
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private final LongAdder openedSessions = new LongAdder();
+    private final LongAdder handledCommands = new LongAdder();
+    private volatile ServerSocket serverSocket;
+
+    public BoardServer(final String host, final int port, final int backlog) {
+        this.host = host;
+        this.port = port;
+        this.backlog = backlog;
+    }
+
+    /**
+     * Bloqueia a thread atual aceitando conexões até {@link #close()}.
+     */
+    public void serve() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(host, port), backlog);
+        logger.info("Servidor de boards ouvindo em {}:{}", host, serverSocket.getLocalPort());
+        while (!serverSocket.isClosed()) {
+            try {
+                var socket = serverSocket.accept();
+                openedSessions.increment();
+                try {
+                    sessions.submit(() -> handle(socket));
+                } catch (RejectedExecutionException ex) {
+                    // aceita no meio do close()
+                    socket.close();
+                }
+            } catch (SocketException ex) {
+                if (!serverSocket.isClosed()) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    public int getLocalPort() {
+        return serverSocket == null ? port : serverSocket.getLocalPort();
+    }
+
+    /**
+     * Para de aceitar conexões e fecha as sessões abertas: um cliente ocioso está bloqueado na leitura e só
+     * sai dela com o socket fechado. Um comando em execução termina no banco antes do executor encerrar,
+     * mas a resposta não chega ao cliente.
+     */
+    @Override
+    public void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (var socket : openSockets) {
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                logger.debug("Erro ao fechar a sessão {}: {}", socket.getRemoteSocketAddress(), ex.getMessage());
+            }
+        }
+        sessions.close();
+        logger.info("Servidor de boards encerrado: {} sessões, {} comandos",
+                openedSessions.sum(), handledCommands.sum());
+    }
+
+    private void handle(final Socket socket) {
+        openSockets.add(socket);
+        try (socket;
+             var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+             var writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), UTF_8))) {
+            if (serverSocket.isClosed()) {
+                // sessão registrada depois que o close() já percorreu openSockets
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (line.trim().equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+                writer.write(handler.handle(line));
+                writer.newLine();
+                writer.flush();
+                handledCommands.increment();
+            }
+        } catch (IOException ex) {
+            logger.debug("Sessão {} encerrada: {}", socket.getRemoteSocketAddress(), ex.getMessage());
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+}
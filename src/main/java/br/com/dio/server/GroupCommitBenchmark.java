@@ -0,0 +1,191 @@
+package br.com.dio.server;
+
+import br.com.dio.dto.BoardStructureDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.service.BoardQueryService;
+import br.com.dio.service.CardService;
+import br.com.dio.service.GroupCommitExecutor;
+import org.HdrHistogram.Recorder;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static br.com.dio.persistence.config.ConnectionConfig.closePool;
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+
+/**
+ * Mede escritas por segundo do {@link CardService} para cada janela do {@link GroupCommitExecutor}, contra o
+ * banco configurado. Cada cliente (virtual thread) bloqueia e desbloqueia o seu próprio card no board
+ * informado, um commit por operação; a janela {@code off} é a referência sem group commit. Os cards criados
+ * para a medição são cancelados no fim.
+ * <p>
+ * Uso: {@code ./gradlew groupCommitBenchmark -Pbench.board=1 -Pbench.clients=64 -Pbench.windows=off,0,500,2000}
+ */
+public class GroupCommitBenchmark {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final long boardId;
+    private final int clients;
+    private final Duration duration;
+    private final int maxBatchSize;
+
+    public GroupCommitBenchmark(final long boardId, final int clients, final Duration duration,
+                                final int maxBatchSize) {
+        this.boardId = boardId;
+        this.clients = clients;
+        this.duration = duration;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        var options = new HashMap<String, String>();
+        for (var arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        var benchmark = new GroupCommitBenchmark(Long.parseLong(options.getOrDefault("board", "1")),
+                Integer.parseInt(options.getOrDefault("clients", "64")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "10"))),
+                Integer.parseInt(options.getOrDefault("batch", "64")));
+        try {
+            benchmark.run(Arrays.asList(options.getOrDefault("windows", "off,0,250,1000,5000").split(",")));
+        } finally {
+            closePool();
+        }
+    }
+
+    public void run(final List<String> windows) throws SQLException, InterruptedException {
+        BoardStructureDTO structure;
+        try (var connection = getConnection()) {
+            structure = new BoardQueryService(connection).findStructure(boardId).orElseThrow(
+                    () -> new IllegalArgumentException("O board de id %s não foi encontrado".formatted(boardId)));
+        }
+        var cardIds = createCards(structure);
+        try {
+            System.out.printf("Board %s, %s clientes, %s s por janela, lote máximo %s%n",
+                    boardId, clients, duration.toSeconds(), maxBatchSize);
+            System.out.printf("%-12s %12s %10s %10s %10s%n", "janela (µs)", "escritas/s", "média lote", "p50 (ms)",
+                    "p99 (ms)");
+            for (var window : windows) {
+                measure(window.trim(), structure, cardIds);
+            }
+        } finally {
+            cancelCards(structure, cardIds);
+        }
+    }
+
+    private void measure(final String window, final BoardStructureDTO structure, final List<Long> cardIds)
+            throws InterruptedException {
+        var executor = window.equals("off") ? null
+                : new GroupCommitExecutor(maxBatchSize, Long.parseLong(window), clients * 2);
+        var writes = new LongAdder();
+        var errors = new LongAdder();
+        var latency = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        var columnsInfo = structure.columnsInfo();
+        var end = System.nanoTime() + duration.toNanos();
+        try (var clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var cardId : cardIds) {
+                clientThreads.submit(() -> {
+                    var blocked = false;
+                    long start;
+                    while ((start = System.nanoTime()) < end) {
+                        var block = !blocked;
+                        try {
+                            write(executor, service -> {
+                                if (block) {
+                                    service.block(cardId, "benchmark", columnsInfo);
+                                } else {
+                                    service.unblock(cardId, "benchmark");
+                                }
+                            });
+                            blocked = block;
+                            writes.increment();
+                        } catch (SQLException | RuntimeException ex) {
+                            errors.increment();
+                        }
+                        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                                HIGHEST_TRACKABLE_MICROS));
+                    }
+                    if (blocked) {
+                        unblockQuietly(cardId);
+                    }
+                });
+            }
+        }
+        var averageBatch = 1.0;
+        if (executor != null) {
+            averageBatch = executor.getStats().averageBatchSize();
+            executor.close();
+        }
+        var histogram = latency.getIntervalHistogram();
+        System.out.printf("%-12s %12.1f %10.1f %10.2f %10.2f%s%n", window, writes.sum() / (double) duration.toSeconds(),
+                averageBatch, histogram.getValueAtPercentile(50) / 1000d, histogram.getValueAtPercentile(99) / 1000d,
+                errors.sum() > 0 ? "  (%s erros)".formatted(errors.sum()) : "");
+    }
+
+    private void write(final GroupCommitExecutor executor, final GroupCommitExecutor.CardAction action)
+            throws SQLException, InterruptedException {
+        if (executor == null) {
+            try (var connection = getConnection()) {
+                action.apply(new CardService(connection));
+            }
+            return;
+        }
+        try {
+            executor.submit(service -> {
+                action.apply(service);
+                return null;
+            }).get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof SQLException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private List<Long> createCards(final BoardStructureDTO structure) throws SQLException {
+        List<CardEntity> cards = new ArrayList<>(clients);
+        for (var i = 0; i < clients; i++) {
+            var card = new CardEntity();
+            card.setTitle("Benchmark group commit " + i);
+            card.setDescription("Card criado pelo GroupCommitBenchmark");
+            var column = new BoardColumnEntity();
+            column.setId(structure.initialColumn().id());
+            card.setBoardColumn(column);
+            cards.add(card);
+        }
+        try (var connection = getConnection()) {
+            return new CardService(connection).createAll(cards).stream().map(CardEntity::getId).toList();
+        }
+    }
+
+    private void cancelCards(final BoardStructureDTO structure, final List<Long> cardIds) throws SQLException {
+        try (var connection = getConnection()) {
+            var service = new CardService(connection);
+            for (var cardId : cardIds) {
+                service.cancel(cardId, structure.cancelColumn().id(), structure.columnsInfo());
+            }
+        }
+    }
+
+    private void unblockQuietly(final Long cardId) {
+        try (var connection = getConnection()) {
+            new CardService(connection).unblock(cardId, "benchmark");
+        } catch (SQLException | RuntimeException ex) {
+            // o card será cancelado no fim de qualquer forma
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package br.com.dio.server;
+
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * API HTTP/JSON sobre a camada de serviços, no servidor embutido do JDK.
+ * Cada requisição roda em uma virtual thread; as rotas estão em {@link BoardApiHandler}.
+ */
+public class HttpApiServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpApiServer.class);
+    private static final int STOP_DELAY_SECONDS = 2;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public HttpApiServer(final String host, final int port, final int backlog) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(host, port), backlog);
+        server.createContext("/", new BoardApiHandler());
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("API HTTP ouvindo em {}:{}", server.getAddress().getHostString(), getLocalPort());
+    }
+
+    public int getLocalPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+        // Interrompe as assinaturas de alterações (SSE), que ficam aguardando eventos indefinidamente
+        executor.shutdownNow();
+        executor.close();
+        logger.info("API HTTP encerrada");
+    }
+
+}
@@ -0,0 +1,201 @@
+package br.com.dio.server;
+
+import org.HdrHistogram.Recorder;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Gerador de carga para o modo servidor: cada cliente é uma virtual thread com sua própria sessão,
+ * enviando uma mistura de leituras (70% CARD, 20% BOARD, 10% CARDS) sobre um board existente.
+ * <p>
+ * Uso: {@code ./gradlew loadTest -Pload.board=1 -Pload.clients=200 -Pload.seconds=30}
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int PAGE_SIZE = 50;
+
+    private final String host;
+    private final int port;
+    private final long boardId;
+    private final int clients;
+    private final Duration duration;
+    private final Duration warmup;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Recorder latency = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private List<Long> columnIds = List.of();
+    private List<Long> cardIds = List.of();
+
+    public LoadGenerator(final String host, final int port, final long boardId, final int clients,
+                         final Duration duration, final Duration warmup) {
+        this.host = host;
+        this.port = port;
+        this.boardId = boardId;
+        this.clients = clients;
+        this.duration = duration;
+        this.warmup = warmup;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        var options = parse(args);
+        var generator = new LoadGenerator(options.getOrDefault("host", "127.0.0.1"),
+                Integer.parseInt(options.getOrDefault("port", "7070")),
+                Long.parseLong(options.getOrDefault("board", "1")),
+                Integer.parseInt(options.getOrDefault("clients", "100")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "30"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5"))));
+        generator.run();
+    }
+
+    public void run() throws Exception {
+        discoverIds();
+        System.out.printf("Board %s: %s colunas, %s cards amostrados, %s clientes%n",
+                boardId, columnIds.size(), cardIds.size(), clients);
+
+        var warmupEnd = System.nanoTime() + warmup.toNanos();
+        var end = warmupEnd + duration.toNanos();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> client(warmupEnd, end));
+            }
+        }
+        report();
+    }
+
+    private void client(final long warmupEnd, final long end) {
+        try (var session = new Session(host, port)) {
+            var random = ThreadLocalRandom.current();
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                var command = nextCommand(random);
+                var failed = false;
+                try {
+                    failed = session.send(command).startsWith("ERR");
+                } catch (IOException ex) {
+                    errors.increment();
+                    return;
+                }
+                if (now < warmupEnd) {
+                    continue;
+                }
+                var elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - now);
+                latency.recordValue(Math.min(elapsedMicros, HIGHEST_TRACKABLE_MICROS));
+                requests.increment();
+                if (failed) {
+                    errors.increment();
+                }
+            }
+        } catch (IOException ex) {
+            errors.increment();
+        }
+    }
+
+    private String nextCommand(final ThreadLocalRandom random) {
+        var roll = random.nextInt(100);
+        if (roll < 70 && !cardIds.isEmpty()) {
+            return "CARD\t" + cardIds.get(random.nextInt(cardIds.size()));
+        }
+        if (roll < 90 || columnIds.isEmpty()) {
+            return "BOARD\t" + boardId;
+        }
+        return "CARDS\t%s\t0\t%s".formatted(columnIds.get(random.nextInt(columnIds.size())), PAGE_SIZE);
+    }
+
+    private void discoverIds() throws IOException {
+        try (var session = new Session(host, port)) {
+            var board = session.send("BOARD\t" + boardId).split(BoardCommandHandler.SEPARATOR, -1);
+            if (!board[0].equals("OK")) {
+                throw new IllegalStateException("Não foi possível carregar o board %s: %s"
+                        .formatted(boardId, String.join(" ", board)));
+            }
+            var columns = new ArrayList<Long>();
+            var cards = new ArrayList<Long>();
+            for (var column : board[3].split(";")) {
+                var columnId = Long.parseLong(column.substring(0, column.indexOf(':')));
+                columns.add(columnId);
+                var page = session.send("CARDS\t%s\t0\t%s".formatted(columnId, PAGE_SIZE))
+                        .split(BoardCommandHandler.SEPARATOR, -1);
+                if (page.length > 1 && !page[1].isEmpty()) {
+                    for (var cardId : page[1].split(",")) {
+                        cards.add(Long.parseLong(cardId));
+                    }
+                }
+            }
+            columnIds = List.copyOf(columns);
+            cardIds = List.copyOf(cards);
+        }
+    }
+
+    private void report() {
+        var seconds = duration.toNanos() / 1_000_000_000d;
+        var histogram = latency.getIntervalHistogram();
+        System.out.printf("Requisições: %s (%.1f req/s), erros: %s%n",
+                requests.sum(), requests.sum() / seconds, errors.sum());
+        System.out.printf("Latência (ms): p50=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                histogram.getValueAtPercentile(50) / 1000d,
+                histogram.getValueAtPercentile(99) / 1000d,
+                histogram.getValueAtPercentile(99.9) / 1000d,
+                histogram.getMaxValue() / 1000d);
+    }
+
+    private static Map<String, String> parse(final String[] args) {
+        var options = new HashMap<String, String>();
+        for (var arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    private static class Session implements AutoCloseable {
+
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final BufferedWriter writer;
+
+        Session(final String host, final int port) throws IOException {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+            writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), UTF_8));
+        }
+
+        String send(final String command) throws IOException {
+            writer.write(command);
+            writer.newLine();
+            writer.flush();
+            var response = reader.readLine();
+            if (response == null) {
+                throw new IOException("Conexão encerrada pelo servidor");
+            }
+            return response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,137 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardChangeDTO;
+import br.com.dio.dto.ChangeFeedStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+
+/**
+ * Distribui as alterações confirmadas pelo {@link CardService} e pelo {@link BoardService} para os assinantes
+ * de cada board, sem bloquear quem publica. Cada assinatura tem um buffer limitado: quando ele enche, os eventos
+ * novos são descartados e contados em {@link Subscription#dropped()}, e o assinante deve recarregar o board.
+ */
+public final class BoardChangeFeed {
+
+    public static final String BOARD_CREATED = "BOARD_CREATE";
+    public static final String BOARD_DELETED = "BOARD_DELETE";
+    public static final String COUNTERS_REPAIRED = "BOARD_REPAIR";
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardChangeFeed.class);
+    private static final BoardChangeFeed INSTANCE =
+            new BoardChangeFeed(Integer.parseInt(getProperty("feed.subscriberBufferSize", "256").trim()));
+
+    private final int bufferSize;
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder subscribers = new LongAdder();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public BoardChangeFeed(final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("O buffer dos assinantes deve ser positivo");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    public static BoardChangeFeed getInstance() {
+        return INSTANCE;
+    }
+
+    public Subscription subscribe(final Long boardId) {
+        var subscription = new Subscription(boardId, new ArrayBlockingQueue<>(bufferSize));
+        subscriptions.compute(boardId, (id, targets) -> {
+            var current = targets == null ? ConcurrentHashMap.<Subscription>newKeySet() : targets;
+            current.add(subscription);
+            return current;
+        });
+        subscribers.increment();
+        logger.debug("Nova assinatura de alterações do board {}", boardId);
+        return subscription;
+    }
+
+    /**
+     * Permite ao publicador evitar o trabalho de montar os eventos quando ninguém está ouvindo.
+     */
+    public boolean hasSubscribers() {
+        return subscribers.sum() > 0;
+    }
+
+    public void publish(final Long boardId, final String type, final Long cardId, final Long columnId,
+                        final OffsetDateTime occurredAt) {
+        var targets = subscriptions.get(boardId);
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        var change = new BoardChangeDTO(sequence.incrementAndGet(), boardId, type, cardId, columnId, occurredAt);
+        published.increment();
+        for (var subscription : targets) {
+            if (subscription.buffer.offer(change)) {
+                delivered.increment();
+            } else {
+                subscription.dropped.increment();
+                dropped.increment();
+            }
+        }
+    }
+
+    public ChangeFeedStatsDTO getStats() {
+        return new ChangeFeedStatsDTO(subscribers.intValue(), published.sum(), delivered.sum(), dropped.sum());
+    }
+
+    private void unsubscribe(final Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.boardId, (id, targets) -> {
+            if (targets.remove(subscription)) {
+                subscribers.decrement();
+            }
+            return targets.isEmpty() ? null : targets;
+        });
+    }
+
+    public final class Subscription implements AutoCloseable {
+
+        private final Long boardId;
+        private final BlockingQueue<BoardChangeDTO> buffer;
+        private final LongAdder dropped = new LongAdder();
+
+        private Subscription(final Long boardId, final BlockingQueue<BoardChangeDTO> buffer) {
+            this.boardId = boardId;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Aguarda a próxima alteração; retorna {@code null} se nada chegar no tempo informado.
+         */
+        public BoardChangeDTO poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return buffer.poll(timeout, unit);
+        }
+
+        public long dropped() {
+            return dropped.sum();
+        }
+
+        public Long boardId() {
+            return boardId;
+        }
+
+        @Override
+        public void close() {
+            unsubscribe(this);
+        }
+
+    }
+
+}
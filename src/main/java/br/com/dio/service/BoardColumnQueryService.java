@@ -1,12 +1,20 @@
 package br.com.dio.service;
 
+import br.com.dio.dto.BoardColumnDTO;
+import br.com.dio.exception.DataAccessException;
 import br.com.dio.persistence.dao.BoardColumnDAO;
 import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.repository.BoardRepositories;
+import br.com.dio.persistence.repository.BoardRepository;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @AllArgsConstructor
 public class BoardColumnQueryService {
@@ -18,4 +26,62 @@ public class BoardColumnQueryService {
         return dao.findById(id);
     }
 
+    public Optional<BoardColumnDTO> findHeaderById(final Long id) throws SQLException {
+        var dao = new BoardColumnDAO(connection);
+        return dao.findHeaderById(id);
+    }
+
+    public List<CardEntity> findCardsPage(final Long columnId, final Long afterCardId,
+                                          final int limit) throws SQLException {
+        return BoardRepositories.forConnection(connection).findCardsPage(columnId, afterCardId, limit);
+    }
+
+    /**
+     * Percorre os cards da coluna em ordem de id, buscando uma página de cada vez conforme o stream é consumido.
+     * O stream deve ser consumido enquanto a conexão estiver aberta.
+     */
+    public Stream<CardEntity> streamCards(final Long columnId, final int pageSize) throws SQLException {
+        var repository = BoardRepositories.forConnection(connection);
+        return streamCards(columnId, repository.findCardsPage(columnId, 0L, pageSize), pageSize);
+    }
+
+    /**
+     * Como {@link #streamCards(Long, int)}, começando por uma primeira página já obtida (do snapshot local);
+     * as páginas seguintes são buscadas no banco.
+     */
+    public Stream<CardEntity> streamCards(final Long columnId, final List<CardEntity> firstPage,
+                                          final int pageSize) {
+        var repository = BoardRepositories.forConnection(connection);
+        return Stream.iterate(firstPage, page -> !page.isEmpty(),
+                        page -> nextPage(repository, columnId, page, pageSize))
+                .flatMap(List::stream);
+    }
+
+    /**
+     * Lê todos os cards da coluna em streaming, sem materializar a coluna em memória.
+     * O stream deve ser fechado (try-with-resources) antes de usar a conexão para outra consulta.
+     */
+    public Stream<CardEntity> streamAllCards(final Long columnId) throws SQLException {
+        var dao = new BoardColumnDAO(connection);
+        return dao.streamCardsByColumnId(columnId);
+    }
+
+    public void forEachCard(final Long columnId, final Consumer<CardEntity> action) throws SQLException {
+        try(var cards = streamAllCards(columnId)){
+            cards.forEach(action);
+        }
+    }
+
+    private List<CardEntity> nextPage(final BoardRepository repository, final Long columnId,
+                                      final List<CardEntity> previous, final int pageSize) {
+        if (previous.size() < pageSize){
+            return List.of();
+        }
+        try {
+            return repository.findCardsPage(columnId, previous.get(previous.size() - 1).getId(), pageSize);
+        } catch (SQLException ex){
+            throw new DataAccessException("Erro ao buscar cards da coluna %s".formatted(columnId), ex);
+        }
+    }
+
 }
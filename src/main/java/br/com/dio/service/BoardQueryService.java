@@ -1,13 +1,19 @@
 package br.com.dio.service;
 
+import br.com.dio.dto.BoardColumnStructureDTO;
 import br.com.dio.dto.BoardDetailsDTO;
+import br.com.dio.dto.BoardStructureDTO;
+import br.com.dio.dto.CardBlockStatsDTO;
 import br.com.dio.persistence.dao.BoardColumnDAO;
 import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.CardDAO;
 import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.repository.BoardRepositories;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
 
 @AllArgsConstructor
@@ -27,17 +33,40 @@ public class BoardQueryService {
         return Optional.empty();
     }
 
+    public Optional<BoardStructureDTO> findStructure(final Long id) throws SQLException {
+        return BoardStructureCache.getInstance().get(id, this::loadStructure);
+    }
+
     public Optional<BoardDetailsDTO> showBoardDetails(final Long id) throws SQLException {
-        var dao = new BoardDAO(connection);
-        var boardColumnDAO = new BoardColumnDAO(connection);
-        var optional = dao.findById(id);
+        var optional = findStructure(id);
         if (optional.isPresent()){
-            var entity = optional.get();
-            var columns = boardColumnDAO.findByBoardIdWithDetails(entity.getId());
-            var dto = new BoardDetailsDTO(entity.getId(), entity.getName(), columns);
+            var structure = optional.get();
+            var columns = BoardRepositories.forConnection(connection).findColumnsWithDetails(structure.id());
+            var dto = new BoardDetailsDTO(structure.id(), structure.name(), columns);
             return Optional.of(dto);
         }
         return Optional.empty();
     }
 
+    public List<CardBlockStatsDTO> findMostBlockedCards(final Long id, final int limit) throws SQLException {
+        var optional = findStructure(id);
+        if (optional.isEmpty()){
+            return List.of();
+        }
+        var columnIds = optional.get().columns().stream().map(BoardColumnStructureDTO::id).toList();
+        return new CardDAO(connection).findMostBlocked(columnIds, limit);
+    }
+
+    private Optional<BoardStructureDTO> loadStructure(final Long id) throws SQLException {
+        var optional = findById(id);
+        if (optional.isPresent()){
+            var entity = optional.get();
+            var columns = entity.getBoardColumns().stream()
+                    .map(bc -> new BoardColumnStructureDTO(bc.getId(), bc.getName(), bc.getOrder(), bc.getKind()))
+                    .toList();
+            return Optional.of(new BoardStructureDTO(entity.getId(), entity.getName(), columns));
+        }
+        return Optional.empty();
+    }
+
 }
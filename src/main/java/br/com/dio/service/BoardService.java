@@ -2,15 +2,28 @@ package br.com.dio.service;
 
 import br.com.dio.persistence.dao.BoardColumnDAO;
 import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.CardDAO;
 import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.repository.InMemoryBoardStore;
 import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.dio.service.BoardChangeFeed.BOARD_CREATED;
+import static br.com.dio.service.BoardChangeFeed.BOARD_DELETED;
+import static br.com.dio.service.BoardChangeFeed.COUNTERS_REPAIRED;
 
 @AllArgsConstructor
 public class BoardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BoardService.class);
+
     private final Connection connection;
 
     public BoardEntity insert(final BoardEntity entity) throws SQLException {
@@ -22,10 +35,11 @@ public class BoardService {
                 c.setBoard(entity);
                 return c;
             }).toList();
-            for (var column :  columns){
-                boardColumnDAO.insert(column);
-            }
+            boardColumnDAO.insert(columns);
             connection.commit();
+            InMemoryBoardStore.getInstance().ifPresent(s -> s.addBoard(entity));
+            BoardStructureCache.getInstance().invalidate(entity.getId());
+            publish(entity.getId(), BOARD_CREATED);
         } catch (SQLException e) {
             connection.rollback();
             throw e;
@@ -33,19 +47,58 @@ public class BoardService {
         return entity;
     }
 
+    public int repairCardCounters(final Long boardId) throws SQLException {
+        var boardColumnDAO = new BoardColumnDAO(connection);
+        try{
+            var columns = boardColumnDAO.recountCards(boardId);
+            connection.commit();
+            publish(boardId, COUNTERS_REPAIRED);
+            logger.info("Contadores de cards recalculados para {} colunas do board {}", columns, boardId);
+            return columns;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    public int repairAllCardCounters() throws SQLException {
+        var dao = new BoardDAO(connection);
+        var columns = 0;
+        for (var boardId : dao.findAllIds()){
+            columns += repairCardCounters(boardId);
+        }
+        return columns;
+    }
+
     public boolean delete(final Long id) throws SQLException {
         var dao = new BoardDAO(connection);
+        Optional<Runnable> restore = Optional.empty();
         try{
             if (!dao.exists(id)) {
                 return false;
             }
+            // o board sai da memória antes: novas operações nos cards dele são recusadas, e o flush leva ao
+            // banco o que já foi confirmado, para nada do write-behind chegar depois da exclusão
+            var store = InMemoryBoardStore.getInstance();
+            restore = store.map(s -> s.removeBoard(id));
+            store.ifPresent(InMemoryBoardStore::flush);
+            var searchIndex = CardSearchIndex.getInstance();
+            var cardIds = searchIndex.isBuilt() ? new CardDAO(connection).findIdsByBoardId(id) : List.<Long>of();
             dao.delete(id);
             connection.commit();
+            searchIndex.removeAll(cardIds);
+            BoardStructureCache.getInstance().invalidate(id);
+            publish(id, BOARD_DELETED);
             return true;
-        } catch (SQLException e) {
+        } catch (SQLException | RuntimeException e) {
             connection.rollback();
+            restore.ifPresent(Runnable::run);
             throw e;
         }
     }
 
+    private void publish(final Long boardId, final String type) {
+        BoardChangeFeed.getInstance().publish(boardId, type, null, null, OffsetDateTime.now());
+    }
+
 }
@@ -0,0 +1,195 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardSnapshotBlockDTO;
+import br.com.dio.dto.BoardSnapshotCardDTO;
+import br.com.dio.dto.BoardSnapshotStatsDTO;
+import br.com.dio.exception.DataAccessException;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.BoardSnapshotDAO;
+import br.com.dio.persistence.dao.CardEventDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEventEntity;
+import br.com.dio.persistence.repository.InMemoryBoardStore;
+import br.com.dio.persistence.snapshot.BoardSnapshotReader;
+import br.com.dio.persistence.snapshot.BoardSnapshotWriter;
+import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.BLOCK;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.CREATE;
+import static java.util.Objects.isNull;
+
+/**
+ * Exportação e importação de um board inteiro (colunas, cards e bloqueios) no formato do
+ * {@link BoardSnapshotWriter}. As duas pontas trabalham em streaming: a exportação lê os cards com uma única
+ * consulta e a importação grava lotes de {@code snapshot.batchSize} cards, então a memória usada não depende
+ * do tamanho do board.
+ */
+@AllArgsConstructor
+public class BoardSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardSnapshotService.class);
+
+    private static final int BATCH_SIZE = Integer.parseInt(getProperty("snapshot.batchSize", "1000").trim());
+    private static final long PROGRESS_INTERVAL = 100_000;
+
+    private final Connection connection;
+
+    /**
+     * Todas as leituras são feitas na mesma transação, então o arquivo reflete um único instante do board.
+     */
+    public BoardSnapshotStatsDTO export(final Long boardId, final Path path) throws SQLException, IOException {
+        // o que ainda está na fila do write-behind precisa estar no banco para sair no arquivo
+        InMemoryBoardStore.getInstance().ifPresent(InMemoryBoardStore::flush);
+        var start = System.nanoTime();
+        try {
+            var board = new BoardDAO(connection).findById(boardId).orElseThrow(
+                    () -> new EntityNotFoundException("O board de id %s não foi encontrado".formatted(boardId)));
+            var columns = new BoardColumnDAO(connection).findByBoardId(boardId);
+            try (var writer = BoardSnapshotWriter.create(path, board.getName(), columns);
+                 var rows = new BoardSnapshotDAO(connection).streamCardRows(boardId)) {
+                BoardSnapshotCardDTO current = null;
+                List<BoardSnapshotBlockDTO> blocks = new ArrayList<>();
+                for (var iterator = rows.iterator(); iterator.hasNext(); ) {
+                    var row = iterator.next();
+                    if (current != null && current.id() != row.id()) {
+                        writer.writeCard(withBlocks(current, blocks));
+                        blocks.clear();
+                        logProgress("Exportados", writer.getCards() - 1, writer.getCards(), start);
+                    }
+                    current = row;
+                    blocks.addAll(row.blocks());
+                }
+                if (current != null) {
+                    writer.writeCard(withBlocks(current, blocks));
+                }
+                var bytes = writer.finish();
+                var stats = new BoardSnapshotStatsDTO(boardId, columns.size(), writer.getCards(), writer.getBlocks(),
+                        bytes, elapsedMillis(start));
+                logger.info("Board {} exportado para {}: {} linhas em {} ms ({} linhas/s)", boardId, path,
+                        stats.rows(), stats.millis(), Math.round(stats.rowsPerSecond()));
+                return stats;
+            }
+        } catch (DataAccessException ex) {
+            throw (SQLException) ex.getCause();
+        } finally {
+            connection.rollback();
+        }
+    }
+
+    /**
+     * Cria um novo board com o conteúdo do arquivo. Os cards recebem ids novos e entram com um evento de
+     * criação no instante da importação; os bloqueios mantêm as datas originais. Cada lote é confirmado
+     * separadamente e, se a importação falhar no meio, o board parcial é excluído.
+     */
+    public BoardSnapshotStatsDTO importBoard(final Path path) throws SQLException, IOException {
+        if (InMemoryBoardStore.getInstance().isPresent()) {
+            // o repositório em memória gera os ids dos cards; inserir direto no banco causaria conflito
+            throw new IllegalStateException(
+                    "A importação de boards não está disponível com repository.type=memory");
+        }
+        var start = System.nanoTime();
+        try (var reader = BoardSnapshotReader.open(path)) {
+            var board = new BoardEntity();
+            board.setName(reader.boardName());
+            List<BoardColumnEntity> columns = new ArrayList<>();
+            for (var source : reader.columns()) {
+                var column = new BoardColumnEntity();
+                column.setName(source.getName());
+                column.setOrder(source.getOrder());
+                column.setKind(source.getKind());
+                columns.add(column);
+            }
+            board.setBoardColumns(columns);
+            var boardService = new BoardService(connection);
+            boardService.insert(board);
+            Map<Long, Long> columnIds = new HashMap<>();
+            for (var i = 0; i < columns.size(); i++) {
+                columnIds.put(reader.columns().get(i).getId(), columns.get(i).getId());
+            }
+            try {
+                List<BoardSnapshotCardDTO> batch = new ArrayList<>(BATCH_SIZE);
+                Optional<BoardSnapshotCardDTO> card;
+                while ((card = reader.nextCard()).isPresent()) {
+                    batch.add(card.get());
+                    if (batch.size() >= BATCH_SIZE) {
+                        importBatch(batch, columnIds);
+                        batch.clear();
+                        logProgress("Importados", reader.getCards() - BATCH_SIZE, reader.getCards(), start);
+                    }
+                }
+                importBatch(batch, columnIds);
+            } catch (SQLException | IOException | RuntimeException ex) {
+                connection.rollback();
+                logger.warn("Importação de {} falhou ({}), excluindo o board parcial {}", path, ex.getMessage(),
+                        board.getId());
+                boardService.delete(board.getId());
+                throw ex;
+            }
+            var stats = new BoardSnapshotStatsDTO(board.getId(), columns.size(), reader.getCards(),
+                    reader.getBlocks(), reader.getBytesRead(), elapsedMillis(start));
+            logger.info("Board {} importado de {}: {} linhas em {} ms ({} linhas/s)", board.getId(), path,
+                    stats.rows(), stats.millis(), Math.round(stats.rowsPerSecond()));
+            return stats;
+        }
+    }
+
+    private void importBatch(final List<BoardSnapshotCardDTO> batch, final Map<Long, Long> columnIds)
+            throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        var dao = new BoardSnapshotDAO(connection);
+        var cards = dao.insertCards(batch, columnIds);
+        dao.insertBlocks(cards, batch);
+        // o histórico importado vira só CREATE e o bloqueio aberto, não um evento por linha de BLOCKS
+        var now = OffsetDateTime.now();
+        List<CardEventEntity> events = new ArrayList<>(cards.size());
+        for (var i = 0; i < cards.size(); i++) {
+            var cardId = cards.get(i).getId();
+            events.add(new CardEventEntity(cardId, CREATE, null, now));
+            batch.get(i).blocks().stream()
+                    .filter(b -> isNull(b.unblockedAt()))
+                    .findFirst()
+                    .ifPresent(b -> events.add(new CardEventEntity(cardId, BLOCK, b.blockReason(), b.blockedAt())));
+        }
+        new CardEventDAO(connection).insert(events);
+        connection.commit();
+        CardSearchIndex.getInstance().addAll(cards);
+    }
+
+    private static BoardSnapshotCardDTO withBlocks(final BoardSnapshotCardDTO card,
+                                                   final List<BoardSnapshotBlockDTO> blocks) {
+        return new BoardSnapshotCardDTO(card.id(), card.columnId(), card.title(), card.description(),
+                card.blocksAmount(), card.blockedSeconds(), List.copyOf(blocks));
+    }
+
+    private static void logProgress(final String action, final long before, final long cards, final long start) {
+        if (before / PROGRESS_INTERVAL != cards / PROGRESS_INTERVAL) {
+            var millis = Math.max(1, elapsedMillis(start));
+            logger.info("{} {} cards ({} cards/s)", action, cards, cards * 1000 / millis);
+        }
+    }
+
+    private static long elapsedMillis(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+}
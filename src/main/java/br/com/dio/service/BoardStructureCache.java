@@ -0,0 +1,95 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardStructureDTO;
+import br.com.dio.dto.CacheStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+
+/**
+ * Cache LRU limitado da estrutura dos boards (colunas, tipos e ordem), compartilhado entre os menus.
+ * Deve ser invalidado sempre que um board for criado ou excluído.
+ */
+public final class BoardStructureCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardStructureCache.class);
+    private static final BoardStructureCache INSTANCE =
+            new BoardStructureCache(Integer.parseInt(getProperty("cache.boardStructure.maxSize", "256").trim()));
+
+    private final int maxSize;
+    private final Map<Long, BoardStructureDTO> entries;
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoardStructureCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("O tamanho máximo do cache deve ser positivo");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, BoardStructureDTO> eldest) {
+                var evict = size() > BoardStructureCache.this.maxSize;
+                if (evict) {
+                    evictions++;
+                    logger.debug("Estrutura do board {} removida do cache", eldest.getKey());
+                }
+                return evict;
+            }
+        };
+    }
+
+    public static BoardStructureCache getInstance() {
+        return INSTANCE;
+    }
+
+    public Optional<BoardStructureDTO> get(final Long boardId, final Loader loader) throws SQLException {
+        long loadVersion;
+        synchronized (this) {
+            var cached = entries.get(boardId);
+            if (cached != null) {
+                hits++;
+                return Optional.of(cached);
+            }
+            misses++;
+            loadVersion = version;
+        }
+        var loaded = loader.load(boardId);
+        synchronized (this) {
+            if (loaded.isPresent() && loadVersion == version) {
+                entries.put(boardId, loaded.get());
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(final Long boardId) {
+        version++;
+        entries.remove(boardId);
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        entries.clear();
+    }
+
+    public synchronized CacheStatsDTO getStats() {
+        return new CacheStatsDTO(hits, misses, evictions, entries.size(), maxSize);
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+
+        Optional<BoardStructureDTO> load(Long boardId) throws SQLException;
+
+    }
+
+}
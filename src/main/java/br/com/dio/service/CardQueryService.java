@@ -1,11 +1,16 @@
 package br.com.dio.service;
 
 import br.com.dio.dto.CardDetailsDTO;
-import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.dto.CardStateDTO;
+import br.com.dio.persistence.dao.CardEventDAO;
+import br.com.dio.persistence.entity.CardEventEntity;
+import br.com.dio.persistence.repository.BoardRepositories;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @AllArgsConstructor
@@ -14,8 +19,17 @@ public class CardQueryService {
     private final Connection connection;
 
     public Optional<CardDetailsDTO> findById(final Long id) throws SQLException {
-        var dao = new CardDAO(connection);
-        return dao.findById(id);
+        return BoardRepositories.forConnection(connection).findCardById(id);
+    }
+
+    public List<CardEventEntity> findHistory(final Long id) throws SQLException {
+        var dao = new CardEventDAO(connection);
+        return dao.findByCardId(id);
+    }
+
+    public Optional<CardStateDTO> findStateAt(final Long id, final OffsetDateTime at) throws SQLException {
+        var dao = new CardEventDAO(connection);
+        return dao.findStateAt(id, at);
     }
 
 }
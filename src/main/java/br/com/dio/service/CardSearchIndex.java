@@ -0,0 +1,364 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.CardSearchHitDTO;
+import br.com.dio.dto.CardSearchPageDTO;
+import br.com.dio.dto.SearchIndexStatsDTO;
+import br.com.dio.persistence.entity.CardEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+
+/**
+ * Índice invertido em memória sobre título e descrição dos cards. Os termos ficam em um mapa ordenado, o que
+ * permite expandir prefixos ({@code "deplo*"}); cada termo guarda os ids dos cards e a frequência do termo em
+ * cada um. O ranking é BM25, com os termos do título contando {@link #TITLE_BOOST} vezes.
+ * <p>
+ * O índice é montado a partir de CARDS em {@link #rebuild(Stream)} e atualizado pelo {@link CardService} a cada
+ * card criado. Cards excluídos só são marcados como removidos; as entradas deles saem no próximo rebuild.
+ */
+public final class CardSearchIndex {
+
+    static final int TITLE_BOOST = 3;
+
+    private static final Logger logger = LoggerFactory.getLogger(CardSearchIndex.class);
+    private static final CardSearchIndex INSTANCE =
+            new CardSearchIndex(Integer.parseInt(getProperty("search.maxPrefixExpansions", "128").trim()));
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // estimativas para a JVM de 64 bits com compressed oops
+    private static final int STRING_BYTES = 24 + 16;
+    private static final int TREE_ENTRY_BYTES = 40;
+    private static final int POSTINGS_BYTES = 16 + 16 + 16;
+    private static final int HASH_ENTRY_BYTES = 32 + 4;
+    private static final int LONG_BYTES = 16;
+    private static final int DOCUMENT_BYTES = 24;
+
+    private final int maxPrefixExpansions;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Index index;
+    private List<CardEntity> addedDuringRebuild;
+    private List<Long> removedDuringRebuild;
+    private long lastBuildMillis;
+
+    CardSearchIndex(final int maxPrefixExpansions) {
+        this.maxPrefixExpansions = maxPrefixExpansions;
+    }
+
+    public static CardSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isBuilt() {
+        lock.readLock().lock();
+        try {
+            return index != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa cards recém-criados. Antes do primeiro rebuild não faz nada, já que o rebuild lê tudo de CARDS.
+     */
+    public void addAll(final Collection<CardEntity> cards) {
+        lock.writeLock().lock();
+        try {
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.addAll(cards);
+            }
+            if (index != null) {
+                cards.forEach(index::add);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(final Collection<Long> cardIds) {
+        lock.writeLock().lock();
+        try {
+            if (removedDuringRebuild != null) {
+                removedDuringRebuild.addAll(cardIds);
+            }
+            if (index != null) {
+                cardIds.forEach(index::remove);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Monta um índice novo a partir dos cards informados e troca o atual por ele. As buscas continuam usando
+     * o índice anterior enquanto isso; cards criados ou excluídos durante o rebuild são aplicados ao novo antes da troca.
+     */
+    public SearchIndexStatsDTO rebuild(final Stream<CardEntity> cards) {
+        rebuildLock.lock();
+        try {
+            var start = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                addedDuringRebuild = new ArrayList<>();
+                removedDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            var rebuilt = new Index();
+            try {
+                cards.forEach(rebuilt::add);
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    addedDuringRebuild.forEach(rebuilt::add);
+                    removedDuringRebuild.forEach(rebuilt::remove);
+                    addedDuringRebuild = null;
+                    removedDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                index = rebuilt;
+                lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            var stats = getStats();
+            logger.info("Índice de busca montado em {} ms: {} cards, {} termos, ~{} KiB", stats.lastBuildMillis(),
+                    stats.documents(), stats.terms(), stats.estimatedBytes() / 1024);
+            return stats;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Todos os termos da consulta precisam aparecer no card; um termo terminado em {@code *} casa com qualquer
+     * termo que comece com ele. Resultados em ordem de relevância e, no empate, dos cards mais novos.
+     */
+    public CardSearchPageDTO search(final String query, final int offset, final int limit) {
+        var clauses = parse(query);
+        if (clauses.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um termo para a busca");
+        }
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                throw new IllegalStateException("O índice de busca ainda não foi montado");
+            }
+            Map<Long, Double> scores = null;
+            for (var clause : clauses) {
+                var clauseScores = index.score(clause, maxPrefixExpansions);
+                scores = scores == null ? clauseScores : intersect(scores, clauseScores);
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            return new CardSearchPageDTO(query, scores.size(), offset, page(scores, offset, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchIndexStatsDTO getStats() {
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return new SearchIndexStatsDTO(false, 0, 0, 0, 0, 0, 0);
+            }
+            return new SearchIndexStatsDTO(true, index.documents.size(), index.deleted, index.terms.size(),
+                    index.postings, index.estimateBytes(), lastBuildMillis);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<Clause> parse(final String query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query == null) {
+            return clauses;
+        }
+        for (var word : query.trim().split("\\s+")) {
+            var prefix = word.endsWith("*");
+            var terms = TextAnalyzer.tokenize(prefix ? word.substring(0, word.length() - 1) : word, prefix);
+            for (var i = 0; i < terms.size(); i++) {
+                clauses.add(new Clause(terms.get(i), prefix && i == terms.size() - 1));
+            }
+        }
+        return clauses;
+    }
+
+    private static Map<Long, Double> intersect(final Map<Long, Double> left, final Map<Long, Double> right) {
+        var smaller = left.size() <= right.size() ? left : right;
+        var larger = smaller == left ? right : left;
+        Map<Long, Double> result = new HashMap<>();
+        smaller.forEach((id, score) -> {
+            var other = larger.get(id);
+            if (other != null) {
+                result.put(id, score + other);
+            }
+        });
+        return result;
+    }
+
+    private List<CardSearchHitDTO> page(final Map<Long, Double> scores, final int offset, final int limit) {
+        if (offset >= scores.size() || limit <= 0) {
+            return List.of();
+        }
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        // mantém só os offset + limit melhores; o topo da fila é o pior deles
+        var keep = offset + limit;
+        var top = new PriorityQueue<>(Math.min(keep, scores.size()) + 1, ranking);
+        for (var entry : scores.entrySet()) {
+            top.add(entry);
+            if (top.size() > keep) {
+                top.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(top);
+        ranked.sort(ranking.reversed());
+        return ranked.subList(offset, ranked.size()).stream()
+                .map(e -> new CardSearchHitDTO(e.getKey(), index.documents.get(e.getKey()).title, e.getValue()))
+                .toList();
+    }
+
+    private record Clause(String term, boolean prefix) {
+    }
+
+    private record Document(String title, int length) {
+    }
+
+    /**
+     * Ids e frequências em arrays primitivos que crescem conforme os cards entram.
+     */
+    private static final class Postings {
+
+        private long[] cardIds = new long[2];
+        private int[] frequencies = new int[2];
+        private int size;
+
+        void add(final long cardId, final int frequency) {
+            if (size == cardIds.length) {
+                var capacity = size + (size >> 1) + 1;
+                cardIds = Arrays.copyOf(cardIds, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            cardIds[size] = cardId;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+    }
+
+    private static final class Index {
+
+        private final NavigableMap<String, Postings> terms = new TreeMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private long totalLength;
+        private long postings;
+        private int deleted;
+
+        void add(final CardEntity card) {
+            if (card.getId() == null || documents.containsKey(card.getId())) {
+                return;
+            }
+            Map<String, Integer> frequencies = new HashMap<>();
+            var titleTerms = TextAnalyzer.tokenize(card.getTitle());
+            var descriptionTerms = TextAnalyzer.tokenize(card.getDescription());
+            titleTerms.forEach(t -> frequencies.merge(t, TITLE_BOOST, Integer::sum));
+            descriptionTerms.forEach(t -> frequencies.merge(t, 1, Integer::sum));
+            frequencies.forEach((term, frequency) ->
+                    terms.computeIfAbsent(term, t -> new Postings()).add(card.getId(), frequency));
+            var length = titleTerms.size() + descriptionTerms.size();
+            documents.put(card.getId(), new Document(card.getTitle(), length));
+            totalLength += length;
+            postings += frequencies.size();
+        }
+
+        void remove(final Long cardId) {
+            var removed = documents.remove(cardId);
+            if (removed != null) {
+                totalLength -= removed.length();
+                deleted++;
+            }
+        }
+
+        Map<Long, Double> score(final Clause clause, final int maxExpansions) {
+            Map<Long, Double> scores = new HashMap<>();
+            if (!clause.prefix()) {
+                var postings = terms.get(clause.term());
+                if (postings != null) {
+                    accumulate(postings, scores);
+                }
+                return scores;
+            }
+            var expansions = 0;
+            for (var postings : terms.subMap(clause.term(), true, clause.term() + Character.MAX_VALUE, false)
+                    .values()) {
+                if (expansions++ == maxExpansions) {
+                    break;
+                }
+                accumulate(postings, scores);
+            }
+            return scores;
+        }
+
+        /**
+         * BM25 do termo em cada card vivo; no prefixo, o card fica com a melhor das expansões.
+         */
+        private void accumulate(final Postings postings, final Map<Long, Double> scores) {
+            var documentCount = documents.size();
+            if (documentCount == 0) {
+                return;
+            }
+            var averageLength = Math.max(1.0, (double) totalLength / documentCount);
+            var idf = Math.log(1 + (documentCount - postings.size + 0.5) / (postings.size + 0.5));
+            for (var i = 0; i < postings.size; i++) {
+                var document = documents.get(postings.cardIds[i]);
+                if (document == null) {
+                    continue;
+                }
+                var frequency = postings.frequencies[i];
+                var score = idf * frequency * (K1 + 1)
+                        / (frequency + K1 * (1 - B + B * document.length() / averageLength));
+                scores.merge(postings.cardIds[i], score, Math::max);
+            }
+        }
+
+        long estimateBytes() {
+            var bytes = 0L;
+            for (var entry : terms.entrySet()) {
+                var postings = entry.getValue();
+                bytes += TREE_ENTRY_BYTES + STRING_BYTES + entry.getKey().length()
+                        + POSTINGS_BYTES + postings.cardIds.length * 8L + postings.frequencies.length * 4L;
+            }
+            for (var document : documents.values()) {
+                bytes += HASH_ENTRY_BYTES + LONG_BYTES + DOCUMENT_BYTES
+                        + STRING_BYTES + (document.title() == null ? 0 : document.title().length());
+            }
+            return bytes;
+        }
+
+    }
+
+}
@@ -0,0 +1,44 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.CardSearchPageDTO;
+import br.com.dio.dto.SearchIndexStatsDTO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.repository.InMemoryBoardStore;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+
+@AllArgsConstructor
+public class CardSearchService {
+
+    public static final int MAX_PAGE_SIZE = Integer.parseInt(getProperty("search.maxPageSize", "100").trim());
+
+    private final Connection connection;
+
+    /**
+     * Busca por termos no título e na descrição; monta o índice na primeira busca se ainda não existir.
+     */
+    public CardSearchPageDTO search(final String query, final int offset, final int limit) throws SQLException {
+        if (offset < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                    "A página deve começar em 0 ou mais e ter entre 1 e %s cards".formatted(MAX_PAGE_SIZE));
+        }
+        var index = CardSearchIndex.getInstance();
+        if (!index.isBuilt()) {
+            rebuild();
+        }
+        return index.search(query, offset, limit);
+    }
+
+    public SearchIndexStatsDTO rebuild() throws SQLException {
+        // no modo em memória, cards ainda na fila do write-behind não estão em CARDS
+        InMemoryBoardStore.getInstance().ifPresent(InMemoryBoardStore::flush);
+        try (var cards = new CardDAO(connection).streamAllTexts()) {
+            return CardSearchIndex.getInstance().rebuild(cards);
+        }
+    }
+
+}
@@ -1,64 +1,147 @@
 package br.com.dio.service;
 
 import br.com.dio.dto.BoardColumnInfoDTO;
+import br.com.dio.dto.BulkMoveResultDTO;
+import br.com.dio.dto.CardLocationDTO;
+import br.com.dio.dto.CardMoveDTO;
 import br.com.dio.exception.CardBlockedException;
+import br.com.dio.exception.CardConflictException;
 import br.com.dio.exception.CardFinishedException;
 import br.com.dio.exception.EntityNotFoundException;
-import br.com.dio.persistence.dao.BlockDAO;
-import br.com.dio.persistence.dao.CardDAO;
 import br.com.dio.persistence.entity.CardEntity;
-import lombok.AllArgsConstructor;
+import br.com.dio.persistence.entity.CardEventEntity;
+import br.com.dio.persistence.entity.CardEventTypeEnum;
+import br.com.dio.persistence.repository.BoardRepositories;
+import br.com.dio.persistence.repository.BoardRepository;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.BLOCK;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.CREATE;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.MOVE;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.UNBLOCK;
 
 
-@AllArgsConstructor
+/**
+ * Validações e transições dos cards. O armazenamento vem de {@link BoardRepositories}: direto no banco ou,
+ * com {@code repository.type=memory}, em memória com write-behind; as regras são as mesmas nos dois casos.
+ */
 public class CardService {
 
     private final Connection connection;
 
+    private final BoardRepository repository;
+
+    private final Consumer<Runnable> afterCommit;
+
+    private final List<CardEventEntity> pendingEvents = new ArrayList<>();
+
+    public CardService(final Connection connection) {
+        this(connection, BoardRepositories.forConnection(connection), Runnable::run);
+    }
+
+    /**
+     * Usado pelo {@link GroupCommitExecutor}: {@code afterCommit} recebe o que deve rodar só depois que a
+     * transação compartilhada for confirmada (feed de alterações e índice de busca).
+     */
+    CardService(final Connection connection, final BoardRepository repository,
+                final Consumer<Runnable> afterCommit) {
+        this.connection = connection;
+        this.repository = repository;
+        this.afterCommit = afterCommit;
+    }
+
     public CardEntity create(final CardEntity entity) throws SQLException {
         try {
-            var dao = new CardDAO(connection);
-            dao.insert(entity);
-            connection.commit();
+            repository.insertCards(List.of(entity));
+            record(CREATE, entity.getId(), null);
+            commit();
+            afterCommit.accept(() -> CardSearchIndex.getInstance().addAll(List.of(entity)));
             return entity;
-        } catch (SQLException ex){
-            connection.rollback();
+        } catch (SQLException | RuntimeException ex){
+            rollback();
+            throw ex;
+        }
+    }
+
+    public List<CardEntity> createAll(final List<CardEntity> entities) throws SQLException {
+        try {
+            repository.insertCards(entities);
+            entities.forEach(e -> record(CREATE, e.getId(), null));
+            commit();
+            afterCommit.accept(() -> CardSearchIndex.getInstance().addAll(entities));
+            return entities;
+        } catch (SQLException | RuntimeException ex){
+            rollback();
             throw ex;
         }
     }
 
     public void moveToNextColumn(final Long cardId, final List<BoardColumnInfoDTO> boardColumnsInfo) throws SQLException{
         try{
-            var dao = new CardDAO(connection);
-            var optional = dao.findById(cardId);
-            var dto = optional.orElseThrow(
-                    () -> new EntityNotFoundException("O card de id %s não foi encontrado".formatted(cardId))
-            );
-            if (dto.blocked()){
-                var message = "O card %s está bloqueado, é necesário desbloquea-lo para mover".formatted(cardId);
-                throw new CardBlockedException(message);
+            Map<Long, Long> transitions = new LinkedHashMap<>();
+            movableColumns(boardColumnsInfo).forEach(bc ->
+                    transitions.put(bc.id(), findNextColumn(bc, boardColumnsInfo).orElseThrow().id()));
+            if (!repository.moveIfUnblocked(cardId, transitions)){
+                explainRejectedMove(cardId, boardColumnsInfo);
             }
-            var currentColumn = boardColumnsInfo.stream()
-                    .filter(bc -> bc.id().equals(dto.columnId()))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalStateException("O card informado pertence a outro board"));
-            if (currentColumn.kind().equals(FINAL)){
-                throw new CardFinishedException("O card já foi finalizado");
+            record(MOVE, cardId, null);
+            commit();
+        }catch (SQLException | RuntimeException ex){
+            rollback();
+            throw ex;
+        }
+    }
+
+    public BulkMoveResultDTO moveAll(final Long boardId, final List<Long> cardIds) throws SQLException{
+        try{
+            var boardColumnsInfo = new BoardQueryService(connection).findStructure(boardId)
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "O board de id %s não foi encontrado".formatted(boardId)))
+                    .columnsInfo();
+            var distinctIds = List.copyOf(new LinkedHashSet<>(cardIds));
+            var states = repository.findColumnStates(distinctIds);
+            List<CardMoveDTO> moves = new ArrayList<>();
+            Map<Long, String> failures = new LinkedHashMap<>();
+            for (var cardId : distinctIds){
+                var state = states.get(cardId);
+                if (state == null){
+                    failures.put(cardId, "O card de id %s não foi encontrado".formatted(cardId));
+                    continue;
+                }
+                try {
+                    var nextColumn = checkMove(cardId, state.blocked(), state.columnId(), boardColumnsInfo);
+                    moves.add(new CardMoveDTO(cardId, state.columnId(), nextColumn.id()));
+                } catch (RuntimeException ex){
+                    failures.put(cardId, ex.getMessage());
+                }
             }
-            var nextColumn = boardColumnsInfo.stream()
-                    .filter(bc -> bc.order() == currentColumn.order() + 1)
-                    .findFirst().orElseThrow(() -> new IllegalStateException("O card está cancelado"));
-            dao.moveToColumn(nextColumn.id(), cardId);
-            connection.commit();
-        }catch (SQLException ex){
-            connection.rollback();
+            var applied = repository.moveAll(moves);
+            List<Long> moved = new ArrayList<>();
+            for (var i = 0; i < moves.size(); i++){
+                var cardId = moves.get(i).cardId();
+                if (applied[i]){
+                    moved.add(cardId);
+                    record(MOVE, cardId, null);
+                } else {
+                    failures.put(cardId, concurrentModification(cardId).getMessage());
+                }
+            }
+            commit();
+            return new BulkMoveResultDTO(moved, failures);
+        }catch (SQLException | RuntimeException ex){
+            rollback();
             throw ex;
         }
     }
@@ -66,80 +149,153 @@ public class CardService {
     public void cancel(final Long cardId, final Long cancelColumnId ,
                        final List<BoardColumnInfoDTO> boardColumnsInfo) throws SQLException{
         try{
-            var dao = new CardDAO(connection);
-            var optional = dao.findById(cardId);
-            var dto = optional.orElseThrow(
-                    () -> new EntityNotFoundException("O card de id %s não foi encontrado".formatted(cardId))
-            );
-            if (dto.blocked()){
-                var message = "O card %s está bloqueado, é necesário desbloquea-lo para mover".formatted(cardId);
-                throw new CardBlockedException(message);
-            }
-            var currentColumn = boardColumnsInfo.stream()
-                    .filter(bc -> bc.id().equals(dto.columnId()))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalStateException("O card informado pertence a outro board"));
-            if (currentColumn.kind().equals(FINAL)){
-                throw new CardFinishedException("O card já foi finalizado");
+            Map<Long, Long> transitions = new LinkedHashMap<>();
+            movableColumns(boardColumnsInfo).forEach(bc -> transitions.put(bc.id(), cancelColumnId));
+            if (!repository.moveIfUnblocked(cardId, transitions)){
+                explainRejectedMove(cardId, boardColumnsInfo);
             }
-            boardColumnsInfo.stream()
-                    .filter(bc -> bc.order() == currentColumn.order() + 1)
-                    .findFirst().orElseThrow(() -> new IllegalStateException("O card está cancelado"));
-            dao.moveToColumn(cancelColumnId, cardId);
-            connection.commit();
-        }catch (SQLException ex){
-            connection.rollback();
+            record(CardEventTypeEnum.CANCEL, cardId, null);
+            commit();
+        }catch (SQLException | RuntimeException ex){
+            rollback();
             throw ex;
         }
     }
 
     public void block(final Long id, final String reason, final List<BoardColumnInfoDTO> boardColumnsInfo) throws SQLException {
         try{
-            var dao = new CardDAO(connection);
-            var optional = dao.findById(id);
-            var dto = optional.orElseThrow(
-                    () -> new EntityNotFoundException("O card de id %s não foi encontrado".formatted(id))
-            );
-            if (dto.blocked()){
-                var message = "O card %s já está bloqueado".formatted(id);
-                throw new CardBlockedException(message);
-            }
-            var currentColumn = boardColumnsInfo.stream()
-                    .filter(bc -> bc.id().equals(dto.columnId()))
-                    .findFirst()
-                    .orElseThrow();
-            if (currentColumn.kind().equals(FINAL) || currentColumn.kind().equals(CANCEL)){
-                var message = "O card está em uma coluna do tipo %s e não pode ser bloqueado"
-                        .formatted(currentColumn.kind());
-                throw new IllegalStateException(message);
+            var blockableColumnIds = boardColumnsInfo.stream()
+                    .filter(bc -> !bc.kind().equals(FINAL) && !bc.kind().equals(CANCEL))
+                    .map(BoardColumnInfoDTO::id)
+                    .toList();
+            if (!repository.blockIfUnblocked(id, reason, blockableColumnIds)){
+                explainRejectedBlock(id, boardColumnsInfo);
             }
-            var blockDAO = new BlockDAO(connection);
-            blockDAO.block(reason, id);
-            connection.commit();
-        }catch (SQLException ex) {
-            connection.rollback();
+            record(BLOCK, id, reason);
+            commit();
+        }catch (SQLException | RuntimeException ex) {
+            rollback();
             throw ex;
         }
     }
 
     public void unblock(final Long id, final String reason) throws SQLException {
         try{
-            var dao = new CardDAO(connection);
-            var optional = dao.findById(id);
-            var dto = optional.orElseThrow(
-                    () -> new EntityNotFoundException("O card de id %s não foi encontrado".formatted(id))
-            );
-            if (!dto.blocked()){
-                var message = "O card %s não está bloqueado".formatted(id);
-                throw new CardBlockedException(message);
+            if (!repository.unblock(id, reason)){
+                var dto = repository.findCardById(id).orElseThrow(
+                        () -> new EntityNotFoundException("O card de id %s não foi encontrado".formatted(id))
+                );
+                if (!dto.blocked()){
+                    var message = "O card %s não está bloqueado".formatted(id);
+                    throw new CardBlockedException(message);
+                }
+                throw concurrentModification(id);
             }
-            var blockDAO = new BlockDAO(connection);
-            blockDAO.unblock(reason, id);
-            connection.commit();
-        }catch (SQLException ex) {
-            connection.rollback();
+            record(UNBLOCK, id, reason);
+            commit();
+        }catch (SQLException | RuntimeException ex) {
+            rollback();
             throw ex;
         }
     }
 
+    private void record(final CardEventTypeEnum type, final Long cardId, final String reason){
+        pendingEvents.add(new CardEventEntity(cardId, type, reason, OffsetDateTime.now()));
+    }
+
+    /**
+     * Confirma as alterações junto com os eventos acumulados na operação, gravados em um único lote.
+     * Só depois do commit os eventos vão para o {@link BoardChangeFeed}.
+     */
+    private void commit() throws SQLException {
+        var feed = BoardChangeFeed.getInstance();
+        Map<Long, CardLocationDTO> locations = feed.hasSubscribers() && !pendingEvents.isEmpty()
+                ? repository.findLocations(pendingEvents.stream()
+                        .map(CardEventEntity::getCardId).distinct().toList())
+                : Map.of();
+        var events = List.copyOf(pendingEvents);
+        pendingEvents.clear();
+        repository.commit(events);
+        afterCommit.accept(() -> {
+            for (var event : events){
+                var location = locations.get(event.getCardId());
+                if (location != null){
+                    feed.publish(location.boardId(), event.getType().name(), event.getCardId(),
+                            location.columnId(), event.getOccurredAt());
+                }
+            }
+        });
+    }
+
+    private void rollback() throws SQLException {
+        pendingEvents.clear();
+        repository.rollback();
+    }
+
+    private List<BoardColumnInfoDTO> movableColumns(final List<BoardColumnInfoDTO> boardColumnsInfo){
+        return boardColumnsInfo.stream()
+                .filter(bc -> !bc.kind().equals(FINAL))
+                .filter(bc -> findNextColumn(bc, boardColumnsInfo).isPresent())
+                .toList();
+    }
+
+    private Optional<BoardColumnInfoDTO> findNextColumn(final BoardColumnInfoDTO currentColumn,
+                                                        final List<BoardColumnInfoDTO> boardColumnsInfo){
+        return boardColumnsInfo.stream()
+                .filter(bc -> bc.order() == currentColumn.order() + 1)
+                .findFirst();
+    }
+
+    private void explainRejectedMove(final Long cardId,
+                                     final List<BoardColumnInfoDTO> boardColumnsInfo) throws SQLException {
+        var dto = repository.findCardById(cardId).orElseThrow(
+                () -> new EntityNotFoundException("O card de id %s não foi encontrado".formatted(cardId))
+        );
+        checkMove(cardId, dto.blocked(), dto.columnId(), boardColumnsInfo);
+        throw concurrentModification(cardId);
+    }
+
+    private BoardColumnInfoDTO checkMove(final Long cardId, final boolean blocked, final Long columnId,
+                                         final List<BoardColumnInfoDTO> boardColumnsInfo){
+        if (blocked){
+            var message = "O card %s está bloqueado, é necesário desbloquea-lo para mover".formatted(cardId);
+            throw new CardBlockedException(message);
+        }
+        var currentColumn = boardColumnsInfo.stream()
+                .filter(bc -> bc.id().equals(columnId))
+                .findFirst()
+                .orElseThrow(() -> new CardConflictException("O card informado pertence a outro board"));
+        if (currentColumn.kind().equals(FINAL)){
+            throw new CardFinishedException("O card já foi finalizado");
+        }
+        return findNextColumn(currentColumn, boardColumnsInfo)
+                .orElseThrow(() -> new CardConflictException("O card está cancelado"));
+    }
+
+    private void explainRejectedBlock(final Long id,
+                                      final List<BoardColumnInfoDTO> boardColumnsInfo) throws SQLException {
+        var dto = repository.findCardById(id).orElseThrow(
+                () -> new EntityNotFoundException("O card de id %s não foi encontrado".formatted(id))
+        );
+        if (dto.blocked()){
+            var message = "O card %s já está bloqueado".formatted(id);
+            throw new CardBlockedException(message);
+        }
+        var currentColumn = boardColumnsInfo.stream()
+                .filter(bc -> bc.id().equals(dto.columnId()))
+                .findFirst()
+                .orElseThrow();
+        if (currentColumn.kind().equals(FINAL) || currentColumn.kind().equals(CANCEL)){
+            var message = "O card está em uma coluna do tipo %s e não pode ser bloqueado"
+                    .formatted(currentColumn.kind());
+            throw new CardConflictException(message);
+        }
+        throw concurrentModification(id);
+    }
+
+    private CardConflictException concurrentModification(final Long cardId){
+        return new CardConflictException(
+                "O card %s foi alterado por outra operação, tente novamente".formatted(cardId));
+    }
+
 }
@@ -0,0 +1,104 @@
+package br.com.dio.service;
+
+import br.com.dio.persistence.dao.FlowAnalyticsDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+
+/**
+ * Mantém as métricas de fluxo fora do caminho do commit: a cada {@code flow.aggregation.intervalMs} uma thread
+ * soma aos agregados os eventos novos de CARD_EVENTS ({@link FlowAnalyticsService#aggregate}).
+ * <p>
+ * Um id de CARD_EVENTS é reservado no insert, mas só fica visível no commit, então uma transação mais lenta
+ * (lote do write-behind, importação, espera de lock) pode confirmar um id menor depois de um maior. Esses ids
+ * ficam como lacunas abaixo do checkpoint e são conferidos a cada rodada até aparecerem ou passarem de
+ * {@code flow.aggregation.gapTimeoutMs}.
+ */
+public final class FlowAggregator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlowAggregator.class);
+
+    private static volatile FlowAggregator instance;
+
+    private final long intervalMillis;
+    private final int batchSize;
+    private final Duration gapTimeout;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public FlowAggregator(final long intervalMillis, final int batchSize, final Duration gapTimeout) {
+        if (intervalMillis < 1 || batchSize < 1 || !gapTimeout.isPositive()) {
+            throw new IllegalArgumentException("Intervalo, lote e espera das lacunas das métricas de fluxo devem ser "
+                    + "positivos");
+        }
+        this.intervalMillis = intervalMillis;
+        this.batchSize = batchSize;
+        this.gapTimeout = gapTimeout;
+        this.thread = Thread.ofPlatform().name("flow-aggregator").daemon().start(this::work);
+    }
+
+    public static synchronized FlowAggregator start() {
+        if (instance == null) {
+            instance = new FlowAggregator(Long.parseLong(getProperty("flow.aggregation.intervalMs", "1000").trim()),
+                    Integer.parseInt(getProperty("flow.aggregation.batchSize", "5000").trim()),
+                    Duration.ofMillis(Long.parseLong(getProperty("flow.aggregation.gapTimeoutMs", "600000").trim())));
+            logger.info("Métricas de fluxo agregadas a cada {} ms", instance.intervalMillis);
+        }
+        return instance;
+    }
+
+    public static Optional<FlowAggregator> getInstance() {
+        return Optional.ofNullable(instance);
+    }
+
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    /**
+     * Para a thread; o que ficou sem agregar continua em CARD_EVENTS e entra na próxima partida.
+     */
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work() {
+        while (running) {
+            try (var connection = getConnection()) {
+                var lastEventId = new FlowAnalyticsDAO(connection).findLastEventId();
+                connection.rollback();
+                var events = new FlowAnalyticsService(connection).aggregate(lastEventId, batchSize, gapTimeout);
+                if (events > 0) {
+                    logger.debug("{} eventos somados às métricas de fluxo", events);
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                logger.error("Erro ao agregar as métricas de fluxo: {}", ex.getMessage(), ex);
+            }
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,313 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.CardFlowDTO;
+import br.com.dio.dto.ColumnFlowDeltaDTO;
+import br.com.dio.dto.ColumnFlowStatsDTO;
+import br.com.dio.dto.CumulativeFlowDTO;
+import br.com.dio.dto.DailyFlowDTO;
+import br.com.dio.dto.DailyThroughputDTO;
+import br.com.dio.dto.FlowEventDTO;
+import br.com.dio.dto.FlowTimeBucketDTO;
+import br.com.dio.dto.FlowTimePercentilesDTO;
+import br.com.dio.persistence.dao.FlowAggregationCheckpointDAO;
+import br.com.dio.persistence.dao.FlowAnalyticsDAO;
+import br.com.dio.persistence.entity.CardEventTypeEnum;
+import br.com.dio.persistence.entity.FlowTimeMetricEnum;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.CANCEL;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.CREATE;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.MOVE;
+import static br.com.dio.persistence.entity.FlowTimeMetricEnum.CYCLE;
+import static br.com.dio.persistence.entity.FlowTimeMetricEnum.LEAD;
+import static java.time.ZoneOffset.UTC;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Métricas de fluxo (tempo por coluna, throughput, fluxo cumulativo e percentis de lead/cycle time).
+ * Os agregados são calculados fora da transação das operações: o {@link FlowAggregator} lê os eventos novos
+ * de CARD_EVENTS e chama {@link #aggregate}, e as consultas só leem os agregados, sem percorrer o histórico.
+ */
+@AllArgsConstructor
+public class FlowAnalyticsService {
+
+    private static final Set<CardEventTypeEnum> FLOW_TYPES = EnumSet.of(CREATE, MOVE, CANCEL);
+
+    private final Connection connection;
+
+    /**
+     * Soma aos agregados os eventos com id até {@code upToId} ainda não processados, em transações de até
+     * {@code batchSize} eventos que também avançam o checkpoint. Um id de CARD_EVENTS é reservado no insert mas só
+     * fica visível no commit, então os ids que faltam abaixo do checkpoint ficam registrados como lacunas: a cada
+     * chamada elas são conferidas de novo e somadas quando aparecem, ou descartadas depois de {@code gapTimeout}
+     * (transação desfeita ou card excluído). Devolve quantos eventos foram somados.
+     */
+    public long aggregate(final long upToId, final int batchSize, final Duration gapTimeout) throws SQLException {
+        var checkpoint = new FlowAggregationCheckpointDAO(connection);
+        var dao = new FlowAnalyticsDAO(connection);
+        try {
+            checkpoint.lockLastEventId();
+            var total = recordLateEvents(checkpoint, dao, gapTimeout);
+            connection.commit();
+            while (true){
+                var last = checkpoint.lockLastEventId();
+                if (last >= upToId){
+                    connection.rollback();
+                    return total;
+                }
+                var events = dao.findFlowEvents(last, upToId, batchSize);
+                var reached = events.size() < batchSize ? upToId : events.get(events.size() - 1).id();
+                checkpoint.insertGaps(missingIds(last, reached, events), OffsetDateTime.now());
+                var flowEvents = flowEvents(events);
+                record(flowEvents);
+                checkpoint.update(reached);
+                connection.commit();
+                total += flowEvents.size();
+            }
+        } catch (SQLException ex){
+            connection.rollback();
+            throw ex;
+        }
+    }
+
+    /**
+     * Soma os eventos das lacunas que já ficaram visíveis e descarta as expiradas. Os eventos de um card são
+     * gravados com a linha do card bloqueada, então nenhum evento posterior do mesmo card foi somado antes.
+     */
+    private long recordLateEvents(final FlowAggregationCheckpointDAO checkpoint, final FlowAnalyticsDAO dao,
+                                  final Duration gapTimeout) throws SQLException {
+        var gaps = checkpoint.findGaps();
+        if (gaps.isEmpty()){
+            return 0;
+        }
+        var events = dao.findFlowEventsByIds(List.copyOf(gaps.keySet()));
+        List<Long> closed = new ArrayList<>();
+        for (var event : events){
+            gaps.remove(event.id());
+            closed.add(event.id());
+        }
+        var expiredBefore = OffsetDateTime.now().minus(gapTimeout);
+        gaps.forEach((id, missingSince) -> {
+            if (!missingSince.isAfter(expiredBefore)){
+                closed.add(id);
+            }
+        });
+        var flowEvents = flowEvents(events);
+        record(flowEvents);
+        checkpoint.deleteGaps(closed);
+        return flowEvents.size();
+    }
+
+    private List<Long> missingIds(final long afterId, final long upToId, final List<FlowEventDTO> events){
+        List<Long> missing = new ArrayList<>();
+        var next = afterId + 1;
+        for (var event : events){
+            for (; next < event.id(); next++){
+                missing.add(next);
+            }
+            next = event.id() + 1;
+        }
+        for (; next <= upToId; next++){
+            missing.add(next);
+        }
+        return missing;
+    }
+
+    private List<FlowEventDTO> flowEvents(final List<FlowEventDTO> events){
+        return events.stream().filter(e -> FLOW_TYPES.contains(e.type())).toList();
+    }
+
+    /**
+     * Atualiza os agregados com eventos em ordem de id, na transação atual. Cada card é acompanhado evento a
+     * evento a partir da posição em CARD_FLOW, então várias movimentações do mesmo card no lote são contadas.
+     */
+    void record(final List<FlowEventDTO> events) throws SQLException {
+        if (events.isEmpty()){
+            return;
+        }
+        var dao = new FlowAnalyticsDAO(connection);
+        var flows = dao.findCardFlows(events.stream().map(FlowEventDTO::cardId).distinct().toList());
+        var aggregates = new Aggregates();
+        Map<Long, CardFlowDTO> positions = new LinkedHashMap<>();
+        for (var event : events){
+            var flow = flows.get(event.cardId());
+            if (nonNull(flow) && flow.columnId().equals(event.columnId())){
+                continue;
+            }
+            var at = event.occurredAt();
+            var createdAt = event.type() == CREATE ? at : isNull(flow) ? null : flow.createdAt();
+            var startedAt = isNull(flow) ? null : flow.startedAt();
+            if (nonNull(flow)){
+                aggregates.departure(flow.boardId(), flow.columnId(), at, seconds(flow.enteredAt(), at));
+                if (isNull(startedAt) && flow.kind() == INITIAL){
+                    startedAt = at;
+                }
+            }
+            aggregates.arrival(event.boardId(), event.columnId(), at);
+            if (event.kind() == FINAL){
+                if (nonNull(createdAt)){
+                    aggregates.flowTime(event.boardId(), LEAD, seconds(createdAt, at));
+                }
+                if (nonNull(startedAt)){
+                    aggregates.flowTime(event.boardId(), CYCLE, seconds(startedAt, at));
+                }
+            }
+            var position = new CardFlowDTO(event.cardId(), event.boardId(), event.columnId(), event.kind(),
+                    createdAt, startedAt, at);
+            flows.put(event.cardId(), position);
+            positions.put(event.cardId(), position);
+        }
+        dao.saveCardFlows(List.copyOf(positions.values()));
+        dao.addColumnStats(aggregates.columnDeltas());
+        dao.addDailyFlow(aggregates.dailyFlow());
+        dao.addFlowTimes(aggregates.flowTimes());
+    }
+
+    public List<ColumnFlowStatsDTO> findColumnStats(final Long boardId) throws SQLException {
+        return new FlowAnalyticsDAO(connection).findColumnStats(boardId);
+    }
+
+    /**
+     * Cards que chegaram a uma coluna final em cada dia do intervalo (datas em UTC).
+     */
+    public List<DailyThroughputDTO> findThroughput(final Long boardId, final LocalDate from, final LocalDate to)
+            throws SQLException {
+        var dao = new FlowAnalyticsDAO(connection);
+        var finalColumnIds = dao.findColumnStats(boardId).stream()
+                .filter(c -> c.kind() == FINAL)
+                .map(ColumnFlowStatsDTO::columnId)
+                .toList();
+        Map<LocalDate, Long> finished = new HashMap<>();
+        dao.findDailyFlow(boardId, from, to).stream()
+                .filter(d -> finalColumnIds.contains(d.columnId()))
+                .forEach(d -> finished.merge(d.date(), (long) d.arrivals(), Long::sum));
+        List<DailyThroughputDTO> throughput = new ArrayList<>();
+        for (var date = from; !date.isAfter(to); date = date.plusDays(1)){
+            throughput.add(new DailyThroughputDTO(date, finished.getOrDefault(date, 0L)));
+        }
+        return throughput;
+    }
+
+    /**
+     * Chegadas acumuladas e WIP de cada coluna ao fim de cada dia do intervalo. Parte dos totais atuais e desconta
+     * os dias posteriores, então lê apenas os dias entre {@code from} e hoje.
+     */
+    public List<CumulativeFlowDTO> findCumulativeFlow(final Long boardId, final LocalDate from, final LocalDate to)
+            throws SQLException {
+        var dao = new FlowAnalyticsDAO(connection);
+        var today = LocalDate.now(UTC);
+        var last = to.isAfter(today) ? today : to;
+        Map<Long, long[]> totals = new LinkedHashMap<>();
+        dao.findColumnStats(boardId).forEach(c -> totals.put(c.columnId(), new long[]{c.arrivals(), c.departures()}));
+        var byDate = new TreeMap<LocalDate, List<DailyFlowDTO>>();
+        dao.findDailyFlow(boardId, from.plusDays(1), today)
+                .forEach(d -> byDate.computeIfAbsent(d.date(), k -> new ArrayList<>()).add(d));
+        var points = new ArrayList<CumulativeFlowDTO>();
+        for (var date = today; !date.isBefore(from); date = date.minusDays(1)){
+            if (!date.isAfter(last)){
+                for (var total : totals.entrySet()){
+                    var values = total.getValue();
+                    points.add(new CumulativeFlowDTO(date, total.getKey(), values[0], values[0] - values[1]));
+                }
+            }
+            for (var day : byDate.getOrDefault(date, List.of())){
+                var values = totals.get(day.columnId());
+                if (nonNull(values)){
+                    values[0] -= day.arrivals();
+                    values[1] -= day.departures();
+                }
+            }
+        }
+        Collections.reverse(points);
+        return points;
+    }
+
+    public FlowTimePercentilesDTO findFlowTimes(final Long boardId, final FlowTimeMetricEnum metric) throws SQLException {
+        var buckets = new FlowAnalyticsDAO(connection).findFlowTimes(boardId, metric);
+        var total = buckets.stream().mapToLong(FlowTimeBucketDTO::cards).sum();
+        return new FlowTimePercentilesDTO(
+                metric,
+                total,
+                FlowTimeHistogram.percentile(buckets, total, 50),
+                FlowTimeHistogram.percentile(buckets, total, 85),
+                FlowTimeHistogram.percentile(buckets, total, 95)
+        );
+    }
+
+    private long seconds(final OffsetDateTime from, final OffsetDateTime to){
+        return Math.max(0, Duration.between(from, to).toSeconds());
+    }
+
+    private static final class Aggregates {
+
+        private final Map<Long, long[]> columns = new LinkedHashMap<>();
+        private final Map<DailyFlowKey, int[]> days = new LinkedHashMap<>();
+        private final Map<FlowTimeKey, Long> flowTimes = new LinkedHashMap<>();
+
+        private void arrival(final Long boardId, final Long columnId, final OffsetDateTime at){
+            columns.computeIfAbsent(columnId, k -> new long[4])[0]++;
+            days.computeIfAbsent(new DailyFlowKey(boardId, columnId, at.atZoneSameInstant(UTC).toLocalDate()),
+                    k -> new int[2])[0]++;
+        }
+
+        private void departure(final Long boardId, final Long columnId, final OffsetDateTime at, final long dwell){
+            var column = columns.computeIfAbsent(columnId, k -> new long[4]);
+            column[1]++;
+            column[2] += dwell;
+            column[3] = Math.max(column[3], dwell);
+            days.computeIfAbsent(new DailyFlowKey(boardId, columnId, at.atZoneSameInstant(UTC).toLocalDate()),
+                    k -> new int[2])[1]++;
+        }
+
+        private void flowTime(final Long boardId, final FlowTimeMetricEnum metric, final long seconds){
+            flowTimes.merge(new FlowTimeKey(boardId, metric, FlowTimeHistogram.bucketOf(seconds)), 1L, Long::sum);
+        }
+
+        private List<ColumnFlowDeltaDTO> columnDeltas(){
+            return columns.entrySet().stream()
+                    .map(e -> new ColumnFlowDeltaDTO(e.getKey(), e.getValue()[0], e.getValue()[1],
+                            e.getValue()[2], e.getValue()[3]))
+                    .toList();
+        }
+
+        private List<DailyFlowDTO> dailyFlow(){
+            return days.entrySet().stream()
+                    .map(e -> new DailyFlowDTO(e.getKey().boardId(), e.getKey().columnId(), e.getKey().date(),
+                            e.getValue()[0], e.getValue()[1]))
+                    .toList();
+        }
+
+        private List<FlowTimeBucketDTO> flowTimes(){
+            return flowTimes.entrySet().stream()
+                    .map(e -> new FlowTimeBucketDTO(e.getKey().boardId(), e.getKey().metric(),
+                            e.getKey().bucket(), e.getValue()))
+                    .toList();
+        }
+
+    }
+
+    private record DailyFlowKey(Long boardId, Long columnId, LocalDate date) {
+    }
+
+    private record FlowTimeKey(Long boardId, FlowTimeMetricEnum metric, int bucket) {
+    }
+
+}
@@ -0,0 +1,46 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.FlowTimeBucketDTO;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Faixas exponenciais de duração (cada uma 25% maior que a anterior) usadas no histograma de lead/cycle time.
+ * Um percentil é respondido com o limite superior da faixa, então o erro relativo fica abaixo de 25%.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class FlowTimeHistogram {
+
+    private static final double GROWTH = 1.25;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+
+    static int bucketOf(final long seconds) {
+        return seconds <= 1 ? 0 : (int) Math.ceil(Math.log(seconds) / LOG_GROWTH);
+    }
+
+    static long upperBoundSeconds(final int bucket) {
+        return (long) Math.ceil(Math.pow(GROWTH, bucket));
+    }
+
+    /**
+     * @param buckets faixas em ordem crescente
+     */
+    static long percentile(final List<FlowTimeBucketDTO> buckets, final long total, final double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        var rank = (long) Math.ceil(percentile / 100 * total);
+        var seen = 0L;
+        for (var bucket : buckets) {
+            seen += bucket.cards();
+            if (seen >= rank) {
+                return upperBoundSeconds(bucket.bucket());
+            }
+        }
+        return upperBoundSeconds(buckets.get(buckets.size() - 1).bucket());
+    }
+
+}
@@ -0,0 +1,311 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.GroupCommitStatsDTO;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.config.ConnectionSource;
+import br.com.dio.persistence.repository.InMemoryBoardStore;
+import br.com.dio.persistence.repository.SavepointBoardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+
+/**
+ * Group commit das operações do {@link CardService} ({@code groupCommit.enabled=true}). As operações entram em
+ * uma fila e uma única thread as executa em lotes: espera até {@code groupCommit.windowMicros} por mais
+ * operações (ou até {@code groupCommit.maxBatchSize}) e roda o lote em uma transação, com um savepoint por
+ * operação. Uma operação recusada pelas validações volta só até o seu savepoint; as demais são confirmadas
+ * juntas em um único commit, e cada chamador recebe o resultado pelo seu {@link CompletableFuture}.
+ * <p>
+ * Se o lote inteiro falhar no banco (deadlock, queda da conexão, erro no commit), as operações que ainda não
+ * terminaram são refeitas uma a uma, cada uma com seu próprio commit.
+ */
+public final class GroupCommitExecutor implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface CardMutation<T> {
+
+        T apply(CardService service) throws SQLException;
+
+    }
+
+    @FunctionalInterface
+    public interface CardAction {
+
+        void apply(CardService service) throws SQLException;
+
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitExecutor.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private static volatile GroupCommitExecutor instance;
+
+    private final ConnectionSource connections;
+    private final BlockingQueue<Task<?>> queue;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Thread thread;
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder failedOperations = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder fallbackBatches = new LongAdder();
+    private volatile boolean running = true;
+
+    public GroupCommitExecutor(final int maxBatchSize, final long windowMicros, final int queueSize) {
+        this(ConnectionConfig::getConnection, maxBatchSize, windowMicros, queueSize);
+    }
+
+    GroupCommitExecutor(final ConnectionSource connections, final int maxBatchSize, final long windowMicros,
+                        final int queueSize) {
+        if (maxBatchSize < 1 || windowMicros < 0) {
+            throw new IllegalArgumentException("O lote deve ter ao menos 1 operação e a janela não pode ser negativa");
+        }
+        this.connections = connections;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.thread = Thread.ofPlatform().name("card-group-commit").daemon().start(this::work);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(getProperty("groupCommit.enabled", "false").trim());
+    }
+
+    public static synchronized Optional<GroupCommitExecutor> start() {
+        if (instance != null) {
+            return Optional.of(instance);
+        }
+        if (InMemoryBoardStore.getInstance().isPresent()) {
+            // o repositório em memória já agrupa a gravação no banco pelo write-behind
+            logger.warn("Group commit ignorado: repository.type=memory já grava no banco em lotes");
+            return Optional.empty();
+        }
+        instance = new GroupCommitExecutor(Integer.parseInt(getProperty("groupCommit.maxBatchSize", "64").trim()),
+                Long.parseLong(getProperty("groupCommit.windowMicros", "1000").trim()),
+                Integer.parseInt(getProperty("groupCommit.queueSize", "10000").trim()));
+        logger.info("Group commit iniciado: até {} operações por transação, janela de {} µs",
+                instance.maxBatchSize, TimeUnit.NANOSECONDS.toMicros(instance.windowNanos));
+        return Optional.of(instance);
+    }
+
+    public static Optional<GroupCommitExecutor> getInstance() {
+        return Optional.ofNullable(instance);
+    }
+
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    /**
+     * Executa a operação pelo group commit, se estiver ativo, esperando o commit compartilhado; senão, com uma
+     * conexão do pool só para ela e o commit próprio do {@link CardService}. Quem chama não deve estar com uma
+     * conexão aberta: ela ficaria parada enquanto a operação espera o lote, e com o pool todo parado assim a
+     * thread do group commit não conseguiria a conexão do lote.
+     */
+    public static <T> T execute(final CardMutation<T> mutation) throws SQLException {
+        var executor = instance;
+        if (executor == null) {
+            try (var connection = getConnection()) {
+                return mutation.apply(new CardService(connection));
+            }
+        }
+        try {
+            return executor.submit(mutation).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando o group commit", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof SQLException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new SQLException(ex.getCause());
+        }
+    }
+
+    public static void run(final CardAction action) throws SQLException {
+        execute(service -> {
+            action.apply(service);
+            return null;
+        });
+    }
+
+    /**
+     * Enfileira a operação; bloqueia enquanto a fila estiver cheia.
+     */
+    public <T> CompletableFuture<T> submit(final CardMutation<T> mutation) {
+        var task = new Task<>(mutation, new CompletableFuture<T>());
+        if (!running) {
+            task.future().completeExceptionally(new IllegalStateException("O group commit foi encerrado"));
+            return task.future();
+        }
+        try {
+            queue.put(task);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            task.future().completeExceptionally(ex);
+        }
+        return task.future();
+    }
+
+    public GroupCommitStatsDTO getStats() {
+        var batchCount = batches.sum();
+        var operationCount = operations.sum();
+        return new GroupCommitStatsDTO(operationCount, failedOperations.sum(), batchCount, fallbackBatches.sum(),
+                batchCount == 0 ? 0 : (double) operationCount / batchCount, queue.size());
+    }
+
+    /**
+     * Executa o que já está na fila e encerra a thread; operações enviadas depois disso falham.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        Task<?> task;
+        while ((task = queue.poll()) != null) {
+            task.future().completeExceptionally(new IllegalStateException("O group commit foi encerrado"));
+        }
+    }
+
+    private void work() {
+        List<Task<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                execute(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                batch.forEach(t -> t.future().completeExceptionally(ex));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Completa o lote com o que chegar até o fim da janela, contada a partir da primeira operação.
+     */
+    private void collect(final List<Task<?>> batch) throws InterruptedException {
+        var deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            var remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            var next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void execute(final List<Task<?>> batch) {
+        batches.increment();
+        operations.add(batch.size());
+        try (var connection = connections.getConnection()) {
+            List<Completion<?>> completions = new ArrayList<>(batch.size());
+            try {
+                var repository = new SavepointBoardRepository(connection);
+                for (var task : batch) {
+                    var completion = apply(connection, repository, task);
+                    if (completion != null) {
+                        completions.add(completion);
+                    }
+                }
+                connection.commit();
+            } catch (SQLException ex) {
+                logger.warn("Lote de {} operações falhou ({}), refazendo uma a uma", batch.size(), ex.getMessage());
+                fallbackBatches.increment();
+                connection.rollback();
+                batch.stream().filter(t -> !t.future().isDone()).forEach(t -> applyAlone(connection, t));
+                return;
+            }
+            completions.forEach(Completion::complete);
+        } catch (SQLException ex) {
+            logger.error("Erro de conexão no group commit: {}", ex.getMessage(), ex);
+            batch.forEach(t -> t.future().completeExceptionally(ex));
+        }
+    }
+
+    /**
+     * Roda a operação a partir de um savepoint. Se ela falhar e o savepoint ainda valer, só ela é desfeita;
+     * se nem o savepoint puder ser restaurado, a transação foi perdida e o erro sobe para refazer o lote.
+     */
+    private <T> Completion<T> apply(final Connection connection, final SavepointBoardRepository repository,
+                                    final Task<T> task) throws SQLException {
+        List<Runnable> afterCommit = new ArrayList<>();
+        repository.begin();
+        try {
+            var result = task.mutation().apply(new CardService(connection, repository, afterCommit::add));
+            return new Completion<>(task, result, afterCommit);
+        } catch (SQLException | RuntimeException ex) {
+            repository.rollback();
+            failedOperations.increment();
+            task.future().completeExceptionally(ex);
+            return null;
+        }
+    }
+
+    private <T> void applyAlone(final Connection connection, final Task<T> task) {
+        try {
+            task.future().complete(task.mutation().apply(new CardService(connection)));
+        } catch (SQLException | RuntimeException ex) {
+            failedOperations.increment();
+            task.future().completeExceptionally(ex);
+        }
+    }
+
+    private record Task<T>(CardMutation<T> mutation, CompletableFuture<T> future) {
+    }
+
+    private record Completion<T>(Task<T> task, T result, List<Runnable> afterCommit) {
+
+        void complete() {
+            for (var action : afterCommit) {
+                try {
+                    action.run();
+                } catch (RuntimeException ex) {
+                    logger.warn("Erro após o commit do lote: {}", ex.getMessage(), ex);
+                }
+            }
+            task.future().complete(result);
+        }
+
+    }
+
+}
@@ -0,0 +1,232 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardColumnDTO;
+import br.com.dio.dto.BoardDetailsDTO;
+import br.com.dio.dto.BoardStructureDTO;
+import br.com.dio.dto.LocalSnapshotColumnDTO;
+import br.com.dio.persistence.dao.BoardSnapshotDAO;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.snapshot.LocalBoardSnapshotFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+
+/**
+ * Snapshot local dos boards ({@code snapshot.local.enabled=true}) para o menu abrir sem esperar o MySQL:
+ * na partida o arquivo é mapeado em memória e já atende a estrutura, o resumo e a primeira página de cada
+ * coluna, enquanto uma thread compara o carimbo de versão gravado no arquivo com o do banco, na partida e depois a
+ * cada {@code snapshot.local.recheckMs}, para perceber também o que outros processos alterarem depois. Se o banco
+ * mudou desde a gravação, o snapshot deixa de ser usado e tudo volta a ser lido do banco. O arquivo é regravado
+ * no encerramento do processo.
+ * <p>
+ * Um board alterado por este processo é liberado com {@link #release} e passa a ser lido só do banco.
+ */
+public final class LocalBoardSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalBoardSnapshot.class);
+
+    private static final int PAGE_SIZE = Integer.parseInt(getProperty("app.columnPageSize", "500").trim());
+    private static final int COLUMNS_PER_QUERY = 100;
+    private static final long RECHECK_MILLIS = Long.parseLong(getProperty("snapshot.local.recheckMs", "5000").trim());
+
+    private static volatile LocalBoardSnapshot instance;
+
+    private final Path path;
+    private final LocalBoardSnapshotFile file;
+    private final Set<Long> released = ConcurrentHashMap.newKeySet();
+    private volatile boolean stale;
+    private Thread checker;
+
+    private LocalBoardSnapshot(final Path path, final LocalBoardSnapshotFile file) {
+        this.path = path;
+        this.file = file;
+        this.stale = file == null;
+    }
+
+    public static Optional<LocalBoardSnapshot> getInstance() {
+        return Optional.ofNullable(instance);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(getProperty("snapshot.local.enabled", "false").trim());
+    }
+
+    /**
+     * Mapeia o arquivo, se existir, e inicia a conferência com o banco em segundo plano. Um arquivo ilegível
+     * é ignorado: o menu funciona pelo banco e o arquivo é regravado no encerramento.
+     */
+    public static synchronized LocalBoardSnapshot start() {
+        if (instance != null) {
+            return instance;
+        }
+        var path = Path.of(getProperty("snapshot.local.path", "data/boards.snapshot"));
+        var start = System.nanoTime();
+        LocalBoardSnapshotFile file = null;
+        if (Files.exists(path)) {
+            try {
+                file = LocalBoardSnapshotFile.open(path);
+                logger.info("Snapshot local {} carregado em {} ms: {} boards, {} bytes, gravado em {}", path,
+                        elapsedMillis(start), file.getBoards(), file.getBytes(), file.getWrittenAt());
+            } catch (IOException ex) {
+                logger.warn("Snapshot local {} ignorado: {}", path, ex.getMessage());
+            }
+        }
+        instance = new LocalBoardSnapshot(path, file);
+        if (file != null) {
+            instance.checker = Thread.ofPlatform().name("board-snapshot-check").daemon().start(instance::watch);
+        }
+        return instance;
+    }
+
+    /**
+     * Regrava o arquivo a partir do banco. Deve rodar depois que o group commit e o write-behind gravaram o
+     * que estava na fila.
+     */
+    public static synchronized void shutdown() {
+        if (instance == null) {
+            return;
+        }
+        if (instance.checker != null) {
+            instance.checker.interrupt();
+        }
+        try (var connection = getConnection()) {
+            save(connection, instance.path);
+        } catch (SQLException | IOException ex) {
+            logger.error("Erro ao gravar o snapshot local: {}", ex.getMessage(), ex);
+        } finally {
+            instance = null;
+        }
+    }
+
+    /**
+     * Lê a versão, as colunas e a primeira página de cada coluna na mesma transação e grava o arquivo.
+     */
+    public static void save(final Connection connection, final Path path) throws SQLException, IOException {
+        var start = System.nanoTime();
+        try (var writer = LocalBoardSnapshotFile.Writer.create(path)) {
+            var dao = new BoardSnapshotDAO(connection);
+            var version = dao.findVersion();
+            var columns = dao.findColumnsWithCounts();
+            var withCards = columns.stream()
+                    .filter(c -> c.cardsAmount() > 0)
+                    .map(LocalSnapshotColumnDTO::id)
+                    .toList();
+            for (var from = 0; from < withCards.size(); from += COLUMNS_PER_QUERY) {
+                var ids = withCards.subList(from, Math.min(from + COLUMNS_PER_QUERY, withCards.size()));
+                writeCards(writer, dao.findCardHeaders(ids, PAGE_SIZE));
+            }
+            var bytes = writer.finish(version, columns);
+            logger.info("Snapshot local {} gravado em {} ms: {} colunas, {} bytes", path, elapsedMillis(start),
+                    columns.size(), bytes);
+        } finally {
+            connection.rollback();
+        }
+    }
+
+    public OffsetDateTime getWrittenAt() {
+        return file == null ? null : file.getWrittenAt();
+    }
+
+    public Optional<BoardStructureDTO> findStructure(final Long boardId) {
+        return usable(boardId) ? file.findStructure(boardId) : Optional.empty();
+    }
+
+    public Optional<BoardDetailsDTO> findDetails(final Long boardId) {
+        return usable(boardId) ? file.findDetails(boardId) : Optional.empty();
+    }
+
+    public Optional<BoardColumnDTO> findColumn(final Long boardId, final Long columnId) {
+        return usable(boardId) ? file.findColumn(boardId, columnId) : Optional.empty();
+    }
+
+    public Optional<List<CardEntity>> findFirstCards(final Long boardId, final Long columnId) {
+        return usable(boardId) ? file.findFirstCards(boardId, columnId) : Optional.empty();
+    }
+
+    public int getPageSize() {
+        return PAGE_SIZE;
+    }
+
+    /**
+     * O board foi alterado ou excluído por este processo: o snapshot deixa de valer para ele.
+     */
+    public void release(final Long boardId) {
+        released.add(boardId);
+    }
+
+    private boolean usable(final Long boardId) {
+        return !stale && !released.contains(boardId);
+    }
+
+    /**
+     * Confere a versão até o snapshot ficar desatualizado; depois disso não há o que conferir, já que tudo é lido
+     * do banco até a próxima gravação do arquivo.
+     */
+    private void watch() {
+        var first = true;
+        while (!stale) {
+            reconcile(first);
+            first = false;
+            try {
+                Thread.sleep(RECHECK_MILLIS);
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    private void reconcile(final boolean first) {
+        var start = System.nanoTime();
+        try (var connection = getConnection()) {
+            var current = new BoardSnapshotDAO(connection).findVersion();
+            connection.rollback();
+            if (current.equals(file.getVersion())) {
+                if (first) {
+                    logger.info("Snapshot local conferido com o banco em {} ms", elapsedMillis(start));
+                }
+                return;
+            }
+            stale = true;
+            logger.info("Snapshot local desatualizado (arquivo {}, banco {}); lendo os boards do banco",
+                    file.getVersion(), current);
+        } catch (SQLException ex) {
+            stale = true;
+            logger.warn("Não foi possível conferir o snapshot local: {}", ex.getMessage());
+        }
+    }
+
+    private static void writeCards(final LocalBoardSnapshotFile.Writer writer,
+                                   final List<CardEntity> cards) throws IOException {
+        List<CardEntity> column = new ArrayList<>();
+        for (var card : cards) {
+            if (!column.isEmpty() && !column.get(0).getBoardColumn().getId().equals(card.getBoardColumn().getId())) {
+                writer.writeCards(column.get(0).getBoardColumn().getId(), column);
+                column = new ArrayList<>();
+            }
+            column.add(card);
+        }
+        if (!column.isEmpty()) {
+            writer.writeCards(column.get(0).getBoardColumn().getId(), column);
+        }
+    }
+
+    private static long elapsedMillis(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+}
@@ -0,0 +1,65 @@
+package br.com.dio.service;
+
+import lombok.NoArgsConstructor;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Quebra o texto em termos para o {@link CardSearchIndex}: minúsculas, sem acentos ("Configuração" vira
+ * "configuracao") e sem as stopwords mais comuns do português.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class TextAnalyzer {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "e", "as", "os", "um", "uma", "de", "da", "do", "das", "dos", "em", "na", "no", "nas", "nos",
+            "para", "pra", "por", "com", "sem", "que", "se", "ao", "aos", "ou", "mas", "como", "mais", "foi", "ser",
+            "esta", "este", "isso", "nao");
+
+    static List<String> tokenize(final String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * @param keepStopwords usado nas consultas por prefixo, em que "de*" deve expandir para "deploy"
+     */
+    static List<String> tokenize(final String text, final boolean keepStopwords) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        var decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        var token = new StringBuilder();
+        for (var i = 0; i < decomposed.length(); i++) {
+            var c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else {
+                addToken(tokens, token, keepStopwords);
+            }
+        }
+        addToken(tokens, token, keepStopwords);
+        return tokens;
+    }
+
+    private static void addToken(final List<String> tokens, final StringBuilder token, final boolean keepStopwords) {
+        if (token.isEmpty()) {
+            return;
+        }
+        var term = token.toString().toLowerCase(Locale.ROOT);
+        token.setLength(0);
+        if (keepStopwords || !STOPWORDS.contains(term)) {
+            tokens.add(term);
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+package br.com.dio.ui;
+
+import br.com.dio.logging.LoggingStats;
+import br.com.dio.persistence.metrics.QueryMetrics;
+import br.com.dio.persistence.repository.InMemoryBoardStore;
+import br.com.dio.service.BoardChangeFeed;
+import br.com.dio.service.BoardService;
+import br.com.dio.service.BoardStructureCache;
+import br.com.dio.service.CardSearchIndex;
+import br.com.dio.service.CardSearchService;
+import br.com.dio.service.GroupCommitExecutor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Scanner;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ConnectionConfig.getPoolStats;
+
+public class AdminMenu {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Scanner scanner = new Scanner(System.in).useDelimiter("\n");
+
+    public void execute() {
+        try {
+            System.out.println("Administração, selecione a operação desejada");
+            var option = -1;
+            while (option != 13) {
+                System.out.println("1 - Ver métricas de SQL");
+                System.out.println("2 - Ver estatísticas do pool de conexões");
+                System.out.println("3 - Ver estatísticas do cache de estrutura dos boards");
+                System.out.println("4 - Ver filas dos appenders assíncronos de log");
+                System.out.println("5 - Exportar métricas de SQL para arquivo");
+                System.out.println("6 - Zerar métricas de SQL");
+                System.out.println("7 - Recalcular contadores de cards das colunas");
+                System.out.println("8 - Ver assinantes do feed de alterações");
+                System.out.println("9 - Ver estado do repositório em memória");
+                System.out.println("10 - Ver estatísticas do índice de busca");
+                System.out.println("11 - Reconstruir o índice de busca");
+                System.out.println("12 - Ver estatísticas do group commit");
+                System.out.println("13 - Voltar para o menu anterior");
+                option = scanner.nextInt();
+                switch (option) {
+                    case 1 -> showQueryStats();
+                    case 2 -> showPoolStats();
+                    case 3 -> showCacheStats();
+                    case 4 -> showLoggingStats();
+                    case 5 -> dumpQueryStats();
+                    case 6 -> resetQueryStats();
+                    case 7 -> repairCardCounters();
+                    case 8 -> showChangeFeedStats();
+                    case 9 -> showWriteBehindStats();
+                    case 10 -> showSearchIndexStats();
+                    case 11 -> rebuildSearchIndex();
+                    case 12 -> showGroupCommitStats();
+                    case 13 -> System.out.println("Voltando para o menu anterior");
+                    default -> System.out.println("Opção inválida, informe uma opção do menu");
+                }
+            }
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+            System.exit(0);
+        }
+    }
+
+    private void showQueryStats() {
+        var metrics = QueryMetrics.getInstance();
+        System.out.println(QueryMetrics.format(metrics.getAcquireStats()));
+        var stats = metrics.getQueryStats();
+        if (stats.isEmpty()) {
+            System.out.println("Nenhuma consulta registrada até o momento");
+            return;
+        }
+        stats.forEach(s -> System.out.println(QueryMetrics.format(s)));
+    }
+
+    private void showPoolStats() {
+        var stats = getPoolStats();
+        System.out.printf("Conexões ativas: %s, ociosas: %s, total: %s, threads aguardando: %s\n",
+                stats.activeConnections(), stats.idleConnections(), stats.totalConnections(), stats.threadsAwaiting());
+        System.out.printf("Aquisições: %s, espera média: %.2fms, espera máxima: %.2fms, timeouts: %s\n",
+                stats.acquisitions(), stats.averageWaitMillis(), stats.maxWaitMillis(), stats.timeouts());
+    }
+
+    private void showChangeFeedStats() {
+        var stats = BoardChangeFeed.getInstance().getStats();
+        System.out.printf("Assinantes: %s, alterações publicadas: %s, entregues: %s, descartadas: %s\n",
+                stats.subscribers(), stats.published(), stats.delivered(), stats.dropped());
+    }
+
+    private void showWriteBehindStats() {
+        InMemoryBoardStore.getInstance().ifPresentOrElse(store -> {
+            var stats = store.getStats();
+            System.out.printf("Em memória: %s cards em %s colunas, unidades pendentes: %s, gravadas: %s, lotes com erro: %s, "
+                            + "no dead-letter: %s\n", stats.cards(), stats.columns(), stats.pendingUnits(),
+                    stats.flushedUnits(), stats.failedBatches(), stats.quarantinedUnits());
+        }, () -> System.out.println("Os cards estão sendo lidos e gravados direto no banco (repository.type=jdbc)"));
+    }
+
+    private void showSearchIndexStats() {
+        var stats = CardSearchIndex.getInstance().getStats();
+        if (!stats.built()) {
+            System.out.println("O índice de busca ainda não foi montado, ele é montado na primeira busca");
+            return;
+        }
+        System.out.printf("Índice de busca: %s cards (%s excluídos aguardando reconstrução), %s termos, %s postings, ~%s KiB, montado em %s ms\n",
+                stats.documents(), stats.deletedDocuments(), stats.terms(), stats.postings(),
+                stats.estimatedBytes() / 1024, stats.lastBuildMillis());
+    }
+
+    private void rebuildSearchIndex() throws SQLException {
+        try (var connection = getConnection()) {
+            var stats = new CardSearchService(connection).rebuild();
+            System.out.printf("Índice reconstruído em %s ms com %s cards\n", stats.lastBuildMillis(), stats.documents());
+        }
+    }
+
+    private void showGroupCommitStats() {
+        GroupCommitExecutor.getInstance().ifPresentOrElse(executor -> {
+            var stats = executor.getStats();
+            System.out.printf("Group commit: %s operações em %s lotes (média %.1f por lote), recusadas: %s, lotes refeitos um a um: %s, na fila: %s\n",
+                    stats.operations(), stats.batches(), stats.averageBatchSize(), stats.failedOperations(),
+                    stats.fallbackBatches(), stats.queued());
+        }, () -> System.out.println("O group commit está desligado (groupCommit.enabled=false)"));
+    }
+
+    private void showCacheStats() {
+        var stats = BoardStructureCache.getInstance().getStats();
+        System.out.printf("Cache de estrutura: %s/%s entradas, acertos: %s, faltas: %s, remoções: %s\n",
+                stats.size(), stats.maxSize(), stats.hits(), stats.misses(), stats.evictions());
+    }
+
+    private void showLoggingStats() {
+        var stats = LoggingStats.getAsyncAppenderStats();
+        if (stats.isEmpty()) {
+            System.out.println("Nenhum appender assíncrono de log configurado");
+            return;
+        }
+        stats.forEach(s -> System.out.printf("%s: fila %s/%s, descartados: %s, perdidos com fila cheia: %s\n",
+                s.name(), s.queueDepth(), s.queueSize(), s.discarded(), s.dropped()));
+    }
+
+    private void dumpQueryStats() {
+        var defaultFile = "logs/sql-metrics-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".txt";
+        System.out.printf("Informe o arquivo de destino ou '-' para usar %s\n", defaultFile);
+        var informed = scanner.next().trim();
+        var file = Path.of(informed.isEmpty() || informed.equals("-") ? defaultFile : informed);
+        try {
+            QueryMetrics.getInstance().dump(file);
+            System.out.printf("Métricas exportadas para %s\n", file.toAbsolutePath());
+        } catch (IOException ex) {
+            System.out.printf("Não foi possível exportar as métricas: %s\n", ex.getMessage());
+        }
+    }
+
+    private void resetQueryStats() {
+        QueryMetrics.getInstance().reset();
+        System.out.println("Métricas de SQL zeradas");
+    }
+
+    private void repairCardCounters() throws SQLException {
+        try(var connection = getConnection()){
+            var repaired = new BoardService(connection).repairAllCardCounters();
+            System.out.printf("Contadores de cards recalculados em %s colunas\n", repaired);
+        }
+    }
+
+}
@@ -1,32 +1,49 @@
 package br.com.dio.ui;
 
-import br.com.dio.dto.BoardColumnInfoDTO;
+import br.com.dio.dto.BoardColumnStructureDTO;
+import br.com.dio.dto.BoardStructureDTO;
+import br.com.dio.dto.DailyThroughputDTO;
+import br.com.dio.exception.EntityNotFoundException;
 import br.com.dio.persistence.entity.BoardColumnEntity;
-import br.com.dio.persistence.entity.BoardEntity;
 import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.FlowTimeMetricEnum;
 import br.com.dio.service.BoardColumnQueryService;
 import br.com.dio.service.BoardQueryService;
 import br.com.dio.service.CardQueryService;
 import br.com.dio.service.CardService;
+import br.com.dio.service.FlowAnalyticsService;
+import br.com.dio.service.LocalBoardSnapshot;
 import lombok.AllArgsConstructor;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
 
 import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ConnectionConfig.getProperty;
+import static java.time.ZoneOffset.UTC;
 
 @AllArgsConstructor
 public class BoardMenu {
 
+    private static final int COLUMN_PAGE_SIZE =
+            Integer.parseInt(getProperty("app.columnPageSize", "500").trim());
+    private static final int FLOW_METRICS_DAYS = 14;
+    private static final int MOST_BLOCKED_CARDS = 5;
+
     private final Scanner scanner = new Scanner(System.in).useDelimiter("\n");
 
-    private final BoardEntity entity;
+    private final Long boardId;
 
     public void execute() {
         try {
-            System.out.printf("Bem vindo ao board %s, selecione a operação desejada\n", entity.getId());
+            System.out.printf("Bem vindo ao board %s, selecione a operação desejada\n", boardId);
             var option = -1;
-            while (option != 9) {
+            while (option != 10) {
                 System.out.println("1 - Criar um card");
                 System.out.println("2 - Mover um card");
                 System.out.println("3 - Bloquear um card");
@@ -35,8 +52,9 @@ public class BoardMenu {
                 System.out.println("6 - Ver board");
                 System.out.println("7 - Ver coluna com cards");
                 System.out.println("8 - Ver card");
-                System.out.println("9 - Voltar para o menu anterior um card");
-                System.out.println("10 - Sair");
+                System.out.println("9 - Ver métricas de fluxo");
+                System.out.println("10 - Voltar para o menu anterior um card");
+                System.out.println("11 - Sair");
                 option = scanner.nextInt();
                 switch (option) {
                     case 1 -> createCard();
@@ -47,8 +65,9 @@ public class BoardMenu {
                     case 6 -> showBoard();
                     case 7 -> showColumn();
                     case 8 -> showCard();
-                    case 9 -> System.out.println("Voltando para o menu anterior");
-                    case 10 -> System.exit(0);
+                    case 9 -> showFlowMetrics();
+                    case 10 -> System.out.println("Voltando para o menu anterior");
+                    case 11 -> System.exit(0);
                     default -> System.out.println("Opção inválida, informe uma opção do menu");
                 }
             }
@@ -64,8 +83,11 @@ public class BoardMenu {
         card.setTitle(scanner.next());
         System.out.println("Informe a descrição do card");
         card.setDescription(scanner.next());
-        card.setBoardColumn(entity.getInitialColumn());
         try(var connection = getConnection()){
+            var initialColumn = new BoardColumnEntity();
+            initialColumn.setId(findStructure(connection).initialColumn().id());
+            card.setBoardColumn(initialColumn);
+            releaseSnapshot();
             new CardService(connection).create(card);
         }
     }
@@ -73,10 +95,9 @@ public class BoardMenu {
     private void moveCardToNextColumn() throws SQLException {
         System.out.println("Informe o id do card que deseja mover para a próxima coluna");
         var cardId = scanner.nextLong();
-        var boardColumnsInfo = entity.getBoardColumns().stream()
-                .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
-                .toList();
         try(var connection = getConnection()){
+            var boardColumnsInfo = findStructure(connection).columnsInfo();
+            releaseSnapshot();
             new CardService(connection).moveToNextColumn(cardId, boardColumnsInfo);
         } catch (RuntimeException ex){
             System.out.println(ex.getMessage());
@@ -88,10 +109,9 @@ public class BoardMenu {
         var cardId = scanner.nextLong();
         System.out.println("Informe o motivo do bloqueio do card");
         var reason = scanner.next();
-        var boardColumnsInfo = entity.getBoardColumns().stream()
-                .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
-                .toList();
         try(var connection = getConnection()){
+            var boardColumnsInfo = findStructure(connection).columnsInfo();
+            releaseSnapshot();
             new CardService(connection).block(cardId, reason, boardColumnsInfo);
         } catch (RuntimeException ex){
             System.out.println(ex.getMessage());
@@ -104,6 +124,7 @@ public class BoardMenu {
         System.out.println("Informe o motivo do desbloqueio do card");
         var reason = scanner.next();
         try(var connection = getConnection()){
+            releaseSnapshot();
             new CardService(connection).unblock(cardId, reason);
         } catch (RuntimeException ex){
             System.out.println(ex.getMessage());
@@ -113,45 +134,101 @@ public class BoardMenu {
     private void cancelCard() throws SQLException {
         System.out.println("Informe o id do card que deseja mover para a coluna de cancelamento");
         var cardId = scanner.nextLong();
-        var cancelColumn = entity.getCancelColumn();
-        var boardColumnsInfo = entity.getBoardColumns().stream()
-                .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
-                .toList();
         try(var connection = getConnection()){
-            new CardService(connection).cancel(cardId, cancelColumn.getId(), boardColumnsInfo);
+            var structure = findStructure(connection);
+            releaseSnapshot();
+            new CardService(connection).cancel(cardId, structure.cancelColumn().id(), structure.columnsInfo());
         } catch (RuntimeException ex){
             System.out.println(ex.getMessage());
         }
     }
 
     private void showBoard() throws SQLException {
-        try(var connection = getConnection()){
-            var optional = new BoardQueryService(connection).showBoardDetails(entity.getId());
-            optional.ifPresent(b -> {
-                System.out.printf("Board [%s,%s]\n", b.id(), b.name());
-                b.columns().forEach(c ->
-                        System.out.printf("Coluna [%s] tipo: [%s] tem %s cards\n", c.name(), c.kind(), c.cardsAmount())
-                );
-            });
+        var optional = LocalBoardSnapshot.getInstance().flatMap(s -> s.findDetails(boardId));
+        if (optional.isPresent()){
+            printSnapshotNotice();
+        } else {
+            try(var connection = getConnection()){
+                optional = new BoardQueryService(connection).showBoardDetails(boardId);
+            }
         }
+        optional.ifPresent(b -> {
+            System.out.printf("Board [%s,%s]\n", b.id(), b.name());
+            b.columns().forEach(c ->
+                    System.out.printf("Coluna [%s] tipo: [%s] tem %s cards\n", c.name(), c.kind(), c.cardsAmount())
+            );
+        });
     }
 
     private void showColumn() throws SQLException {
-        var columnsIds = entity.getBoardColumns().stream().map(BoardColumnEntity::getId).toList();
+        var structure = LocalBoardSnapshot.getInstance().flatMap(s -> s.findStructure(boardId)).orElse(null);
+        if (structure == null){
+            try(var connection = getConnection()){
+                structure = findStructure(connection);
+            }
+        }
+        var columnsIds = structure.columns().stream().map(BoardColumnStructureDTO::id).toList();
         var selectedColumnId = -1L;
         while (!columnsIds.contains(selectedColumnId)){
-            System.out.printf("Escolha uma coluna do board %s pelo id\n", entity.getName());
-            entity.getBoardColumns().forEach(c -> System.out.printf("%s - %s [%s]\n", c.getId(), c.getName(), c.getKind()));
+            System.out.printf("Escolha uma coluna do board %s pelo id\n", structure.name());
+            structure.columns().forEach(c -> System.out.printf("%s - %s [%s]\n", c.id(), c.name(), c.kind()));
             selectedColumnId = scanner.nextLong();
         }
+        if (showColumnFromSnapshot(selectedColumnId)){
+            return;
+        }
         try(var connection = getConnection()){
-            var column = new BoardColumnQueryService(connection).findById(selectedColumnId);
-            column.ifPresent(co -> {
-                System.out.printf("Coluna %s tipo %s\n", co.getName(), co.getKind());
-                co.getCards().forEach(ca -> System.out.printf("Card %s - %s\nDescrição: %s",
-                        ca.getId(), ca.getTitle(), ca.getDescription()));
-            });
+            var queryService = new BoardColumnQueryService(connection);
+            var column = queryService.findHeaderById(selectedColumnId);
+            if (column.isPresent()){
+                var co = column.get();
+                System.out.printf("Coluna %s tipo %s tem %s cards\n", co.name(), co.kind(), co.cardsAmount());
+                try(var cards = queryService.streamCards(co.id(), COLUMN_PAGE_SIZE)){
+                    cards.forEach(this::printCard);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mostra a coluna pelo snapshot local; só abre conexão se a coluna tiver mais cards que a primeira página.
+     */
+    private boolean showColumnFromSnapshot(final Long columnId) throws SQLException {
+        var snapshot = LocalBoardSnapshot.getInstance();
+        var column = snapshot.flatMap(s -> s.findColumn(boardId, columnId));
+        Optional<List<CardEntity>> firstPage = snapshot.flatMap(s -> s.findFirstCards(boardId, columnId));
+        if (column.isEmpty() || firstPage.isEmpty()){
+            return false;
         }
+        printSnapshotNotice();
+        var co = column.get();
+        System.out.printf("Coluna %s tipo %s tem %s cards\n", co.name(), co.kind(), co.cardsAmount());
+        firstPage.get().forEach(this::printCard);
+        if (firstPage.get().size() < snapshot.get().getPageSize()){
+            return true;
+        }
+        try(var connection = getConnection();
+            var cards = new BoardColumnQueryService(connection)
+                    .streamCards(co.id(), firstPage.get(), snapshot.get().getPageSize())){
+            cards.skip(firstPage.get().size()).forEach(this::printCard);
+        }
+        return true;
+    }
+
+    private void printCard(final CardEntity card){
+        System.out.printf("Card %s - %s\nDescrição: %s\n", card.getId(), card.getTitle(), card.getDescription());
+    }
+
+    private void printSnapshotNotice(){
+        LocalBoardSnapshot.getInstance().ifPresent(s ->
+                System.out.printf("(dados do snapshot local de %s)\n", s.getWrittenAt()));
+    }
+
+    /**
+     * Depois de uma alteração, o resumo e os cards do board passam a vir do banco.
+     */
+    private void releaseSnapshot(){
+        LocalBoardSnapshot.getInstance().ifPresent(s -> s.release(boardId));
     }
 
     private void showCard() throws SQLException {
@@ -166,11 +243,48 @@ public class BoardMenu {
                                 System.out.println(c.blocked() ?
                                         "Está bloqueado. Motivo: " + c.blockReason() :
                                         "Não está bloqueado");
-                                System.out.printf("Já foi bloqueado %s vezes\n", c.blocksAmount());
+                                System.out.printf("Já foi bloqueado %s vezes, por %s no total\n",
+                                        c.blocksAmount(), formatDuration(c.blockedSeconds()));
                                 System.out.printf("Está no momento na coluna %s - %s\n", c.columnId(), c.columnName());
                             },
                             () -> System.out.printf("Não existe um card com o id %s\n", selectedCardId));
         }
     }
 
+    private void showFlowMetrics() throws SQLException {
+        try(var connection = getConnection()){
+            var service = new FlowAnalyticsService(connection);
+            service.findColumnStats(boardId).forEach(c -> System.out.printf(
+                    "Coluna [%s]: %s cards agora, %s saídas, tempo médio %s, tempo máximo %s\n",
+                    c.name(), c.wip(), c.departures(),
+                    formatDuration(c.averageDwellSeconds()), formatDuration(c.maxDwellSeconds())));
+            var today = LocalDate.now(UTC);
+            var throughput = service.findThroughput(boardId, today.minusDays(FLOW_METRICS_DAYS - 1), today);
+            System.out.printf("Cards finalizados nos últimos %s dias: %s\n", FLOW_METRICS_DAYS,
+                    throughput.stream().mapToLong(DailyThroughputDTO::finished).sum());
+            for (var metric : FlowTimeMetricEnum.values()){
+                var times = service.findFlowTimes(boardId, metric);
+                System.out.printf("%s time de %s cards: p50 %s, p85 %s, p95 %s\n", metric, times.cards(),
+                        formatDuration(times.p50Seconds()), formatDuration(times.p85Seconds()),
+                        formatDuration(times.p95Seconds()));
+            }
+            System.out.println("Cards mais bloqueados:");
+            new BoardQueryService(connection).findMostBlockedCards(boardId, MOST_BLOCKED_CARDS).forEach(c ->
+                    System.out.printf("Card %s - %s: %s bloqueios, %s bloqueado%s\n",
+                            c.id(), c.title(), c.blocksAmount(), formatDuration(c.blockedSeconds()),
+                            c.blocked() ? " (bloqueado agora)" : ""));
+        }
+    }
+
+    private String formatDuration(final long seconds){
+        var duration = Duration.ofSeconds(seconds);
+        return "%sd %sh %smin".formatted(duration.toDays(), duration.toHoursPart(), duration.toMinutesPart());
+    }
+
+    private BoardStructureDTO findStructure(final Connection connection) throws SQLException {
+        return new BoardQueryService(connection).findStructure(boardId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "O board de id %s não foi encontrado".formatted(boardId)));
+    }
+
 }
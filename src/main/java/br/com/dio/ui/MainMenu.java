@@ -1,11 +1,18 @@
 package br.com.dio.ui;
 
+import br.com.dio.dto.BoardSnapshotStatsDTO;
+import br.com.dio.exception.EntityNotFoundException;
 import br.com.dio.persistence.entity.BoardColumnEntity;
 import br.com.dio.persistence.entity.BoardColumnKindEnum;
 import br.com.dio.persistence.entity.BoardEntity;
 import br.com.dio.service.BoardQueryService;
 import br.com.dio.service.BoardService;
+import br.com.dio.service.BoardSnapshotService;
+import br.com.dio.service.CardSearchService;
+import br.com.dio.service.LocalBoardSnapshot;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,6 +26,8 @@ import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
 
 public class MainMenu {
 
+    private static final int SEARCH_PAGE_SIZE = 20;
+
     private final Scanner scanner = new Scanner(System.in).useDelimiter("\n");
 
     public void execute() throws SQLException {
@@ -28,13 +37,21 @@ public class MainMenu {
             System.out.println("1 - Criar um novo board");
             System.out.println("2 - Selecionar um board existente");
             System.out.println("3 - Excluir um board");
-            System.out.println("4 - Sair");
+            System.out.println("4 - Buscar cards");
+            System.out.println("5 - Exportar um board para arquivo");
+            System.out.println("6 - Importar um board de arquivo");
+            System.out.println("7 - Administração");
+            System.out.println("8 - Sair");
             option = scanner.nextInt();
             switch (option){
                 case 1 -> createBoard();
                 case 2 -> selectBoard();
                 case 3 -> deleteBoard();
-                case 4 -> System.exit(0);
+                case 4 -> searchCards();
+                case 5 -> exportBoard();
+                case 6 -> importBoard();
+                case 7 -> new AdminMenu().execute();
+                case 8 -> System.exit(0);
                 default -> System.out.println("Opção inválida, informe uma opção do menu");
             }
         }
@@ -83,19 +100,24 @@ public class MainMenu {
     private void selectBoard() throws SQLException {
         System.out.println("Informe o id do board que deseja selecionar");
         var id = scanner.nextLong();
-        try(var connection = getConnection()){
-            var queryService = new BoardQueryService(connection);
-            var optional = queryService.findById(id);
-            optional.ifPresentOrElse(
-                    b -> new BoardMenu(b).execute(),
-                    () -> System.out.printf("Não foi encontrado um board com id %s\n", id)
-            );
+        // com o snapshot local o board abre sem esperar o banco
+        var optional = LocalBoardSnapshot.getInstance().flatMap(s -> s.findStructure(id));
+        if (optional.isEmpty()){
+            try(var connection = getConnection()){
+                var queryService = new BoardQueryService(connection);
+                optional = queryService.findStructure(id);
+            }
         }
+        optional.ifPresentOrElse(
+                b -> new BoardMenu(b.id()).execute(),
+                () -> System.out.printf("Não foi encontrado um board com id %s\n", id)
+        );
     }
 
     private void deleteBoard() throws SQLException {
         System.out.println("Informe o id do board que será excluido");
         var id = scanner.nextLong();
+        LocalBoardSnapshot.getInstance().ifPresent(s -> s.release(id));
         try(var connection = getConnection()){
             var service = new BoardService(connection);
             if (service.delete(id)){
@@ -106,6 +128,53 @@ public class MainMenu {
         }
     }
 
+    private void searchCards() throws SQLException {
+        System.out.println("Informe os termos da busca (termine um termo com * para buscar por prefixo)");
+        var query = scanner.next();
+        try(var connection = getConnection()){
+            var page = new CardSearchService(connection).search(query, 0, SEARCH_PAGE_SIZE);
+            System.out.printf("%s cards encontrados\n", page.total());
+            page.hits().forEach(h -> System.out.printf("Card %s - %s\n", h.id(), h.title()));
+        } catch (IllegalArgumentException ex){
+            System.out.println(ex.getMessage());
+        }
+    }
+
+    private void exportBoard() throws SQLException {
+        System.out.println("Informe o id do board que será exportado");
+        var id = scanner.nextLong();
+        System.out.println("Informe o caminho do arquivo de destino");
+        var path = Path.of(scanner.next().trim());
+        try(var connection = getConnection()){
+            var stats = new BoardSnapshotService(connection).export(id, path);
+            System.out.printf("Board %s exportado para %s\n", id, path.toAbsolutePath());
+            printSnapshotStats(stats);
+        } catch (EntityNotFoundException ex){
+            System.out.println(ex.getMessage());
+        } catch (IOException ex){
+            System.out.printf("Não foi possível gravar o arquivo: %s\n", ex.getMessage());
+        }
+    }
+
+    private void importBoard() throws SQLException {
+        System.out.println("Informe o caminho do arquivo exportado");
+        var path = Path.of(scanner.next().trim());
+        try(var connection = getConnection()){
+            var stats = new BoardSnapshotService(connection).importBoard(path);
+            System.out.printf("Board importado com o id %s\n", stats.boardId());
+            printSnapshotStats(stats);
+        } catch (IllegalStateException ex){
+            System.out.println(ex.getMessage());
+        } catch (IOException ex){
+            System.out.printf("Não foi possível ler o arquivo: %s\n", ex.getMessage());
+        }
+    }
+
+    private void printSnapshotStats(final BoardSnapshotStatsDTO stats){
+        System.out.printf("%s colunas, %s cards e %s bloqueios (%s bytes) em %s ms: %.0f linhas/s\n",
+                stats.columns(), stats.cards(), stats.blocks(), stats.bytes(), stats.millis(), stats.rowsPerSecond());
+    }
+
     private BoardColumnEntity createColumn(final String name, final BoardColumnKindEnum kind, final int order){
         var boardColumn = new BoardColumnEntity();
         boardColumn.setName(name);
@@ -0,0 +1,48 @@
+--liquibase formatted sql
+--changeset junior:202610181000-1
+--comment: add denormalized cards_amount counter to boards_columns
+
+ALTER TABLE BOARDS_COLUMNS ADD COLUMN cards_amount INT NOT NULL DEFAULT 0;
+
+--rollback ALTER TABLE BOARDS_COLUMNS DROP COLUMN cards_amount;
+
+--changeset junior:202610181000-2
+--comment: backfill cards_amount from cards
+
+UPDATE BOARDS_COLUMNS bc
+   SET bc.cards_amount = (SELECT COUNT(c.id)
+                            FROM CARDS c
+                           WHERE c.board_column_id = bc.id);
+
+--rollback UPDATE BOARDS_COLUMNS SET cards_amount = 0;
+
+--changeset junior:202610181000-3 splitStatements:false
+--comment: keep cards_amount current on card insert
+
+CREATE TRIGGER cards_amount_after_insert AFTER INSERT ON CARDS FOR EACH ROW
+    UPDATE BOARDS_COLUMNS
+       SET cards_amount = cards_amount + 1
+     WHERE id = NEW.board_column_id;
+
+--rollback DROP TRIGGER cards_amount_after_insert;
+
+--changeset junior:202610181000-4 splitStatements:false
+--comment: keep cards_amount current when a card changes column
+
+CREATE TRIGGER cards_amount_after_update AFTER UPDATE ON CARDS FOR EACH ROW
+    UPDATE BOARDS_COLUMNS
+       SET cards_amount = cards_amount + IF(id = NEW.board_column_id, 1, -1)
+     WHERE NEW.board_column_id <> OLD.board_column_id
+       AND id IN (OLD.board_column_id, NEW.board_column_id);
+
+--rollback DROP TRIGGER cards_amount_after_update;
+
+--changeset junior:202610181000-5 splitStatements:false
+--comment: keep cards_amount current on card delete
+
+CREATE TRIGGER cards_amount_after_delete AFTER DELETE ON CARDS FOR EACH ROW
+    UPDATE BOARDS_COLUMNS
+       SET cards_amount = cards_amount - 1
+     WHERE id = OLD.board_column_id;
+
+--rollback DROP TRIGGER cards_amount_after_delete;
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+--changeset junior:202610181100
+--comment: index open blocks by card
+
+CREATE INDEX idx_blocks_card_unblocked ON BLOCKS (card_id, unblocked_at);
+
+--rollback CREATE INDEX cards__blocks_fk_idx ON BLOCKS (card_id);
+--rollback DROP INDEX idx_blocks_card_unblocked ON BLOCKS;
@@ -0,0 +1,17 @@
+--liquibase formatted sql
+--changeset junior:202610181200
+--comment: card events table create
+
+CREATE TABLE CARD_EVENTS(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    card_id BIGINT NOT NULL,
+    type VARCHAR(7) NOT NULL,
+    board_column_id BIGINT NOT NULL,
+    reason VARCHAR(255) NULL,
+    occurred_at TIMESTAMP NOT NULL,
+    CONSTRAINT cards__card_events_fk FOREIGN KEY (card_id) REFERENCES CARDS(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_card_events_card_occurred ON CARD_EVENTS (card_id, occurred_at, id);
+
+--rollback DROP TABLE CARD_EVENTS
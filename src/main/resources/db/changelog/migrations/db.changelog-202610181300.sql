@@ -0,0 +1,73 @@
+--liquibase formatted sql
+--changeset junior:202610181300-1
+--comment: card flow position table create
+
+CREATE TABLE CARD_FLOW(
+    card_id BIGINT PRIMARY KEY,
+    board_column_id BIGINT NOT NULL,
+    created_at TIMESTAMP NULL,
+    started_at TIMESTAMP NULL,
+    entered_at TIMESTAMP NOT NULL,
+    CONSTRAINT cards__card_flow_fk FOREIGN KEY (card_id) REFERENCES CARDS(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+--rollback DROP TABLE CARD_FLOW
+
+--changeset junior:202610181300-2
+--comment: per column flow aggregates table create
+
+CREATE TABLE COLUMN_FLOW_STATS(
+    board_column_id BIGINT PRIMARY KEY,
+    arrivals BIGINT NOT NULL DEFAULT 0,
+    departures BIGINT NOT NULL DEFAULT 0,
+    total_dwell_seconds BIGINT NOT NULL DEFAULT 0,
+    max_dwell_seconds BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT boards_columns__column_flow_stats_fk FOREIGN KEY (board_column_id) REFERENCES BOARDS_COLUMNS(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+--rollback DROP TABLE COLUMN_FLOW_STATS
+
+--changeset junior:202610181300-3
+--comment: per column daily flow table create
+
+CREATE TABLE COLUMN_DAILY_FLOW(
+    board_column_id BIGINT NOT NULL,
+    flow_date DATE NOT NULL,
+    board_id BIGINT NOT NULL,
+    arrivals INT NOT NULL DEFAULT 0,
+    departures INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (board_column_id, flow_date),
+    CONSTRAINT boards_columns__column_daily_flow_fk FOREIGN KEY (board_column_id) REFERENCES BOARDS_COLUMNS(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_column_daily_flow_board_date ON COLUMN_DAILY_FLOW (board_id, flow_date);
+
+--rollback DROP TABLE COLUMN_DAILY_FLOW
+
+--changeset junior:202610181300-4
+--comment: lead and cycle time histogram table create
+
+CREATE TABLE FLOW_TIME_BUCKETS(
+    board_id BIGINT NOT NULL,
+    metric VARCHAR(5) NOT NULL,
+    bucket SMALLINT NOT NULL,
+    cards BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (board_id, metric, bucket),
+    CONSTRAINT boards__flow_time_buckets_fk FOREIGN KEY (board_id) REFERENCES BOARDS(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+--rollback DROP TABLE FLOW_TIME_BUCKETS
+
+--changeset junior:202610181300-5
+--comment: backfill flow positions and arrivals of existing cards
+
+INSERT INTO CARD_FLOW (card_id, board_column_id, entered_at)
+SELECT c.id, c.board_column_id, CURRENT_TIMESTAMP
+  FROM CARDS c;
+
+INSERT INTO COLUMN_FLOW_STATS (board_column_id, arrivals)
+SELECT bc.id, bc.cards_amount
+  FROM BOARDS_COLUMNS bc;
+
+--rollback DELETE FROM COLUMN_FLOW_STATS;
+--rollback DELETE FROM CARD_FLOW;
@@ -0,0 +1,36 @@
+--liquibase formatted sql
+--changeset junior:202610181400-1
+--comment: add per card block statistics
+
+ALTER TABLE CARDS ADD COLUMN blocks_amount INT NOT NULL DEFAULT 0;
+ALTER TABLE CARDS ADD COLUMN blocked_seconds BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE CARDS ADD COLUMN open_block_id BIGINT NULL;
+
+--rollback ALTER TABLE CARDS DROP COLUMN open_block_id;
+--rollback ALTER TABLE CARDS DROP COLUMN blocked_seconds;
+--rollback ALTER TABLE CARDS DROP COLUMN blocks_amount;
+
+--changeset junior:202610181400-2
+--comment: backfill per card block statistics from blocks
+
+UPDATE CARDS c
+   SET c.blocks_amount = (SELECT COUNT(b.id)
+                            FROM BLOCKS b
+                           WHERE b.card_id = c.id),
+       c.blocked_seconds = (SELECT COALESCE(SUM(TIMESTAMPDIFF(SECOND, b.blocked_at, b.unblocked_at)), 0)
+                              FROM BLOCKS b
+                             WHERE b.card_id = c.id
+                               AND b.unblocked_at IS NOT NULL),
+       c.open_block_id = (SELECT MAX(b.id)
+                            FROM BLOCKS b
+                           WHERE b.card_id = c.id
+                             AND b.unblocked_at IS NULL);
+
+--rollback UPDATE CARDS SET blocks_amount = 0, blocked_seconds = 0, open_block_id = NULL;
+
+--changeset junior:202610181400-3
+--comment: index most blocked cards per column
+
+CREATE INDEX idx_cards_column_blocks ON CARDS (board_column_id, blocks_amount, blocked_seconds);
+
+--rollback DROP INDEX idx_cards_column_blocks ON CARDS;
@@ -0,0 +1,12 @@
+--liquibase formatted sql
+--changeset junior:202610181500
+--comment: write-behind checkpoint table create
+
+CREATE TABLE WRITE_BEHIND_CHECKPOINT(
+    id TINYINT PRIMARY KEY,
+    last_sequence BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+INSERT INTO WRITE_BEHIND_CHECKPOINT (id, last_sequence) VALUES (1, 0);
+
+--rollback DROP TABLE WRITE_BEHIND_CHECKPOINT
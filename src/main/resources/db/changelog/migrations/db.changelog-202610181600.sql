@@ -0,0 +1,56 @@
+--liquibase formatted sql
+--changeset junior:202610181600-1 splitStatements:false
+--comment: record CREATE events on card insert
+
+CREATE TRIGGER card_events_after_card_insert AFTER INSERT ON CARDS FOR EACH ROW
+    INSERT INTO CARD_EVENTS (card_id, type, board_column_id, reason, occurred_at)
+    SELECT NEW.id, 'CREATE', NEW.board_column_id, NULL, CURRENT_TIMESTAMP
+      FROM DUAL
+     WHERE @card_events_by_app IS NULL;
+
+--rollback DROP TRIGGER card_events_after_card_insert;
+
+--changeset junior:202610181600-2 splitStatements:false
+--comment: record MOVE and CANCEL events when a card changes column
+
+CREATE TRIGGER card_events_after_card_update AFTER UPDATE ON CARDS FOR EACH ROW
+    INSERT INTO CARD_EVENTS (card_id, type, board_column_id, reason, occurred_at)
+    SELECT NEW.id, IF(bc.kind = 'CANCEL', 'CANCEL', 'MOVE'), NEW.board_column_id, NULL, CURRENT_TIMESTAMP
+      FROM BOARDS_COLUMNS bc
+     WHERE bc.id = NEW.board_column_id
+       AND NEW.board_column_id <> OLD.board_column_id
+       AND @card_events_by_app IS NULL;
+
+--rollback DROP TRIGGER card_events_after_card_update;
+
+--changeset junior:202610181600-3 splitStatements:false
+--comment: record BLOCK events on block insert (and UNBLOCK for blocks inserted already closed)
+
+CREATE TRIGGER card_events_after_block_insert AFTER INSERT ON BLOCKS FOR EACH ROW
+    INSERT INTO CARD_EVENTS (card_id, type, board_column_id, reason, occurred_at)
+    SELECT c.id, 'BLOCK', c.board_column_id, NEW.block_reason, NEW.blocked_at
+      FROM CARDS c
+     WHERE c.id = NEW.card_id
+       AND @card_events_by_app IS NULL
+     UNION ALL
+    SELECT c.id, 'UNBLOCK', c.board_column_id, NEW.unblock_reason, NEW.unblocked_at
+      FROM CARDS c
+     WHERE c.id = NEW.card_id
+       AND NEW.unblocked_at IS NOT NULL
+       AND @card_events_by_app IS NULL;
+
+--rollback DROP TRIGGER card_events_after_block_insert;
+
+--changeset junior:202610181600-4 splitStatements:false
+--comment: record UNBLOCK events when a block is closed
+
+CREATE TRIGGER card_events_after_block_update AFTER UPDATE ON BLOCKS FOR EACH ROW
+    INSERT INTO CARD_EVENTS (card_id, type, board_column_id, reason, occurred_at)
+    SELECT c.id, 'UNBLOCK', c.board_column_id, NEW.unblock_reason, NEW.unblocked_at
+      FROM CARDS c
+     WHERE c.id = NEW.card_id
+       AND OLD.unblocked_at IS NULL
+       AND NEW.unblocked_at IS NOT NULL
+       AND @card_events_by_app IS NULL;
+
+--rollback DROP TRIGGER card_events_after_block_update;
@@ -0,0 +1,14 @@
+--liquibase formatted sql
+--changeset junior:202610181700
+--comment: flow aggregation checkpoint table create
+
+CREATE TABLE FLOW_AGGREGATION_CHECKPOINT(
+    id TINYINT PRIMARY KEY,
+    last_event_id BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+-- eventos anteriores já foram somados na transação de cada operação
+INSERT INTO FLOW_AGGREGATION_CHECKPOINT (id, last_event_id)
+SELECT 1, COALESCE(MAX(id), 0) FROM CARD_EVENTS;
+
+--rollback DROP TABLE FLOW_AGGREGATION_CHECKPOINT
@@ -0,0 +1,11 @@
+--liquibase formatted sql
+--changeset junior:202610181800
+--comment: flow aggregation gaps table create
+
+-- ids de CARD_EVENTS abaixo do checkpoint que ainda não estavam visíveis (transação em andamento ou desfeita)
+CREATE TABLE FLOW_AGGREGATION_GAPS(
+    event_id BIGINT PRIMARY KEY,
+    missing_since TIMESTAMP NOT NULL
+) ENGINE=InnoDB;
+
+--rollback DROP TABLE FLOW_AGGREGATION_GAPS
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+--changeset junior:202610181900
+--comment: drop card event triggers, events are batch-inserted by the application on commit
+
+DROP TRIGGER IF EXISTS card_events_after_card_insert;
+DROP TRIGGER IF EXISTS card_events_after_card_update;
+DROP TRIGGER IF EXISTS card_events_after_block_insert;
+DROP TRIGGER IF EXISTS card_events_after_block_update;
+
+--rollback empty
@@ -0,0 +1,117 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.CardBlockStatsDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do BlockDAO")
+class BlockDAOTest {
+
+    private Connection connection;
+    private BlockDAO blockDAO;
+    private CardDAO cardDAO;
+    private List<BoardColumnEntity> columns;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:block-dao;MODE=MySQL");
+        try (var statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        }
+        var board = new BoardEntity();
+        board.setName("Board de Teste");
+        new BoardDAO(connection).insert(board);
+        columns = List.of(
+                createColumn(board, "A Fazer", BoardColumnKindEnum.INITIAL, 0),
+                createColumn(board, "Fazendo", BoardColumnKindEnum.PENDING, 1));
+        new BoardColumnDAO(connection).insert(columns);
+        blockDAO = new BlockDAO(connection);
+        cardDAO = new CardDAO(connection);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Deve manter quantidade de bloqueios e bloqueio aberto no card ao bloquear e desbloquear")
+    void shouldMaintainBlockStatsOnWrite() throws SQLException {
+        // Given
+        var card = createCard(columns.get(0));
+        var blockable = List.of(columns.get(0).getId());
+
+        // When
+        assertTrue(blockDAO.blockIfUnblocked("Aguardando cliente", card.getId(), blockable));
+        assertFalse(blockDAO.blockIfUnblocked("De novo", card.getId(), blockable));
+        var blocked = cardDAO.findById(card.getId()).orElseThrow();
+        assertTrue(blockDAO.unblock("Cliente respondeu", card.getId()));
+        var unblocked = cardDAO.findById(card.getId()).orElseThrow();
+
+        // Then
+        assertTrue(blocked.blocked());
+        assertEquals("Aguardando cliente", blocked.blockReason());
+        assertEquals(1, blocked.blocksAmount());
+        assertFalse(unblocked.blocked());
+        assertEquals(1, unblocked.blocksAmount());
+        assertTrue(cardDAO.findColumnStates(List.of(card.getId())).values().stream().noneMatch(s -> s.blocked()));
+    }
+
+    @Test
+    @DisplayName("Deve listar os cards mais bloqueados de todas as colunas")
+    void shouldListMostBlockedCardsAcrossColumns() throws SQLException {
+        // Given
+        var once = createCard(columns.get(0));
+        var twice = createCard(columns.get(1));
+        createCard(columns.get(1));
+        blockDAO.block("Primeiro", once.getId());
+        blockDAO.unblock("Fim", once.getId());
+        blockDAO.block("Primeiro", twice.getId());
+        blockDAO.unblock("Fim", twice.getId());
+        blockDAO.block("Segundo", twice.getId());
+
+        // When
+        var mostBlocked = cardDAO.findMostBlocked(columns.stream().map(BoardColumnEntity::getId).toList(), 5);
+
+        // Then
+        assertEquals(List.of(twice.getId(), once.getId()), mostBlocked.stream().map(CardBlockStatsDTO::id).toList());
+        assertTrue(mostBlocked.get(0).blocked());
+        assertEquals(2, mostBlocked.get(0).blocksAmount());
+    }
+
+    private CardEntity createCard(final BoardColumnEntity column) throws SQLException {
+        var card = new CardEntity();
+        card.setTitle("Card");
+        card.setDescription("Descrição");
+        card.setBoardColumn(column);
+        return cardDAO.insert(card);
+    }
+
+    private BoardColumnEntity createColumn(final BoardEntity board, final String name,
+                                           final BoardColumnKindEnum kind, final int order) {
+        var column = new BoardColumnEntity();
+        column.setBoard(board);
+        column.setName(name);
+        column.setKind(kind);
+        column.setOrder(order);
+        return column;
+    }
+}
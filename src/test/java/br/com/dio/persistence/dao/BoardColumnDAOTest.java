@@ -0,0 +1,102 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DisplayName("Testes do BoardColumnDAO")
+class BoardColumnDAOTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:board-column-dao;MODE=MySQL");
+        try (var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE BOARDS(id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+            statement.execute("""
+                    CREATE TABLE BOARDS_COLUMNS(
+                        id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                        name VARCHAR(255) NOT NULL,
+                        `order` INT NOT NULL,
+                        kind VARCHAR(7) NOT NULL,
+                        board_id BIGINT NOT NULL REFERENCES BOARDS(id) ON DELETE CASCADE
+                    )
+                    """);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Deve preencher os ids gerados ao inserir colunas em lote")
+    void shouldFillGeneratedIdsWhenInsertingColumnsInBatch() throws SQLException {
+        // Given
+        var board = new BoardEntity();
+        board.setName("Board de Teste");
+        new BoardDAO(connection).insert(board);
+        var columns = List.of(
+                createColumn(board, "A Fazer", BoardColumnKindEnum.INITIAL, 0),
+                createColumn(board, "Concluído", BoardColumnKindEnum.FINAL, 1),
+                createColumn(board, "Cancelado", BoardColumnKindEnum.CANCEL, 2));
+
+        // When
+        new BoardColumnDAO(connection).insert(columns);
+
+        // Then
+        assertNotNull(board.getId());
+        columns.forEach(c -> assertNotNull(c.getId()));
+        assertNotEquals(columns.get(0).getId(), columns.get(1).getId());
+        assertEquals(3, new BoardColumnDAO(connection).findByBoardId(board.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Deve ler as colunas em streaming fora do MySQL sem aplicar o fetch size do Connector/J")
+    void shouldStreamColumnsOutsideMySql() throws SQLException {
+        // Given
+        var board = new BoardEntity();
+        board.setName("Board de Teste");
+        new BoardDAO(connection).insert(board);
+        new BoardColumnDAO(connection).insert(List.of(
+                createColumn(board, "A Fazer", BoardColumnKindEnum.INITIAL, 0),
+                createColumn(board, "Concluído", BoardColumnKindEnum.FINAL, 1)));
+
+        // When
+        List<String> names;
+        try (var columns = new BoardColumnDAO(connection).streamByBoardId(board.getId())) {
+            names = columns.map(BoardColumnEntity::getName).toList();
+        }
+
+        // Then
+        assertEquals(List.of("A Fazer", "Concluído"), names);
+    }
+
+    private BoardColumnEntity createColumn(final BoardEntity board, final String name,
+                                           final BoardColumnKindEnum kind, final int order) {
+        var column = new BoardColumnEntity();
+        column.setBoard(board);
+        column.setName(name);
+        column.setKind(kind);
+        column.setOrder(order);
+        return column;
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.CardEventEntity;
+import br.com.dio.persistence.entity.CardEventTypeEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static java.time.ZoneOffset.UTC;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do CardEventDAO")
+class CardEventDAOTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2026, 1, 1, 9, 0, 0, 0, UTC);
+
+    private Connection connection;
+    private CardEventDAO dao;
+    private List<BoardColumnEntity> columns;
+    private CardEntity card;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:card-event-dao;MODE=MySQL");
+        try (var statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        }
+        var board = new BoardEntity();
+        board.setName("Board de Teste");
+        new BoardDAO(connection).insert(board);
+        columns = List.of(
+                createColumn(board, "A Fazer", BoardColumnKindEnum.INITIAL, 0),
+                createColumn(board, "Concluído", BoardColumnKindEnum.FINAL, 1),
+                createColumn(board, "Cancelado", BoardColumnKindEnum.CANCEL, 2));
+        new BoardColumnDAO(connection).insert(columns);
+        card = new CardEntity();
+        card.setTitle("Card");
+        card.setDescription("Descrição");
+        card.setBoardColumn(columns.get(0));
+        new CardDAO(connection).insert(card);
+        dao = new CardEventDAO(connection);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir coluna e bloqueio do card em um instante passado")
+    void shouldReplayCardStateAtGivenTime() throws SQLException {
+        // Given
+        dao.insert(List.of(
+                event(CardEventTypeEnum.CREATE, null, 0),
+                event(CardEventTypeEnum.BLOCK, "Aguardando cliente", 10)));
+        dao.insert(List.of(event(CardEventTypeEnum.UNBLOCK, "Cliente respondeu", 20)));
+        new CardDAO(connection).moveToColumn(columns.get(1).getId(), card.getId());
+        dao.insert(List.of(event(CardEventTypeEnum.MOVE, null, 30)));
+
+        // When
+        var blocked = dao.findStateAt(card.getId(), START.plusMinutes(15)).orElseThrow();
+        var moved = dao.findStateAt(card.getId(), START.plusMinutes(45)).orElseThrow();
+        var beforeCreation = dao.findStateAt(card.getId(), START.minusMinutes(1));
+
+        // Then
+        assertTrue(blocked.blocked());
+        assertEquals("Aguardando cliente", blocked.blockReason());
+        assertEquals(columns.get(0).getId(), blocked.columnId());
+        assertFalse(moved.blocked());
+        assertEquals(CardEventTypeEnum.MOVE, moved.lastEvent());
+        assertEquals(columns.get(1).getId(), moved.columnId());
+        assertTrue(beforeCreation.isEmpty());
+        assertEquals(4, dao.findByCardId(card.getId()).size());
+    }
+
+    private CardEventEntity event(final CardEventTypeEnum type, final String reason, final int minutes) {
+        return new CardEventEntity(card.getId(), type, reason, START.plusMinutes(minutes));
+    }
+
+    private BoardColumnEntity createColumn(final BoardEntity board, final String name,
+                                           final BoardColumnKindEnum kind, final int order) {
+        var column = new BoardColumnEntity();
+        column.setBoard(board);
+        column.setName(name);
+        column.setKind(kind);
+        column.setOrder(order);
+        return column;
+    }
+}
@@ -0,0 +1,250 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.BoardSnapshotBlockDTO;
+import br.com.dio.dto.BoardSnapshotCardDTO;
+import br.com.dio.dto.CardFlowDTO;
+import br.com.dio.dto.CardMoveDTO;
+import br.com.dio.dto.ColumnFlowDeltaDTO;
+import br.com.dio.dto.DailyFlowDTO;
+import br.com.dio.dto.FlowTimeBucketDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.CardEventEntity;
+import br.com.dio.persistence.entity.CardEventTypeEnum;
+import br.com.dio.persistence.entity.FlowTimeMetricEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Executa EXPLAIN sobre todo SQL emitido pelos DAOs e falha se algum deles fizer varredura completa de tabela.
+ * O SQL é capturado chamando os DAOs com uma conexão simulada e o plano é obtido de um H2 em modo MySQL
+ * com os mesmos índices das migrações (o SchemaIndexParityTest compara os dois schemas).
+ */
+@DisplayName("Testes de plano de execução das consultas dos DAOs")
+class DAOQueryPlanTest {
+
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            "SELECT id FROM BOARDS ORDER BY id"
+    );
+
+    private final Set<String> capturedSql = new LinkedHashSet<>();
+    private final Set<String> fullScanAllowedSql = new HashSet<>();
+    private Connection h2;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        h2 = DriverManager.getConnection("jdbc:h2:mem:dao-query-plan;MODE=MySQL");
+        try (var statement = h2.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var statement = h2.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        h2.close();
+    }
+
+    @Test
+    @DisplayName("Nenhuma consulta dos DAOs deve varrer a tabela inteira")
+    void shouldNotScanWholeTables() throws SQLException {
+        // Given
+        captureDaoSql();
+
+        // When
+        List<String> fullScans = new ArrayList<>();
+        for (var sql : capturedSql) {
+            var plan = explain(sql);
+            if (plan.contains(".tableScan") && !FULL_SCAN_ALLOWED.contains(normalize(sql))
+                    && !fullScanAllowedSql.contains(sql)) {
+                fullScans.add(sql + "\n" + plan);
+            }
+        }
+
+        // Then
+        assertFalse(capturedSql.isEmpty());
+        assertTrue(fullScans.isEmpty(), () -> "Consultas com varredura completa:\n" + String.join("\n\n", fullScans));
+    }
+
+    private void captureDaoSql() throws SQLException {
+        var connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(i -> capture(i.getArgument(0)));
+        when(connection.prepareStatement(anyString(), anyInt())).thenAnswer(i -> capture(i.getArgument(0)));
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenAnswer(i -> capture(i.getArgument(0)));
+
+        var board = new BoardEntity();
+        board.setId(1L);
+        var column = new BoardColumnEntity();
+        column.setId(1L);
+        column.setName("A Fazer");
+        column.setKind(BoardColumnKindEnum.INITIAL);
+        column.setBoard(board);
+        var card = new CardEntity();
+        card.setId(1L);
+        card.setTitle("Card");
+        card.setDescription("Descrição");
+        card.setBoardColumn(column);
+
+        var boardDAO = new BoardDAO(connection);
+        ignoringFailures(() -> boardDAO.insert(board));
+        ignoringFailures(() -> boardDAO.delete(1L));
+        ignoringFailures(() -> boardDAO.findById(1L));
+        ignoringFailures(boardDAO::findAllIds);
+        ignoringFailures(() -> boardDAO.exists(1L));
+
+        var boardColumnDAO = new BoardColumnDAO(connection);
+        ignoringFailures(() -> boardColumnDAO.insert(column));
+        ignoringFailures(() -> boardColumnDAO.findByBoardId(1L));
+        ignoringFailures(() -> boardColumnDAO.findByBoardIdWithDetails(1L));
+        ignoringFailures(() -> boardColumnDAO.recountCards(1L));
+        ignoringFailures(() -> boardColumnDAO.findById(1L));
+        ignoringFailures(() -> boardColumnDAO.findHeaderById(1L));
+        ignoringFailures(() -> boardColumnDAO.findCardsPage(1L, 0L, 10));
+        ignoringFailures(() -> boardColumnDAO.streamByBoardId(1L).count());
+        ignoringFailures(() -> boardColumnDAO.streamCardsByColumnId(1L).count());
+        allowingFullScan(boardColumnDAO::findAll);
+
+        var cardDAO = new CardDAO(connection);
+        ignoringFailures(() -> cardDAO.insert(card));
+        ignoringFailures(() -> { cardDAO.moveToColumn(2L, 1L); return null; });
+        ignoringFailures(() -> cardDAO.moveToColumnIfUnblocked(1L, Map.of(1L, 2L)));
+        ignoringFailures(() -> cardDAO.moveToColumns(List.of(new CardMoveDTO(1L, 1L, 2L))));
+        ignoringFailures(() -> cardDAO.findColumnStates(List.of(1L, 2L)));
+        ignoringFailures(() -> cardDAO.findById(1L));
+        ignoringFailures(() -> cardDAO.findMostBlocked(List.of(1L, 2L), 5));
+        ignoringFailures(() -> cardDAO.findLocations(List.of(1L, 2L)));
+        ignoringFailures(() -> cardDAO.findIdsByBoardId(1L));
+        ignoringFailures(cardDAO::findMaxId);
+        ignoringFailures(() -> { cardDAO.insertWithIds(List.of(card)); return null; });
+        allowingFullScan(() -> cardDAO.streamAllDetails().count());
+        allowingFullScan(() -> cardDAO.streamAllTexts().count());
+
+        var blockDAO = new BlockDAO(connection);
+        ignoringFailures(() -> blockDAO.blockIfUnblocked("motivo", 1L, List.of(1L)));
+        ignoringFailures(() -> blockDAO.unblock("motivo", 1L));
+        ignoringFailures(() -> { blockDAO.block("motivo", 1L); return null; });
+        ignoringFailures(() -> { blockDAO.block("motivo", 1L, OffsetDateTime.now()); return null; });
+        ignoringFailures(() -> blockDAO.unblock("motivo", 1L, OffsetDateTime.now()));
+
+        var cardEventDAO = new CardEventDAO(connection);
+        var event = new CardEventEntity(1L, CardEventTypeEnum.MOVE, null, OffsetDateTime.now());
+        ignoringFailures(() -> { cardEventDAO.insert(List.of(event)); return null; });
+        ignoringFailures(() -> cardEventDAO.findByCardId(1L));
+        ignoringFailures(() -> cardEventDAO.findStateAt(1L, OffsetDateTime.now()));
+
+        var flowAnalyticsDAO = new FlowAnalyticsDAO(connection);
+        var today = LocalDate.now();
+        ignoringFailures(() -> flowAnalyticsDAO.findCardFlows(List.of(1L, 2L)));
+        ignoringFailures(() -> { flowAnalyticsDAO.saveCardFlows(List.of(new CardFlowDTO(
+                1L, 1L, 2L, BoardColumnKindEnum.FINAL, null, null, OffsetDateTime.now()))); return null; });
+        ignoringFailures(() -> { flowAnalyticsDAO.addColumnStats(List.of(
+                new ColumnFlowDeltaDTO(1L, 1, 0, 0, 0))); return null; });
+        ignoringFailures(() -> { flowAnalyticsDAO.addDailyFlow(List.of(
+                new DailyFlowDTO(1L, 1L, today, 1, 0))); return null; });
+        ignoringFailures(() -> { flowAnalyticsDAO.addFlowTimes(List.of(
+                new FlowTimeBucketDTO(1L, FlowTimeMetricEnum.LEAD, 1, 1))); return null; });
+        ignoringFailures(() -> flowAnalyticsDAO.findColumnStats(1L));
+        ignoringFailures(() -> flowAnalyticsDAO.findDailyFlow(1L, today.minusDays(7), today));
+        ignoringFailures(() -> flowAnalyticsDAO.findFlowTimes(1L, FlowTimeMetricEnum.CYCLE));
+        ignoringFailures(() -> flowAnalyticsDAO.findFlowEvents(0L, 10L, 100));
+        ignoringFailures(() -> flowAnalyticsDAO.findFlowEventsByIds(List.of(1L, 2L)));
+        ignoringFailures(flowAnalyticsDAO::findLastEventId);
+
+        var flowCheckpointDAO = new FlowAggregationCheckpointDAO(connection);
+        ignoringFailures(flowCheckpointDAO::lockLastEventId);
+        ignoringFailures(() -> { flowCheckpointDAO.update(10L); return null; });
+        ignoringFailures(() -> { flowCheckpointDAO.insertGaps(List.of(1L), OffsetDateTime.now()); return null; });
+        ignoringFailures(() -> { flowCheckpointDAO.deleteGaps(List.of(1L)); return null; });
+        allowingFullScan(flowCheckpointDAO::findGaps);
+
+        var writeBehindCheckpointDAO = new WriteBehindCheckpointDAO(connection);
+        ignoringFailures(writeBehindCheckpointDAO::findLastSequence);
+        ignoringFailures(() -> { writeBehindCheckpointDAO.update(10L); return null; });
+
+        var boardSnapshotDAO = new BoardSnapshotDAO(connection);
+        var snapshotCard = new BoardSnapshotCardDTO(1L, 1L, "Card", "Descrição", 1, 0L, List.of(
+                new BoardSnapshotBlockDTO(OffsetDateTime.now(), "motivo", null, null)));
+        ignoringFailures(() -> boardSnapshotDAO.streamCardRows(1L).count());
+        ignoringFailures(() -> boardSnapshotDAO.insertCards(List.of(snapshotCard), Map.of(1L, 1L)));
+        ignoringFailures(() -> boardSnapshotDAO.insertBlocks(List.of(card), List.of(snapshotCard)));
+        ignoringFailures(() -> boardSnapshotDAO.findCardHeaders(List.of(1L, 2L), 10));
+        allowingFullScan(boardSnapshotDAO::findVersion);
+        allowingFullScan(boardSnapshotDAO::findColumnsWithCounts);
+    }
+
+    private PreparedStatement capture(final String sql) {
+        capturedSql.add(sql);
+        return mock(PreparedStatement.class, RETURNS_DEEP_STUBS);
+    }
+
+    private String explain(final String sql) throws SQLException {
+        // colunas *_at e *_date são TIMESTAMP/DATE e o H2 não as compara com INTEGER
+        var explainable = "EXPLAIN " + normalize(sql)
+                .replaceAll("((?:_at|_date)\\s*(?:<=|>=|<|>|=)\\s*)\\?", "$1TIMESTAMP '2000-01-01 00:00:00'")
+                .replace("?", "1");
+        try (var statement = h2.createStatement(); var resultSet = statement.executeQuery(explainable)) {
+            var plan = new StringBuilder();
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+            return plan.toString();
+        }
+    }
+
+    private String normalize(final String sql) {
+        var normalized = sql.strip().replaceAll("\\s+", " ");
+        return normalized.endsWith(";") ? normalized.substring(0, normalized.length() - 1) : normalized;
+    }
+
+    private void ignoringFailures(final DaoCall call) {
+        try {
+            call.execute();
+        } catch (Exception ignored) {
+            // apenas o SQL preparado interessa; o resultado simulado pode não ser utilizável
+        }
+    }
+
+    /**
+     * Para as leituras que percorrem tudo de propósito: carga do repositório em memória, índice de busca e
+     * validação do snapshot local.
+     */
+    private void allowingFullScan(final DaoCall call) {
+        var before = new HashSet<>(capturedSql);
+        ignoringFailures(call);
+        capturedSql.stream().filter(sql -> !before.contains(sql)).forEach(fullScanAllowedSql::add);
+    }
+
+    @FunctionalInterface
+    private interface DaoCall {
+
+        Object execute() throws SQLException;
+
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.persistence.entity.CardEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes da leitura de chaves geradas")
+class GeneratedKeysTest {
+
+    @Test
+    @DisplayName("Deve atribuir uma chave por entidade na ordem do lote")
+    void shouldAssignKeysInOrder() throws SQLException {
+        // Given
+        var statement = statementReturning(10L, 11L);
+        var cards = List.of(new CardEntity(), new CardEntity());
+
+        // When
+        GeneratedKeys.assign(statement, cards, CardEntity::setId);
+
+        // Then
+        assertEquals(10L, cards.get(0).getId());
+        assertEquals(11L, cards.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Deve falhar quando o driver devolver menos chaves que linhas")
+    void shouldFailWhenKeysAreMissing() throws SQLException {
+        // Given
+        var statement = statementReturning(10L);
+        var cards = List.of(new CardEntity(), new CardEntity());
+
+        // When / Then
+        assertThrows(SQLException.class, () -> GeneratedKeys.assign(statement, cards, CardEntity::setId));
+    }
+
+    @Test
+    @DisplayName("Deve falhar quando o driver devolver mais chaves que linhas")
+    void shouldFailWhenThereAreExtraKeys() throws SQLException {
+        // Given
+        var statement = statementReturning(10L, 11L);
+
+        // When / Then
+        assertThrows(SQLException.class, () -> GeneratedKeys.read(statement, 1));
+    }
+
+    @Test
+    @DisplayName("Deve falhar quando nenhuma chave for devolvida")
+    void shouldFailWhenNoKeyIsReturned() throws SQLException {
+        // Given
+        var statement = statementReturning();
+
+        // When / Then
+        assertThrows(SQLException.class, () -> GeneratedKeys.read(statement, 1));
+    }
+
+    private static Statement statementReturning(final Long... keys) throws SQLException {
+        var resultSet = mock(ResultSet.class);
+        var next = new int[]{0};
+        when(resultSet.next()).thenAnswer(invocation -> next[0]++ < keys.length);
+        when(resultSet.getLong(1)).thenAnswer(invocation -> keys[next[0] - 1]);
+        var statement = mock(Statement.class);
+        when(statement.getGeneratedKeys()).thenReturn(resultSet);
+        return statement;
+    }
+
+}
@@ -0,0 +1,99 @@
+package br.com.dio.persistence.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Testes do QueryMetrics")
+class QueryMetricsTest {
+
+    private final QueryMetrics metrics = new QueryMetrics(true, Long.MAX_VALUE / 1_000_000);
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = metrics.instrument(DriverManager.getConnection("jdbc:h2:mem:query-metrics;MODE=MySQL"));
+        try (var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE BOARDS(id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Deve registrar execuções e linhas afetadas e lidas por SQL")
+    void shouldRecordExecutionsAndRowsPerSql() throws SQLException {
+        // Given
+        var insert = "INSERT INTO BOARDS (name) VALUES (?)";
+        try (var statement = connection.prepareStatement(insert)) {
+            for (var name : new String[]{"A", "B", "C"}) {
+                statement.setString(1, name);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        // When
+        var select = "SELECT id FROM BOARDS WHERE id IN (?, ?, ?)";
+        try (var statement = connection.prepareStatement(select)) {
+            statement.setLong(1, 1L);
+            statement.setLong(2, 2L);
+            statement.setLong(3, 3L);
+            statement.executeQuery();
+            var resultSet = statement.getResultSet();
+            while (resultSet.next()) {
+                resultSet.getLong("id");
+            }
+        }
+
+        // Then
+        var stats = metrics.getQueryStats();
+        var insertStats = stats.stream().filter(s -> s.sql().equals(insert)).findFirst().orElseThrow();
+        assertEquals(1, insertStats.executions());
+        assertEquals(3, insertStats.rows());
+        var selectStats = stats.stream()
+                .filter(s -> s.sql().equals("SELECT id FROM BOARDS WHERE id IN (?, ...)"))
+                .findFirst().orElseThrow();
+        assertEquals(1, selectStats.executions());
+        assertEquals(3, selectStats.rows());
+    }
+
+    @Test
+    @DisplayName("Deve contar erros sem esconder a exceção do driver")
+    void shouldCountErrorsAndRethrow() throws SQLException {
+        // Given
+        var sql = "INSERT INTO BOARDS (name) VALUES (?)";
+
+        // When
+        try (var statement = connection.prepareStatement(sql)) {
+            statement.setString(1, null);
+            assertThrows(SQLException.class, statement::executeUpdate);
+        }
+
+        // Then
+        var stats = metrics.getQueryStats().stream().filter(s -> s.sql().equals(sql)).findFirst().orElseThrow();
+        assertEquals(1, stats.errors());
+    }
+
+    @Test
+    @DisplayName("Deve agrupar SQLs que só diferem no tamanho das listas de parâmetros")
+    void shouldNormalizeParameterLists() {
+        assertEquals("UPDATE CARDS SET x = CASE y WHEN ? THEN ? ... END WHERE id IN (?, ...)",
+                QueryMetrics.normalize("UPDATE CARDS\n  SET x = CASE y WHEN ? THEN ? WHEN ? THEN ? END WHERE id IN (?,?, ?)"));
+    }
+
+}
@@ -0,0 +1,207 @@
+package br.com.dio.persistence.migration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Compara as chaves primárias, chaves únicas e índices declarados nas migrações Liquibase com os do
+ * h2-schema.sql, que o DAOQueryPlanTest usa para obter os planos. Índices são comparados por tabela e colunas
+ * (os nomes variam entre MySQL e H2); as linhas de comentário, incluindo os --rollback, são ignoradas e um
+ * DROP INDEX remove o índice criado por uma migração anterior.
+ */
+@DisplayName("Testes de paridade dos índices entre migrações e h2-schema.sql")
+class SchemaIndexParityTest {
+
+    private static final String H2_SCHEMA = "db/h2-schema.sql";
+
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?`?(\\w+)`?\\s*\\((.*)\\)[^)]*",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE\\s+(UNIQUE\\s+)?INDEX\\s+`?(\\w+)`?\\s+ON\\s+`?(\\w+)`?\\s*\\((.*)\\)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern DROP_INDEX = Pattern.compile(
+            "DROP\\s+INDEX\\s+(?:IF\\s+EXISTS\\s+)?`?(\\w+)`?\\s+ON\\s+`?(\\w+)`?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DROP_TABLE = Pattern.compile(
+            "DROP\\s+TABLE\\s+(?:IF\\s+EXISTS\\s+)?`?(\\w+)`?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PRIMARY_KEY = Pattern.compile(
+            "(?:CONSTRAINT\\s+\\w+\\s+)?PRIMARY\\s+KEY\\s*\\((.*)\\)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern UNIQUE_KEY = Pattern.compile(
+            "(?:CONSTRAINT\\s+`?(\\w+)`?\\s+)?UNIQUE(?:\\s+(?:KEY|INDEX))?(?:\\s+`?(\\w+)`?)?\\s*\\((.*)\\)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern PLAIN_KEY = Pattern.compile(
+            "(?:KEY|INDEX)\\s+`?(\\w+)`?\\s*\\((.*)\\)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern INLINE_PRIMARY_KEY = Pattern.compile(
+            "`?(\\w+)`?\\s+.*\\bPRIMARY\\s+KEY\\b.*", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern MENTIONS_INDEX = Pattern.compile("\\b(INDEX|KEY|UNIQUE)\\b", Pattern.CASE_INSENSITIVE);
+
+    @Test
+    @DisplayName("O h2-schema.sql deve ter os mesmos índices que as migrações")
+    void shouldMirrorMigrationIndexes() throws IOException, URISyntaxException {
+        // Given
+        var migrations = new Schema();
+        for (var file : migrationFiles()) {
+            migrations.apply(Files.readString(file, StandardCharsets.UTF_8));
+        }
+        var h2 = new Schema();
+        h2.apply(readResource(H2_SCHEMA));
+
+        // Then
+        assertFalse(migrations.indexes().isEmpty());
+        assertEquals(migrations.indexes(), h2.indexes());
+    }
+
+    private List<Path> migrationFiles() throws IOException, URISyntaxException {
+        var url = getClass().getClassLoader().getResource(ChangelogChecksum.MIGRATIONS);
+        assertNotNull(url);
+        try (Stream<Path> stream = Files.list(Path.of(url.toURI()))) {
+            return stream.filter(path -> path.getFileName().toString().endsWith(".sql"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private String readResource(final String name) throws IOException {
+        try (var input = getClass().getClassLoader().getResourceAsStream(name)) {
+            assertNotNull(input);
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Índices por nome qualificado ({@code TABELA.nome}); chaves primárias e únicas sem nome recebem um nome
+     * derivado das colunas. O valor é a descrição comparada: tipo, tabela e colunas.
+     */
+    private static final class Schema {
+
+        private final Map<String, String> indexes = new LinkedHashMap<>();
+
+        void apply(final String script) {
+            var sql = script.lines()
+                    .filter(line -> !line.strip().startsWith("--"))
+                    .reduce("", (a, b) -> a + "\n" + b);
+            for (var statement : sql.split(";")) {
+                applyStatement(statement.strip());
+            }
+        }
+
+        Set<String> indexes() {
+            return new TreeSet<>(indexes.values());
+        }
+
+        private void applyStatement(final String statement) {
+            if (statement.isEmpty()) {
+                return;
+            }
+            var matcher = CREATE_TABLE.matcher(statement);
+            if (matcher.matches()) {
+                var table = matcher.group(1).toUpperCase(Locale.ROOT);
+                for (var definition : splitTopLevel(matcher.group(2))) {
+                    applyTableDefinition(table, definition.strip());
+                }
+                return;
+            }
+            matcher = CREATE_INDEX.matcher(statement);
+            if (matcher.matches()) {
+                var table = matcher.group(3).toUpperCase(Locale.ROOT);
+                put(table, matcher.group(2), matcher.group(1) == null ? "INDEX" : "UNIQUE", matcher.group(4));
+                return;
+            }
+            matcher = DROP_INDEX.matcher(statement);
+            if (matcher.matches()) {
+                indexes.remove(qualified(matcher.group(2).toUpperCase(Locale.ROOT), matcher.group(1)));
+                return;
+            }
+            matcher = DROP_TABLE.matcher(statement);
+            if (matcher.matches()) {
+                var prefix = matcher.group(1).toUpperCase(Locale.ROOT) + ".";
+                indexes.keySet().removeIf(key -> key.startsWith(prefix));
+                return;
+            }
+            if (!statement.toUpperCase(Locale.ROOT).startsWith("CREATE TRIGGER")
+                    && MENTIONS_INDEX.matcher(statement).find()) {
+                throw new IllegalArgumentException("Comando com índice não reconhecido: %s".formatted(statement));
+            }
+        }
+
+        private void applyTableDefinition(final String table, final String definition) {
+            var upper = definition.toUpperCase(Locale.ROOT);
+            if (upper.contains("FOREIGN KEY")) {
+                return;
+            }
+            var matcher = PRIMARY_KEY.matcher(definition);
+            if (matcher.matches()) {
+                put(table, "primary", "PRIMARY", matcher.group(1));
+                return;
+            }
+            matcher = UNIQUE_KEY.matcher(definition);
+            if (matcher.matches()) {
+                var name = matcher.group(2) != null ? matcher.group(2) : matcher.group(1);
+                put(table, name != null ? name : "unique(" + matcher.group(3) + ")", "UNIQUE", matcher.group(3));
+                return;
+            }
+            matcher = PLAIN_KEY.matcher(definition);
+            if (matcher.matches()) {
+                put(table, matcher.group(1), "INDEX", matcher.group(2));
+                return;
+            }
+            matcher = INLINE_PRIMARY_KEY.matcher(definition);
+            if (matcher.matches()) {
+                put(table, "primary", "PRIMARY", matcher.group(1));
+            }
+        }
+
+        private void put(final String table, final String name, final String kind, final String columns) {
+            var normalized = Arrays.stream(columns.split(","))
+                    .map(column -> column.replace("`", "").strip().toLowerCase(Locale.ROOT))
+                    .toList();
+            indexes.put(qualified(table, name), "%s %s(%s)".formatted(kind, table, String.join(", ", normalized)));
+        }
+
+        private static String qualified(final String table, final String name) {
+            return table + "." + name.toLowerCase(Locale.ROOT);
+        }
+
+        private static List<String> splitTopLevel(final String body) {
+            List<String> parts = new ArrayList<>();
+            var depth = 0;
+            var start = 0;
+            for (var i = 0; i < body.length(); i++) {
+                var c = body.charAt(i);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == ',' && depth == 0) {
+                    parts.add(body.substring(start, i));
+                    start = i + 1;
+                }
+            }
+            parts.add(body.substring(start));
+            return parts;
+        }
+
+    }
+
+}
@@ -0,0 +1,274 @@
+package br.com.dio.persistence.repository;
+
+import br.com.dio.dto.BoardColumnInfoDTO;
+import br.com.dio.dto.CardDetailsDTO;
+import br.com.dio.exception.CardBlockedException;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.dao.CardEventDAO;
+import br.com.dio.persistence.dao.WriteBehindCheckpointDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.CardEventEntity;
+import br.com.dio.service.BoardQueryService;
+import br.com.dio.service.BoardStructureCache;
+import br.com.dio.service.CardService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.MockedStatic;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.dio.persistence.entity.CardEventTypeEnum.BLOCK;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.CREATE;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.MOVE;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.UNBLOCK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * As mesmas operações do {@link CardService} com o repositório direto no banco ({@code jdbc}) e em memória
+ * ({@code memory}); no modo memory, o estado em memória é comparado com o banco depois do flush do write-behind.
+ */
+@DisplayName("Testes do CardService nos repositórios jdbc e memory")
+class BoardRepositoryParityTest {
+
+    private static final String URL = "jdbc:h2:mem:board-repository-parity;MODE=MySQL";
+
+    @TempDir
+    Path dir;
+
+    private Connection connection;
+    private MockedStatic<ConnectionConfig> connectionConfig;
+    private BoardEntity board;
+    private List<BoardColumnEntity> columns;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = newConnection();
+        try (var statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        }
+        board = new BoardEntity();
+        board.setName("Board de Teste");
+        new BoardDAO(connection).insert(board);
+        columns = List.of(
+                createColumn("A Fazer", BoardColumnKindEnum.INITIAL, 0),
+                createColumn("Em andamento", BoardColumnKindEnum.PENDING, 1),
+                createColumn("Concluído", BoardColumnKindEnum.FINAL, 2),
+                createColumn("Cancelado", BoardColumnKindEnum.CANCEL, 3));
+        new BoardColumnDAO(connection).insert(columns);
+        connection.commit();
+        connectionConfig = mockStatic(ConnectionConfig.class, CALLS_REAL_METHODS);
+        connectionConfig.when(() -> ConnectionConfig.getProperty(eq("repository.journal.path"), anyString()))
+                .thenReturn(journalPath().toString());
+        connectionConfig.when(() -> ConnectionConfig.getProperty(eq("repository.writeBehind.deadLetterPath"),
+                anyString())).thenReturn(dir.resolve("write-behind.deadletter").toString());
+        connectionConfig.when(() -> ConnectionConfig.getProperty(eq("repository.journal.fsync"), anyString()))
+                .thenReturn("false");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        InMemoryBoardStore.shutdown();
+        connectionConfig.close();
+        BoardStructureCache.getInstance().invalidateAll();
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdbc", "memory"})
+    @DisplayName("Deve recusar textos nulos ou acima de 255 caracteres sem alterar nada")
+    void shouldRejectInvalidText(final String type) throws Exception {
+        // Given
+        var service = start(type);
+        var cardId = service.create(card("Deploy", columns.get(0))).getId();
+
+        // When / Then
+        assertThrows(SQLException.class, () -> service.create(card("x".repeat(256), columns.get(0))));
+        assertThrows(SQLException.class, () -> service.create(card(null, columns.get(0))));
+        assertThrows(SQLException.class, () -> service.block(cardId, "x".repeat(256), columnsInfo()));
+        assertEquals(List.of(cardId), cardIdsIn(columns.get(0)));
+        assertTrue(stored(cardId).map(c -> !c.blocked()).orElseThrow());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdbc", "memory"})
+    @DisplayName("Deve desfazer toda a operação recusada e manter as anteriores")
+    void shouldUndoRejectedOperation(final String type) throws Exception {
+        // Given
+        var service = start(type);
+        var missingColumn = new BoardColumnEntity();
+        missingColumn.setId(999L);
+        var cardId = service.create(card("Deploy", columns.get(0))).getId();
+        service.block(cardId, "Aguardando cliente", columnsInfo());
+
+        // When
+        assertThrows(SQLException.class, () -> service.createAll(List.of(
+                card("Primeiro", columns.get(0)), card("Sem coluna", missingColumn))));
+        assertThrows(CardBlockedException.class, () -> service.moveToNextColumn(cardId, columnsInfo()));
+
+        // Then
+        assertEquals(List.of(cardId), cardIdsIn(columns.get(0)));
+        var card = stored(cardId).orElseThrow();
+        assertEquals(columns.get(0).getId(), card.columnId());
+        assertTrue(card.blocked());
+        service.unblock(cardId, "Cliente respondeu");
+        service.moveToNextColumn(cardId, columnsInfo());
+        assertEquals(columns.get(1).getId(), stored(cardId).orElseThrow().columnId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdbc", "memory"})
+    @DisplayName("Deve liberar o lock depois de uma operação recusada")
+    void shouldReleaseLockAfterRejectedOperation(final String type) throws Exception {
+        // Given
+        var service = start(type);
+        var cardId = service.create(card("Deploy", columns.get(0))).getId();
+        service.block(cardId, "Aguardando cliente", columnsInfo());
+        assertThrows(CardBlockedException.class, () -> service.moveToNextColumn(cardId, columnsInfo()));
+
+        // When
+        var created = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            try (var other = newConnection()) {
+                var otherService = new CardService(other);
+                var card = otherService.create(card("Outro", columns.get(0)));
+                otherService.moveToNextColumn(card.getId(), columnsInfo());
+                return card.getId();
+            }
+        });
+
+        // Then
+        assertEquals(columns.get(1).getId(), stored(created).orElseThrow().columnId());
+        assertEquals(columns.get(0).getId(), stored(cardId).orElseThrow().columnId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jdbc", "memory"})
+    @DisplayName("Deve gravar em CARD_EVENTS os eventos das operações confirmadas e nenhum das recusadas")
+    void shouldRecordCardEvents(final String type) throws Exception {
+        // Given
+        var service = start(type);
+        var cardId = service.create(card("Deploy", columns.get(0))).getId();
+
+        // When
+        service.block(cardId, "Aguardando cliente", columnsInfo());
+        assertThrows(CardBlockedException.class, () -> service.moveToNextColumn(cardId, columnsInfo()));
+        service.unblock(cardId, "Cliente respondeu");
+        service.moveToNextColumn(cardId, columnsInfo());
+
+        // Then
+        InMemoryBoardStore.getInstance().ifPresent(InMemoryBoardStore::flush);
+        var events = new CardEventDAO(connection).findByCardId(cardId);
+        assertEquals(List.of(CREATE, BLOCK, UNBLOCK, MOVE), events.stream().map(CardEventEntity::getType).toList());
+        assertEquals(columns.get(1).getId(), events.get(3).getBoardColumnId());
+        assertEquals("Aguardando cliente", events.get(1).getReason());
+    }
+
+    @Test
+    @DisplayName("Deve reaplicar na partida as unidades do journal que não chegaram ao banco")
+    void shouldReplayJournalOnStart() throws Exception {
+        // Given
+        var now = OffsetDateTime.now();
+        var todo = columns.get(0).getId();
+        var doing = columns.get(1).getId();
+        try (var journal = WriteBehindJournal.open(journalPath(), false)) {
+            journal.append(new WriteBehindUnit(1, List.of(WriteBehindOp.create(1, todo, "Deploy", "Subir", now)),
+                    List.of()));
+            journal.append(new WriteBehindUnit(2, List.of(WriteBehindOp.move(1, todo, doing, now)), List.of()));
+        }
+
+        // When
+        var service = start("memory");
+
+        // Then
+        assertEquals(2, new WriteBehindCheckpointDAO(connection).findLastSequence());
+        assertEquals(doing, stored(1L).orElseThrow().columnId());
+        assertEquals(2, service.create(card("Depois da partida", columns.get(0))).getId());
+    }
+
+    private CardService start(final String type) throws SQLException, IOException {
+        if (type.equals("memory")) {
+            InMemoryBoardStore.start(this::newConnection);
+        }
+        return new CardService(connection);
+    }
+
+    /**
+     * O card como o repositório em uso o vê, conferido com o banco depois do flush do write-behind.
+     */
+    private Optional<CardDetailsDTO> stored(final Long cardId) throws SQLException {
+        InMemoryBoardStore.getInstance().ifPresent(InMemoryBoardStore::flush);
+        var inRepository = BoardRepositories.forConnection(connection).findCardById(cardId);
+        var inDatabase = new CardDAO(connection).findById(cardId);
+        assertEquals(inDatabase.map(CardDetailsDTO::columnId), inRepository.map(CardDetailsDTO::columnId));
+        assertEquals(inDatabase.map(CardDetailsDTO::blocked), inRepository.map(CardDetailsDTO::blocked));
+        return inRepository;
+    }
+
+    private List<Long> cardIdsIn(final BoardColumnEntity column) throws SQLException {
+        InMemoryBoardStore.getInstance().ifPresent(InMemoryBoardStore::flush);
+        var inRepository = BoardRepositories.forConnection(connection).findCardsPage(column.getId(), 0L, 10);
+        var inDatabase = new JdbcBoardRepository(connection).findCardsPage(column.getId(), 0L, 10);
+        var ids = inRepository.stream().map(CardEntity::getId).toList();
+        assertEquals(inDatabase.stream().map(CardEntity::getId).toList(), ids);
+        return ids;
+    }
+
+    private List<BoardColumnInfoDTO> columnsInfo() throws SQLException {
+        return new BoardQueryService(connection).findStructure(board.getId()).orElseThrow().columnsInfo();
+    }
+
+    private Connection newConnection() throws SQLException {
+        var created = DriverManager.getConnection(URL);
+        created.setAutoCommit(false);
+        return created;
+    }
+
+    private Path journalPath() {
+        return dir.resolve("write-behind.journal");
+    }
+
+    private CardEntity card(final String title, final BoardColumnEntity column) {
+        var card = new CardEntity();
+        card.setTitle(title);
+        card.setDescription("Descrição");
+        card.setBoardColumn(column);
+        return card;
+    }
+
+    private BoardColumnEntity createColumn(final String name, final BoardColumnKindEnum kind, final int order) {
+        var column = new BoardColumnEntity();
+        column.setBoard(board);
+        column.setName(name);
+        column.setKind(kind);
+        column.setOrder(order);
+        return column;
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.dio.persistence.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("Testes do mapa de chaves long")
+class LongMapTest {
+
+    @Test
+    @DisplayName("Deve se comportar como um HashMap em inserções e remoções aleatórias")
+    void shouldMatchHashMap() {
+        // Given
+        var map = new LongMap<Long>();
+        var expected = new HashMap<Long, Long>();
+        var random = new Random(42);
+
+        // When
+        for (var i = 0; i < 100_000; i++) {
+            var key = 1 + random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.put((long) key, (long) i), map.put(key, (long) i));
+            } else {
+                assertEquals(expected.remove((long) key), map.remove(key));
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+
+    @Test
+    @DisplayName("Deve manter as chaves encontráveis após remover do meio de uma sequência de colisões")
+    void shouldKeepProbeChainAfterRemoval() {
+        // Given
+        var map = new LongMap<String>();
+        for (long key = 1; key <= 12; key++) {
+            map.put(key, "card " + key);
+        }
+
+        // When
+        map.remove(5L);
+
+        // Then
+        assertNull(map.get(5L));
+        for (long key = 1; key <= 12; key++) {
+            if (key != 5) {
+                assertEquals("card " + key, map.get(key));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package br.com.dio.persistence.repository;
+
+import br.com.dio.persistence.entity.CardEventEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static br.com.dio.persistence.entity.CardEventTypeEnum.CREATE;
+import static br.com.dio.persistence.entity.CardEventTypeEnum.MOVE;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do journal do write-behind")
+class WriteBehindJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Deve recuperar as unidades anotadas na ordem e com o conteúdo gravado")
+    void shouldRecoverAppendedUnits() throws IOException {
+        // Given
+        var path = dir.resolve("write-behind.journal");
+        var now = OffsetDateTime.now();
+        try (var journal = WriteBehindJournal.open(path, true)) {
+            journal.append(new WriteBehindUnit(1, List.of(WriteBehindOp.create(10, 100, "Card", null, now)),
+                    List.of(new CardEventEntity(10L, CREATE, null, now))));
+            journal.append(new WriteBehindUnit(2, List.of(WriteBehindOp.move(10, 100, 101, now)),
+                    List.of(new CardEventEntity(10L, MOVE, null, now))));
+            journal.sync(2);
+        }
+
+        // When
+        try (var journal = WriteBehindJournal.open(path, true)) {
+
+            // Then
+            var units = journal.recovered();
+            assertEquals(2, units.size());
+            var create = units.get(0).ops().get(0);
+            assertEquals("Card", create.title());
+            assertNull(create.description());
+            assertEquals(now.toInstant(), create.at().toInstant());
+            var move = units.get(1).ops().get(0);
+            assertEquals(100, move.fromColumnId());
+            assertEquals(101, move.columnId());
+            assertEquals(MOVE, units.get(1).events().get(0).getType());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve descartar o registro incompleto no fim do arquivo e continuar anotando depois dele")
+    void shouldDiscardTornTail() throws IOException {
+        // Given
+        var path = dir.resolve("write-behind.journal");
+        var now = OffsetDateTime.now();
+        try (var journal = WriteBehindJournal.open(path, false)) {
+            journal.append(new WriteBehindUnit(1, List.of(WriteBehindOp.block(10, "Aguardando", now)), List.of()));
+        }
+        var segment = dir.resolve("write-behind.journal.0");
+        var validSize = Files.size(segment);
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3}, APPEND);
+
+        // When
+        try (var journal = WriteBehindJournal.open(path, false)) {
+            journal.append(new WriteBehindUnit(2, List.of(WriteBehindOp.unblock(10, "Liberado", now)), List.of()));
+        }
+
+        // Then
+        assertTrue(Files.size(segment) > validSize);
+        try (var journal = WriteBehindJournal.open(path, false)) {
+            var units = journal.recovered();
+            assertEquals(2, units.size());
+            assertEquals("Liberado", units.get(1).ops().get(0).reason());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve apagar os segmentos já gravados no banco mesmo com o journal recebendo novas unidades")
+    void shouldReleaseFlushedSegments() throws IOException {
+        // Given
+        var path = dir.resolve("write-behind.journal");
+        var now = OffsetDateTime.now();
+        try (var journal = WriteBehindJournal.open(path, false, 1)) {
+            for (var sequence = 1; sequence <= 3; sequence++) {
+                journal.append(new WriteBehindUnit(sequence, List.of(WriteBehindOp.move(10, 100, 101, now)),
+                        List.of()));
+            }
+
+            // When
+            journal.releaseFlushed(2);
+        }
+
+        // Then
+        assertFalse(Files.exists(dir.resolve("write-behind.journal.0")));
+        assertFalse(Files.exists(dir.resolve("write-behind.journal.1")));
+        try (var journal = WriteBehindJournal.open(path, false, 1)) {
+            assertEquals(List.of(3L), journal.recovered().stream().map(WriteBehindUnit::sequence).toList());
+        }
+    }
+
+}
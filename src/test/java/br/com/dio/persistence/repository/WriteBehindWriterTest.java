@@ -0,0 +1,98 @@
+package br.com.dio.persistence.repository;
+
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.dao.WriteBehindCheckpointDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do WriteBehindWriter")
+class WriteBehindWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private Connection connection;
+    private List<BoardColumnEntity> columns;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:write-behind-writer;MODE=MySQL");
+        connection.setAutoCommit(false);
+        try (var statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        }
+        var board = new BoardEntity();
+        board.setName("Board de Teste");
+        new BoardDAO(connection).insert(board);
+        columns = List.of(createColumn(board, "A Fazer", BoardColumnKindEnum.INITIAL, 0),
+                createColumn(board, "Concluído", BoardColumnKindEnum.FINAL, 1));
+        new BoardColumnDAO(connection).insert(columns);
+        connection.commit();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Deve mover para o dead-letter só a unidade recusada pelo banco e gravar as demais")
+    void shouldQuarantineRejectedUnit() throws SQLException, IOException {
+        // Given
+        var now = OffsetDateTime.now();
+        var todo = columns.get(0).getId();
+        var done = columns.get(1).getId();
+        var units = List.of(
+                new WriteBehindUnit(1, List.of(WriteBehindOp.create(1, todo, "Deploy", "Subir", now)), List.of()),
+                new WriteBehindUnit(2, List.of(WriteBehindOp.create(2, todo, null, "Sem título", now)), List.of()),
+                new WriteBehindUnit(3, List.of(WriteBehindOp.move(1, todo, done, now)), List.of()));
+        var path = dir.resolve("write-behind.deadletter");
+
+        // When
+        int quarantined;
+        try (var deadLetter = WriteBehindJournal.open(path, false)) {
+            quarantined = WriteBehindWriter.applyIsolating(connection, units, deadLetter);
+        }
+
+        // Then
+        assertEquals(1, quarantined);
+        assertEquals(3, new WriteBehindCheckpointDAO(connection).findLastSequence());
+        assertEquals(done, new CardDAO(connection).findById(1L).orElseThrow().columnId());
+        assertTrue(new CardDAO(connection).findById(2L).isEmpty());
+        try (var deadLetter = WriteBehindJournal.open(path, false)) {
+            assertEquals(List.of(2L), deadLetter.recovered().stream().map(WriteBehindUnit::sequence).toList());
+        }
+    }
+
+    private BoardColumnEntity createColumn(final BoardEntity board, final String name,
+                                           final BoardColumnKindEnum kind, final int order) {
+        var column = new BoardColumnEntity();
+        column.setBoard(board);
+        column.setName(name);
+        column.setKind(kind);
+        column.setOrder(order);
+        return column;
+    }
+}
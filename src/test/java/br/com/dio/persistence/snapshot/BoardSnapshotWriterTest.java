@@ -0,0 +1,138 @@
+package br.com.dio.persistence.snapshot;
+
+import br.com.dio.dto.BoardSnapshotBlockDTO;
+import br.com.dio.dto.BoardSnapshotCardDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do arquivo de exportação de board")
+class BoardSnapshotWriterTest {
+
+    private static final OffsetDateTime BLOCKED_AT = OffsetDateTime.of(2026, 10, 1, 12, 30, 0, 0, ZoneOffset.UTC);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Deve ler de volta o board, as colunas e os cards com seus bloqueios")
+    void shouldReadBackWrittenBoard() throws IOException {
+        // Given
+        var path = dir.resolve("board.snapshot");
+        var blocks = List.of(
+                new BoardSnapshotBlockDTO(BLOCKED_AT, "Aguardando deploy", BLOCKED_AT.plusHours(2), "Deploy feito"),
+                new BoardSnapshotBlockDTO(BLOCKED_AT.plusDays(1), "Sem acesso à VPN", null, null));
+        try (var writer = BoardSnapshotWriter.create(path, "Sprint 42", columns())) {
+            writer.writeCard(new BoardSnapshotCardDTO(7, 10, "Configuração", "Ajustar o pool", 2, 7200, blocks));
+            writer.writeCard(new BoardSnapshotCardDTO(9, 12, "Cancelado", "", 0, 0, List.of()));
+            writer.finish();
+        }
+
+        // When
+        try (var reader = BoardSnapshotReader.open(path)) {
+
+            // Then
+            assertEquals("Sprint 42", reader.boardName());
+            assertEquals(3, reader.columns().size());
+            assertEquals(FINAL, reader.columns().get(1).getKind());
+            var first = reader.nextCard().orElseThrow();
+            assertEquals("Configuração", first.title());
+            assertEquals(10, first.columnId());
+            assertEquals(7200, first.blockedSeconds());
+            assertEquals(blocks, first.blocks());
+            assertEquals(9, reader.nextCard().orElseThrow().id());
+            assertTrue(reader.nextCard().isEmpty());
+            assertEquals(2, reader.getCards());
+            assertEquals(2, reader.getBlocks());
+        }
+        assertFalse(Files.exists(dir.resolve("board.snapshot.tmp")));
+    }
+
+    @Test
+    @DisplayName("Deve ler cards maiores que o buffer de leitura")
+    void shouldReadRecordLargerThanBuffer() throws IOException {
+        // Given
+        var path = dir.resolve("board.snapshot");
+        List<BoardSnapshotBlockDTO> blocks = new ArrayList<>();
+        for (var i = 0; i < 2_000; i++) {
+            blocks.add(new BoardSnapshotBlockDTO(BLOCKED_AT.plusMinutes(i), "Bloqueio " + "x".repeat(100),
+                    BLOCKED_AT.plusMinutes(i + 1), "Liberado"));
+        }
+        try (var writer = BoardSnapshotWriter.create(path, "Board", columns())) {
+            writer.writeCard(new BoardSnapshotCardDTO(1, 10, "Card", "Muitos bloqueios", 2_000, 120_000, blocks));
+            writer.finish();
+        }
+
+        // When
+        try (var reader = BoardSnapshotReader.open(path)) {
+
+            // Then
+            assertEquals(blocks, reader.nextCard().orElseThrow().blocks());
+            assertTrue(reader.nextCard().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recusar o arquivo cortado antes do registro de fim")
+    void shouldRejectTruncatedFile() throws IOException {
+        // Given
+        var path = dir.resolve("board.snapshot");
+        try (var writer = BoardSnapshotWriter.create(path, "Board", columns())) {
+            for (var i = 0; i < 1_000; i++) {
+                writer.writeCard(new BoardSnapshotCardDTO(i, 11, "Card " + i, "Descrição", 0, 0, List.of()));
+            }
+            writer.finish();
+        }
+        try (var channel = FileChannel.open(path, WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        // When
+        try (var reader = BoardSnapshotReader.open(path)) {
+
+            // Then
+            assertThrows(EOFException.class, () -> {
+                while (reader.nextCard().isPresent()) {
+                    // lê até o fim
+                }
+            });
+        }
+    }
+
+    private static List<BoardColumnEntity> columns() {
+        return List.of(column(10, "A fazer", 0, INITIAL), column(11, "Feito", 1, FINAL),
+                column(12, "Cancelado", 2, CANCEL));
+    }
+
+    private static BoardColumnEntity column(final long id, final String name, final int order,
+                                            final BoardColumnKindEnum kind) {
+        var column = new BoardColumnEntity();
+        column.setId(id);
+        column.setName(name);
+        column.setOrder(order);
+        column.setKind(kind);
+        return column;
+    }
+
+}
@@ -0,0 +1,96 @@
+package br.com.dio.persistence.snapshot;
+
+import br.com.dio.dto.LocalSnapshotColumnDTO;
+import br.com.dio.dto.LocalSnapshotVersionDTO;
+import br.com.dio.persistence.entity.CardEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do snapshot local dos boards")
+class LocalBoardSnapshotFileTest {
+
+    private static final LocalSnapshotVersionDTO VERSION = new LocalSnapshotVersionDTO(120, 7, 6, 3);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Deve ler de volta a estrutura, as contagens e a primeira página de cada board")
+    void shouldReadBackWrittenBoards() throws IOException {
+        // Given
+        var path = dir.resolve("boards.snapshot");
+        write(path);
+
+        // When
+        var file = LocalBoardSnapshotFile.open(path);
+
+        // Then
+        assertEquals(VERSION, file.getVersion());
+        assertEquals(List.of(3L, 7L), file.boardIds());
+        var structure = file.findStructure(7L).orElseThrow();
+        assertEquals("Sprint", structure.name());
+        assertEquals(20L, structure.initialColumn().id());
+        assertEquals(22L, structure.cancelColumn().id());
+        assertEquals(5, file.findDetails(7L).orElseThrow().columns().get(0).cardsAmount());
+        var cards = file.findFirstCards(7L, 20L).orElseThrow();
+        assertEquals(List.of(100L, 101L), cards.stream().map(CardEntity::getId).toList());
+        assertEquals("Revisão de código", cards.get(0).getTitle());
+        assertTrue(cards.get(1).isBlocked());
+        assertEquals(20L, cards.get(1).getBoardColumn().getId());
+        assertTrue(file.findFirstCards(7L, 21L).orElseThrow().isEmpty());
+        assertEquals("Backlog", file.findStructure(3L).orElseThrow().name());
+        assertTrue(file.findStructure(5L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve recusar o arquivo cortado")
+    void shouldRejectTruncatedFile() throws IOException {
+        // Given
+        var path = dir.resolve("boards.snapshot");
+        write(path);
+        try (var channel = FileChannel.open(path, WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        // When / Then
+        assertThrows(IOException.class, () -> LocalBoardSnapshotFile.open(path));
+    }
+
+    private static void write(final Path path) throws IOException {
+        var columns = List.of(
+                new LocalSnapshotColumnDTO(3L, "Backlog", 10L, "Entrada", 0, INITIAL, 0),
+                new LocalSnapshotColumnDTO(3L, "Backlog", 11L, "Feito", 1, FINAL, 0),
+                new LocalSnapshotColumnDTO(3L, "Backlog", 12L, "Cancelado", 2, CANCEL, 0),
+                new LocalSnapshotColumnDTO(7L, "Sprint", 20L, "A fazer", 0, INITIAL, 5),
+                new LocalSnapshotColumnDTO(7L, "Sprint", 21L, "Feito", 1, FINAL, 0),
+                new LocalSnapshotColumnDTO(7L, "Sprint", 22L, "Cancelado", 2, CANCEL, 0));
+        try (var writer = LocalBoardSnapshotFile.Writer.create(path)) {
+            writer.writeCards(20L, List.of(card(100L, "Revisão de código", false), card(101L, "Deploy", true)));
+            writer.finish(VERSION, columns);
+        }
+    }
+
+    private static CardEntity card(final long id, final String title, final boolean blocked) {
+        var card = new CardEntity();
+        card.setId(id);
+        card.setTitle(title);
+        card.setDescription("Descrição de " + title);
+        card.setBlocked(blocked);
+        return card;
+    }
+
+}
@@ -0,0 +1,166 @@
+package br.com.dio.server;
+
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.service.BoardStructureCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ * Chama o handler na thread do teste com um {@link HttpExchange} simulado: o mock estático de
+ * {@link ConnectionConfig#getConnection()} só vale na thread que o criou, não nas threads do servidor HTTP.
+ */
+@DisplayName("Testes dos códigos de status da API HTTP")
+class BoardApiHandlerTest {
+
+    private static final String URL = "jdbc:h2:mem:board-api-handler;MODE=MySQL";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final BoardApiHandler handler = new BoardApiHandler();
+    private Connection connection;
+    private MockedStatic<ConnectionConfig> connectionConfig;
+    private BoardEntity board;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL);
+        try (var statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        }
+        board = new BoardEntity();
+        board.setName("Board de Teste");
+        new BoardDAO(connection).insert(board);
+        new BoardColumnDAO(connection).insert(List.of(
+                createColumn("A Fazer", BoardColumnKindEnum.INITIAL, 0),
+                createColumn("Concluído", BoardColumnKindEnum.FINAL, 1),
+                createColumn("Cancelado", BoardColumnKindEnum.CANCEL, 2)));
+        connectionConfig = mockStatic(ConnectionConfig.class, CALLS_REAL_METHODS);
+        connectionConfig.when(ConnectionConfig::getConnection).thenAnswer(i -> {
+            var pooled = DriverManager.getConnection(URL);
+            pooled.setAutoCommit(false);
+            return pooled;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connectionConfig.close();
+        BoardStructureCache.getInstance().invalidateAll();
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Deve responder 404 para rota e board inexistentes e 400 para requisição inválida")
+    void shouldMapNotFoundAndBadRequest() throws Exception {
+        assertEquals(404, get("/nada").status());
+        assertEquals(404, get("/boards/99").status());
+        assertEquals(400, get("/boards/abc").status());
+        assertEquals(400, post("/cards", "{\"boardId\": %s}".formatted(board.getId())).status());
+        assertEquals(400, post("/cards", "{nao é json").status());
+    }
+
+    @Test
+    @DisplayName("Deve responder 409 quando o estado do card não permite a operação")
+    void shouldMapCardConflicts() throws Exception {
+        // Given
+        var blocked = createCard();
+        var finished = createCard();
+        assertEquals(204, post("/cards/%s/block".formatted(blocked), boardBody("\"reason\": \"Cliente\"")).status());
+        assertEquals(204, post("/cards/%s/move".formatted(finished), boardBody("")).status());
+
+        // When
+        var moveBlocked = post("/cards/%s/move".formatted(blocked), boardBody(""));
+        var moveFinished = post("/cards/%s/move".formatted(finished), boardBody(""));
+        var blockFinished = post("/cards/%s/block".formatted(finished), boardBody("\"reason\": \"Tarde demais\""));
+        var unblockOpen = post("/cards/%s/unblock".formatted(finished), "{\"reason\": \"Nada\"}");
+
+        // Then
+        assertEquals(409, moveBlocked.status());
+        assertEquals(409, moveFinished.status());
+        assertEquals(409, blockFinished.status());
+        assertEquals("O card está em uma coluna do tipo FINAL e não pode ser bloqueado",
+                mapper.readTree(blockFinished.body()).path("error").asText());
+        assertEquals(409, unblockOpen.status());
+    }
+
+    private long createCard() throws Exception {
+        var response = post("/cards", boardBody("\"title\": \"Deploy\", \"description\": \"Subir a versão\""));
+        assertEquals(201, response.status());
+        return mapper.readTree(response.body()).path("id").asLong();
+    }
+
+    private String boardBody(final String fields) {
+        return "{\"boardId\": %s%s}".formatted(board.getId(), fields.isEmpty() ? "" : ", " + fields);
+    }
+
+    private Response get(final String path) throws IOException {
+        return call("GET", path, "");
+    }
+
+    private Response post(final String path, final String body) throws IOException {
+        return call("POST", path, body);
+    }
+
+    private Response call(final String method, final String path, final String body) throws IOException {
+        var exchange = mock(HttpExchange.class);
+        var status = new AtomicInteger(-1);
+        var responseBody = new ByteArrayOutputStream();
+        when(exchange.getRequestMethod()).thenReturn(method);
+        when(exchange.getRequestURI()).thenReturn(URI.create(path));
+        when(exchange.getRequestBody()).thenReturn(new ByteArrayInputStream(body.getBytes(UTF_8)));
+        when(exchange.getResponseHeaders()).thenReturn(new Headers());
+        when(exchange.getResponseBody()).thenReturn(responseBody);
+        when(exchange.getResponseCode()).thenAnswer(i -> status.get());
+        doAnswer(i -> {
+            status.set(i.getArgument(0));
+            return null;
+        }).when(exchange).sendResponseHeaders(anyInt(), anyLong());
+        handler.handle(exchange);
+        return new Response(status.get(), responseBody.toString(UTF_8));
+    }
+
+    private record Response(int status, String body) {
+    }
+
+    private BoardColumnEntity createColumn(final String name, final BoardColumnKindEnum kind, final int order) {
+        var column = new BoardColumnEntity();
+        column.setBoard(board);
+        column.setName(name);
+        column.setKind(kind);
+        column.setOrder(order);
+        return column;
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.dio.server;
+
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.service.BoardStructureCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static br.com.dio.server.BoardCommandHandler.SEPARATOR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+
+@DisplayName("Testes do BoardCommandHandler")
+class BoardCommandHandlerTest {
+
+    private static final String URL = "jdbc:h2:mem:board-command-handler;MODE=MySQL";
+
+    private Connection connection;
+    private MockedStatic<ConnectionConfig> connectionConfig;
+    private BoardCommandHandler handler;
+    private BoardEntity board;
+    private List<BoardColumnEntity> columns;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL);
+        try (var statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        }
+        board = new BoardEntity();
+        board.setName("Board de Teste");
+        new BoardDAO(connection).insert(board);
+        columns = List.of(
+                createColumn("A Fazer", BoardColumnKindEnum.INITIAL, 0),
+                createColumn("Em andamento", BoardColumnKindEnum.PENDING, 1),
+                createColumn("Concluído", BoardColumnKindEnum.FINAL, 2),
+                createColumn("Cancelado", BoardColumnKindEnum.CANCEL, 3));
+        new BoardColumnDAO(connection).insert(columns);
+        // cada comando pega uma conexão nova, como no pool, sem autocommit
+        connectionConfig = mockStatic(ConnectionConfig.class, CALLS_REAL_METHODS);
+        connectionConfig.when(ConnectionConfig::getConnection).thenAnswer(i -> {
+            var pooled = DriverManager.getConnection(URL);
+            pooled.setAutoCommit(false);
+            return pooled;
+        });
+        handler = new BoardCommandHandler();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connectionConfig.close();
+        BoardStructureCache.getInstance().invalidateAll();
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Deve responder PING e recusar comando desconhecido ou incompleto")
+    void shouldValidateCommands() {
+        assertEquals("OK" + SEPARATOR + "PONG", handler.handle("PING"));
+        assertEquals("ERR" + SEPARATOR + "Comando desconhecido: FOO", handler.handle("FOO"));
+        assertEquals("ERR" + SEPARATOR + "O comando MOVE espera ao menos 2 campos",
+                handler.handle(line("MOVE", board.getId())));
+        assertEquals("ERR" + SEPARATOR + "O campo 1 deve ser numérico: abc", handler.handle(line("BOARD", "abc")));
+    }
+
+    @Test
+    @DisplayName("Deve criar, mover e ler um card pelo protocolo de linha")
+    void shouldCreateAndMoveCard() {
+        // Given
+        var created = handler.handle(line("CREATE", board.getId(), "Deploy", "Subir a versão"));
+        var cardId = Long.parseLong(created.split(SEPARATOR)[1]);
+
+        // When
+        var moved = handler.handle(line("MOVE", board.getId(), cardId));
+        var card = handler.handle(line("CARD", cardId)).split(SEPARATOR);
+
+        // Then
+        assertEquals("OK", moved);
+        assertEquals("OK", card[0]);
+        assertEquals("Deploy", card[2]);
+        assertEquals(columns.get(1).getId().toString(), card[7]);
+        assertEquals("OK" + SEPARATOR + cardId, handler.handle(line("CARDS", columns.get(1).getId(), 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Deve devolver ERR com a regra violada sem gravar a operação")
+    void shouldReportRuleViolations() {
+        // Given
+        var created = handler.handle(line("CREATE", board.getId(), "Deploy", "Subir a versão"));
+        var cardId = Long.parseLong(created.split(SEPARATOR)[1]);
+        assertEquals("OK", handler.handle(line("BLOCK", board.getId(), cardId, "Aguardando cliente")));
+
+        // When
+        var move = handler.handle(line("MOVE", board.getId(), cardId));
+        var missingBoard = handler.handle(line("MOVE", 99, cardId));
+
+        // Then
+        assertTrue(move.startsWith("ERR" + SEPARATOR + "O card %s está bloqueado".formatted(cardId)));
+        assertEquals("ERR" + SEPARATOR + "O board de id 99 não foi encontrado", missingBoard);
+        assertEquals(columns.get(0).getId().toString(), handler.handle(line("CARD", cardId)).split(SEPARATOR)[7]);
+    }
+
+    private String line(final Object... fields) {
+        var values = new String[fields.length];
+        for (var i = 0; i < fields.length; i++) {
+            values[i] = String.valueOf(fields[i]);
+        }
+        return String.join(SEPARATOR, values);
+    }
+
+    private BoardColumnEntity createColumn(final String name, final BoardColumnKindEnum kind, final int order) {
+        var column = new BoardColumnEntity();
+        column.setBoard(board);
+        column.setName(name);
+        column.setKind(kind);
+        column.setOrder(order);
+        return column;
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.dio.server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.time.Duration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@DisplayName("Testes do BoardServer")
+class BoardServerTest {
+
+    @Test
+    @DisplayName("Deve encerrar mesmo com um cliente conectado e ocioso")
+    void shouldCloseWithIdleClient() throws Exception {
+        // Given
+        var server = new BoardServer("127.0.0.1", 0, 16);
+        var serving = Thread.ofPlatform().daemon().start(() -> {
+            try {
+                server.serve();
+            } catch (IOException ignored) {
+                // o teste verifica o encerramento pelo cliente
+            }
+        });
+        while (server.getLocalPort() <= 0) {
+            Thread.sleep(10);
+        }
+        try (var client = new Socket("127.0.0.1", server.getLocalPort());
+             var reader = new BufferedReader(new InputStreamReader(client.getInputStream(), UTF_8));
+             var writer = new PrintWriter(client.getOutputStream(), true, UTF_8)) {
+            writer.println("PING");
+            assertEquals("OK" + BoardCommandHandler.SEPARATOR + "PONG", reader.readLine());
+
+            // When
+            assertTimeoutPreemptively(Duration.ofSeconds(5), server::close);
+
+            // Then
+            assertNull(reader.readLine());
+        }
+        serving.join(Duration.ofSeconds(5).toMillis());
+    }
+
+}
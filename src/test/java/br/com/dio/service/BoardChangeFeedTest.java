@@ -0,0 +1,63 @@
+package br.com.dio.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("Testes do feed de alterações dos boards")
+class BoardChangeFeedTest {
+
+    private BoardChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new BoardChangeFeed(2);
+    }
+
+    @Test
+    @DisplayName("Deve entregar as alterações apenas aos assinantes do board")
+    void shouldDeliverOnlyToBoardSubscribers() throws InterruptedException {
+        // Given
+        try (var board1 = feed.subscribe(1L);
+             var board2 = feed.subscribe(2L)) {
+
+            // When
+            feed.publish(1L, "MOVE", 10L, 100L, OffsetDateTime.now());
+
+            // Then
+            var change = board1.poll(10, MILLISECONDS);
+            assertEquals(10L, change.cardId());
+            assertEquals(100L, change.columnId());
+            assertNull(board2.poll(10, MILLISECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve descartar sem bloquear quando o buffer do assinante estiver cheio")
+    void shouldDropWhenSubscriberBufferIsFull() throws InterruptedException {
+        // Given
+        try (var subscription = feed.subscribe(1L)) {
+
+            // When
+            for (long cardId = 1; cardId <= 5; cardId++) {
+                feed.publish(1L, "CREATE", cardId, 100L, OffsetDateTime.now());
+            }
+
+            // Then
+            assertEquals(3, subscription.dropped());
+            assertEquals(1L, subscription.poll(10, MILLISECONDS).cardId());
+            assertEquals(2L, subscription.poll(10, MILLISECONDS).cardId());
+            assertNull(subscription.poll(10, MILLISECONDS));
+            assertEquals(3, feed.getStats().dropped());
+        }
+        assertFalse(feed.hasSubscribers());
+    }
+
+}
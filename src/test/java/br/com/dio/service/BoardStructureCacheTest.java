@@ -0,0 +1,106 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardColumnStructureDTO;
+import br.com.dio.dto.BoardStructureDTO;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do cache de estrutura de boards")
+class BoardStructureCacheTest {
+
+    private BoardStructureCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BoardStructureCache(2);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Deve carregar do banco apenas na primeira consulta")
+    void shouldLoadOnlyOnFirstLookup() throws SQLException {
+        // When
+        cache.get(1L, this::load);
+        var result = cache.get(1L, this::load);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().hits());
+        assertEquals(1, cache.getStats().misses());
+    }
+
+    @Test
+    @DisplayName("Deve remover a entrada menos usada ao atingir o limite")
+    void shouldEvictLeastRecentlyUsedEntry() throws SQLException {
+        // Given
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(1L, this::load);
+
+        // When
+        cache.get(3L, this::load);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        // Then
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getStats().size());
+        assertEquals(2, cache.getStats().evictions());
+    }
+
+    @Test
+    @DisplayName("Deve recarregar a estrutura após invalidação")
+    void shouldReloadAfterInvalidation() throws SQLException {
+        // Given
+        cache.get(1L, this::load);
+
+        // When
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Não deve armazenar boards inexistentes")
+    void shouldNotCacheMissingBoards() throws SQLException {
+        // When
+        cache.get(1L, id -> Optional.empty());
+
+        // Then
+        assertEquals(0, cache.getStats().size());
+    }
+
+    @Test
+    @DisplayName("Deve devolver colunas imutáveis")
+    void shouldReturnImmutableColumns() throws SQLException {
+        // When
+        var structure = cache.get(1L, this::load).orElseThrow();
+
+        // Then
+        assertThrows(UnsupportedOperationException.class, () -> structure.columns().clear());
+    }
+
+    private Optional<BoardStructureDTO> load(final Long boardId) {
+        loads.incrementAndGet();
+        List<BoardColumnStructureDTO> columns = new ArrayList<>();
+        columns.add(new BoardColumnStructureDTO(boardId * 10, "A Fazer", 0, BoardColumnKindEnum.INITIAL));
+        columns.add(new BoardColumnStructureDTO(boardId * 10 + 1, "Cancelado", 1, BoardColumnKindEnum.CANCEL));
+        return Optional.of(new BoardStructureDTO(boardId, "Board " + boardId, columns));
+    }
+}
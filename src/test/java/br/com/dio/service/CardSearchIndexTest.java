@@ -0,0 +1,74 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.CardSearchHitDTO;
+import br.com.dio.persistence.entity.CardEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do índice de busca de cards")
+class CardSearchIndexTest {
+
+    private CardSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CardSearchIndex(128);
+        index.rebuild(Stream.of(
+                card(1L, "Configuração do servidor", "Ajustar o pool de conexões"),
+                card(2L, "Deploy em produção", "Publicar a versão com a configuração nova"),
+                card(3L, "Revisar layout", "Tela de login")));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar termos sem acento e priorizar o título")
+    void shouldFoldAccentsAndRankTitleFirst() {
+        // When
+        var page = index.search("CONFIGURACAO", 0, 10);
+
+        // Then
+        assertEquals(2, page.total());
+        assertEquals(List.of(1L, 2L), page.hits().stream().map(CardSearchHitDTO::id).toList());
+    }
+
+    @Test
+    @DisplayName("Deve exigir todos os termos e expandir o termo terminado em *")
+    void shouldMatchAllTermsWithPrefix() {
+        // When
+        var page = index.search("deplo* versao", 0, 10);
+
+        // Then
+        assertEquals(1, page.total());
+        assertEquals(2L, page.hits().get(0).id());
+    }
+
+    @Test
+    @DisplayName("Deve indexar cards criados e esconder cards excluídos")
+    void shouldApplyIncrementalChanges() {
+        // When
+        index.addAll(List.of(card(4L, "Configuração de backup", "Agendar rotina")));
+        index.removeAll(List.of(1L));
+
+        // Then
+        var page = index.search("configuracao", 0, 1);
+        assertEquals(2, page.total());
+        assertEquals(4L, page.hits().get(0).id());
+        assertEquals(1, index.getStats().deletedDocuments());
+        assertTrue(index.getStats().estimatedBytes() > 0);
+    }
+
+    private CardEntity card(final Long id, final String title, final String description) {
+        var card = new CardEntity();
+        card.setId(id);
+        card.setTitle(title);
+        card.setDescription(description);
+        return card;
+    }
+
+}
@@ -0,0 +1,269 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.ColumnFlowStatsDTO;
+import br.com.dio.dto.CumulativeFlowDTO;
+import br.com.dio.dto.DailyThroughputDTO;
+import br.com.dio.dto.FlowTimeBucketDTO;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.dao.CardEventDAO;
+import br.com.dio.persistence.dao.FlowAggregationCheckpointDAO;
+import br.com.dio.persistence.dao.FlowAnalyticsDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.CardEventEntity;
+import br.com.dio.persistence.entity.CardEventTypeEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static br.com.dio.persistence.entity.FlowTimeMetricEnum.CYCLE;
+import static br.com.dio.persistence.entity.FlowTimeMetricEnum.LEAD;
+import static java.time.ZoneOffset.UTC;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do FlowAnalyticsService")
+class FlowAnalyticsServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now(UTC);
+    private static final long DAY_SECONDS = 86_400;
+    private static final String URL = "jdbc:h2:mem:flow-analytics-service;MODE=MySQL";
+    private static final Duration GAP_TIMEOUT = Duration.ofMinutes(10);
+
+    private Connection connection;
+    private FlowAnalyticsService service;
+    private BoardEntity board;
+    private List<BoardColumnEntity> columns;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL);
+        connection.setAutoCommit(false);
+        try (var statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        }
+        board = new BoardEntity();
+        board.setName("Board de Teste");
+        new BoardDAO(connection).insert(board);
+        columns = List.of(
+                createColumn("A Fazer", BoardColumnKindEnum.INITIAL, 0),
+                createColumn("Concluído", BoardColumnKindEnum.FINAL, 1),
+                createColumn("Cancelado", BoardColumnKindEnum.CANCEL, 2));
+        new BoardColumnDAO(connection).insert(columns);
+        connection.commit();
+        service = new FlowAnalyticsService(connection);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Deve somar tempo por coluna e lead/cycle time seguindo cada card evento a evento")
+    void shouldAggregateEventsInOrder() throws SQLException {
+        // Given
+        givenFinishedAndOpenCards();
+
+        // When
+        var aggregated = service.aggregate(lastEventId(), 2, GAP_TIMEOUT);
+
+        // Then
+        assertEquals(3, aggregated);
+        var stats = service.findColumnStats(board.getId());
+        assertStats(stats.get(0), 2, 1, DAY_SECONDS);
+        assertStats(stats.get(1), 1, 0, 0);
+        assertStats(stats.get(2), 0, 0, 0);
+        var dao = new FlowAnalyticsDAO(connection);
+        assertEquals(List.of(new FlowTimeBucketDTO(board.getId(), LEAD, FlowTimeHistogram.bucketOf(DAY_SECONDS), 1)),
+                dao.findFlowTimes(board.getId(), LEAD));
+        assertEquals(List.of(new FlowTimeBucketDTO(board.getId(), CYCLE, FlowTimeHistogram.bucketOf(0), 1)),
+                dao.findFlowTimes(board.getId(), CYCLE));
+    }
+
+    @Test
+    @DisplayName("Não deve somar de novo eventos já agregados nem eventos depois do limite")
+    void shouldResumeFromCheckpoint() throws SQLException {
+        // Given
+        var first = createCard("Primeiro");
+        insertEvent(first, CardEventTypeEnum.CREATE, TODAY.atStartOfDay().atOffset(UTC));
+        var horizon = lastEventId();
+        var second = createCard("Segundo");
+        insertEvent(second, CardEventTypeEnum.CREATE, TODAY.atStartOfDay().atOffset(UTC));
+        connection.commit();
+
+        // When
+        var untilHorizon = service.aggregate(horizon, 10, GAP_TIMEOUT);
+        var repeated = service.aggregate(horizon, 10, GAP_TIMEOUT);
+        var remaining = service.aggregate(lastEventId(), 10, GAP_TIMEOUT);
+
+        // Then
+        assertEquals(1, untilHorizon);
+        assertEquals(0, repeated);
+        assertEquals(1, remaining);
+        assertStats(service.findColumnStats(board.getId()).get(0), 2, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Deve somar o evento confirmado depois que o checkpoint passou pelo seu id")
+    void shouldRecordEventCommittedAfterCheckpoint() throws SQLException {
+        // Given
+        try (var slow = DriverManager.getConnection(URL)) {
+            slow.setAutoCommit(false);
+            var late = createCard(slow, "Lento");
+            insertEvent(slow, late, CardEventTypeEnum.CREATE, TODAY.atStartOfDay().atOffset(UTC));
+            var fast = createCard(connection, "Rápido");
+            insertEvent(connection, fast, CardEventTypeEnum.CREATE, TODAY.atStartOfDay().atOffset(UTC));
+            connection.commit();
+            var beforeCommit = service.aggregate(lastEventId(), 10, GAP_TIMEOUT);
+
+            // When
+            slow.commit();
+            var afterCommit = service.aggregate(lastEventId(), 10, GAP_TIMEOUT);
+
+            // Then
+            assertEquals(1, beforeCommit);
+            assertEquals(1, afterCommit);
+        }
+        assertStats(service.findColumnStats(board.getId()).get(0), 2, 0, 0);
+        assertTrue(new FlowAggregationCheckpointDAO(connection).findGaps().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve descartar a lacuna de uma transação desfeita depois do tempo de espera")
+    void shouldDiscardExpiredGap() throws SQLException {
+        // Given
+        try (var rolledBack = DriverManager.getConnection(URL)) {
+            rolledBack.setAutoCommit(false);
+            insertEvent(rolledBack, createCard(rolledBack, "Desfeito"), CardEventTypeEnum.CREATE,
+                    TODAY.atStartOfDay().atOffset(UTC));
+            insertEvent(connection, createCard(connection, "Confirmado"), CardEventTypeEnum.CREATE,
+                    TODAY.atStartOfDay().atOffset(UTC));
+            connection.commit();
+            service.aggregate(lastEventId(), 10, GAP_TIMEOUT);
+            rolledBack.rollback();
+        }
+        var checkpoint = new FlowAggregationCheckpointDAO(connection);
+        var gaps = checkpoint.findGaps().size();
+        connection.rollback();
+
+        // When
+        var waiting = service.aggregate(lastEventId(), 10, GAP_TIMEOUT);
+        var expired = service.aggregate(lastEventId(), 10, Duration.ZERO);
+
+        // Then
+        assertEquals(1, gaps);
+        assertEquals(0, waiting);
+        assertEquals(0, expired);
+        assertTrue(checkpoint.findGaps().isEmpty());
+        assertStats(service.findColumnStats(board.getId()).get(0), 1, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir chegadas acumuladas, WIP e throughput de cada dia a partir dos totais atuais")
+    void shouldComputeCumulativeFlowBackwardsFromTotals() throws SQLException {
+        // Given
+        givenFinishedAndOpenCards();
+        service.aggregate(lastEventId(), 100, GAP_TIMEOUT);
+        var from = TODAY.minusDays(2);
+
+        // When
+        var flow = service.findCumulativeFlow(board.getId(), from, TODAY);
+        var throughput = service.findThroughput(board.getId(), from, TODAY);
+
+        // Then
+        var initial = columns.get(0).getId();
+        var done = columns.get(1).getId();
+        var cancel = columns.get(2).getId();
+        assertEquals(9, flow.size());
+        assertEquals(List.of(
+                new CumulativeFlowDTO(from, initial, 1, 1),
+                new CumulativeFlowDTO(from.plusDays(1), initial, 1, 0),
+                new CumulativeFlowDTO(TODAY, initial, 2, 1)), pointsOf(flow, initial));
+        assertEquals(List.of(
+                new CumulativeFlowDTO(from, done, 0, 0),
+                new CumulativeFlowDTO(from.plusDays(1), done, 1, 1),
+                new CumulativeFlowDTO(TODAY, done, 1, 1)), pointsOf(flow, done));
+        assertEquals(0, pointsOf(flow, cancel).stream().mapToLong(CumulativeFlowDTO::cumulativeArrivals).sum());
+        assertEquals(List.of(
+                new DailyThroughputDTO(from, 0),
+                new DailyThroughputDTO(from.plusDays(1), 1),
+                new DailyThroughputDTO(TODAY, 0)), throughput);
+    }
+
+    /**
+     * Um card criado há dois dias e concluído ontem (um dia em "A Fazer") e outro criado hoje, ainda aberto.
+     */
+    private void givenFinishedAndOpenCards() throws SQLException {
+        var finished = createCard("Concluído ontem");
+        insertEvent(finished, CardEventTypeEnum.CREATE, TODAY.minusDays(2).atTime(12, 0).atOffset(UTC));
+        new CardDAO(connection).moveToColumn(columns.get(1).getId(), finished.getId());
+        insertEvent(finished, CardEventTypeEnum.MOVE, TODAY.minusDays(1).atTime(12, 0).atOffset(UTC));
+        var open = createCard("Aberto");
+        insertEvent(open, CardEventTypeEnum.CREATE, TODAY.atStartOfDay().atOffset(UTC));
+        connection.commit();
+    }
+
+    private List<CumulativeFlowDTO> pointsOf(final List<CumulativeFlowDTO> flow, final Long columnId) {
+        return flow.stream().filter(p -> p.columnId().equals(columnId)).toList();
+    }
+
+    private void assertStats(final ColumnFlowStatsDTO stats, final long arrivals, final long departures,
+                             final long dwellSeconds) {
+        assertEquals(arrivals, stats.arrivals());
+        assertEquals(departures, stats.departures());
+        assertEquals(dwellSeconds, stats.totalDwellSeconds());
+    }
+
+    private long lastEventId() throws SQLException {
+        return new FlowAnalyticsDAO(connection).findLastEventId();
+    }
+
+    private CardEntity createCard(final String title) throws SQLException {
+        return createCard(connection, title);
+    }
+
+    private CardEntity createCard(final Connection on, final String title) throws SQLException {
+        var card = new CardEntity();
+        card.setTitle(title);
+        card.setDescription("Descrição");
+        card.setBoardColumn(columns.get(0));
+        new CardDAO(on).insert(card);
+        return card;
+    }
+
+    private void insertEvent(final CardEntity card, final CardEventTypeEnum type,
+                             final OffsetDateTime at) throws SQLException {
+        insertEvent(connection, card, type, at);
+    }
+
+    private void insertEvent(final Connection on, final CardEntity card, final CardEventTypeEnum type,
+                             final OffsetDateTime at) throws SQLException {
+        new CardEventDAO(on).insert(List.of(new CardEventEntity(card.getId(), type, null, at)));
+    }
+
+    private BoardColumnEntity createColumn(final String name, final BoardColumnKindEnum kind, final int order) {
+        var column = new BoardColumnEntity();
+        column.setBoard(board);
+        column.setName(name);
+        column.setKind(kind);
+        column.setOrder(order);
+        return column;
+    }
+}
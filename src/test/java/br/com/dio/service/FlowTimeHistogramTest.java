@@ -0,0 +1,39 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.FlowTimeBucketDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static br.com.dio.persistence.entity.FlowTimeMetricEnum.LEAD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do FlowTimeHistogram")
+class FlowTimeHistogramTest {
+
+    @Test
+    @DisplayName("Deve responder percentis com erro relativo abaixo de 25%")
+    void shouldAnswerPercentilesWithinBucketError() {
+        // Given
+        var hour = 3_600L;
+        var day = 86_400L;
+        var buckets = List.of(
+                new FlowTimeBucketDTO(1L, LEAD, FlowTimeHistogram.bucketOf(hour), 50),
+                new FlowTimeBucketDTO(1L, LEAD, FlowTimeHistogram.bucketOf(day), 45),
+                new FlowTimeBucketDTO(1L, LEAD, FlowTimeHistogram.bucketOf(7 * day), 5));
+
+        // When
+        var p50 = FlowTimeHistogram.percentile(buckets, 100, 50);
+        var p85 = FlowTimeHistogram.percentile(buckets, 100, 85);
+        var p99 = FlowTimeHistogram.percentile(buckets, 100, 99);
+
+        // Then
+        assertTrue(p50 >= hour && p50 < hour * 1.25);
+        assertTrue(p85 >= day && p85 < day * 1.25);
+        assertTrue(p99 >= 7 * day && p99 < 7 * day * 1.25);
+        assertEquals(0, FlowTimeHistogram.percentile(List.of(), 0, 50));
+    }
+
+}
@@ -0,0 +1,181 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardColumnInfoDTO;
+import br.com.dio.exception.CardBlockedException;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.repository.JdbcBoardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes do GroupCommitExecutor")
+class GroupCommitExecutorTest {
+
+    private static final String URL = "jdbc:h2:mem:group-commit-executor;MODE=MySQL";
+    private static final long WINDOW_MICROS = TimeUnit.SECONDS.toMicros(5);
+
+    private Connection connection;
+    private GroupCommitExecutor executor;
+    private BoardEntity board;
+    private List<BoardColumnEntity> columns;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = newConnection();
+        try (var statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/h2-schema.sql'");
+        }
+        board = new BoardEntity();
+        board.setName("Board de Teste");
+        new BoardDAO(connection).insert(board);
+        columns = List.of(
+                createColumn("A Fazer", BoardColumnKindEnum.INITIAL, 0),
+                createColumn("Em andamento", BoardColumnKindEnum.PENDING, 1),
+                createColumn("Concluído", BoardColumnKindEnum.FINAL, 2),
+                createColumn("Cancelado", BoardColumnKindEnum.CANCEL, 3));
+        new BoardColumnDAO(connection).insert(columns);
+        connection.commit();
+        // a janela longa garante que as operações de cada teste entrem em um único lote
+        executor = new GroupCommitExecutor(this::newConnection, 3, WINDOW_MICROS, 16);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        executor.close();
+        BoardStructureCache.getInstance().invalidateAll();
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Deve desfazer só a operação que falhou no banco e confirmar as outras do lote")
+    void shouldRollbackFailedOperationToItsSavepoint() throws Exception {
+        // Given
+        var existing = createCard("Existente");
+        var columnsInfo = columnsInfo();
+        var missingColumn = new BoardColumnEntity();
+        missingColumn.setId(999L);
+
+        // When
+        var created = executor.submit(service -> service.create(card("Primeiro", columns.get(0))));
+        var rejected = executor.submit(service -> service.createAll(List.of(
+                card("Desfeito", columns.get(0)), card("Sem coluna", missingColumn))));
+        var moved = executor.submit(service -> {
+            service.moveToNextColumn(existing.getId(), columnsInfo);
+            return existing;
+        });
+
+        // Then
+        assertEquals("Primeiro", created.get(5, TimeUnit.SECONDS).getTitle());
+        var failure = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SQLException.class, failure.getCause());
+        moved.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(existing.getId(), created.get().getId()), cardIdsIn(columns.get(0), columns.get(1)));
+        assertEquals(columns.get(1).getId(), new CardDAO(connection).findById(existing.getId()).orElseThrow()
+                .columnId());
+        var stats = executor.getStats();
+        assertEquals(1, stats.batches());
+        assertEquals(1, stats.failedOperations());
+        assertEquals(0, stats.fallbackBatches());
+    }
+
+    @Test
+    @DisplayName("Deve desfazer a operação recusada pelas regras sem afetar as outras do lote")
+    void shouldRollbackRejectedOperationToItsSavepoint() throws Exception {
+        // Given
+        var blocked = createCard("Bloqueado");
+        var free = createCard("Livre");
+        var columnsInfo = columnsInfo();
+
+        // When
+        var block = executor.submit(service -> {
+            service.block(blocked.getId(), "Aguardando cliente", columnsInfo);
+            return null;
+        });
+        var rejected = executor.submit(service -> {
+            service.moveToNextColumn(blocked.getId(), columnsInfo);
+            return null;
+        });
+        var moved = executor.submit(service -> {
+            service.moveToNextColumn(free.getId(), columnsInfo);
+            return null;
+        });
+
+        // Then
+        block.get(5, TimeUnit.SECONDS);
+        var failure = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(CardBlockedException.class, failure.getCause());
+        moved.get(5, TimeUnit.SECONDS);
+        var cardDAO = new CardDAO(connection);
+        var blockedCard = cardDAO.findById(blocked.getId()).orElseThrow();
+        assertTrue(blockedCard.blocked());
+        assertEquals(columns.get(0).getId(), blockedCard.columnId());
+        assertEquals(columns.get(1).getId(), cardDAO.findById(free.getId()).orElseThrow().columnId());
+        assertEquals(1, executor.getStats().batches());
+    }
+
+    private List<Long> cardIdsIn(final BoardColumnEntity... boardColumns) throws SQLException {
+        var repository = new JdbcBoardRepository(connection);
+        var ids = new ArrayList<Long>();
+        for (var column : boardColumns) {
+            repository.findCardsPage(column.getId(), 0L, 10).forEach(c -> ids.add(c.getId()));
+        }
+        ids.sort(Long::compare);
+        return ids;
+    }
+
+    private List<BoardColumnInfoDTO> columnsInfo() throws SQLException {
+        return new BoardQueryService(connection).findStructure(board.getId()).orElseThrow().columnsInfo();
+    }
+
+    private CardEntity createCard(final String title) throws SQLException {
+        var card = new CardDAO(connection).insert(card(title, columns.get(0)));
+        connection.commit();
+        return card;
+    }
+
+    private Connection newConnection() throws SQLException {
+        var created = DriverManager.getConnection(URL);
+        created.setAutoCommit(false);
+        return created;
+    }
+
+    private CardEntity card(final String title, final BoardColumnEntity column) {
+        var card = new CardEntity();
+        card.setTitle(title);
+        card.setDescription("Descrição");
+        card.setBoardColumn(column);
+        return card;
+    }
+
+    private BoardColumnEntity createColumn(final String name, final BoardColumnKindEnum kind, final int order) {
+        var column = new BoardColumnEntity();
+        column.setBoard(board);
+        column.setName(name);
+        column.setKind(kind);
+        column.setOrder(order);
+        return column;
+    }
+}
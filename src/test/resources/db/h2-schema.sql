@@ -0,0 +1,115 @@
+-- Espelho do schema gerado pelas migrações Liquibase, para testes em H2 (MODE=MySQL).
+-- Mantenha sincronizado com src/main/resources/db/changelog/migrations.
+-- Os índices são comparados com os das migrações pelo SchemaIndexParityTest.
+-- Os triggers de cards_amount existem só no MySQL.
+
+CREATE TABLE BOARDS(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE BOARDS_COLUMNS(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    `order` INT NOT NULL,
+    kind VARCHAR(7) NOT NULL,
+    board_id BIGINT NOT NULL,
+    cards_amount INT NOT NULL DEFAULT 0,
+    CONSTRAINT boards__boards_columns_fk FOREIGN KEY (board_id) REFERENCES BOARDS(id) ON DELETE CASCADE,
+    CONSTRAINT id_order_uk UNIQUE (board_id, `order`)
+);
+
+CREATE TABLE CARDS(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    board_column_id BIGINT NOT NULL,
+    blocks_amount INT NOT NULL DEFAULT 0,
+    blocked_seconds BIGINT NOT NULL DEFAULT 0,
+    open_block_id BIGINT NULL,
+    CONSTRAINT boards_columns__cards_fk FOREIGN KEY (board_column_id) REFERENCES BOARDS_COLUMNS(id) ON DELETE CASCADE
+);
+
+CREATE TABLE BLOCKS(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    blocked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    block_reason VARCHAR(255) NOT NULL,
+    unblocked_at TIMESTAMP NULL,
+    unblock_reason VARCHAR(255) NULL,
+    card_id BIGINT NOT NULL,
+    CONSTRAINT cards__blocks_fk FOREIGN KEY (card_id) REFERENCES CARDS(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_blocks_card_unblocked ON BLOCKS (card_id, unblocked_at);
+
+CREATE INDEX idx_cards_column_blocks ON CARDS (board_column_id, blocks_amount, blocked_seconds);
+
+CREATE TABLE CARD_EVENTS(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    card_id BIGINT NOT NULL,
+    type VARCHAR(7) NOT NULL,
+    board_column_id BIGINT NOT NULL,
+    reason VARCHAR(255) NULL,
+    occurred_at TIMESTAMP NOT NULL,
+    CONSTRAINT cards__card_events_fk FOREIGN KEY (card_id) REFERENCES CARDS(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_card_events_card_occurred ON CARD_EVENTS (card_id, occurred_at, id);
+
+CREATE TABLE CARD_FLOW(
+    card_id BIGINT PRIMARY KEY,
+    board_column_id BIGINT NOT NULL,
+    created_at TIMESTAMP NULL,
+    started_at TIMESTAMP NULL,
+    entered_at TIMESTAMP NOT NULL,
+    CONSTRAINT cards__card_flow_fk FOREIGN KEY (card_id) REFERENCES CARDS(id) ON DELETE CASCADE
+);
+
+CREATE TABLE COLUMN_FLOW_STATS(
+    board_column_id BIGINT PRIMARY KEY,
+    arrivals BIGINT NOT NULL DEFAULT 0,
+    departures BIGINT NOT NULL DEFAULT 0,
+    total_dwell_seconds BIGINT NOT NULL DEFAULT 0,
+    max_dwell_seconds BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT boards_columns__column_flow_stats_fk FOREIGN KEY (board_column_id) REFERENCES BOARDS_COLUMNS(id) ON DELETE CASCADE
+);
+
+CREATE TABLE COLUMN_DAILY_FLOW(
+    board_column_id BIGINT NOT NULL,
+    flow_date DATE NOT NULL,
+    board_id BIGINT NOT NULL,
+    arrivals INT NOT NULL DEFAULT 0,
+    departures INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (board_column_id, flow_date),
+    CONSTRAINT boards_columns__column_daily_flow_fk FOREIGN KEY (board_column_id) REFERENCES BOARDS_COLUMNS(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_column_daily_flow_board_date ON COLUMN_DAILY_FLOW (board_id, flow_date);
+
+CREATE TABLE FLOW_TIME_BUCKETS(
+    board_id BIGINT NOT NULL,
+    metric VARCHAR(5) NOT NULL,
+    bucket SMALLINT NOT NULL,
+    cards BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (board_id, metric, bucket),
+    CONSTRAINT boards__flow_time_buckets_fk FOREIGN KEY (board_id) REFERENCES BOARDS(id) ON DELETE CASCADE
+);
+
+CREATE TABLE WRITE_BEHIND_CHECKPOINT(
+    id TINYINT PRIMARY KEY,
+    last_sequence BIGINT NOT NULL
+);
+
+INSERT INTO WRITE_BEHIND_CHECKPOINT (id, last_sequence) VALUES (1, 0);
+
+CREATE TABLE FLOW_AGGREGATION_CHECKPOINT(
+    id TINYINT PRIMARY KEY,
+    last_event_id BIGINT NOT NULL
+);
+
+INSERT INTO FLOW_AGGREGATION_CHECKPOINT (id, last_event_id) VALUES (1, 0);
+
+CREATE TABLE FLOW_AGGREGATION_GAPS(
+    event_id BIGINT PRIMARY KEY,
+    missing_since TIMESTAMP NOT NULL
+);